@@ -0,0 +1,776 @@
+package com.openmc.webapp.backup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openmc.webapp.model.BackupSnapshot;
+import com.openmc.webapp.model.BackupSnapshot.FileEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Incremental backups into a deduplicated repository. A repository holds content-addressed
+ * chunks under {@code chunks/} and one JSON manifest per snapshot under {@code snapshots/}.
+ *
+ * Each backup walks the source directory. Files whose size and modification time match
+ * the previous snapshot reuse its chunk list without being read; the others are split
+ * into content-defined chunks on the worker pool, and only chunks the repository does not
+ * have yet are written.
+ *
+ * Region files are left to {@link RegionFileScanner}, which reads only the parts whose
+ * chunks were saved since the previous snapshot.
+ *
+ * The manifest is written last, so an interrupted backup leaves at most some unreferenced
+ * chunks behind; {@link #pruneChunks} removes those and the chunks of deleted snapshots.
+ */
+public class BackupEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackupEngine.class);
+
+    private static final DateTimeFormatter ID_FORMAT =
+        DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+    private static final Pattern ID_PATTERN = Pattern.compile("\\d{8}-\\d{6}(-\\d+)?");
+
+    private final Path snapshotDirectory;
+    private final ChunkStore chunkStore;
+    private final ObjectMapper objectMapper;
+    private final ContentChunker chunker = new ContentChunker();
+    private final RegionFileScanner regionScanner;
+
+    // Summaries by id, loaded from the manifests on first use
+    private final ReentrantLock lock = new ReentrantLock();
+    private NavigableMap<String, BackupSnapshot> summaries;
+
+    public BackupEngine(Path repositoryDirectory, ObjectMapper objectMapper, int compressionLevel) {
+        this(repositoryDirectory, objectMapper, compressionLevel, true);
+    }
+
+    /**
+     * @param compressionLevel deflate level for new chunks, 0 to store them uncompressed
+     * @param regionAware whether region files are stored by {@link RegionFileScanner}
+     *                    instead of content-defined chunks
+     */
+    public BackupEngine(Path repositoryDirectory, ObjectMapper objectMapper, int compressionLevel,
+                        boolean regionAware) {
+        this.snapshotDirectory = repositoryDirectory.resolve("snapshots");
+        this.chunkStore = new ChunkStore(repositoryDirectory.resolve("chunks"), compressionLevel);
+        this.objectMapper = objectMapper;
+        this.regionScanner = regionAware ? new RegionFileScanner(chunkStore) : null;
+    }
+
+    public ChunkStore getChunkStore() {
+        return chunkStore;
+    }
+
+    /**
+     * Back up every regular file under {@code source}, except those whose path relative
+     * to it matches one of the glob patterns in {@code excludes}. Symbolic links are not
+     * followed. Files are read in parallel on {@code workers}.
+     *
+     * @param quiesced whether the caller paused saving on the server for the backup
+     */
+    public BackupSnapshot backup(Path source, List<String> excludes, ExecutorService workers, boolean quiesced)
+            throws IOException {
+        return backup(source, excludes, workers, quiesced, new BackupProgress());
+    }
+
+    /**
+     * Like {@link #backup(Path, List, ExecutorService, boolean)}, counting files and bytes
+     * in {@code progress} as they are found and stored.
+     */
+    public BackupSnapshot backup(Path source, List<String> excludes, ExecutorService workers, boolean quiesced,
+                                 BackupProgress progress) throws IOException {
+        if (!Files.isDirectory(source)) {
+            throw new IOException("Backup source " + source + " is not a directory");
+        }
+        long started = System.nanoTime();
+        Instant createdAt = Instant.now();
+        BackupSnapshot previous = latestSnapshot();
+        Map<String, FileEntry> previousFiles = new HashMap<>();
+        if (previous != null) {
+            for (FileEntry entry : previous.getFiles()) {
+                previousFiles.put(entry.getPath(), entry);
+            }
+        }
+
+        List<Future<FileResult>> pending = new ArrayList<>();
+        List<PathMatcher> excluded = matchers(excludes);
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                String path = relativePath(source, file);
+                if (attributes.isRegularFile() && !isExcluded(excluded, path)) {
+                    FileEntry unchanged = previousFiles.get(path);
+                    progress.addTotal(1, attributes.size());
+                    pending.add(workers.submit(() -> {
+                        FileResult result = backupFile(file, path, attributes, unchanged);
+                        progress.addDone(1, attributes.size());
+                        return result;
+                    }));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                // The server may delete or rename files while it is running
+                logger.warn("Skipping {} in backup: {}", file, e.getMessage());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        BackupSnapshot snapshot = new BackupSnapshot();
+        snapshot.setCreatedAt(createdAt);
+        snapshot.setQuiesced(quiesced);
+        List<FileEntry> files = new ArrayList<>(pending.size());
+        try {
+            for (Future<FileResult> future : pending) {
+                FileResult result = future.get();
+                if (result == null) {
+                    continue;
+                }
+                files.add(result.entry);
+                snapshot.setTotalBytes(snapshot.getTotalBytes() + result.entry.getSize());
+                snapshot.setBytesRead(snapshot.getBytesRead() + result.bytesRead);
+                if (result.changed) {
+                    snapshot.setChangedFiles(snapshot.getChangedFiles() + 1);
+                }
+                snapshot.setNewChunks(snapshot.getNewChunks() + result.newChunks);
+                snapshot.setNewChunkBytes(snapshot.getNewChunkBytes() + result.newChunkBytes);
+            }
+        } catch (InterruptedException e) {
+            pending.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IOException("Backup was interrupted", e);
+        } catch (ExecutionException e) {
+            pending.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Backup failed: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        files.sort(Comparator.comparing(FileEntry::getPath));
+        snapshot.setFiles(files);
+        snapshot.setFileCount(files.size());
+        snapshot.setDurationMs((System.nanoTime() - started) / 1_000_000);
+        save(snapshot, createdAt);
+        logger.info("Backup {} finished: {} files, {} changed, {} bytes read, {} new chunks ({} bytes) in {} ms",
+            snapshot.getId(), snapshot.getFileCount(), snapshot.getChangedFiles(), snapshot.getBytesRead(),
+            snapshot.getNewChunks(), snapshot.getNewChunkBytes(), snapshot.getDurationMs());
+        return snapshot;
+    }
+
+    private FileResult backupFile(Path file, String path, BasicFileAttributes attributes, FileEntry previous)
+            throws IOException {
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        if (previous != null && previous.getSize() == attributes.size() && previous.getLastModified() == lastModified) {
+            return new FileResult(previous, false, 0, 0, 0);
+        }
+        if (regionScanner != null && RegionFileScanner.isRegionFile(path, attributes.size())) {
+            try {
+                return regionScanner.backup(file, path, lastModified, previous);
+            } catch (NoSuchFileException e) {
+                logger.debug("{} was deleted during the backup", file);
+                return null;
+            }
+        }
+
+        List<String> chunks = new ArrayList<>();
+        long[] counts = new long[3];
+        try (InputStream in = Files.newInputStream(file)) {
+            chunker.split(in, (buffer, offset, length) -> {
+                String hash = ChunkStore.hash(buffer, offset, length);
+                long written = chunkStore.put(hash, buffer, offset, length);
+                if (written > 0) {
+                    counts[1]++;
+                    counts[2] += written;
+                }
+                counts[0] += length;
+                chunks.add(hash);
+            });
+        } catch (NoSuchFileException e) {
+            logger.debug("{} was deleted during the backup", file);
+            return null;
+        }
+        // The size read, which differs from the listed size if the file grew meanwhile
+        return new FileResult(new FileEntry(path, counts[0], lastModified, chunks), true, counts[0],
+            (int) counts[1], counts[2]);
+    }
+
+    private static List<PathMatcher> matchers(List<String> globs) {
+        List<PathMatcher> matchers = new ArrayList<>();
+        for (String glob : globs) {
+            if (!glob.isBlank()) {
+                matchers.add(FileSystems.getDefault().getPathMatcher("glob:" + glob.trim()));
+            }
+        }
+        return matchers;
+    }
+
+    private static boolean isExcluded(List<PathMatcher> matchers, String path) {
+        Path relative = Path.of(path);
+        for (PathMatcher matcher : matchers) {
+            if (matcher.matches(relative)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String relativePath(Path source, Path file) {
+        return source.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+    }
+
+    private void save(BackupSnapshot snapshot, Instant createdAt) throws IOException {
+        lock.lock();
+        try {
+            NavigableMap<String, BackupSnapshot> known = summaries();
+            String base = ID_FORMAT.format(createdAt);
+            String id = base;
+            for (int suffix = 2; known.containsKey(id); suffix++) {
+                id = base + "-" + suffix;
+            }
+            snapshot.setId(id);
+
+            Files.createDirectories(snapshotDirectory);
+            Path file = manifestPath(id);
+            Path temp = Files.createTempFile(snapshotDirectory, id, ".tmp");
+            try {
+                Files.write(temp, objectMapper.writeValueAsBytes(snapshot));
+                try {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            known.put(id, snapshot.summary());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Summaries of all snapshots, newest first.
+     */
+    public List<BackupSnapshot> listSnapshots() throws IOException {
+        lock.lock();
+        try {
+            return new ArrayList<>(summaries().descendingMap().values());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The full snapshot with its file list, or null if there is no such snapshot.
+     */
+    public BackupSnapshot loadSnapshot(String id) throws IOException {
+        if (!ID_PATTERN.matcher(id).matches()) {
+            return null;
+        }
+        Path file = manifestPath(id);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        return objectMapper.readValue(Files.readAllBytes(file), BackupSnapshot.class);
+    }
+
+    private BackupSnapshot latestSnapshot() throws IOException {
+        String latestId;
+        lock.lock();
+        try {
+            NavigableMap<String, BackupSnapshot> known = summaries();
+            latestId = known.isEmpty() ? null : known.lastKey();
+        } finally {
+            lock.unlock();
+        }
+        return latestId == null ? null : loadSnapshot(latestId);
+    }
+
+    private NavigableMap<String, BackupSnapshot> summaries() throws IOException {
+        if (summaries != null) {
+            return summaries;
+        }
+        NavigableMap<String, BackupSnapshot> loaded = new TreeMap<>();
+        for (Path file : manifestFiles()) {
+            try {
+                BackupSnapshot snapshot = objectMapper.readValue(Files.readAllBytes(file), BackupSnapshot.class);
+                loaded.put(snapshot.getId(), snapshot.summary());
+            } catch (IOException e) {
+                logger.error("Could not read backup manifest {}", file, e);
+            }
+        }
+        summaries = loaded;
+        return summaries;
+    }
+
+    private List<Path> manifestFiles() throws IOException {
+        List<Path> manifests = new ArrayList<>();
+        if (Files.isDirectory(snapshotDirectory)) {
+            try (var files = Files.list(snapshotDirectory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    String name = file.getFileName().toString();
+                    if (name.endsWith(".json") && ID_PATTERN.matcher(name.substring(0, name.length() - 5)).matches()) {
+                        manifests.add(file);
+                    }
+                }
+            }
+        }
+        return manifests;
+    }
+
+    private Path manifestPath(String id) {
+        return snapshotDirectory.resolve(id + ".json");
+    }
+
+    /**
+     * Recreate the files of a snapshot under {@code target}, checking every chunk
+     * against its hash and restoring modification times.
+     *
+     * @return the number of files restored
+     * @throws IllegalArgumentException if there is no such snapshot
+     */
+    public int restore(String id, Path target) throws IOException {
+        return restore(id, target, Runnable::run);
+    }
+
+    /**
+     * Like {@link #restore(String, Path)}, writing files in parallel on {@code workers}.
+     */
+    public int restore(String id, Path target, Executor workers) throws IOException {
+        return restore(id, target, workers, new BackupProgress());
+    }
+
+    public int restore(String id, Path target, Executor workers, BackupProgress progress) throws IOException {
+        BackupSnapshot snapshot = requireSnapshot(id);
+        progress.addTotal(snapshot.getFileCount(), snapshot.getTotalBytes());
+        Path root = target.toAbsolutePath().normalize();
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (FileEntry entry : snapshot.getFiles()) {
+            Path file = resolveInside(root, entry.getPath());
+            pending.add(CompletableFuture.runAsync(() -> {
+                try {
+                    restoreFile(entry, file);
+                    progress.addDone(1, entry.getSize());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, workers));
+        }
+        try {
+            for (CompletableFuture<Void> future : pending) {
+                future.join();
+            }
+        } catch (CompletionException e) {
+            pending.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new IOException("Restore failed: " + e.getCause().getMessage(), e.getCause());
+        }
+        logger.info("Restored backup {} to {}", id, root);
+        return snapshot.getFiles().size();
+    }
+
+    private void restoreFile(FileEntry entry, Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (String hash : entry.getChunks()) {
+                chunkStore.copyTo(hash, out);
+            }
+        }
+        Files.setLastModifiedTime(file, FileTime.fromMillis(entry.getLastModified()));
+    }
+
+    /**
+     * Write a snapshot to {@code out} as a tar archive, checking every chunk against its
+     * hash. Wrap {@code out} in a {@link ParallelGzipOutputStream} for a .tar.gz file.
+     *
+     * @throws IllegalArgumentException if there is no such snapshot
+     */
+    public void writeArchive(String id, OutputStream out) throws IOException {
+        writeArchive(id, out, new BackupProgress());
+    }
+
+    public void writeArchive(String id, OutputStream out, BackupProgress progress) throws IOException {
+        BackupSnapshot snapshot = requireSnapshot(id);
+        progress.addTotal(snapshot.getFileCount(), snapshot.getTotalBytes());
+        TarArchiveWriter tar = new TarArchiveWriter(out);
+        for (FileEntry entry : snapshot.getFiles()) {
+            tar.putFile(entry.getPath(), entry.getSize(), entry.getLastModified());
+            for (String hash : entry.getChunks()) {
+                byte[] data = chunkStore.read(hash);
+                tar.write(data, 0, data.length);
+                progress.addDone(0, data.length);
+            }
+            progress.addDone(1, 0);
+        }
+        tar.finish();
+        logger.info("Wrote backup {} as an archive of {} files", id, snapshot.getFileCount());
+    }
+
+    /**
+     * Write the files under {@code source} as they are now as a tar archive, leaving out
+     * paths matching {@code excludes}. The directory is walked and each file copied as it
+     * is reached, with {@link TarArchiveWriter#transferFrom}, so memory use does not grow
+     * with the size of the directory. A file gets the size it had when it was opened;
+     * anything appended later is cut off, and a file that shrinks is padded with zeros.
+     *
+     * @return the number of files written
+     */
+    public static int writeDirectoryArchive(Path source, List<String> excludes, OutputStream out)
+            throws IOException {
+        if (!Files.isDirectory(source)) {
+            throw new IOException("Archive source " + source + " is not a directory");
+        }
+        List<PathMatcher> excluded = matchers(excludes);
+        TarArchiveWriter tar = new TarArchiveWriter(out);
+        int[] files = new int[1];
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                String path = relativePath(source, file);
+                if (!attributes.isRegularFile() || isExcluded(excluded, path)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                FileChannel channel;
+                try {
+                    channel = FileChannel.open(file, StandardOpenOption.READ);
+                } catch (NoSuchFileException e) {
+                    logger.debug("{} was deleted before it was archived", file);
+                    return FileVisitResult.CONTINUE;
+                } catch (AccessDeniedException e) {
+                    logger.warn("Skipping {} in archive: access denied", file);
+                    return FileVisitResult.CONTINUE;
+                }
+                try (channel) {
+                    long size = channel.size();
+                    tar.putFile(path, size, attributes.lastModifiedTime().toMillis());
+                    if (tar.transferFrom(channel, 0, size) < size) {
+                        logger.warn("{} shrank while it was archived; padded with zeros", file);
+                    }
+                }
+                files[0]++;
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                logger.warn("Skipping {} in archive: {}", file, e.getMessage());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        tar.finish();
+        return files[0];
+    }
+
+    /**
+     * Extract the files and directories of a tar archive under {@code target}, keeping
+     * modification times. Entries that would land outside {@code target} are refused.
+     *
+     * @return the number of files extracted
+     */
+    public static int extractArchive(InputStream in, Path target) throws IOException {
+        Path root = target.toAbsolutePath().normalize();
+        TarArchiveReader tar = new TarArchiveReader(in);
+        byte[] buffer = new byte[64 * 1024];
+        int files = 0;
+        TarArchiveReader.Entry entry;
+        while ((entry = tar.next()) != null) {
+            Path path = resolveInside(root, entry.getName());
+            if (entry.isDirectory()) {
+                Files.createDirectories(path);
+                continue;
+            }
+            Files.createDirectories(path.getParent());
+            try (OutputStream out = Files.newOutputStream(path)) {
+                int count;
+                while ((count = tar.read(buffer, 0, buffer.length)) >= 0) {
+                    out.write(buffer, 0, count);
+                }
+            }
+            Files.setLastModifiedTime(path, FileTime.fromMillis(entry.getLastModifiedMillis()));
+            files++;
+        }
+        logger.info("Extracted {} files to {}", files, root);
+        return files;
+    }
+
+    /**
+     * Check that every chunk of a snapshot is present and matches its hash. Each distinct
+     * chunk is read once, streamed through the digest, on {@code workers}.
+     *
+     * @return the number of distinct chunks checked
+     * @throws IllegalArgumentException if there is no such snapshot
+     * @throws IOException naming the first missing or corrupt chunk and how many there are
+     */
+    public int verifySnapshot(String id, Executor workers, BackupProgress progress) throws IOException {
+        BackupSnapshot snapshot = requireSnapshot(id);
+        Set<String> hashes = new LinkedHashSet<>();
+        for (FileEntry entry : snapshot.getFiles()) {
+            hashes.addAll(entry.getChunks());
+        }
+        progress.addTotal(hashes.size(), 0);
+        List<CompletableFuture<String>> pending = new ArrayList<>(hashes.size());
+        for (String hash : hashes) {
+            pending.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    progress.addDone(1, chunkStore.verify(hash));
+                    return null;
+                } catch (NoSuchFileException e) {
+                    return "chunk " + hash + " is missing";
+                } catch (IOException e) {
+                    return e.getMessage();
+                }
+            }, workers));
+        }
+        String firstProblem = null;
+        int problems = 0;
+        for (CompletableFuture<String> future : pending) {
+            String problem = future.join();
+            if (problem != null) {
+                firstProblem = firstProblem == null ? problem : firstProblem;
+                problems++;
+            }
+        }
+        if (problems > 0) {
+            throw new IOException("Backup " + id + " failed verification: " + problems + " of " + hashes.size()
+                + " chunks are missing or corrupt, first: " + firstProblem);
+        }
+        logger.info("Verified backup {}: {} chunks", id, hashes.size());
+        return hashes.size();
+    }
+
+    /**
+     * Delete a snapshot's manifest. Its chunks stay until {@link #pruneChunks}.
+     *
+     * @return false if there was no such snapshot
+     */
+    public boolean deleteSnapshot(String id) throws IOException {
+        if (!ID_PATTERN.matcher(id).matches()) {
+            return false;
+        }
+        lock.lock();
+        try {
+            summaries().remove(id);
+            return Files.deleteIfExists(manifestPath(id));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Delete the snapshots {@code policy} does not keep, with days, weeks and months
+     * taken in {@code zone}.
+     *
+     * @return the ids deleted, newest first
+     */
+    public List<String> applyRetention(RetentionPolicy policy, ZoneId zone) throws IOException {
+        List<BackupSnapshot> snapshots = listSnapshots();
+        Set<String> keep = policy.select(snapshots, zone);
+        List<String> deleted = new ArrayList<>();
+        for (BackupSnapshot snapshot : snapshots) {
+            if (!keep.contains(snapshot.getId()) && deleteSnapshot(snapshot.getId())) {
+                deleted.add(snapshot.getId());
+            }
+        }
+        if (!deleted.isEmpty()) {
+            logger.info("Retention removed {} backups: {}", deleted.size(), deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * Delete chunks no snapshot refers to: mark every chunk named by a manifest, then
+     * sweep the chunk directory. No backup may run meanwhile.
+     *
+     * The manifests are read from disk rather than from the summaries, which leave out
+     * any that could not be parsed; if one cannot be read now, nothing is deleted.
+     *
+     * @throws IOException if a manifest cannot be read, before any chunk is deleted
+     */
+    public ChunkStore.PruneResult pruneChunks(BackupProgress progress) throws IOException {
+        Set<String> referenced = new HashSet<>();
+        for (Path file : manifestFiles()) {
+            BackupSnapshot snapshot;
+            try {
+                snapshot = objectMapper.readValue(Files.readAllBytes(file), BackupSnapshot.class);
+            } catch (NoSuchFileException e) {
+                // Deleted since the listing, so its chunks need not be kept
+                continue;
+            } catch (IOException e) {
+                throw new IOException("Not pruning: could not read backup manifest " + file.getFileName(), e);
+            }
+            for (FileEntry entry : snapshot.getFiles()) {
+                referenced.addAll(entry.getChunks());
+            }
+        }
+        ChunkStore.PruneResult result = chunkStore.prune(referenced::contains, progress);
+        logger.info("Pruned {} unreferenced chunks ({} bytes), {} kept", result.getDeleted(),
+            result.getBytesFreed(), result.getKept());
+        return result;
+    }
+
+    /**
+     * Read a .tar.gz archive end to end in one streaming pass: every byte of the file goes
+     * through a SHA-256 digest, every gzip member is decompressed and checked against its
+     * CRC, and every tar header and entry is read. Nothing is written and the archive is
+     * never held in memory.
+     *
+     * @return the SHA-256 of the archive file, as lowercase hex
+     * @throws IOException if the archive is truncated or corrupt
+     */
+    public static String verifyArchive(Path archive, ExecutorService pool, BackupProgress progress)
+            throws IOException {
+        MessageDigest digest = ChunkStore.sha256();
+        progress.addTotal(1, Files.size(archive));
+        try (InputStream file = new DigestingInputStream(
+                new BufferedInputStream(Files.newInputStream(archive), 1024 * 1024), digest, progress);
+             InputStream in = new ParallelGzipInputStream(file, pool)) {
+            TarArchiveReader tar = new TarArchiveReader(in);
+            byte[] buffer = new byte[64 * 1024];
+            while (tar.next() != null) {
+                while (tar.read(buffer, 0, buffer.length) >= 0) {
+                    // Reading is the check
+                }
+            }
+            // The end-of-archive blocks and anything after them count towards the checksum
+            while (in.read(buffer) >= 0) {
+                // Drain
+            }
+            while (file.read(buffer) >= 0) {
+                // Drain
+            }
+        }
+        progress.addDone(1, 0);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Feeds what is read through a digest and counts it as progress.
+     */
+    private static class DigestingInputStream extends FilterInputStream {
+        private final MessageDigest digest;
+        private final BackupProgress progress;
+
+        DigestingInputStream(InputStream in, MessageDigest digest, BackupProgress progress) {
+            super(in);
+            this.digest = digest;
+            this.progress = progress;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) {
+                digest.update((byte) b);
+                progress.addDone(0, 1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int count = in.read(buffer, offset, length);
+            if (count > 0) {
+                digest.update(buffer, offset, count);
+                progress.addDone(0, count);
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(long count) throws IOException {
+            // Skipped bytes must still be digested
+            byte[] buffer = new byte[(int) Math.min(count, 8192)];
+            int read = read(buffer, 0, buffer.length);
+            return Math.max(read, 0);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+
+    private BackupSnapshot requireSnapshot(String id) throws IOException {
+        BackupSnapshot snapshot = loadSnapshot(id);
+        if (snapshot == null) {
+            throw new IllegalArgumentException("No backup snapshot " + id);
+        }
+        return snapshot;
+    }
+
+    private static Path resolveInside(Path root, String name) throws IOException {
+        Path path = root.resolve(name).normalize();
+        if (!path.startsWith(root)) {
+            throw new IOException("Refusing to write outside " + root + ": " + name);
+        }
+        return path;
+    }
+
+    /**
+     * One file's manifest entry and what storing it cost.
+     */
+    static class FileResult {
+        private final FileEntry entry;
+        private final boolean changed;
+        private final long bytesRead;
+        private final int newChunks;
+        private final long newChunkBytes;
+
+        FileResult(FileEntry entry, boolean changed, long bytesRead, int newChunks, long newChunkBytes) {
+            this.entry = entry;
+            this.changed = changed;
+            this.bytesRead = bytesRead;
+            this.newChunks = newChunks;
+            this.newChunkBytes = newChunkBytes;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.openmc.webapp.backup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Live progress of one backup operation, updated by the threads doing the work and read
+ * by the status endpoint. An operation runs in phases such as backup, verify and prune;
+ * counters restart with each phase and each finished phase's duration is kept.
+ */
+public class BackupProgress {
+
+    private final long startedNanos = System.nanoTime();
+    private volatile String phase = "starting";
+    private volatile long phaseStartedNanos = startedNanos;
+    private volatile long finishedNanos;
+    private final AtomicLong itemsTotal = new AtomicLong();
+    private final AtomicLong itemsDone = new AtomicLong();
+    private final AtomicLong bytesTotal = new AtomicLong();
+    private final AtomicLong bytesDone = new AtomicLong();
+    private final AtomicLong bytesProcessed = new AtomicLong();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Long> phaseDurationsMs = new LinkedHashMap<>();
+
+    /**
+     * End the current phase, if any, and start counting a new one.
+     */
+    public void startPhase(String name) {
+        lock.lock();
+        try {
+            endPhase();
+            phase = name;
+            itemsTotal.set(0);
+            itemsDone.set(0);
+            bytesTotal.set(0);
+            bytesDone.set(0);
+            phaseStartedNanos = System.nanoTime();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * End the last phase.
+     */
+    public void finish() {
+        lock.lock();
+        try {
+            endPhase();
+            phase = "finished";
+            finishedNanos = System.nanoTime();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void endPhase() {
+        if (!"starting".equals(phase) && !"finished".equals(phase)) {
+            phaseDurationsMs.merge(phase, (System.nanoTime() - phaseStartedNanos) / 1_000_000, Long::sum);
+        }
+    }
+
+    /**
+     * Work discovered in this phase. Items are files when backing up, restoring or
+     * archiving, and chunks when verifying or pruning.
+     */
+    public void addTotal(long items, long bytes) {
+        itemsTotal.addAndGet(items);
+        bytesTotal.addAndGet(bytes);
+    }
+
+    public void addDone(long items, long bytes) {
+        itemsDone.addAndGet(items);
+        bytesDone.addAndGet(bytes);
+        bytesProcessed.addAndGet(bytes);
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    public long getItemsTotal() {
+        return itemsTotal.get();
+    }
+
+    public long getItemsDone() {
+        return itemsDone.get();
+    }
+
+    public long getBytesTotal() {
+        return bytesTotal.get();
+    }
+
+    public long getBytesDone() {
+        return bytesDone.get();
+    }
+
+    /**
+     * Bytes processed across all phases.
+     */
+    public long getBytesProcessed() {
+        return bytesProcessed.get();
+    }
+
+    public boolean isFinished() {
+        return finishedNanos != 0;
+    }
+
+    public long getElapsedMs() {
+        return ((isFinished() ? finishedNanos : System.nanoTime()) - startedNanos) / 1_000_000;
+    }
+
+    /**
+     * Bytes per second processed in the current phase, or over the whole operation once
+     * it has finished.
+     */
+    public long getThroughputBytesPerSecond() {
+        long nanos = isFinished() ? finishedNanos - startedNanos : System.nanoTime() - phaseStartedNanos;
+        long bytes = isFinished() ? bytesProcessed.get() : bytesDone.get();
+        return nanos > 0 ? (long) (bytes / (nanos / 1e9)) : 0;
+    }
+
+    /**
+     * How long each finished phase took, in the order they ran.
+     */
+    public Map<String, Long> getPhaseDurationsMs() {
+        lock.lock();
+        try {
+            return new LinkedHashMap<>(phaseDurationsMs);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.openmc.webapp.backup;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Content-addressed chunk files, stored once under {@code <sha-256>} however many files
+ * and snapshots use them. Each file starts with one byte saying whether the rest is the
+ * chunk as is or deflated; chunks that barely compress, such as the already compressed
+ * chunk data in region files, are kept as is.
+ */
+public class ChunkStore {
+
+    private static final int STORED = 0;
+    private static final int DEFLATED = 1;
+    private static final HexFormat HEX = HexFormat.of();
+    private static final int HASH_LENGTH = 64;
+
+    private final Path directory;
+    private final int compressionLevel;
+    // Chunks known to exist or being written by another worker in this process
+    private final Set<String> known = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param compressionLevel deflate level 1-9, or 0 to store chunks uncompressed
+     */
+    public ChunkStore(Path directory, int compressionLevel) {
+        this.directory = directory;
+        this.compressionLevel = compressionLevel;
+    }
+
+    public static String hash(byte[] data, int offset, int length) {
+        MessageDigest digest = sha256();
+        digest.update(data, offset, length);
+        return HEX.formatHex(digest.digest());
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    Path pathOf(String hash) {
+        return directory.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    public boolean contains(String hash) {
+        return known.contains(hash) || Files.exists(pathOf(hash));
+    }
+
+    /**
+     * Store a chunk unless it is already stored.
+     *
+     * @return the bytes written to disk, or 0 if the chunk was already there
+     */
+    public long put(String hash, byte[] data, int offset, int length) throws IOException {
+        if (!known.add(hash)) {
+            return 0;
+        }
+        Path path = pathOf(hash);
+        if (Files.exists(path)) {
+            return 0;
+        }
+        try {
+            byte[] encoded = encode(data, offset, length);
+            Files.createDirectories(path.getParent());
+            Path temp = Files.createTempFile(path.getParent(), hash, ".tmp");
+            try {
+                Files.write(temp, encoded);
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return encoded.length;
+        } catch (IOException | RuntimeException e) {
+            known.remove(hash);
+            throw e;
+        }
+    }
+
+    private byte[] encode(byte[] data, int offset, int length) throws IOException {
+        if (compressionLevel > 0) {
+            ByteArrayOutputStream deflated = new ByteArrayOutputStream(length / 2 + 16);
+            deflated.write(DEFLATED);
+            Deflater deflater = new Deflater(compressionLevel);
+            try (DeflaterOutputStream out = new DeflaterOutputStream(deflated, deflater)) {
+                out.write(data, offset, length);
+            } finally {
+                deflater.end();
+            }
+            // Not worth inflating on restore unless it saves at least a tenth
+            if (deflated.size() < length - length / 10) {
+                return deflated.toByteArray();
+            }
+        }
+        byte[] stored = new byte[length + 1];
+        stored[0] = STORED;
+        System.arraycopy(data, offset, stored, 1, length);
+        return stored;
+    }
+
+    /**
+     * Read a chunk and check it against its hash.
+     *
+     * @throws IOException if the chunk is missing or its content does not match its hash
+     */
+    public byte[] read(String hash) throws IOException {
+        byte[] encoded = Files.readAllBytes(pathOf(hash));
+        byte[] data;
+        if (encoded.length > 0 && encoded[0] == DEFLATED) {
+            try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(encoded, 1, encoded.length - 1))) {
+                data = in.readAllBytes();
+            }
+        } else if (encoded.length > 0 && encoded[0] == STORED) {
+            data = Arrays.copyOfRange(encoded, 1, encoded.length);
+        } else {
+            throw new IOException("Chunk " + hash + " has an unknown format");
+        }
+        if (!hash(data, 0, data.length).equals(hash)) {
+            throw new IOException("Chunk " + hash + " is corrupt");
+        }
+        return data;
+    }
+
+    public void copyTo(String hash, OutputStream out) throws IOException {
+        out.write(read(hash));
+    }
+
+    /**
+     * Check a stored chunk against its hash, streaming it through the digest rather than
+     * reading it into memory.
+     *
+     * @return the size of the chunk file
+     * @throws IOException if the chunk is missing or its content does not match its hash
+     */
+    public long verify(String hash) throws IOException {
+        Path path = pathOf(hash);
+        MessageDigest digest = sha256();
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(path))) {
+            int format = file.read();
+            InputStream content;
+            if (format == DEFLATED) {
+                content = new InflaterInputStream(file);
+            } else if (format == STORED) {
+                content = file;
+            } else {
+                throw new IOException("Chunk " + hash + " has an unknown format");
+            }
+            byte[] buffer = new byte[16 * 1024];
+            int count;
+            while ((count = content.read(buffer)) >= 0) {
+                digest.update(buffer, 0, count);
+            }
+        }
+        if (!HEX.formatHex(digest.digest()).equals(hash)) {
+            throw new IOException("Chunk " + hash + " is corrupt");
+        }
+        return Files.size(path);
+    }
+
+    /**
+     * Delete every stored chunk {@code referenced} rejects, along with temporary files
+     * left by interrupted writes. Must not run while chunks are being stored: a chunk
+     * written for a snapshot whose manifest is not saved yet looks unreferenced.
+     */
+    public PruneResult prune(Predicate<String> referenced, BackupProgress progress) throws IOException {
+        PruneResult result = new PruneResult();
+        if (!Files.isDirectory(directory)) {
+            return result;
+        }
+        try (DirectoryStream<Path> prefixes = Files.newDirectoryStream(directory)) {
+            for (Path prefix : prefixes) {
+                if (!Files.isDirectory(prefix)) {
+                    continue;
+                }
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(prefix)) {
+                    for (Path file : files) {
+                        String name = file.getFileName().toString();
+                        boolean chunk = name.length() == HASH_LENGTH && !name.contains(".");
+                        long size = Files.size(file);
+                        progress.addDone(1, size);
+                        if (chunk && referenced.test(name)) {
+                            result.kept++;
+                            continue;
+                        }
+                        if (chunk || name.endsWith(".tmp")) {
+                            known.remove(name);
+                            Files.deleteIfExists(file);
+                            result.deleted++;
+                            result.bytesFreed += size;
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * What a {@link #prune} removed.
+     */
+    public static class PruneResult {
+        private long kept;
+        private long deleted;
+        private long bytesFreed;
+
+        public long getKept() {
+            return kept;
+        }
+
+        public long getDeleted() {
+            return deleted;
+        }
+
+        public long getBytesFreed() {
+            return bytesFreed;
+        }
+    }
+}
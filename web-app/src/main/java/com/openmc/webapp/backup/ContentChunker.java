@@ -0,0 +1,92 @@
+package com.openmc.webapp.backup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.SplittableRandom;
+
+/**
+ * Splits a stream into content-defined chunks. A boundary falls wherever a gear
+ * rolling hash over the last bytes matches a mask, so editing part of a file only
+ * changes the chunks around the edit and every other chunk keeps its hash.
+ */
+public class ContentChunker {
+
+    public static final int DEFAULT_MIN_SIZE = 16 * 1024;
+    public static final int DEFAULT_AVERAGE_SIZE = 64 * 1024;
+    public static final int DEFAULT_MAX_SIZE = 256 * 1024;
+
+    // Fixed seed: boundaries, and so chunk hashes, must be identical across runs
+    private static final long[] GEAR = new long[256];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x6f70656e6d63L);
+        for (int i = 0; i < GEAR.length; i++) {
+            GEAR[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * Receives each chunk. The buffer is reused once the call returns.
+     */
+    @FunctionalInterface
+    public interface ChunkConsumer {
+        void accept(byte[] buffer, int offset, int length) throws IOException;
+    }
+
+    private final int minSize;
+    private final int maxSize;
+    private final long mask;
+
+    public ContentChunker() {
+        this(DEFAULT_MIN_SIZE, DEFAULT_AVERAGE_SIZE, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param averageSize expected chunk size; rounded down to a power of two
+     */
+    public ContentChunker(int minSize, int averageSize, int maxSize) {
+        if (minSize <= 0 || minSize > averageSize || averageSize > maxSize) {
+            throw new IllegalArgumentException("Chunk sizes must satisfy 0 < min <= average <= max");
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.mask = Integer.highestOneBit(averageSize) - 1L;
+    }
+
+    public void split(InputStream in, ChunkConsumer consumer) throws IOException {
+        byte[] buffer = new byte[maxSize];
+        int filled = 0;
+        boolean eof = false;
+        while (true) {
+            while (!eof && filled < maxSize) {
+                int read = in.read(buffer, filled, maxSize - filled);
+                if (read < 0) {
+                    eof = true;
+                } else {
+                    filled += read;
+                }
+            }
+            if (filled == 0) {
+                return;
+            }
+            int cut = findBoundary(buffer, filled);
+            consumer.accept(buffer, 0, cut);
+            System.arraycopy(buffer, cut, buffer, 0, filled - cut);
+            filled -= cut;
+        }
+    }
+
+    private int findBoundary(byte[] buffer, int length) {
+        if (length <= minSize) {
+            return length;
+        }
+        long hash = 0;
+        for (int i = minSize; i < length; i++) {
+            hash = (hash << 1) + GEAR[buffer[i] & 0xff];
+            if ((hash & mask) == 0) {
+                return i + 1;
+            }
+        }
+        return length;
+    }
+}
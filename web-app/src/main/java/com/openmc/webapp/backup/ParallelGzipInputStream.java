@@ -0,0 +1,185 @@
+package com.openmc.webapp.backup;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+/**
+ * Reads gzip files, decompressing in parallel where the format allows. Members written by
+ * {@link ParallelGzipOutputStream} say how long they are, so they are read ahead and
+ * inflated on the pool while earlier ones are consumed. At the first member without that
+ * length, such as any file made by gzip itself, the rest is read by a plain
+ * {@link GZIPInputStream} on the calling thread.
+ */
+public class ParallelGzipInputStream extends InputStream {
+
+    // Larger members than any block size in use are refused rather than buffered
+    private static final int MAX_MEMBER_SIZE = 64 * 1024 * 1024;
+
+    private final InputStream in;
+    private final ExecutorService pool;
+    private final int readAhead;
+    private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+    private InputStream sequential;
+    private boolean sourceDone;
+    private byte[] current = new byte[0];
+    private int position;
+
+    public ParallelGzipInputStream(InputStream in, ExecutorService pool) {
+        this(in, pool, 2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelGzipInputStream(InputStream in, ExecutorService pool, int readAhead) {
+        this.in = in;
+        this.pool = pool;
+        this.readAhead = Math.max(1, readAhead);
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        while (position == current.length) {
+            if (!nextBlock()) {
+                return sequential != null ? sequential.read(buffer, offset, length) : -1;
+            }
+        }
+        int count = Math.min(length, current.length - position);
+        System.arraycopy(current, position, buffer, offset, count);
+        position += count;
+        return count;
+    }
+
+    /**
+     * Move to the next inflated member; false once only the sequential reader, if any, is left.
+     */
+    private boolean nextBlock() throws IOException {
+        while (!sourceDone && pending.size() < readAhead) {
+            readMember();
+        }
+        if (pending.isEmpty()) {
+            return false;
+        }
+        try {
+            current = pending.removeFirst().get();
+            position = 0;
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while decompressing");
+        } catch (ExecutionException e) {
+            // Fork-join pools wrap what the task threw
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof IOException io) {
+                    throw io;
+                }
+            }
+            throw new IOException("Decompression failed", e.getCause());
+        }
+    }
+
+    private void readMember() throws IOException {
+        byte[] header = new byte[ParallelGzipOutputStream.HEADER_SIZE];
+        int read = in.readNBytes(header, 0, header.length);
+        if (read == 0) {
+            sourceDone = true;
+            return;
+        }
+        int memberSize = read == header.length ? indexedMemberSize(header) : -1;
+        if (memberSize < 0) {
+            // Not one of ours: hand the rest, starting with this header, to a plain reader
+            sourceDone = true;
+            sequential = new GZIPInputStream(new SequenceInputStream(new ByteArrayInputStream(header, 0, read), in));
+            return;
+        }
+        if (memberSize < header.length + ParallelGzipOutputStream.TRAILER_SIZE || memberSize > MAX_MEMBER_SIZE) {
+            throw new IOException("Corrupt gzip member length " + memberSize);
+        }
+        byte[] body = new byte[memberSize - header.length];
+        if (in.readNBytes(body, 0, body.length) != body.length) {
+            throw new EOFException("Unexpected end of gzip stream");
+        }
+        pending.add(pool.submit(() -> inflate(body)));
+    }
+
+    private static int indexedMemberSize(byte[] header) {
+        ByteBuffer buffer = ByteBuffer.wrap(header).order(ByteOrder.LITTLE_ENDIAN);
+        boolean indexed = (header[0] & 0xff) == 0x1f && (header[1] & 0xff) == 0x8b && header[2] == 8
+            && header[3] == ParallelGzipOutputStream.FLAG_EXTRA
+            && buffer.getShort(10) == 8
+            && header[12] == ParallelGzipOutputStream.SUBFIELD_ID1 && header[13] == ParallelGzipOutputStream.SUBFIELD_ID2
+            && buffer.getShort(14) == 4;
+        return indexed ? buffer.getInt(16) : -1;
+    }
+
+    private static byte[] inflate(byte[] body) throws IOException {
+        ByteBuffer trailer = ByteBuffer.wrap(body, body.length - ParallelGzipOutputStream.TRAILER_SIZE,
+            ParallelGzipOutputStream.TRAILER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        int expectedCrc = trailer.getInt();
+        int size = trailer.getInt();
+        if (size < 0 || size > MAX_MEMBER_SIZE) {
+            throw new IOException("Corrupt gzip member size " + Integer.toUnsignedString(size));
+        }
+        byte[] data = new byte[size];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(body, 0, body.length - ParallelGzipOutputStream.TRAILER_SIZE);
+            int inflated = 0;
+            byte[] spare = new byte[1];
+            while (!inflater.finished()) {
+                int count = inflated < size ? inflater.inflate(data, inflated, size - inflated) : inflater.inflate(spare);
+                if (count == 0 && !inflater.finished() && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Corrupt gzip member: truncated");
+                }
+                if (inflated == size && count > 0) {
+                    throw new IOException("Corrupt gzip member: longer than its size");
+                }
+                inflated += count;
+            }
+            if (inflated != size) {
+                throw new IOException("Corrupt gzip member: shorter than its size");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt gzip member", e);
+        } finally {
+            inflater.end();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        if ((int) crc.getValue() != expectedCrc) {
+            throw new IOException("Corrupt gzip member: CRC mismatch");
+        }
+        return data;
+    }
+
+    @Override
+    public void close() throws IOException {
+        pending.forEach(future -> future.cancel(true));
+        pending.clear();
+        if (sequential != null) {
+            sequential.close();
+        }
+        in.close();
+    }
+}
@@ -0,0 +1,206 @@
+package com.openmc.webapp.backup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Gzip output compressed on many cores. The stream is cut into fixed-size blocks, each
+ * block is compressed on the pool as a complete gzip member, and members are written in
+ * order. Concatenated members are a valid gzip file that gzip, zcat and
+ * {@link java.util.zip.GZIPInputStream} read as one stream.
+ *
+ * Every member's header carries an extra field with the member's length, like BGZF, so
+ * {@link ParallelGzipInputStream} can find the next member without inflating this one
+ * and decompress members in parallel too. Other readers ignore the field.
+ */
+public class ParallelGzipOutputStream extends OutputStream {
+
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    static final byte SUBFIELD_ID1 = 'O';
+    static final byte SUBFIELD_ID2 = 'M';
+    // Fixed header, XLEN, subfield id and length, member length
+    static final int HEADER_SIZE = 10 + 2 + 4 + 4;
+    static final int TRAILER_SIZE = 8;
+    static final int FLAG_EXTRA = 4;
+
+    private final OutputStream out;
+    private final ExecutorService pool;
+    private final int level;
+    private final int blockSize;
+    private final int maxPending;
+    private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+    private byte[] block;
+    private int filled;
+    private boolean wroteMember;
+    private boolean finished;
+
+    public ParallelGzipOutputStream(OutputStream out, ExecutorService pool, int level) {
+        this(out, pool, level, DEFAULT_BLOCK_SIZE, 2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param maxPending blocks compressed or waiting to be written before writes block,
+     *                   which bounds memory to about twice this many blocks
+     */
+    public ParallelGzipOutputStream(OutputStream out, ExecutorService pool, int level, int blockSize, int maxPending) {
+        this.out = out;
+        this.pool = pool;
+        this.level = level;
+        this.blockSize = blockSize;
+        this.maxPending = Math.max(1, maxPending);
+        this.block = new byte[blockSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] data, int offset, int length) throws IOException {
+        if (finished) {
+            throw new IOException("Stream is finished");
+        }
+        while (length > 0) {
+            int copied = Math.min(length, blockSize - filled);
+            System.arraycopy(data, offset, block, filled, copied);
+            filled += copied;
+            offset += copied;
+            length -= copied;
+            if (filled == blockSize) {
+                submitBlock();
+            }
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        byte[] data = block;
+        int length = filled;
+        block = new byte[blockSize];
+        filled = 0;
+        pending.add(pool.submit(() -> compress(data, length, level)));
+        while (pending.size() > maxPending) {
+            writeOldest();
+        }
+    }
+
+    private void writeOldest() throws IOException {
+        Future<byte[]> next = pending.removeFirst();
+        try {
+            out.write(next.get());
+            wroteMember = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing");
+        } catch (ExecutionException e) {
+            throw new IOException("Compression failed", e.getCause());
+        }
+    }
+
+    /**
+     * Compress the data written so far, cutting the current block short, and flush it.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (filled > 0) {
+            submitBlock();
+        }
+        while (!pending.isEmpty()) {
+            writeOldest();
+        }
+        out.flush();
+    }
+
+    /**
+     * Write all remaining data without closing the underlying stream.
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        try {
+            if (filled > 0) {
+                submitBlock();
+            }
+            while (!pending.isEmpty()) {
+                writeOldest();
+            }
+            if (!wroteMember) {
+                // An empty gzip file still needs one member
+                out.write(compress(new byte[0], 0, level));
+            }
+            out.flush();
+        } finally {
+            finished = true;
+            pending.forEach(future -> future.cancel(true));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+
+    static byte[] compress(byte[] data, int length, int level) {
+        ByteArrayOutputStream member = new ByteArrayOutputStream(length / 2 + HEADER_SIZE + TRAILER_SIZE + 64);
+        member.write(new byte[HEADER_SIZE], 0, HEADER_SIZE);
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+            byte[] buffer = new byte[64 * 1024];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                member.write(buffer, 0, count);
+            }
+        } finally {
+            deflater.end();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, length);
+        writeInt(member, (int) crc.getValue());
+        writeInt(member, length);
+
+        byte[] bytes = member.toByteArray();
+        bytes[0] = (byte) 0x1f;
+        bytes[1] = (byte) 0x8b;
+        bytes[2] = Deflater.DEFLATED;
+        bytes[3] = FLAG_EXTRA;
+        // MTIME 0 and XFL 0 as set, OS 255 (unknown)
+        bytes[9] = (byte) 0xff;
+        bytes[10] = 8;
+        bytes[12] = SUBFIELD_ID1;
+        bytes[13] = SUBFIELD_ID2;
+        bytes[14] = 4;
+        putInt(bytes, 16, bytes.length);
+        return bytes;
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+
+    private static void putInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) value;
+        bytes[offset + 1] = (byte) (value >>> 8);
+        bytes[offset + 2] = (byte) (value >>> 16);
+        bytes[offset + 3] = (byte) (value >>> 24);
+    }
+}
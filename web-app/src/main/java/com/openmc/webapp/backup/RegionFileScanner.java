@@ -0,0 +1,180 @@
+package com.openmc.webapp.backup;
+
+import com.openmc.webapp.model.BackupSnapshot.FileEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Backs up Minecraft region files (.mca, used for terrain, entities and POIs in every
+ * dimension) without reading the parts that did not change.
+ *
+ * A region file starts with an 8 KB header: a table of where each of its 1024 chunks
+ * lives, as a run of 4 KB sectors, and a table of when each chunk was last saved. Data is
+ * rewritten in place or moved to free sectors, never shifted. So the file is stored as
+ * the header followed by fixed, sector-aligned extents, and comparing the memory-mapped
+ * header with the previous snapshot's tells which extents hold chunks that were saved,
+ * moved or freed since. Only those extents are read; the others keep their previous hash.
+ */
+public class RegionFileScanner {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegionFileScanner.class);
+
+    /** The manifest layout of files stored by this scanner. */
+    public static final String LAYOUT = "region";
+
+    static final int SECTOR_SIZE = 4096;
+    static final int HEADER_SIZE = 2 * SECTOR_SIZE;
+    static final int EXTENT_SIZE = 16 * SECTOR_SIZE;
+    private static final int CHUNKS = 1024;
+
+    private final ChunkStore chunkStore;
+
+    public RegionFileScanner(ChunkStore chunkStore) {
+        this.chunkStore = chunkStore;
+    }
+
+    /**
+     * Whether a file can be stored by this scanner: a region file with a complete header.
+     */
+    public static boolean isRegionFile(String path, long size) {
+        return path.endsWith(".mca") && size >= HEADER_SIZE;
+    }
+
+    /**
+     * Store a region file, reusing extents of {@code previous} that the header shows
+     * unchanged. Without a previous region-layout entry, or if its header cannot be read,
+     * every extent is read.
+     */
+    BackupEngine.FileResult backup(Path file, String path, long lastModified, FileEntry previous) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            byte[] header = new byte[HEADER_SIZE];
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            mapped.get(header);
+
+            BitSet dirtySectors = null;
+            if (previous != null && LAYOUT.equals(previous.getLayout()) && !previous.getChunks().isEmpty()) {
+                byte[] previousHeader = readPreviousHeader(previous.getChunks().get(0), path);
+                if (previousHeader != null) {
+                    dirtySectors = changedSectors(previousHeader, header);
+                }
+            }
+
+            List<String> chunks = new ArrayList<>();
+            long bytesRead = HEADER_SIZE;
+            int newChunks = 0;
+            long newChunkBytes = 0;
+
+            String headerHash = ChunkStore.hash(header, 0, header.length);
+            long written = chunkStore.put(headerHash, header, 0, header.length);
+            if (written > 0) {
+                newChunks++;
+                newChunkBytes += written;
+            }
+            chunks.add(headerHash);
+
+            ByteBuffer extent = ByteBuffer.allocate(EXTENT_SIZE);
+            int extents = extentCount(size);
+            for (int index = 0; index < extents; index++) {
+                long start = HEADER_SIZE + (long) index * EXTENT_SIZE;
+                int length = (int) Math.min(EXTENT_SIZE, size - start);
+                if (dirtySectors != null && isReusable(previous, index, length, dirtySectors)) {
+                    chunks.add(previous.getChunks().get(index + 1));
+                    continue;
+                }
+                extent.clear().limit(length);
+                while (extent.hasRemaining()) {
+                    if (channel.read(extent, start + extent.position()) < 0) {
+                        throw new IOException(path + " was truncated during the backup");
+                    }
+                }
+                bytesRead += length;
+                String hash = ChunkStore.hash(extent.array(), 0, length);
+                written = chunkStore.put(hash, extent.array(), 0, length);
+                if (written > 0) {
+                    newChunks++;
+                    newChunkBytes += written;
+                }
+                chunks.add(hash);
+            }
+
+            FileEntry entry = new FileEntry(path, size, lastModified, chunks);
+            entry.setLayout(LAYOUT);
+            return new BackupEngine.FileResult(entry, true, bytesRead, newChunks, newChunkBytes);
+        }
+    }
+
+    private byte[] readPreviousHeader(String hash, String path) {
+        try {
+            byte[] header = chunkStore.read(hash);
+            return header.length == HEADER_SIZE ? header : null;
+        } catch (IOException e) {
+            logger.debug("Reading all of {}: previous header unavailable: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    private static int extentCount(long size) {
+        return (int) ((size - HEADER_SIZE + EXTENT_SIZE - 1) / EXTENT_SIZE);
+    }
+
+    /**
+     * An extent can be reused if the previous snapshot had it at full length and none
+     * of its sectors belong to a chunk that changed.
+     */
+    private static boolean isReusable(FileEntry previous, int index, int length, BitSet dirtySectors) {
+        if (index + 1 >= previous.getChunks().size()) {
+            return false;
+        }
+        long start = HEADER_SIZE + (long) index * EXTENT_SIZE;
+        if (Math.min(EXTENT_SIZE, previous.getSize() - start) != length) {
+            return false;
+        }
+        int firstSector = (int) (start / SECTOR_SIZE);
+        int endSector = firstSector + (length + SECTOR_SIZE - 1) / SECTOR_SIZE;
+        int dirty = dirtySectors.nextSetBit(firstSector);
+        return dirty < 0 || dirty >= endSector;
+    }
+
+    /**
+     * Sectors, counted from the start of the file, of every chunk whose location or save
+     * time differs between the two headers, at both its old and its new location.
+     */
+    static BitSet changedSectors(byte[] previousHeader, byte[] currentHeader) {
+        ByteBuffer before = ByteBuffer.wrap(previousHeader);
+        ByteBuffer after = ByteBuffer.wrap(currentHeader);
+        BitSet dirty = new BitSet();
+        for (int i = 0; i < CHUNKS; i++) {
+            int oldLocation = before.getInt(i * 4);
+            int newLocation = after.getInt(i * 4);
+            int oldTimestamp = before.getInt(SECTOR_SIZE + i * 4);
+            int newTimestamp = after.getInt(SECTOR_SIZE + i * 4);
+            if (oldLocation != newLocation || oldTimestamp != newTimestamp) {
+                markSectors(dirty, oldLocation);
+                markSectors(dirty, newLocation);
+            }
+        }
+        return dirty;
+    }
+
+    /**
+     * A location is a 3 byte sector offset followed by a 1 byte sector count.
+     */
+    private static void markSectors(BitSet dirty, int location) {
+        int offset = location >>> 8;
+        int count = location & 0xff;
+        if (offset > 0 && count > 0) {
+            dirty.set(offset, offset + count);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.openmc.webapp.backup;
+
+import com.openmc.webapp.model.BackupSnapshot;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Grandfather-father-son retention: the newest snapshot of each of the last {@code daily}
+ * days, {@code weekly} ISO weeks and {@code monthly} months that have snapshots is kept,
+ * and so is the newest snapshot overall. A snapshot kept by several rules counts for each.
+ */
+public class RetentionPolicy {
+
+    private final int daily;
+    private final int weekly;
+    private final int monthly;
+
+    public RetentionPolicy(int daily, int weekly, int monthly) {
+        this.daily = Math.max(0, daily);
+        this.weekly = Math.max(0, weekly);
+        this.monthly = Math.max(0, monthly);
+    }
+
+    /**
+     * Whether the policy removes anything; with all counts at 0 every snapshot is kept.
+     */
+    public boolean isEnabled() {
+        return daily + weekly + monthly > 0;
+    }
+
+    /**
+     * The ids of the snapshots to keep, with dates taken in {@code zone}.
+     */
+    public Set<String> select(List<BackupSnapshot> snapshots, ZoneId zone) {
+        List<BackupSnapshot> newestFirst = new ArrayList<>(snapshots);
+        newestFirst.sort(Comparator.comparing(BackupSnapshot::getCreatedAt).reversed());
+        Set<String> keep = new HashSet<>();
+        if (!isEnabled()) {
+            newestFirst.forEach(snapshot -> keep.add(snapshot.getId()));
+            return keep;
+        }
+        if (!newestFirst.isEmpty()) {
+            keep.add(newestFirst.get(0).getId());
+        }
+        keepNewestPer(newestFirst, zone, daily, time -> time.toLocalDate(), keep);
+        keepNewestPer(newestFirst, zone, weekly,
+            time -> time.get(IsoFields.WEEK_BASED_YEAR) * 100 + time.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR), keep);
+        keepNewestPer(newestFirst, zone, monthly, time -> time.getYear() * 100 + time.getMonthValue(), keep);
+        return keep;
+    }
+
+    private static void keepNewestPer(List<BackupSnapshot> newestFirst, ZoneId zone, int count,
+                                      Function<ZonedDateTime, Object> period, Set<String> keep) {
+        Object lastPeriod = null;
+        int kept = 0;
+        for (BackupSnapshot snapshot : newestFirst) {
+            if (kept == count) {
+                return;
+            }
+            Object current = period.apply(snapshot.getCreatedAt().atZone(zone));
+            if (!Objects.equals(current, lastPeriod)) {
+                keep.add(snapshot.getId());
+                lastPeriod = current;
+                kept++;
+            }
+        }
+    }
+}
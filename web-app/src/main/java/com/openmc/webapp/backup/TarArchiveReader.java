@@ -0,0 +1,225 @@
+package com.openmc.webapp.backup;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the entries of a tar archive: ustar, GNU long names and base-256 sizes, and the
+ * path record of pax headers, which covers archives made by {@link TarArchiveWriter},
+ * GNU tar and bsdtar.
+ */
+public class TarArchiveReader {
+
+    private static final int BLOCK_SIZE = TarArchiveWriter.BLOCK_SIZE;
+
+    private final InputStream in;
+    private long remaining;
+    private long padding;
+
+    public TarArchiveReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * One archive entry. Only files and directories are reported.
+     */
+    public static class Entry {
+        private final String name;
+        private final long size;
+        private final long lastModifiedMillis;
+        private final boolean directory;
+
+        Entry(String name, long size, long lastModifiedMillis, boolean directory) {
+            this.name = name;
+            this.size = size;
+            this.lastModifiedMillis = lastModifiedMillis;
+            this.directory = directory;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getLastModifiedMillis() {
+            return lastModifiedMillis;
+        }
+
+        public boolean isDirectory() {
+            return directory;
+        }
+    }
+
+    /**
+     * Move to the next file or directory, skipping what is left of the current one.
+     *
+     * @return null at the end of the archive
+     */
+    public Entry next() throws IOException {
+        skip(remaining + padding);
+        remaining = 0;
+        padding = 0;
+
+        String longName = null;
+        while (true) {
+            byte[] header = in.readNBytes(BLOCK_SIZE);
+            if (header.length == 0 || isZero(header)) {
+                return null;
+            }
+            if (header.length < BLOCK_SIZE) {
+                throw new EOFException("Truncated tar header");
+            }
+            verifyChecksum(header);
+
+            byte type = header[156];
+            long size = parseNumber(header, 124, 12);
+            if (type == 'L' || type == 'x') {
+                byte[] data = readData(size);
+                String value = type == 'L' ? trimNul(new String(data, StandardCharsets.UTF_8)) : paxPath(data);
+                if (value != null) {
+                    longName = value;
+                }
+                continue;
+            }
+
+            String name = longName;
+            if (name == null) {
+                name = string(header, 0, 100);
+                String prefix = isUstar(header) ? string(header, 345, 155) : "";
+                if (!prefix.isEmpty()) {
+                    name = prefix + "/" + name;
+                }
+            }
+            long lastModified = parseNumber(header, 136, 12) * 1000;
+            if (type == '0' || type == 0 || type == '7') {
+                remaining = size;
+                padding = (BLOCK_SIZE - size % BLOCK_SIZE) % BLOCK_SIZE;
+                return new Entry(name, size, lastModified, false);
+            }
+            if (type == '5') {
+                return new Entry(name, 0, lastModified, true);
+            }
+            // Links, devices and the like are skipped
+            skip(size + (BLOCK_SIZE - size % BLOCK_SIZE) % BLOCK_SIZE);
+            longName = null;
+        }
+    }
+
+    /**
+     * Read from the current file entry; -1 at its end.
+     */
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (remaining == 0) {
+            return -1;
+        }
+        int count = in.read(buffer, offset, (int) Math.min(length, remaining));
+        if (count < 0) {
+            throw new EOFException("Truncated tar entry");
+        }
+        remaining -= count;
+        return count;
+    }
+
+    private byte[] readData(long size) throws IOException {
+        if (size > 1024 * 1024) {
+            throw new IOException("Tar extended header too large: " + size);
+        }
+        byte[] data = in.readNBytes((int) size);
+        if (data.length != size) {
+            throw new EOFException("Truncated tar extended header");
+        }
+        skip((BLOCK_SIZE - size % BLOCK_SIZE) % BLOCK_SIZE);
+        return data;
+    }
+
+    /**
+     * The path from pax records of the form "length key=value\n", or null.
+     */
+    private static String paxPath(byte[] data) {
+        String records = new String(data, StandardCharsets.UTF_8);
+        String path = null;
+        for (String record : records.split("\n")) {
+            int space = record.indexOf(' ');
+            if (space > 0 && record.startsWith("path=", space + 1)) {
+                path = record.substring(space + 6);
+            }
+        }
+        return path;
+    }
+
+    private void skip(long count) throws IOException {
+        while (count > 0) {
+            long skipped = in.skip(count);
+            if (skipped <= 0) {
+                if (in.read() < 0) {
+                    throw new EOFException("Truncated tar archive");
+                }
+                skipped = 1;
+            }
+            count -= skipped;
+        }
+    }
+
+    private static void verifyChecksum(byte[] header) throws IOException {
+        long expected = parseNumber(header, 148, 8);
+        long actual = 0;
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            actual += i >= 148 && i < 156 ? ' ' : header[i] & 0xff;
+        }
+        if (actual != expected) {
+            throw new IOException("Tar header checksum mismatch");
+        }
+    }
+
+    private static long parseNumber(byte[] header, int offset, int length) {
+        if ((header[offset] & 0x80) != 0) {
+            long value = header[offset] & 0x7f;
+            for (int i = 1; i < length; i++) {
+                value = value << 8 | header[offset + i] & 0xff;
+            }
+            return value;
+        }
+        // Octal digits, possibly after spaces, ended by a NUL or space
+        int end = offset + length;
+        int i = offset;
+        while (i < end && header[i] == ' ') {
+            i++;
+        }
+        long value = 0;
+        for (; i < end && header[i] >= '0' && header[i] <= '7'; i++) {
+            value = value * 8 + (header[i] - '0');
+        }
+        return value;
+    }
+
+    private static boolean isUstar(byte[] header) {
+        return header[257] == 'u' && header[258] == 's' && header[259] == 't' && header[260] == 'a' && header[261] == 'r';
+    }
+
+    private static String string(byte[] header, int offset, int length) {
+        int end = offset;
+        while (end < offset + length && header[end] != 0) {
+            end++;
+        }
+        return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    private static String trimNul(String value) {
+        int nul = value.indexOf('\0');
+        return nul >= 0 ? value.substring(0, nul) : value;
+    }
+
+    private static boolean isZero(byte[] block) {
+        for (byte b : block) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,180 @@
+package com.openmc.webapp.backup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes regular files as a ustar archive that tar, GNU tar and bsdtar extract. Names that
+ * do not fit the ustar name and prefix fields get a GNU long name entry; sizes beyond the
+ * octal field use GNU base-256 encoding.
+ */
+public class TarArchiveWriter {
+
+    static final int BLOCK_SIZE = 512;
+    private static final long MAX_OCTAL_SIZE = 077777777777L;
+
+    private final OutputStream out;
+    private long remaining = -1;
+    private long written;
+
+    public TarArchiveWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Start a file entry; exactly {@code size} bytes must be written before the next one.
+     */
+    public void putFile(String name, long size, long lastModifiedMillis) throws IOException {
+        if (remaining > 0) {
+            throw new IOException("Previous entry is missing " + remaining + " bytes");
+        }
+        closeEntry();
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        String prefix = "";
+        String shortName = name;
+        if (nameBytes.length > 100) {
+            int split = prefixSplit(name);
+            if (split > 0) {
+                prefix = name.substring(0, split);
+                shortName = name.substring(split + 1);
+            } else {
+                byte[] longName = (name + "\0").getBytes(StandardCharsets.UTF_8);
+                writeHeader("././@LongLink", "", longName.length, 0, (byte) 'L');
+                out.write(longName);
+                pad(longName.length);
+                shortName = name.substring(0, Math.min(name.length(), 99));
+            }
+        }
+        writeHeader(shortName, prefix, size, lastModifiedMillis / 1000, (byte) '0');
+        remaining = size;
+    }
+
+    /**
+     * Where to split a long name into a ustar prefix and name, or -1 if it cannot be.
+     */
+    private static int prefixSplit(String name) {
+        for (int i = name.indexOf('/'); i > 0; i = name.indexOf('/', i + 1)) {
+            int prefixLength = name.substring(0, i).getBytes(StandardCharsets.UTF_8).length;
+            int nameLength = name.substring(i + 1).getBytes(StandardCharsets.UTF_8).length;
+            if (prefixLength <= 155 && nameLength <= 100 && nameLength > 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public void write(byte[] data, int offset, int length) throws IOException {
+        if (length > remaining) {
+            throw new IOException("Entry is longer than its declared size");
+        }
+        out.write(data, offset, length);
+        remaining -= length;
+        written += length;
+    }
+
+    /**
+     * Copy {@code count} bytes of a file, starting at {@code position}, into the current
+     * entry with {@link FileChannel#transferTo}, so they never pass through a byte array
+     * of this class. If the file has shrunk below that meanwhile, the rest is zeros.
+     *
+     * @return the bytes actually copied from the file
+     */
+    public long transferFrom(FileChannel channel, long position, long count) throws IOException {
+        if (count > remaining) {
+            throw new IOException("Entry is longer than its declared size");
+        }
+        WritableByteChannel target = Channels.newChannel(out);
+        long copied = 0;
+        while (copied < count) {
+            long transferred = channel.transferTo(position + copied, count - copied, target);
+            if (transferred <= 0) {
+                break;
+            }
+            copied += transferred;
+        }
+        if (copied < count) {
+            byte[] zeros = new byte[BLOCK_SIZE * 16];
+            for (long missing = count - copied; missing > 0; missing -= zeros.length) {
+                out.write(zeros, 0, (int) Math.min(missing, zeros.length));
+            }
+        }
+        remaining -= count;
+        written += count;
+        return copied;
+    }
+
+    private void closeEntry() throws IOException {
+        if (remaining == 0) {
+            pad(written);
+        }
+        remaining = -1;
+        written = 0;
+    }
+
+    private void pad(long length) throws IOException {
+        int padding = (int) ((BLOCK_SIZE - length % BLOCK_SIZE) % BLOCK_SIZE);
+        out.write(new byte[padding]);
+    }
+
+    /**
+     * End the archive with two empty blocks. Does not close the underlying stream.
+     */
+    public void finish() throws IOException {
+        if (remaining > 0) {
+            throw new IOException("Last entry is missing " + remaining + " bytes");
+        }
+        closeEntry();
+        out.write(new byte[2 * BLOCK_SIZE]);
+        out.flush();
+    }
+
+    private void writeHeader(String name, String prefix, long size, long mtimeSeconds, byte type) throws IOException {
+        byte[] header = new byte[BLOCK_SIZE];
+        putString(header, 0, 100, name);
+        putOctal(header, 100, 8, 0644);
+        putOctal(header, 108, 8, 0);
+        putOctal(header, 116, 8, 0);
+        if (size <= MAX_OCTAL_SIZE) {
+            putOctal(header, 124, 12, size);
+        } else {
+            header[124] = (byte) 0x80;
+            for (int i = 0; i < 8; i++) {
+                header[135 - i] = (byte) (size >>> (8 * i));
+            }
+        }
+        putOctal(header, 136, 12, mtimeSeconds);
+        header[156] = type;
+        putString(header, 257, 6, "ustar");
+        putString(header, 263, 2, "00");
+        putString(header, 345, 155, prefix);
+
+        for (int i = 148; i < 156; i++) {
+            header[i] = ' ';
+        }
+        long checksum = 0;
+        for (byte b : header) {
+            checksum += b & 0xff;
+        }
+        putOctal(header, 148, 7, checksum);
+        out.write(header);
+    }
+
+    private static void putString(byte[] header, int offset, int length, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(bytes, 0, header, offset, Math.min(bytes.length, length));
+    }
+
+    /**
+     * Zero-padded octal digits followed by a NUL.
+     */
+    private static void putOctal(byte[] header, int offset, int length, long value) {
+        String digits = Long.toOctalString(value);
+        String padded = "0".repeat(Math.max(0, length - 1 - digits.length())) + digits;
+        putString(header, offset, length - 1, padded);
+        header[offset + length - 1] = 0;
+    }
+}
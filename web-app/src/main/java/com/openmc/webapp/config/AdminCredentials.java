@@ -0,0 +1,55 @@
+package com.openmc.webapp.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Checks admin credentials against the configured username and password.
+ */
+public final class AdminCredentials {
+
+    private AdminCredentials() {
+    }
+
+    /**
+     * Compare in constant time so response timing does not reveal how much of a
+     * guess was correct. Both values are always compared.
+     */
+    public static boolean matches(ServerConfig serverConfig, String username, String password) {
+        if (username == null || password == null) {
+            return false;
+        }
+        boolean usernameMatches = constantTimeEquals(serverConfig.getAdminUsername(), username);
+        boolean passwordMatches = constantTimeEquals(serverConfig.getAdminPassword(), password);
+        return usernameMatches & passwordMatches;
+    }
+
+    /**
+     * Check the credentials of an HTTP Basic Authorization header.
+     */
+    public static boolean matchesBasicAuth(ServerConfig serverConfig, String authorization) {
+        if (authorization == null || !authorization.regionMatches(true, 0, "Basic ", 0, 6)) {
+            return false;
+        }
+        String decoded;
+        try {
+            decoded = new String(Base64.getDecoder().decode(authorization.substring(6).trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        int colon = decoded.indexOf(':');
+        if (colon < 0) {
+            return false;
+        }
+        return matches(serverConfig, decoded.substring(0, colon), decoded.substring(colon + 1));
+    }
+
+    private static boolean constantTimeEquals(String expected, String actual) {
+        if (expected == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8),
+                                     actual.getBytes(StandardCharsets.UTF_8));
+    }
+}
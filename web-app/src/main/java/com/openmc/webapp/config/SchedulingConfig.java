@@ -0,0 +1,39 @@
+package com.openmc.webapp.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * Runs @Scheduled tasks on a dedicated pool. Without this, the scheduler bean
+ * registered by @EnableWebSocket would replace Spring Boot's default one, and
+ * the status poller and stream heartbeats would share a single thread. Because
+ * this bean replaces Boot's, it also has to honour virtual-thread mode itself.
+ */
+@Configuration
+public class SchedulingConfig implements SchedulingConfigurer {
+
+    private static final int POOL_SIZE = 4;
+
+    private final ServerConfig serverConfig;
+
+    public SchedulingConfig(ServerConfig serverConfig) {
+        this.serverConfig = serverConfig;
+    }
+
+    @Bean
+    public ThreadPoolTaskScheduler scheduledTaskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(POOL_SIZE);
+        // The pinned Spring version has no setVirtualThreads here, so the factory decides
+        scheduler.setThreadFactory(WorkerThreads.factory(serverConfig, "scheduled-"));
+        return scheduler;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.setTaskScheduler(scheduledTaskScheduler());
+    }
+}
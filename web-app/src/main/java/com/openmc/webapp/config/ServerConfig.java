@@ -19,6 +19,82 @@ public class ServerConfig {
     private long refreshIntervalMs = 1800000; // Default: 30 minutes
     private String activityTrackerUrl = "";
     private boolean activityTrackerEnabled = false;
+    private long sseHeartbeatIntervalMs = 15000; // Keeps idle streams open through nginx
+    private long sseEmitterTimeoutMs = 3600000; // Clients reconnect with Last-Event-ID
+    private int sseReplayBufferSize = 50;
+    private int sseClientBufferSize = 16;
+    private long sseSendTimeoutMs = 10000;
+    private int rconPoolSize = 2;
+    private long rconPoolIdleTimeoutMs = 60000;
+    private String consoleAllowedOrigins = "";
+    private int consoleChunkSize = 2048;
+    private long activityTrackerCacheTtlMs = 60000;
+    private boolean publicPagePrerender = false;
+    private long dashboardSectionTimeoutMs = 3000;
+    private boolean rateLimitEnabled = true;
+    private int rateLimitCommandPerMinute = 20;
+    private int rateLimitCommandBurst = 5;
+    private int rateLimitRconPerMinute = 60;
+    private int rateLimitRconBurst = 10;
+    private int rateLimitApiPerMinute = 600;
+    private int rateLimitApiBurst = 100;
+    private int rateLimitAdminPerMinute = 120;
+    private int rateLimitAdminBurst = 30;
+    private int rateLimitGlobalRconPerMinute = 300;
+    private int rateLimitGlobalRconBurst = 30;
+    private int rateLimitLoginPerMinute = 3;
+    private int rateLimitLoginBurst = 9;
+    private int rateLimitBatchCommandsPerMinute = 500;
+    private int rateLimitBatchCommandsBurst = 500;
+    private int commandBatchMaxSize = 500;
+    private int commandJobWorkers = 2;
+    private int commandJobQueueSize = 50;
+    private int commandJobMaxStored = 1000;
+    private long commandJobResultTtlMs = 3600000;
+    private int rconMaxConcurrentCommands = 2;
+    private long rconAdminMaxWaitMs = 30000;
+    private long rconAlertingMaxWaitMs = 10000;
+    private long rconPollingMaxWaitMs = 5000;
+    private String scheduledCommandsFile = "data/scheduled-commands.json";
+    private int scheduledCommandWorkers = 2;
+    private long scheduledCommandMisfireThresholdMs = 60000;
+    private int scheduledCommandHistorySize = 500;
+    private boolean rconCacheEnabled = true;
+    private String rconCacheCommands = "list=2000,list uuids=2000,tps=1000,forge tps=1000,whitelist list=30000,banlist=30000,banlist players=30000,banlist ips=30000,time query daytime=1000,time query gametime=1000,time query day=1000,difficulty=60000,seed=3600000";
+    private boolean virtualThreadsEnabled = false;
+    private boolean flightRecorderEnabled = true;
+    private long flightRecorderMaxAgeMinutes = 60;
+    private long flightRecorderMaxSizeMb = 100;
+    private String backupSourceDir = "/mcserver";
+    private String backupRepositoryDir = "data/backup-repository";
+    private String backupRestoreDir = "data/restores";
+    private String backupExcludes = "logs/**,crash-reports/**";
+    private int backupWorkers = 2;
+    private int backupCompressionLevel = 1;
+    private boolean backupRegionAware = true;
+    private String backupArchiveDir = "data/archives";
+    private int backupArchiveCompressionLevel = 6;
+    private int backupCompressionThreads = 0; // 0 uses every core
+    private String backupCron = "";
+    private int backupKeepDaily = 7;
+    private int backupKeepWeekly = 4;
+    private int backupKeepMonthly = 6;
+    private boolean backupVerify = true;
+    private int backupHistorySize = 50;
+    private String depositBoxDir = "data/deposit-box";
+    private String serverLogDir = "/mcserver/logs";
+    private int logIndexCapacity = 200000;
+    private int logBackfillDays = 3;
+    private long logPollIntervalMs = 1000;
+    private int lagHistorySize = 10000;
+    private boolean sessionTrackerEnabled = true;
+    private String sessionStoreFile = "data/sessions.dat";
+    private int sessionLeaderboardSize = 10;
+    private String worldDir = "/mcserver/world";
+    private String userCacheFile = "/mcserver/usercache.json";
+    private long statsScanIntervalMs = 300000;
+    private int statsScanThreads = 0;
+    private int worldScanThreads = 0;
     
     // Getters and setters
     public String getHost() {
@@ -116,4 +192,612 @@ public class ServerConfig {
     public void setActivityTrackerEnabled(boolean activityTrackerEnabled) {
         this.activityTrackerEnabled = activityTrackerEnabled;
     }
+    
+    public long getSseHeartbeatIntervalMs() {
+        return sseHeartbeatIntervalMs;
+    }
+    
+    public void setSseHeartbeatIntervalMs(long sseHeartbeatIntervalMs) {
+        this.sseHeartbeatIntervalMs = sseHeartbeatIntervalMs;
+    }
+    
+    public long getSseEmitterTimeoutMs() {
+        return sseEmitterTimeoutMs;
+    }
+    
+    public void setSseEmitterTimeoutMs(long sseEmitterTimeoutMs) {
+        this.sseEmitterTimeoutMs = sseEmitterTimeoutMs;
+    }
+    
+    public int getSseReplayBufferSize() {
+        return sseReplayBufferSize;
+    }
+    
+    public void setSseReplayBufferSize(int sseReplayBufferSize) {
+        this.sseReplayBufferSize = sseReplayBufferSize;
+    }
+    
+    public int getSseClientBufferSize() {
+        return sseClientBufferSize;
+    }
+    
+    public void setSseClientBufferSize(int sseClientBufferSize) {
+        this.sseClientBufferSize = sseClientBufferSize;
+    }
+    
+    public long getSseSendTimeoutMs() {
+        return sseSendTimeoutMs;
+    }
+    
+    public void setSseSendTimeoutMs(long sseSendTimeoutMs) {
+        this.sseSendTimeoutMs = sseSendTimeoutMs;
+    }
+    
+    public int getRconPoolSize() {
+        return rconPoolSize;
+    }
+    
+    public void setRconPoolSize(int rconPoolSize) {
+        this.rconPoolSize = rconPoolSize;
+    }
+    
+    public long getRconPoolIdleTimeoutMs() {
+        return rconPoolIdleTimeoutMs;
+    }
+    
+    public void setRconPoolIdleTimeoutMs(long rconPoolIdleTimeoutMs) {
+        this.rconPoolIdleTimeoutMs = rconPoolIdleTimeoutMs;
+    }
+    
+    public String getConsoleAllowedOrigins() {
+        return consoleAllowedOrigins;
+    }
+    
+    public void setConsoleAllowedOrigins(String consoleAllowedOrigins) {
+        this.consoleAllowedOrigins = consoleAllowedOrigins;
+    }
+    
+    public int getConsoleChunkSize() {
+        return consoleChunkSize;
+    }
+    
+    public void setConsoleChunkSize(int consoleChunkSize) {
+        this.consoleChunkSize = consoleChunkSize;
+    }
+    
+    public long getActivityTrackerCacheTtlMs() {
+        return activityTrackerCacheTtlMs;
+    }
+    
+    public void setActivityTrackerCacheTtlMs(long activityTrackerCacheTtlMs) {
+        this.activityTrackerCacheTtlMs = activityTrackerCacheTtlMs;
+    }
+    
+    public boolean isPublicPagePrerender() {
+        return publicPagePrerender;
+    }
+    
+    public void setPublicPagePrerender(boolean publicPagePrerender) {
+        this.publicPagePrerender = publicPagePrerender;
+    }
+    
+    public long getDashboardSectionTimeoutMs() {
+        return dashboardSectionTimeoutMs;
+    }
+    
+    public void setDashboardSectionTimeoutMs(long dashboardSectionTimeoutMs) {
+        this.dashboardSectionTimeoutMs = dashboardSectionTimeoutMs;
+    }
+    
+    public boolean isRateLimitEnabled() {
+        return rateLimitEnabled;
+    }
+    
+    public void setRateLimitEnabled(boolean rateLimitEnabled) {
+        this.rateLimitEnabled = rateLimitEnabled;
+    }
+    
+    public int getRateLimitCommandPerMinute() {
+        return rateLimitCommandPerMinute;
+    }
+    
+    public void setRateLimitCommandPerMinute(int rateLimitCommandPerMinute) {
+        this.rateLimitCommandPerMinute = rateLimitCommandPerMinute;
+    }
+    
+    public int getRateLimitCommandBurst() {
+        return rateLimitCommandBurst;
+    }
+    
+    public void setRateLimitCommandBurst(int rateLimitCommandBurst) {
+        this.rateLimitCommandBurst = rateLimitCommandBurst;
+    }
+    
+    public int getRateLimitRconPerMinute() {
+        return rateLimitRconPerMinute;
+    }
+    
+    public void setRateLimitRconPerMinute(int rateLimitRconPerMinute) {
+        this.rateLimitRconPerMinute = rateLimitRconPerMinute;
+    }
+    
+    public int getRateLimitRconBurst() {
+        return rateLimitRconBurst;
+    }
+    
+    public void setRateLimitRconBurst(int rateLimitRconBurst) {
+        this.rateLimitRconBurst = rateLimitRconBurst;
+    }
+    
+    public int getRateLimitApiPerMinute() {
+        return rateLimitApiPerMinute;
+    }
+    
+    public void setRateLimitApiPerMinute(int rateLimitApiPerMinute) {
+        this.rateLimitApiPerMinute = rateLimitApiPerMinute;
+    }
+    
+    public int getRateLimitApiBurst() {
+        return rateLimitApiBurst;
+    }
+    
+    public void setRateLimitApiBurst(int rateLimitApiBurst) {
+        this.rateLimitApiBurst = rateLimitApiBurst;
+    }
+    
+    public int getRateLimitGlobalRconPerMinute() {
+        return rateLimitGlobalRconPerMinute;
+    }
+    
+    public void setRateLimitGlobalRconPerMinute(int rateLimitGlobalRconPerMinute) {
+        this.rateLimitGlobalRconPerMinute = rateLimitGlobalRconPerMinute;
+    }
+    
+    public int getRateLimitGlobalRconBurst() {
+        return rateLimitGlobalRconBurst;
+    }
+    
+    public void setRateLimitGlobalRconBurst(int rateLimitGlobalRconBurst) {
+        this.rateLimitGlobalRconBurst = rateLimitGlobalRconBurst;
+    }
+    
+    public int getRateLimitAdminPerMinute() {
+        return rateLimitAdminPerMinute;
+    }
+    
+    public void setRateLimitAdminPerMinute(int rateLimitAdminPerMinute) {
+        this.rateLimitAdminPerMinute = rateLimitAdminPerMinute;
+    }
+    
+    public int getRateLimitAdminBurst() {
+        return rateLimitAdminBurst;
+    }
+    
+    public void setRateLimitAdminBurst(int rateLimitAdminBurst) {
+        this.rateLimitAdminBurst = rateLimitAdminBurst;
+    }
+    
+    public int getRateLimitLoginPerMinute() {
+        return rateLimitLoginPerMinute;
+    }
+    
+    public void setRateLimitLoginPerMinute(int rateLimitLoginPerMinute) {
+        this.rateLimitLoginPerMinute = rateLimitLoginPerMinute;
+    }
+    
+    public int getRateLimitLoginBurst() {
+        return rateLimitLoginBurst;
+    }
+    
+    public void setRateLimitLoginBurst(int rateLimitLoginBurst) {
+        this.rateLimitLoginBurst = rateLimitLoginBurst;
+    }
+    
+    public int getRateLimitBatchCommandsPerMinute() {
+        return rateLimitBatchCommandsPerMinute;
+    }
+    
+    public void setRateLimitBatchCommandsPerMinute(int rateLimitBatchCommandsPerMinute) {
+        this.rateLimitBatchCommandsPerMinute = rateLimitBatchCommandsPerMinute;
+    }
+    
+    public int getRateLimitBatchCommandsBurst() {
+        return rateLimitBatchCommandsBurst;
+    }
+    
+    public void setRateLimitBatchCommandsBurst(int rateLimitBatchCommandsBurst) {
+        this.rateLimitBatchCommandsBurst = rateLimitBatchCommandsBurst;
+    }
+    
+    public int getCommandBatchMaxSize() {
+        return commandBatchMaxSize;
+    }
+    
+    public void setCommandBatchMaxSize(int commandBatchMaxSize) {
+        this.commandBatchMaxSize = commandBatchMaxSize;
+    }
+    
+    public int getCommandJobWorkers() {
+        return commandJobWorkers;
+    }
+    
+    public void setCommandJobWorkers(int commandJobWorkers) {
+        this.commandJobWorkers = commandJobWorkers;
+    }
+    
+    public int getCommandJobQueueSize() {
+        return commandJobQueueSize;
+    }
+    
+    public void setCommandJobQueueSize(int commandJobQueueSize) {
+        this.commandJobQueueSize = commandJobQueueSize;
+    }
+    
+    public int getCommandJobMaxStored() {
+        return commandJobMaxStored;
+    }
+    
+    public void setCommandJobMaxStored(int commandJobMaxStored) {
+        this.commandJobMaxStored = commandJobMaxStored;
+    }
+    
+    public long getCommandJobResultTtlMs() {
+        return commandJobResultTtlMs;
+    }
+    
+    public void setCommandJobResultTtlMs(long commandJobResultTtlMs) {
+        this.commandJobResultTtlMs = commandJobResultTtlMs;
+    }
+    
+    public int getRconMaxConcurrentCommands() {
+        return rconMaxConcurrentCommands;
+    }
+    
+    public void setRconMaxConcurrentCommands(int rconMaxConcurrentCommands) {
+        this.rconMaxConcurrentCommands = rconMaxConcurrentCommands;
+    }
+    
+    public long getRconAdminMaxWaitMs() {
+        return rconAdminMaxWaitMs;
+    }
+    
+    public void setRconAdminMaxWaitMs(long rconAdminMaxWaitMs) {
+        this.rconAdminMaxWaitMs = rconAdminMaxWaitMs;
+    }
+    
+    public long getRconAlertingMaxWaitMs() {
+        return rconAlertingMaxWaitMs;
+    }
+    
+    public void setRconAlertingMaxWaitMs(long rconAlertingMaxWaitMs) {
+        this.rconAlertingMaxWaitMs = rconAlertingMaxWaitMs;
+    }
+    
+    public long getRconPollingMaxWaitMs() {
+        return rconPollingMaxWaitMs;
+    }
+    
+    public void setRconPollingMaxWaitMs(long rconPollingMaxWaitMs) {
+        this.rconPollingMaxWaitMs = rconPollingMaxWaitMs;
+    }
+    
+    public String getScheduledCommandsFile() {
+        return scheduledCommandsFile;
+    }
+    
+    public void setScheduledCommandsFile(String scheduledCommandsFile) {
+        this.scheduledCommandsFile = scheduledCommandsFile;
+    }
+    
+    public int getScheduledCommandWorkers() {
+        return scheduledCommandWorkers;
+    }
+    
+    public void setScheduledCommandWorkers(int scheduledCommandWorkers) {
+        this.scheduledCommandWorkers = scheduledCommandWorkers;
+    }
+    
+    public long getScheduledCommandMisfireThresholdMs() {
+        return scheduledCommandMisfireThresholdMs;
+    }
+    
+    public void setScheduledCommandMisfireThresholdMs(long scheduledCommandMisfireThresholdMs) {
+        this.scheduledCommandMisfireThresholdMs = scheduledCommandMisfireThresholdMs;
+    }
+    
+    public int getScheduledCommandHistorySize() {
+        return scheduledCommandHistorySize;
+    }
+    
+    public void setScheduledCommandHistorySize(int scheduledCommandHistorySize) {
+        this.scheduledCommandHistorySize = scheduledCommandHistorySize;
+    }
+    
+    public boolean isRconCacheEnabled() {
+        return rconCacheEnabled;
+    }
+    
+    public void setRconCacheEnabled(boolean rconCacheEnabled) {
+        this.rconCacheEnabled = rconCacheEnabled;
+    }
+    
+    public String getRconCacheCommands() {
+        return rconCacheCommands;
+    }
+    
+    public void setRconCacheCommands(String rconCacheCommands) {
+        this.rconCacheCommands = rconCacheCommands;
+    }
+    
+    public boolean isVirtualThreadsEnabled() {
+        return virtualThreadsEnabled;
+    }
+    
+    public void setVirtualThreadsEnabled(boolean virtualThreadsEnabled) {
+        this.virtualThreadsEnabled = virtualThreadsEnabled;
+    }
+    
+    public boolean isFlightRecorderEnabled() {
+        return flightRecorderEnabled;
+    }
+    
+    public void setFlightRecorderEnabled(boolean flightRecorderEnabled) {
+        this.flightRecorderEnabled = flightRecorderEnabled;
+    }
+    
+    public long getFlightRecorderMaxAgeMinutes() {
+        return flightRecorderMaxAgeMinutes;
+    }
+    
+    public void setFlightRecorderMaxAgeMinutes(long flightRecorderMaxAgeMinutes) {
+        this.flightRecorderMaxAgeMinutes = flightRecorderMaxAgeMinutes;
+    }
+    
+    public long getFlightRecorderMaxSizeMb() {
+        return flightRecorderMaxSizeMb;
+    }
+    
+    public void setFlightRecorderMaxSizeMb(long flightRecorderMaxSizeMb) {
+        this.flightRecorderMaxSizeMb = flightRecorderMaxSizeMb;
+    }
+    
+    public String getBackupSourceDir() {
+        return backupSourceDir;
+    }
+    
+    public void setBackupSourceDir(String backupSourceDir) {
+        this.backupSourceDir = backupSourceDir;
+    }
+    
+    public String getBackupRepositoryDir() {
+        return backupRepositoryDir;
+    }
+    
+    public void setBackupRepositoryDir(String backupRepositoryDir) {
+        this.backupRepositoryDir = backupRepositoryDir;
+    }
+    
+    public String getBackupRestoreDir() {
+        return backupRestoreDir;
+    }
+    
+    public void setBackupRestoreDir(String backupRestoreDir) {
+        this.backupRestoreDir = backupRestoreDir;
+    }
+    
+    public String getBackupExcludes() {
+        return backupExcludes;
+    }
+    
+    public void setBackupExcludes(String backupExcludes) {
+        this.backupExcludes = backupExcludes;
+    }
+    
+    public int getBackupWorkers() {
+        return backupWorkers;
+    }
+    
+    public void setBackupWorkers(int backupWorkers) {
+        this.backupWorkers = backupWorkers;
+    }
+    
+    public int getBackupCompressionLevel() {
+        return backupCompressionLevel;
+    }
+    
+    public void setBackupCompressionLevel(int backupCompressionLevel) {
+        this.backupCompressionLevel = backupCompressionLevel;
+    }
+    
+    public boolean isBackupRegionAware() {
+        return backupRegionAware;
+    }
+    
+    public void setBackupRegionAware(boolean backupRegionAware) {
+        this.backupRegionAware = backupRegionAware;
+    }
+    
+    public String getBackupArchiveDir() {
+        return backupArchiveDir;
+    }
+    
+    public void setBackupArchiveDir(String backupArchiveDir) {
+        this.backupArchiveDir = backupArchiveDir;
+    }
+    
+    public int getBackupArchiveCompressionLevel() {
+        return backupArchiveCompressionLevel;
+    }
+    
+    public void setBackupArchiveCompressionLevel(int backupArchiveCompressionLevel) {
+        this.backupArchiveCompressionLevel = backupArchiveCompressionLevel;
+    }
+    
+    public int getBackupCompressionThreads() {
+        return backupCompressionThreads;
+    }
+    
+    public void setBackupCompressionThreads(int backupCompressionThreads) {
+        this.backupCompressionThreads = backupCompressionThreads;
+    }
+    
+    public String getBackupCron() {
+        return backupCron;
+    }
+    
+    public void setBackupCron(String backupCron) {
+        this.backupCron = backupCron;
+    }
+    
+    public int getBackupKeepDaily() {
+        return backupKeepDaily;
+    }
+    
+    public void setBackupKeepDaily(int backupKeepDaily) {
+        this.backupKeepDaily = backupKeepDaily;
+    }
+    
+    public int getBackupKeepWeekly() {
+        return backupKeepWeekly;
+    }
+    
+    public void setBackupKeepWeekly(int backupKeepWeekly) {
+        this.backupKeepWeekly = backupKeepWeekly;
+    }
+    
+    public int getBackupKeepMonthly() {
+        return backupKeepMonthly;
+    }
+    
+    public void setBackupKeepMonthly(int backupKeepMonthly) {
+        this.backupKeepMonthly = backupKeepMonthly;
+    }
+    
+    public boolean isBackupVerify() {
+        return backupVerify;
+    }
+    
+    public void setBackupVerify(boolean backupVerify) {
+        this.backupVerify = backupVerify;
+    }
+    
+    public int getBackupHistorySize() {
+        return backupHistorySize;
+    }
+    
+    public void setBackupHistorySize(int backupHistorySize) {
+        this.backupHistorySize = backupHistorySize;
+    }
+    
+    public String getDepositBoxDir() {
+        return depositBoxDir;
+    }
+    
+    public void setDepositBoxDir(String depositBoxDir) {
+        this.depositBoxDir = depositBoxDir;
+    }
+    
+    public String getServerLogDir() {
+        return serverLogDir;
+    }
+    
+    public void setServerLogDir(String serverLogDir) {
+        this.serverLogDir = serverLogDir;
+    }
+    
+    public int getLogIndexCapacity() {
+        return logIndexCapacity;
+    }
+    
+    public void setLogIndexCapacity(int logIndexCapacity) {
+        this.logIndexCapacity = logIndexCapacity;
+    }
+    
+    public int getLogBackfillDays() {
+        return logBackfillDays;
+    }
+    
+    public void setLogBackfillDays(int logBackfillDays) {
+        this.logBackfillDays = logBackfillDays;
+    }
+    
+    public long getLogPollIntervalMs() {
+        return logPollIntervalMs;
+    }
+    
+    public void setLogPollIntervalMs(long logPollIntervalMs) {
+        this.logPollIntervalMs = logPollIntervalMs;
+    }
+    
+    public int getLagHistorySize() {
+        return lagHistorySize;
+    }
+    
+    public void setLagHistorySize(int lagHistorySize) {
+        this.lagHistorySize = lagHistorySize;
+    }
+    
+    public boolean isSessionTrackerEnabled() {
+        return sessionTrackerEnabled;
+    }
+    
+    public void setSessionTrackerEnabled(boolean sessionTrackerEnabled) {
+        this.sessionTrackerEnabled = sessionTrackerEnabled;
+    }
+    
+    public String getSessionStoreFile() {
+        return sessionStoreFile;
+    }
+    
+    public void setSessionStoreFile(String sessionStoreFile) {
+        this.sessionStoreFile = sessionStoreFile;
+    }
+    
+    public int getSessionLeaderboardSize() {
+        return sessionLeaderboardSize;
+    }
+    
+    public void setSessionLeaderboardSize(int sessionLeaderboardSize) {
+        this.sessionLeaderboardSize = sessionLeaderboardSize;
+    }
+    
+    public String getWorldDir() {
+        return worldDir;
+    }
+    
+    public void setWorldDir(String worldDir) {
+        this.worldDir = worldDir;
+    }
+    
+    public String getUserCacheFile() {
+        return userCacheFile;
+    }
+    
+    public void setUserCacheFile(String userCacheFile) {
+        this.userCacheFile = userCacheFile;
+    }
+    
+    public long getStatsScanIntervalMs() {
+        return statsScanIntervalMs;
+    }
+    
+    public void setStatsScanIntervalMs(long statsScanIntervalMs) {
+        this.statsScanIntervalMs = statsScanIntervalMs;
+    }
+    
+    public int getStatsScanThreads() {
+        return statsScanThreads;
+    }
+    
+    public void setStatsScanThreads(int statsScanThreads) {
+        this.statsScanThreads = statsScanThreads;
+    }
+    
+    public int getWorldScanThreads() {
+        return worldScanThreads;
+    }
+    
+    public void setWorldScanThreads(int worldScanThreads) {
+        this.worldScanThreads = worldScanThreads;
+    }
 }
@@ -0,0 +1,27 @@
+package com.openmc.webapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openmc.webapp.controller.PageRenderInterceptor;
+import com.openmc.webapp.controller.RateLimitInterceptor;
+import com.openmc.webapp.service.RateLimiter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    public WebMvcConfig(RateLimiter rateLimiter, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RateLimitInterceptor(rateLimiter, objectMapper)).addPathPatterns("/api/**");
+        registry.addInterceptor(new PageRenderInterceptor()).excludePathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,38 @@
+package com.openmc.webapp.config;
+
+import com.openmc.webapp.websocket.ConsoleWebSocketHandler;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final ConsoleWebSocketHandler consoleWebSocketHandler;
+    private final ServerConfig serverConfig;
+
+    public WebSocketConfig(ConsoleWebSocketHandler consoleWebSocketHandler, ServerConfig serverConfig) {
+        this.consoleWebSocketHandler = consoleWebSocketHandler;
+        this.serverConfig = serverConfig;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(consoleWebSocketHandler, "/ws/console")
+                .setAllowedOriginPatterns(allowedOriginPatterns(serverConfig.getConsoleAllowedOrigins()));
+    }
+
+    /**
+     * The configured origin patterns, without blanks. An empty list still rejects
+     * cross-origin handshakes, so by default only pages served by this app may connect.
+     */
+    static String[] allowedOriginPatterns(String origins) {
+        return StringUtils.commaDelimitedListToSet(origins).stream()
+                .map(String::trim)
+                .filter(origin -> !origin.isEmpty())
+                .toArray(String[]::new);
+    }
+}
@@ -0,0 +1,23 @@
+package com.openmc.webapp.config;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates the threads behind the application's worker pools.
+ */
+public final class WorkerThreads {
+
+    private WorkerThreads() {
+    }
+
+    /**
+     * Virtual threads when virtual-thread mode is on, daemon platform threads otherwise.
+     * Threads are named with the prefix and a counter starting at 1.
+     */
+    public static ThreadFactory factory(ServerConfig serverConfig, String namePrefix) {
+        if (serverConfig.isVirtualThreadsEnabled()) {
+            return Thread.ofVirtual().name(namePrefix, 1).factory();
+        }
+        return Thread.ofPlatform().name(namePrefix, 1).daemon(true).factory();
+    }
+}
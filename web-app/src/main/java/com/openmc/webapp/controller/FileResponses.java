@@ -0,0 +1,219 @@
+package com.openmc.webapp.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Sends files as responses without reading them into the heap, honouring a single byte
+ * range so interrupted downloads can resume. Under Tomcat the body is handed to the
+ * connector's sendfile support, which copies it from the page cache to the socket in the
+ * kernel; elsewhere {@link FileChannel#transferTo} copies it through a small buffer.
+ */
+final class FileResponses {
+
+    // Request attributes of Tomcat's sendfile support, as used by its DefaultServlet
+    static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final Pattern BYTE_RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+|\\*)");
+
+    static final ByteRange UNSATISFIABLE = new ByteRange(0, -1);
+
+    private FileResponses() {
+    }
+
+    /**
+     * A range of bytes, both ends inclusive.
+     */
+    static class ByteRange {
+        private final long start;
+        private final long end;
+
+        ByteRange(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        long getStart() {
+            return start;
+        }
+
+        long getEnd() {
+            return end;
+        }
+
+        long length() {
+            return end - start + 1;
+        }
+    }
+
+    /**
+     * Send {@code file}, or the part of it a Range header asks for. HEAD requests get the
+     * headers only.
+     *
+     * @param downloadName file name for a Content-Disposition attachment, or null
+     */
+    static void send(Path file, String contentType, String downloadName,
+                     HttpServletRequest request, HttpServletResponse response) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = etag(size, lastModified);
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setContentType(contentType);
+        if (downloadName != null) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, attachment(downloadName));
+        }
+
+        ByteRange range = null;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && ifRangeMatches(request.getHeader(HttpHeaders.IF_RANGE), etag, lastModified)) {
+            range = parseRange(rangeHeader, size);
+            if (range == UNSATISFIABLE) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.setContentLengthLong(0);
+                return;
+            }
+        }
+        long start = 0;
+        long length = size;
+        if (range != null) {
+            start = range.getStart();
+            length = range.length();
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + range.getEnd() + "/" + size);
+        }
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Tomcat sends the file once the handler returns; the end is exclusive
+            request.setAttribute(SENDFILE_FILENAME, file.toRealPath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long sent = 0;
+            while (sent < length) {
+                long transferred = channel.transferTo(start + sent, length - sent, target);
+                if (transferred <= 0) {
+                    throw new EOFException(file + " shrank while it was being sent");
+                }
+                sent += transferred;
+            }
+        }
+    }
+
+    /**
+     * The range a Range header asks for, clamped to the file; {@link #UNSATISFIABLE} if
+     * it lies beyond the end; null to send the whole file, for headers that are malformed
+     * or ask for several ranges.
+     */
+    static ByteRange parseRange(String header, long size) {
+        Matcher matcher = BYTE_RANGE.matcher(header.trim());
+        if (!matcher.matches() || (matcher.group(1).isEmpty() && matcher.group(2).isEmpty())) {
+            return null;
+        }
+        try {
+            if (matcher.group(1).isEmpty()) {
+                // bytes=-N: the last N bytes
+                long suffix = Long.parseLong(matcher.group(2));
+                return size == 0 || suffix == 0 ? UNSATISFIABLE : new ByteRange(Math.max(0, size - suffix), size - 1);
+            }
+            long start = Long.parseLong(matcher.group(1));
+            long end = matcher.group(2).isEmpty() ? Long.MAX_VALUE : Long.parseLong(matcher.group(2));
+            if (end < start) {
+                return null;
+            }
+            return start >= size ? UNSATISFIABLE : new ByteRange(start, Math.min(end, size - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parse an upload's Content-Range, {@code bytes START-END/TOTAL} with {@code *} for an
+     * unknown total, into {start, end, total}, with total -1 if unknown.
+     *
+     * @throws IllegalArgumentException if the header is malformed or inconsistent
+     */
+    static long[] parseContentRange(String header) {
+        Matcher matcher = CONTENT_RANGE.matcher(header.trim());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Content-Range must look like 'bytes 0-1048575/5242880'");
+        }
+        try {
+            long start = Long.parseLong(matcher.group(1));
+            long end = Long.parseLong(matcher.group(2));
+            long total = "*".equals(matcher.group(3)) ? -1 : Long.parseLong(matcher.group(3));
+            if (end < start || (total >= 0 && end >= total)) {
+                throw new IllegalArgumentException("Content-Range " + header + " is not a valid range");
+            }
+            return new long[] {start, end, total};
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Content-Range " + header + " is out of range");
+        }
+    }
+
+    /**
+     * Whether a range may be served: an If-Range validator must still describe the file.
+     */
+    static boolean ifRangeMatches(String ifRange, String etag, long lastModifiedMillis) {
+        if (ifRange == null) {
+            return true;
+        }
+        String value = ifRange.trim();
+        if (value.startsWith("\"") || value.startsWith("W/")) {
+            return value.equals(etag);
+        }
+        try {
+            long date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toEpochSecond();
+            return date == lastModifiedMillis / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    static String etag(long size, long lastModifiedMillis) {
+        return "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModifiedMillis) + "\"";
+    }
+
+    /**
+     * A Content-Disposition attachment header, with an ASCII fallback name for old clients.
+     */
+    static String attachment(String name) {
+        String fallback = name.replaceAll("[^\\x20-\\x7e]|[\"\\\\]", "_");
+        String encoded = URLEncoder.encode(name, StandardCharsets.UTF_8).replace("+", "%20");
+        return "attachment; filename=\"" + fallback + "\"; filename*=UTF-8''" + encoded;
+    }
+}
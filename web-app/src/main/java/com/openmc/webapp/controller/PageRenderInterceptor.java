@@ -0,0 +1,42 @@
+package com.openmc.webapp.controller;
+
+import com.openmc.webapp.service.PageRenderEvent;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Records how long each Thymeleaf view takes to render as a flight recorder event.
+ * The event starts once the handler has returned a view and ends when the response
+ * is complete, so it covers template rendering only.
+ */
+public class PageRenderInterceptor implements HandlerInterceptor {
+
+    static final String EVENT_ATTRIBUTE = PageRenderInterceptor.class.getName() + ".event";
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        if (modelAndView == null || modelAndView.getViewName() == null
+                || modelAndView.getViewName().startsWith("redirect:")) {
+            return;
+        }
+        PageRenderEvent event = new PageRenderEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+        event.view = modelAndView.getViewName();
+        event.begin();
+        request.setAttribute(EVENT_ATTRIBUTE, event);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(EVENT_ATTRIBUTE) instanceof PageRenderEvent event) {
+            event.success = ex == null;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.openmc.webapp.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openmc.webapp.service.RateLimiter;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies the rate limiter to API requests and answers rejected ones with 429 and Retry-After.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    // Endpoints that ask for the admin login; they get their own budget, not the public one
+    private static final List<String> ADMIN_PATHS = List.of(
+        "/api/admin", "/api/backups", "/api/command/jobs", "/api/deposit-box", "/api/schedules", "/api/world/archive");
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitInterceptor(RateLimiter rateLimiter, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        // Async dispatches belong to a request that was already admitted
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+
+        long retryAfterMs = rateLimiter.tryAcquire(
+            budgetFor(request.getMethod(), request.getRequestURI()), request.getRemoteAddr());
+        if (retryAfterMs == 0) {
+            return true;
+        }
+
+        long retryAfterSeconds = Math.max(1, (retryAfterMs + 999) / 1000);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", "Too many requests");
+        body.put("retryAfterSeconds", retryAfterSeconds);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write(objectMapper.writeValueAsString(body));
+        return false;
+    }
+
+    static RateLimiter.Budget budgetFor(String method, String path) {
+        // Polling a job's result does not send anything to the server
+        if (path.startsWith("/api/command") && "POST".equals(method)) {
+            return RateLimiter.Budget.COMMAND;
+        }
+        if (path.equals("/api/resources")) {
+            return RateLimiter.Budget.RCON;
+        }
+        for (String adminPath : ADMIN_PATHS) {
+            if (path.equals(adminPath) || path.startsWith(adminPath + "/")) {
+                return RateLimiter.Budget.ADMIN;
+            }
+        }
+        return RateLimiter.Budget.API;
+    }
+}
@@ -1,33 +1,135 @@
 package com.openmc.webapp.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openmc.webapp.config.AdminCredentials;
 import com.openmc.webapp.config.ServerConfig;
+import com.openmc.webapp.log.LogIndex;
 import com.openmc.webapp.model.ActivityTrackerStats;
+import com.openmc.webapp.model.LagSample;
 import com.openmc.webapp.model.LeaderboardEntry;
+import com.openmc.webapp.model.ScheduledCommand;
+import com.openmc.webapp.rcon.RconCommandScheduler;
 import com.openmc.webapp.service.ActivityTrackerService;
+import com.openmc.webapp.service.BackupService;
+import com.openmc.webapp.service.CommandJobService;
+import com.openmc.webapp.service.DashboardService;
+import com.openmc.webapp.service.DepositBoxService;
+import com.openmc.webapp.service.FlightRecorderService;
+import com.openmc.webapp.service.LagMonitorService;
+import com.openmc.webapp.service.PublicPageRenderer;
+import com.openmc.webapp.service.RateLimiter;
 import com.openmc.webapp.service.RconService;
+import com.openmc.webapp.service.ScheduledCommandService;
+import com.openmc.webapp.service.ServerLogService;
+import com.openmc.webapp.service.SnapshotResponseCache;
+import com.openmc.webapp.service.StatusStreamService;
+import com.openmc.webapp.service.WorldStatsService;
+import com.openmc.webapp.service.WorldStorageService;
+import com.openmc.webapp.stats.StatsIndex;
+import com.openmc.webapp.stats.StatsScanner;
+import com.openmc.webapp.world.WorldReport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Controller
 public class ServerController {
     
     private static final Logger logger = LoggerFactory.getLogger(ServerController.class);
     
+    // Size of a deposit box file so far, where an interrupted upload resumes
+    private static final String UPLOAD_OFFSET = "Upload-Offset";
+    private static final int MAX_LOG_SEARCH_LIMIT = 1000;
+    private static final int MAX_LAG_HOURS = 72;
+    private static final int MAX_LAG_EVENTS = 100;
+    private static final int MAX_STATS_LEADERBOARD_LIMIT = 100;
+    
     private final RconService rconService;
     private final ServerConfig serverConfig;
     private final ActivityTrackerService activityTrackerService;
+    private final StatusStreamService statusStreamService;
+    private final SnapshotResponseCache responseCache;
+    private final PublicPageRenderer publicPageRenderer;
+    private final DashboardService dashboardService;
+    private final CommandJobService commandJobService;
+    private final ScheduledCommandService scheduledCommandService;
+    private final FlightRecorderService flightRecorderService;
+    private final BackupService backupService;
+    private final DepositBoxService depositBoxService;
+    private final ServerLogService serverLogService;
+    private final LagMonitorService lagMonitorService;
+    private final WorldStatsService worldStatsService;
+    private final WorldStorageService worldStorageService;
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
     
     public ServerController(RconService rconService, ServerConfig serverConfig, 
-                          ActivityTrackerService activityTrackerService) {
+                          ActivityTrackerService activityTrackerService,
+                          StatusStreamService statusStreamService,
+                          SnapshotResponseCache responseCache,
+                          PublicPageRenderer publicPageRenderer,
+                          DashboardService dashboardService,
+                          CommandJobService commandJobService,
+                          ScheduledCommandService scheduledCommandService,
+                          FlightRecorderService flightRecorderService,
+                          BackupService backupService,
+                          DepositBoxService depositBoxService,
+                          ServerLogService serverLogService,
+                          LagMonitorService lagMonitorService,
+                          WorldStatsService worldStatsService,
+                          WorldStorageService worldStorageService,
+                          RateLimiter rateLimiter,
+                          ObjectMapper objectMapper) {
         this.rconService = rconService;
         this.serverConfig = serverConfig;
         this.activityTrackerService = activityTrackerService;
+        this.statusStreamService = statusStreamService;
+        this.responseCache = responseCache;
+        this.publicPageRenderer = publicPageRenderer;
+        this.dashboardService = dashboardService;
+        this.commandJobService = commandJobService;
+        this.scheduledCommandService = scheduledCommandService;
+        this.flightRecorderService = flightRecorderService;
+        this.backupService = backupService;
+        this.depositBoxService = depositBoxService;
+        this.serverLogService = serverLogService;
+        this.lagMonitorService = lagMonitorService;
+        this.worldStatsService = worldStatsService;
+        this.worldStorageService = worldStorageService;
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
     }
     
     @GetMapping("/")
@@ -36,14 +138,15 @@ public class ServerController {
     }
     
     @GetMapping("/public")
-    public String publicPage(Model model) {
-        RconService.ServerStatus status = rconService.getServerStatus();
-        model.addAttribute("status", status);
-        model.addAttribute("dynmapUrl", serverConfig.getDynmapUrl());
-        model.addAttribute("bluemapUrl", serverConfig.getBluemapUrl());
-        model.addAttribute("refreshIntervalMs", serverConfig.getRefreshIntervalMs());
-        model.addAttribute("lastFetchTime", rconService.getLastFetchTime());
-        model.addAttribute("activityTrackerEnabled", activityTrackerService.isEnabled());
+    public String publicPage(Model model, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (serverConfig.isPublicPagePrerender()) {
+            // The response is written directly, so no view is rendered
+            writePrerenderedPage(request, response, publicPageRenderer.render());
+            return null;
+        }
+        
+        RconService.Snapshot snapshot = rconService.getSnapshot();
+        model.addAllAttributes(publicPageRenderer.pageAttributes(snapshot.getStatus(), snapshot.getFetchTime()));
         return "public";
     }
     
@@ -55,33 +158,673 @@ public class ServerController {
     @PostMapping("/api/command")
     @ResponseBody
     public Map<String, String> sendCommand(@RequestBody Map<String, String> payload) {
+        String error = validateCommandRequest(payload);
+        if (error != null) {
+            return Map.of("result", "Error: " + error);
+        }
+        
+        String result = rconService.sendCommand(payload.get("command"));
+        return Map.of("result", result);
+    }
+    
+    /**
+     * Queue a command to run in the background and return its job id straight away.
+     * Poll GET /api/command/jobs/{id} for the result.
+     */
+    @PostMapping("/api/command/jobs")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> submitCommandJob(@RequestBody Map<String, String> payload) {
+        String error = validateCommandRequest(payload);
+        if (error != null) {
+            HttpStatus status = error.startsWith("Invalid") ? HttpStatus.UNAUTHORIZED : HttpStatus.BAD_REQUEST;
+            return ResponseEntity.status(status).body(Map.of("error", error));
+        }
+        
+        CommandJobService.Job job;
+        try {
+            job = commandJobService.submit(payload.get("command"));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(Map.of("error", e.getMessage()));
+        }
+        return ResponseEntity.accepted()
+            .header(HttpHeaders.LOCATION, "/api/command/jobs/" + job.getId())
+            .body(Map.of("id", job.getId(), "status", job.getStatus()));
+    }
+    
+    /**
+     * A job's status and output. Job output can be as sensitive as the command that made
+     * it, so this takes the admin credentials as HTTP Basic authentication.
+     */
+    @GetMapping("/api/command/jobs/{id}")
+    @ResponseBody
+    public ResponseEntity<?> getCommandJob(@PathVariable String id,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (!AdminCredentials.matchesBasicAuth(serverConfig, authorization)) {
+            return basicAuthRequired();
+        }
+        CommandJobService.Job job = commandJobService.getJob(id);
+        return job != null ? ResponseEntity.ok(job) : ResponseEntity.notFound().build();
+    }
+    
+    /**
+     * Scheduled commands and the ids of those running now. Schedule endpoints take
+     * the admin credentials as HTTP Basic authentication.
+     */
+    @GetMapping("/api/schedules")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> getSchedules(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (!AdminCredentials.matchesBasicAuth(serverConfig, authorization)) {
+            return basicAuthRequired();
+        }
+        return ResponseEntity.ok(Map.of(
+            "schedules", scheduledCommandService.getSchedules(),
+            "running", scheduledCommandService.getRunningIds()));
+    }
+    
+    @PostMapping("/api/schedules")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> createSchedule(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestBody ScheduledCommand request) {
+        if (!AdminCredentials.matchesBasicAuth(serverConfig, authorization)) {
+            return basicAuthRequired();
+        }
+        ScheduledCommand schedule;
+        try {
+            schedule = scheduledCommandService.create(request);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        return ResponseEntity.status(HttpStatus.CREATED)
+            .header(HttpHeaders.LOCATION, "/api/schedules/" + schedule.getId())
+            .body(Map.of("schedule", schedule));
+    }
+    
+    @PutMapping("/api/schedules/{id}")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> updateSchedule(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @PathVariable String id, @RequestBody ScheduledCommand request) {
+        if (!AdminCredentials.matchesBasicAuth(serverConfig, authorization)) {
+            return basicAuthRequired();
+        }
+        ScheduledCommand schedule;
+        try {
+            schedule = scheduledCommandService.update(id, request);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        return schedule != null ? ResponseEntity.ok(Map.of("schedule", schedule)) : ResponseEntity.notFound().build();
+    }
+    
+    @DeleteMapping("/api/schedules/{id}")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> deleteSchedule(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @PathVariable String id) {
+        if (!AdminCredentials.matchesBasicAuth(serverConfig, authorization)) {
+            return basicAuthRequired();
+        }
+        return scheduledCommandService.delete(id)
+            ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+    
+    /**
+     * Recent runs of all schedules, or of one with ?scheduleId=, newest first.
+     */
+    @GetMapping("/api/schedules/history")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> getScheduleHistory(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestParam(required = false) String scheduleId,
+            @RequestParam(defaultValue = "50") int limit) {
+        if (!AdminCredentials.matchesBasicAuth(serverConfig, authorization)) {
+            return basicAuthRequired();
+        }
+        return ResponseEntity.ok(Map.of("runs", scheduledCommandService.getHistory(scheduleId, Math.max(1, limit))));
+    }
+    
+    @GetMapping("/api/backups")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> getBackups(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) throws IOException {
+        if (!AdminCredentials.matchesBasicAuth(serverConfig, authorization)) {
+            return basicAuthRequired();
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("snapshots", backupService.getSnapshots());
+        body.put("archives", backupService.getArchives());
+        body.put("status", backupService.getStatus());
+        return ResponseEntity.ok(body);
+    }
+    
+    /**
+     * Start a backup of the server directory; poll GET /api/backups for its progress.
+     */
+    @PostMapping("/api/backups")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> startBackup(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (!AdminCredentials.matchesBasicAuth(serverConfig, authorization)) {
+            return basicAuthRequired();
+        }
+        if (!backupService.startBackup()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", "A backup or restore is already running"));
+        }
+        return backupAccepted();
+    }
+    
+    /**
+     * Restore a snapshot into its own directory under the restore directory.
+     */
+    @PostMapping("/api/backups/{id}/restore")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> restoreBackup(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @PathVariable String id) throws IOException {
+        if (!AdminCredentials.matchesBasicAuth(serverConfig, authorization)) {
+            return basicAuthRequired();
+        }
+        try {
+            if (!backupService.startRestore(id)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "A backup or restore is already running"));
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+        return backupAccepted();
+    }
+    
+    /**
+     * Export a snapshot as a .tar.gz in the archive directory.
+     */
+    @PostMapping("/api/backups/{id}/archive")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> archiveBackup(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @PathVariable String id) throws IOException {
+        if (!AdminCredentials.matchesBasicAuth(serverConfig, authorization)) {
+            return basicAuthRequired();
+        }
+        try {
+            if (!backupService.startArchive(id)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "A backup or restore is already running"));
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+        return backupAccepted();
+    }
+    
+    /**
+     * Extract a .tar.gz from the archive directory into its own directory under the
+     * restore directory.
+     */
+    @PostMapping("/api/backups/archives/{name}/restore")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> restoreArchive(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @PathVariable String name) {
+        if (!AdminCredentials.matchesBasicAuth(serverConfig, authorization)) {
+            return basicAuthRequired();
+        }
+        try {
+            if (!backupService.startArchiveRestore(name)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "A backup or restore is already running"));
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+        return backupAccepted();
+    }
+    
+    /**
+     * Verify every chunk of a snapshot against its hash.
+     */
+    @PostMapping("/api/backups/{id}/verify")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> verifyBackup(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @PathVariable String id) throws IOException {
+        if (!AdminCredentials.matchesBasicAuth(serverConfig, authorization)) {
+            return basicAuthRequired();
+        }
+        try {
+            if (!backupService.startVerify(id)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "A backup or restore is already running"));
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+        return backupAccepted();
+    }
+    
+    /**
+     * Verify an archive in the archive directory against its checksum and its contents.
+     */
+    @PostMapping("/api/backups/archives/{name}/verify")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> verifyArchive(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @PathVariable String name) {
+        if (!AdminCredentials.matchesBasicAuth(serverConfig, authorization)) {
+            return basicAuthRequired();
+        }
+        try {
+            if (!backupService.startArchiveVerify(name)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "A backup or restore is already running"));
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+        return backupAccepted();
+    }
+    
+    /**
+     * Apply the retention policy and delete chunks no remaining snapshot uses.
+     */
+    @PostMapping("/api/backups/prune")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> pruneBackups(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (!AdminCredentials.matchesBasicAuth(serverConfig, authorization)) {
+            return basicAuthRequired();
+        }
+        if (!backupService.startPrune()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", "A backup or restore is already running"));
+        }
+        return backupAccepted();
+    }
+    
+    /**
+     * Progress of the running backup operation, when the next scheduled backup is due,
+     * and the durations and throughput of recent operations.
+     */
+    @GetMapping("/api/backups/status")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> getBackupStatus(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (!AdminCredentials.matchesBasicAuth(serverConfig, authorization)) {
+            return basicAuthRequired();
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", backupService.getStatus());
+        body.put("nextScheduledBackup", backupService.getNextScheduledBackup());
+        body.put("history", backupService.getHistory());
+        return ResponseEntity.ok(body);
+    }
+    
+    /**
+     * Download an archive from the archive directory. Range requests are honoured, so an
+     * interrupted download can resume where it stopped.
+     */
+    @GetMapping("/api/backups/archives/{name}")
+    public void downloadArchive(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @PathVariable String name, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!AdminCredentials.matchesBasicAuth(serverConfig, authorization)) {
+            writeBasicAuthRequired(response);
+            return;
+        }
+        Path archive = backupService.findArchive(name);
+        if (archive == null) {
+            writeJsonError(response, HttpStatus.NOT_FOUND, "No archive named " + name);
+            return;
+        }
+        FileResponses.send(archive, "application/gzip", name, request, response);
+    }
+    
+    /**
+     * Stream the server directory as it is now as a .tar.gz, or a plain .tar with
+     * ?format=tar, built while it is sent. The world is flushed to disk first but saving
+     * continues; archive a snapshot for a consistent copy.
+     *
+     * Written on the request thread, like the archive downloads, so a large world is not
+     * cut off by the async request timeout.
+     */
+    @GetMapping("/api/world/archive")
+    public void downloadWorldArchive(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestParam(defaultValue = "tar.gz") String format, HttpServletResponse response) throws IOException {
+        if (!AdminCredentials.matchesBasicAuth(serverConfig, authorization)) {
+            writeBasicAuthRequired(response);
+            return;
+        }
+        if (!format.equals("tar.gz") && !format.equals("tar")) {
+            writeJsonError(response, HttpStatus.BAD_REQUEST, "Format must be tar.gz or tar");
+            return;
+        }
+        boolean compress = format.equals("tar.gz");
+        String filename = "world-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + "." + format;
+        logger.info("Streaming the server directory as {}", filename);
+        response.setContentType(compress ? "application/gzip" : "application/x-tar");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, FileResponses.attachment(filename));
+        // Built on the fly, so there is no length and no resuming
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "none");
+        backupService.writeServerArchive(response.getOutputStream(), compress);
+    }
+    
+    @GetMapping("/api/deposit-box")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> getDepositBox(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) throws IOException {
+        if (!AdminCredentials.matchesBasicAuth(serverConfig, authorization)) {
+            return basicAuthRequired();
+        }
+        return ResponseEntity.ok(Map.of("files", depositBoxService.listFiles()));
+    }
+    
+    /**
+     * Download a file from the deposit box, or part of it with a Range header. A HEAD
+     * request reports its size in Upload-Offset, which is where an interrupted upload resumes.
+     */
+    @GetMapping("/api/deposit-box/files/{*path}")
+    public void downloadDepositFile(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @PathVariable String path, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!AdminCredentials.matchesBasicAuth(serverConfig, authorization)) {
+            writeBasicAuthRequired(response);
+            return;
+        }
+        Path file;
+        try {
+            file = depositBoxService.findFile(path);
+        } catch (IllegalArgumentException e) {
+            writeJsonError(response, HttpStatus.BAD_REQUEST, e.getMessage());
+            return;
+        }
+        if (file == null) {
+            writeJsonError(response, HttpStatus.NOT_FOUND, "No file " + path + " in the deposit box");
+            return;
+        }
+        response.setHeader(UPLOAD_OFFSET, String.valueOf(Files.size(file)));
+        FileResponses.send(file, MediaType.APPLICATION_OCTET_STREAM_VALUE, file.getFileName().toString(),
+            request, response);
+    }
+    
+    /**
+     * Upload a file to the deposit box as the raw request body. Large files can be sent in
+     * pieces, each with a Content-Range such as {@code bytes 0-1048575/5242880}; a piece
+     * may start anywhere up to what has arrived so far, which Upload-Offset reports.
+     */
+    @PutMapping("/api/deposit-box/files/{*path}")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> uploadDepositFile(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestHeader(value = HttpHeaders.CONTENT_RANGE, required = false) String contentRange,
+            @PathVariable String path, HttpServletRequest request) throws IOException {
+        if (!AdminCredentials.matchesBasicAuth(serverConfig, authorization)) {
+            return basicAuthRequired();
+        }
+        long contentLength = request.getContentLengthLong();
+        long offset = 0;
+        long length = contentLength;
+        long total = -1;
+        try {
+            if (contentRange != null) {
+                long[] range = FileResponses.parseContentRange(contentRange);
+                offset = range[0];
+                length = range[1] - range[0] + 1;
+                total = range[2];
+                if (contentLength >= 0 && contentLength != length) {
+                    return ResponseEntity.badRequest()
+                        .body(Map.of("error", "Content-Range covers " + length + " bytes but the body has " + contentLength));
+                }
+            }
+            DepositBoxService.UploadResult result = depositBoxService.upload(path, offset, length, total,
+                request.getInputStream());
+            return ResponseEntity.status(result.isComplete() ? HttpStatus.CREATED : HttpStatus.ACCEPTED)
+                .header(UPLOAD_OFFSET, String.valueOf(result.getSize()))
+                .body(Map.of("upload", result));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(UPLOAD_OFFSET, String.valueOf(depositBoxService.uploadOffset(path)))
+                .body(Map.of("error", e.getMessage()));
+        } catch (EOFException e) {
+            return ResponseEntity.badRequest()
+                .header(UPLOAD_OFFSET, String.valueOf(depositBoxService.uploadOffset(path)))
+                .body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Search the indexed server log: events containing every word of ?q=, at ?level= or
+     * above, from ?from= up to ?to= (ISO-8601 instants), newest first.
+     */
+    @GetMapping("/api/logs/search")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> searchLogs(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(defaultValue = "100") int limit) {
+        if (!AdminCredentials.matchesBasicAuth(serverConfig, authorization)) {
+            return basicAuthRequired();
+        }
+        if (limit < 1 || limit > MAX_LOG_SEARCH_LIMIT) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Limit must be between 1 and " + MAX_LOG_SEARCH_LIMIT));
+        }
+        long started = System.nanoTime();
+        LogIndex.SearchResult result;
+        try {
+            result = serverLogService.search(q, parseInstant(from), parseInstant(to), level, limit);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("events", result.getEvents());
+        body.put("truncated", result.isTruncated());
+        body.put("tookMicros", (System.nanoTime() - started) / 1000);
+        body.put("index", serverLogService.getStats());
+        return ResponseEntity.ok(body);
+    }
+    
+    /**
+     * Download the last ?minutes= of the continuous flight recording as a .jfr file,
+     * for opening in JDK Mission Control or the jfr tool. Takes the admin credentials
+     * as HTTP Basic authentication. Written on the request thread, so a long dump is
+     * not cut off by the async request timeout.
+     */
+    @GetMapping("/api/admin/flight-recording")
+    public void downloadFlightRecording(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestParam(defaultValue = "10") long minutes, HttpServletResponse response) throws IOException {
+        if (!AdminCredentials.matchesBasicAuth(serverConfig, authorization)) {
+            writeBasicAuthRequired(response);
+            return;
+        }
+        if (!flightRecorderService.isRecording()) {
+            writeJsonError(response, HttpStatus.SERVICE_UNAVAILABLE, "Flight recording is disabled");
+            return;
+        }
+        long maxMinutes = flightRecorderService.getMaxAge().toMinutes();
+        if (minutes < 1 || minutes > maxMinutes) {
+            writeJsonError(response, HttpStatus.BAD_REQUEST, "Minutes must be between 1 and " + maxMinutes);
+            return;
+        }
+        
+        String filename = "webapp-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".jfr";
+        logger.info("Dumping the last {} minutes of the flight recording to {}", minutes, filename);
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+        flightRecorderService.dump(Duration.ofMinutes(minutes), response.getOutputStream());
+    }
+    
+    private static Instant parseInstant(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Instant.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Times must be ISO-8601 instants, such as 2026-01-01T12:00:00Z");
+        }
+    }
+    
+    private void writeBasicAuthRequired(HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Basic realm=\"admin\"");
+        writeJsonError(response, HttpStatus.UNAUTHORIZED, "Invalid username or password");
+    }
+    
+    private void writeJsonError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(objectMapper.writeValueAsBytes(Map.of("error", message)));
+    }
+    
+    /**
+     * 202 with the backup status. Built in a map that takes null, since an operation can
+     * finish, or fail to start, before the status is read.
+     */
+    private ResponseEntity<Map<String, Object>> backupAccepted() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", backupService.getStatus());
+        return ResponseEntity.accepted().body(body);
+    }
+    
+    private static ResponseEntity<Map<String, Object>> basicAuthRequired() {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+            .header(HttpHeaders.WWW_AUTHENTICATE, "Basic realm=\"admin\"")
+            .body(Map.of("error", "Invalid username or password"));
+    }
+    
+    /**
+     * Check credentials and command of an admin command request; returns an error or null.
+     */
+    private String validateCommandRequest(Map<String, String> payload) {
         String username = payload.get("username");
         String password = payload.get("password");
         String command = payload.get("command");
         
-        // Validate credentials
         if (username == null || password == null) {
-            return Map.of("result", "Error: Username and password are required");
+            return "Username and password are required";
+        }
+        if (!AdminCredentials.matches(serverConfig, username, password)) {
+            return "Invalid username or password";
+        }
+        if (command == null || command.trim().isEmpty()) {
+            return "Command cannot be empty";
+        }
+        return null;
+    }
+    
+    /**
+     * Run an ordered list of commands and stream one NDJSON line per result, followed by
+     * a summary line. With stopOnError the batch ends at the first failed command.
+     *
+     * The request itself passes the command budget like any other; each command in it is
+     * then charged to the batch budget, so one request cannot run hundreds of commands free.
+     */
+    @PostMapping(value = "/api/command/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void sendCommandBatch(@RequestBody Map<String, Object> payload, HttpServletRequest request,
+                                 HttpServletResponse response) throws IOException {
+        Object username = payload.get("username");
+        Object password = payload.get("password");
+        if (!(username instanceof String) || !(password instanceof String)) {
+            writeNdjsonError(response, HttpStatus.BAD_REQUEST, Map.of("error", "Username and password are required"));
+            return;
+        }
+        if (!AdminCredentials.matches(serverConfig, (String) username, (String) password)) {
+            writeNdjsonError(response, HttpStatus.UNAUTHORIZED, Map.of("error", "Invalid username or password"));
+            return;
         }
         
-        if (!serverConfig.getAdminUsername().equals(username) || 
-            !serverConfig.getAdminPassword().equals(password)) {
-            return Map.of("result", "Error: Invalid username or password");
+        if (!(payload.get("commands") instanceof List<?> rawCommands) || rawCommands.isEmpty()) {
+            writeNdjsonError(response, HttpStatus.BAD_REQUEST, Map.of("error", "Commands must be a non-empty list"));
+            return;
+        }
+        if (rawCommands.size() > serverConfig.getCommandBatchMaxSize()) {
+            writeNdjsonError(response, HttpStatus.BAD_REQUEST, Map.of("error",
+                "A batch may contain at most " + serverConfig.getCommandBatchMaxSize() + " commands"));
+            return;
         }
+        List<String> commands = new ArrayList<>(rawCommands.size());
+        for (Object command : rawCommands) {
+            if (!(command instanceof String) || ((String) command).trim().isEmpty()) {
+                writeNdjsonError(response, HttpStatus.BAD_REQUEST, Map.of("error", "Command cannot be empty"));
+                return;
+            }
+            commands.add((String) command);
+        }
+        boolean stopOnError = Boolean.TRUE.equals(payload.get("stopOnError"));
         
-        // Validate command
-        if (command == null || command.trim().isEmpty()) {
-            return Map.of("result", "Error: Command cannot be empty");
+        long retryAfterMs = rateLimiter.tryAcquire(RateLimiter.Budget.BATCH, request.getRemoteAddr(), commands.size());
+        if (retryAfterMs > 0) {
+            long retryAfterSeconds = Math.max(1, (retryAfterMs + 999) / 1000);
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            writeNdjsonError(response, HttpStatus.TOO_MANY_REQUESTS,
+                Map.of("error", "Too many commands", "retryAfterSeconds", retryAfterSeconds));
+            return;
         }
         
-        String result = rconService.sendCommand(command);
-        return Map.of("result", result);
+        logger.info("Running batch of {} commands (stopOnError={})", commands.size(), stopOnError);
+        // Written on the request thread, so a long batch is not cut off by the async request timeout
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream out = response.getOutputStream();
+        int[] failed = new int[1];
+        int executed = rconService.sendCommands(commands, stopOnError, result -> {
+            if (!result.isSuccess()) {
+                failed[0]++;
+            }
+            writeNdjsonLine(out, result);
+        });
+        
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("done", true);
+        summary.put("executed", executed);
+        summary.put("failed", failed[0]);
+        summary.put("stopped", executed < commands.size());
+        writeNdjsonLine(out, summary);
+    }
+    
+    private void writeNdjsonError(HttpServletResponse response, HttpStatus status, Map<String, Object> error)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        writeNdjsonLine(response.getOutputStream(), error);
+    }
+    
+    private void writeNdjsonLine(OutputStream out, Object line) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(line));
+            out.write('\n');
+            // Flush per line so clients see each result as soon as it is known
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
     
     @GetMapping("/api/status")
     @ResponseBody
-    public RconService.ServerStatus getStatus() {
-        return rconService.getServerStatus();
+    public ResponseEntity<byte[]> getStatus(HttpServletRequest request) {
+        RconService.Snapshot snapshot = rconService.getSnapshot();
+        return cachedJson(request, "status", snapshot.getVersion(),
+            rconService.getMillisUntilRefresh(), snapshot::getStatus);
+    }
+    
+    @GetMapping(value = "/api/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter streamStatus(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                   HttpServletResponse response) {
+        // Stop nginx from buffering the stream
+        response.setHeader("X-Accel-Buffering", "no");
+        return statusStreamService.subscribe(lastEventId);
     }
     
     @GetMapping("/api/resources")
@@ -90,39 +833,252 @@ public class ServerController {
         return rconService.getResourceUsage();
     }
     
+    @GetMapping("/api/rcon/scheduler")
+    @ResponseBody
+    public RconCommandScheduler.SchedulerStats getRconSchedulerStats() {
+        return rconService.getSchedulerStats();
+    }
+    
     @GetMapping("/api/history")
     @ResponseBody
-    public Map<String, Object> getHistory() {
-        return Map.of("history", rconService.getRetrievalHistory());
+    public ResponseEntity<byte[]> getHistory(HttpServletRequest request) {
+        // History only changes when a new status snapshot is taken
+        RconService.Snapshot snapshot = rconService.getLatestSnapshot();
+        return cachedJson(request, "history", snapshot.getVersion(),
+            rconService.getMillisUntilRefresh(), () -> Map.of("history", snapshot.getHistory()));
+    }
+    
+    /**
+     * Lag the server reported in its log over the last ?hours=, summed up per ?bucket=
+     * seconds and merged with the RCON status history, plus the latest lag warnings.
+     */
+    @GetMapping("/api/lag")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> getLag(
+            @RequestParam(defaultValue = "6") int hours,
+            @RequestParam(defaultValue = "60") int bucket) {
+        if (hours < 1 || hours > MAX_LAG_HOURS) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Hours must be between 1 and " + MAX_LAG_HOURS));
+        }
+        if (bucket < 1) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Bucket must be at least 1 second"));
+        }
+        Instant to = Instant.now();
+        Instant from = to.minus(Duration.ofHours(hours));
+        List<LagSample> series;
+        try {
+            series = lagMonitorService.getSeries(from, to, Duration.ofSeconds(bucket),
+                rconService.getRetrievalHistory());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("from", from);
+        body.put("to", to);
+        body.put("bucketSeconds", bucket);
+        body.put("series", series);
+        body.put("events", lagMonitorService.getEvents(from, to, MAX_LAG_EVENTS));
+        body.put("eventsDetected", lagMonitorService.getEventsDetected());
+        return ResponseEntity.ok(body);
+    }
+    
+    /**
+     * The per-player stats indexed from the world's stats files: every stat name with how
+     * many players have it, and how the last scan went.
+     */
+    @GetMapping("/api/stats")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> getWorldStats() {
+        StatsIndex index = worldStatsService.getIndex();
+        StatsScanner.ScanResult scan = worldStatsService.getLastScan();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("players", index.getPlayerCount());
+        body.put("scannedAt", index.getScannedAt());
+        if (scan != null) {
+            body.put("lastScan", Map.of("files", scan.getFiles(), "parsed", scan.getParsed(),
+                "failed", scan.getFailed(), "millis", scan.getMillis()));
+        }
+        body.put("stats", index.getStats());
+        return ResponseEntity.ok(body);
+    }
+    
+    /**
+     * The ?limit= players with the highest value of ?stat=, such as mined/* for blocks
+     * mined or custom/deaths, highest first.
+     */
+    @GetMapping("/api/stats/leaderboard")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> getWorldStatsLeaderboard(
+            @RequestParam String stat,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_STATS_LEADERBOARD_LIMIT) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Limit must be between 1 and " + MAX_STATS_LEADERBOARD_LIMIT));
+        }
+        List<StatsIndex.Entry> entries;
+        try {
+            entries = worldStatsService.top(stat, limit);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("stat", stat);
+        body.put("scannedAt", worldStatsService.getIndex().getScannedAt());
+        body.put("entries", entries);
+        return ResponseEntity.ok(body);
+    }
+    
+    /**
+     * Disk use of each dimension of the world, with the ?limit= largest and stalest
+     * regions and oldest chunks, for deciding what to trim. Takes the admin credentials
+     * as HTTP Basic authentication.
+     */
+    @GetMapping("/api/admin/world/storage")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> getWorldStorage(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestParam(defaultValue = "20") int limit) throws IOException {
+        if (!AdminCredentials.matchesBasicAuth(serverConfig, authorization)) {
+            return basicAuthRequired();
+        }
+        WorldReport report;
+        try {
+            report = worldStorageService.analyze(limit);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        return ResponseEntity.ok(Map.of("report", report));
     }
     
     @GetMapping("/api/activity-tracker/stats")
     @ResponseBody
-    public ActivityTrackerStats getActivityTrackerStats() {
+    public ResponseEntity<byte[]> getActivityTrackerStats(HttpServletRequest request) {
         logger.debug("API request: /api/activity-tracker/stats");
         ActivityTrackerStats stats = activityTrackerService.getStats();
         if (stats == null) {
             logger.warn("Activity Tracker stats request returned null - check if integration is enabled and API is accessible");
         }
-        return stats;
+        return cachedJson(request, "activity-tracker-stats", activityTrackerService.getStatsVersion(),
+            activityTrackerService.getStatsTtlRemainingMs(), () -> stats);
     }
     
     @GetMapping("/api/activity-tracker/leaderboard")
     @ResponseBody
-    public List<LeaderboardEntry> getActivityTrackerLeaderboard() {
+    public ResponseEntity<byte[]> getActivityTrackerLeaderboard(HttpServletRequest request) {
         logger.debug("API request: /api/activity-tracker/leaderboard");
         List<LeaderboardEntry> leaderboard = activityTrackerService.getLeaderboard();
         if (leaderboard.isEmpty()) {
             logger.warn("Activity Tracker leaderboard request returned empty - check if integration is enabled and API is accessible");
         }
-        return leaderboard;
+        return cachedJson(request, "activity-tracker-leaderboard", activityTrackerService.getLeaderboardVersion(),
+            activityTrackerService.getLeaderboardTtlRemainingMs(), () -> leaderboard);
     }
     
     @GetMapping("/api/activity-tracker/enabled")
     @ResponseBody
-    public Map<String, Boolean> getActivityTrackerEnabled() {
-        boolean enabled = activityTrackerService.isEnabled();
-        logger.debug("API request: /api/activity-tracker/enabled - returning: {}", enabled);
-        return Map.of("enabled", enabled);
+    public ResponseEntity<byte[]> getActivityTrackerEnabled(HttpServletRequest request) {
+        boolean enabled = activityTrackerService.isAvailable();
+        String source = activityTrackerService.getSource();
+        logger.debug("API request: /api/activity-tracker/enabled - returning: {} ({})", enabled, source);
+        return cachedJson(request, "activity-tracker-enabled", 0,
+            serverConfig.getRefreshIntervalMs(), () -> Map.of("enabled", enabled, "source", source));
+    }
+    
+    @GetMapping("/api/dashboard")
+    @ResponseBody
+    public ResponseEntity<byte[]> getDashboard(@RequestParam(value = "include", required = false) String include,
+                                               HttpServletRequest request) {
+        Set<String> sections;
+        try {
+            sections = dashboardService.parseInclude(include);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        
+        DashboardService.Dashboard dashboard = dashboardService.assemble(sections);
+        // Partial results must not be reused by the browser until the next refresh
+        long maxAgeMs = dashboard.isComplete() ? rconService.getMillisUntilRefresh() : 0;
+        return cachedJson(request, "dashboard", 0, maxAgeMs, () -> dashboard);
+    }
+    
+    /**
+     * Serve a JSON body from the snapshot cache with an ETag, answering a matching
+     * If-None-Match with 304 and using the cached gzip bytes when the client accepts them.
+     */
+    private ResponseEntity<byte[]> cachedJson(HttpServletRequest request, String key, long version,
+                                              long maxAgeMs, Supplier<?> body) {
+        SnapshotResponseCache.CachedResponse cached = responseCache.get(key, version, body);
+        CacheControl cacheControl = revalidateAfter(maxAgeMs);
+        
+        if (cached.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(cached.getEtag())
+                .cacheControl(cacheControl)
+                .build();
+        }
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(cached.getEtag())
+            .cacheControl(cacheControl)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (cached.isCompressible() && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(cached.getGzipBody());
+        }
+        return response.body(cached.getBody());
+    }
+    
+    /**
+     * Write a pre-rendered page with the same caching headers as the JSON snapshots.
+     */
+    private void writePrerenderedPage(HttpServletRequest request, HttpServletResponse response,
+                                      SnapshotResponseCache.CachedResponse page) throws IOException {
+        response.setHeader(HttpHeaders.ETAG, page.getEtag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+            revalidateAfter(rconService.getMillisUntilRefresh()).getHeaderValue());
+        if (page.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+        
+        response.setContentType(MediaType.TEXT_HTML_VALUE + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        byte[] body = page.getBody();
+        if (page.isCompressible() && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            body = page.getGzipBody();
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+    
+    private static CacheControl revalidateAfter(long maxAgeMs) {
+        return CacheControl.maxAge(TimeUnit.MILLISECONDS.toSeconds(maxAgeMs), TimeUnit.SECONDS)
+            .mustRevalidate();
+    }
+    
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(parameter.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
     }
 }
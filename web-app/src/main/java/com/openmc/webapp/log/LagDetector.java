@@ -0,0 +1,85 @@
+package com.openmc.webapp.log;
+
+import com.openmc.webapp.model.LagEvent;
+import com.openmc.webapp.model.LogEvent;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Picks the lag warnings out of server log events, so lag can be followed from the log
+ * alone, without asking the server for its TPS over RCON. Understood are:
+ * <ul>
+ *   <li>{@code Can't keep up! Is the server overloaded? Running 2534ms or 50 ticks behind},
+ *       logged by the main thread when it falls more than two seconds behind;</li>
+ *   <li>the watchdog warnings of vanilla, Spigot and Paper about a tick that has not
+ *       finished, such as {@code A single server tick took 60.00 seconds};</li>
+ *   <li>warnings and errors about garbage collection that give a pause time, as logged
+ *       by profiling plugins.</li>
+ * </ul>
+ * Only the first line of a message is looked at; what follows is usually a thread dump.
+ */
+public final class LagDetector {
+
+    private static final Pattern TICK_LAG =
+        Pattern.compile("Can't keep up! Is the server overloaded\\? Running (\\d+)ms or (\\d+) ticks behind");
+    private static final Pattern TICK_TOOK = Pattern.compile("A single server tick took (\\d+(?:\\.\\d+)?) seconds");
+    private static final Pattern NOT_RESPONDED = Pattern.compile("The server has not responded for (\\d+) seconds");
+    private static final Pattern STOPPED_RESPONDING = Pattern.compile("The server has stopped responding");
+    private static final Pattern GC =
+        Pattern.compile("\\b(?:GC|[Gg]arbage [Cc]ollect(?:ion|or))\\b");
+    private static final Pattern DURATION =
+        Pattern.compile("(\\d{1,3}(?:,\\d{3})+|\\d+(?:\\.\\d+)?) ?(ms|s|seconds?)\\b");
+
+    private LagDetector() {
+    }
+
+    /**
+     * The lag warning in {@code event}, or null if it is not one.
+     */
+    public static LagEvent detect(LogEvent event) {
+        String message = event.getMessage();
+        int lineEnd = message.indexOf('\n');
+        String line = lineEnd < 0 ? message : message.substring(0, lineEnd);
+
+        Matcher matcher = TICK_LAG.matcher(line);
+        if (matcher.find()) {
+            return new LagEvent(event.getTimestamp(), LagEvent.Kind.TICK_LAG,
+                parseLong(matcher.group(1)), parseLong(matcher.group(2)), line);
+        }
+        matcher = TICK_TOOK.matcher(line);
+        if (matcher.find()) {
+            return new LagEvent(event.getTimestamp(), LagEvent.Kind.WATCHDOG,
+                Math.round(Double.parseDouble(matcher.group(1)) * 1000), 0, line);
+        }
+        matcher = NOT_RESPONDED.matcher(line);
+        if (matcher.find()) {
+            return new LagEvent(event.getTimestamp(), LagEvent.Kind.WATCHDOG,
+                parseLong(matcher.group(1)) * 1000, 0, line);
+        }
+        if (STOPPED_RESPONDING.matcher(line).find()) {
+            return new LagEvent(event.getTimestamp(), LagEvent.Kind.WATCHDOG, 0, 0, line);
+        }
+        if (isWarning(event.getLevel()) && GC.matcher(line).find()) {
+            matcher = DURATION.matcher(line);
+            if (matcher.find()) {
+                double amount = Double.parseDouble(matcher.group(1).replace(",", ""));
+                long millis = Math.round(matcher.group(2).equals("ms") ? amount : amount * 1000);
+                return new LagEvent(event.getTimestamp(), LagEvent.Kind.GC_PAUSE, millis, 0, line);
+            }
+        }
+        return null;
+    }
+
+    private static boolean isWarning(String level) {
+        return "WARN".equals(level) || "ERROR".equals(level) || "FATAL".equals(level);
+    }
+
+    private static long parseLong(String digits) {
+        try {
+            return Long.parseLong(digits);
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
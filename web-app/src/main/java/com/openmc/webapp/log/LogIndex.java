@@ -0,0 +1,394 @@
+package com.openmc.webapp.log;
+
+import com.openmc.webapp.model.LogEvent;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The most recent log events, searchable by time range, level and keywords.
+ *
+ * Events live in a ring of fixed capacity; once it is full, each new event replaces the
+ * oldest. Every word of every message is indexed: each word maps to the ascending ring
+ * positions of the events that contain it. A keyword search intersects the lists of its
+ * words, starting from the shortest, and then checks each candidate's message for every
+ * search term as typed, so {@code net.minecraft} finds that text and not just both words.
+ * Like a search engine, and unlike grep, a term finds whole words, not parts of them.
+ * Positions of replaced events are dropped from the lists in batches, which keeps the
+ * word lists within a constant factor of the ring.
+ */
+public class LogIndex {
+
+    /**
+     * Levels from least to most severe; a search for one finds it and everything above.
+     */
+    public static final List<String> LEVELS = List.of("TRACE", "DEBUG", "INFO", "WARN", "ERROR", "FATAL");
+
+    private static final int MIN_WORD_LENGTH = 2;
+    private static final int MAX_WORD_LENGTH = 64;
+    private static final int MAX_WORDS_PER_EVENT = 128;
+
+    private final int capacity;
+    private final LogEvent[] events;
+    // Search keys: event times in epoch millis, never decreasing along the ring
+    private final long[] times;
+    private final Map<String, Postings> postings = new HashMap<>();
+    private long added;
+    private long lastCompactedAt;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public LogIndex(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.events = new LogEvent[this.capacity];
+        this.times = new long[this.capacity];
+    }
+
+    public void add(LogEvent event) {
+        lock.lock();
+        try {
+            int slot = (int) (added % capacity);
+            long time = event.getTimestamp().toEpochMilli();
+            if (added > 0) {
+                // Events out of order, such as after a clock change, are filed at the latest time so far
+                time = Math.max(time, times[(int) ((added - 1) % capacity)]);
+            }
+            events[slot] = event;
+            times[slot] = time;
+            for (String word : words(event.getMessage())) {
+                postings.computeIfAbsent(word, key -> new Postings()).add(added);
+            }
+            added++;
+            if (added - lastCompactedAt >= capacity / 2 && added > capacity) {
+                compact();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Events matching every term of {@code query} between {@code from} and {@code to},
+     * newest first.
+     *
+     * @param query    search terms separated by spaces, matched without regard to case; blank matches all
+     * @param from     earliest event time, inclusive, or null
+     * @param to       latest event time, exclusive, or null
+     * @param minLevel least severe level to include, or null for all
+     */
+    public SearchResult search(String query, Instant from, Instant to, String minLevel, int limit) {
+        List<String> terms = terms(query);
+        Set<String> levels = levelsFrom(minLevel);
+        lock.lock();
+        try {
+            long oldest = oldestPosition();
+            long start = from == null ? oldest : firstAtOrAfter(from.toEpochMilli(), oldest);
+            long end = to == null ? added : firstAtOrAfter(to.toEpochMilli(), oldest);
+            List<LogEvent> found = new ArrayList<>();
+            boolean truncated = false;
+
+            List<Postings> lists = new ArrayList<>();
+            for (String term : terms) {
+                for (String word : words(term)) {
+                    Postings list = postings.get(word);
+                    if (list == null) {
+                        return new SearchResult(found, false);
+                    }
+                    lists.add(list);
+                }
+            }
+            lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+            Iterator<Long> candidates = lists.isEmpty()
+                ? descending(start, end)
+                : lists.get(0).descending(Math.max(start, oldest), end);
+            while (candidates.hasNext()) {
+                long position = candidates.next();
+                if (!inAll(lists, position)) {
+                    continue;
+                }
+                LogEvent event = events[(int) (position % capacity)];
+                if (!matches(event, terms, levels)) {
+                    continue;
+                }
+                if (found.size() == limit) {
+                    truncated = true;
+                    break;
+                }
+                found.add(event);
+            }
+            return new SearchResult(found, truncated);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Stats getStats() {
+        lock.lock();
+        try {
+            int size = (int) Math.min(added, capacity);
+            LogEvent oldest = size > 0 ? events[(int) (oldestPosition() % capacity)] : null;
+            LogEvent newest = size > 0 ? events[(int) ((added - 1) % capacity)] : null;
+            return new Stats(size, capacity, added, postings.size(),
+                oldest != null ? oldest.getTimestamp() : null, newest != null ? newest.getTimestamp() : null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long oldestPosition() {
+        return Math.max(0, added - capacity);
+    }
+
+    /**
+     * The first position at or after {@code oldest} whose search time is at least {@code millis}.
+     */
+    private long firstAtOrAfter(long millis, long oldest) {
+        long low = oldest;
+        long high = added;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (times[(int) (middle % capacity)] < millis) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static boolean inAll(List<Postings> lists, long position) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(position)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(LogEvent event, List<String> terms, Set<String> levels) {
+        if (levels != null && !levels.contains(event.getLevel())) {
+            return false;
+        }
+        if (terms.isEmpty()) {
+            return true;
+        }
+        String message = event.getMessage().toLowerCase(Locale.ROOT);
+        for (String term : terms) {
+            if (!message.contains(term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Iterator<Long> descending(long start, long end) {
+        return new Iterator<>() {
+            private long next = end - 1;
+
+            @Override
+            public boolean hasNext() {
+                return next >= start;
+            }
+
+            @Override
+            public Long next() {
+                return next--;
+            }
+        };
+    }
+
+    /**
+     * Drop the positions of replaced events from every word list, and words left with none.
+     */
+    private void compact() {
+        long oldest = oldestPosition();
+        postings.values().removeIf(list -> list.dropBefore(oldest) == 0);
+        lastCompactedAt = added;
+    }
+
+    private static Set<String> levelsFrom(String minLevel) {
+        if (minLevel == null || minLevel.isBlank()) {
+            return null;
+        }
+        int index = LEVELS.indexOf(minLevel.trim().toUpperCase(Locale.ROOT));
+        if (index < 0) {
+            throw new IllegalArgumentException("Level must be one of " + LEVELS);
+        }
+        return Set.copyOf(LEVELS.subList(index, LEVELS.size()));
+    }
+
+    static List<String> terms(String query) {
+        List<String> terms = new ArrayList<>();
+        if (query != null) {
+            for (String term : query.toLowerCase(Locale.ROOT).trim().split("\\s+")) {
+                if (!term.isEmpty()) {
+                    terms.add(term);
+                }
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * The distinct indexable words of a text: runs of letters and digits, lower-cased.
+     * Single characters are left out, as they would not narrow a search, and so is
+     * anything past the first {@value #MAX_WORDS_PER_EVENT} words of a long stack trace.
+     */
+    static Set<String> words(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length && words.size() < MAX_WORDS_PER_EVENT; i++) {
+            boolean wordChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (i - start >= MIN_WORD_LENGTH && i - start <= MAX_WORD_LENGTH) {
+                    words.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Ascending positions of the events containing one word.
+     */
+    private static class Postings {
+        private long[] positions = new long[4];
+        private int size;
+
+        void add(long position) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean contains(long position) {
+            return Arrays.binarySearch(positions, 0, size, position) >= 0;
+        }
+
+        /**
+         * Remove positions before {@code oldest}; returns how many are left.
+         */
+        int dropBefore(long oldest) {
+            int from = lowerBound(oldest);
+            if (from > 0) {
+                System.arraycopy(positions, from, positions, 0, size - from);
+                size -= from;
+                if (size < positions.length / 4 && positions.length > 4) {
+                    positions = Arrays.copyOf(positions, Math.max(4, size * 2));
+                }
+            }
+            return size;
+        }
+
+        Iterator<Long> descending(long start, long end) {
+            int first = lowerBound(start);
+            int last = lowerBound(end) - 1;
+            return new Iterator<>() {
+                private int next = last;
+
+                @Override
+                public boolean hasNext() {
+                    return next >= first;
+                }
+
+                @Override
+                public Long next() {
+                    return positions[next--];
+                }
+            };
+        }
+
+        private int lowerBound(long position) {
+            int index = Arrays.binarySearch(positions, 0, size, position);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+
+    /**
+     * The events a search found, and whether there were more than the limit.
+     */
+    public static class SearchResult {
+        private final List<LogEvent> events;
+        private final boolean truncated;
+
+        public SearchResult(List<LogEvent> events, boolean truncated) {
+            this.events = events;
+            this.truncated = truncated;
+        }
+
+        public List<LogEvent> getEvents() {
+            return events;
+        }
+
+        public boolean isTruncated() {
+            return truncated;
+        }
+    }
+
+    /**
+     * How much of the log the index holds.
+     */
+    public static class Stats {
+        private final int events;
+        private final int capacity;
+        private final long eventsIndexed;
+        private final int words;
+        private final Instant oldest;
+        private final Instant newest;
+
+        public Stats(int events, int capacity, long eventsIndexed, int words, Instant oldest, Instant newest) {
+            this.events = events;
+            this.capacity = capacity;
+            this.eventsIndexed = eventsIndexed;
+            this.words = words;
+            this.oldest = oldest;
+            this.newest = newest;
+        }
+
+        public int getEvents() {
+            return events;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        /**
+         * Events added since the app started, including those since replaced.
+         */
+        public long getEventsIndexed() {
+            return eventsIndexed;
+        }
+
+        public int getWords() {
+            return words;
+        }
+
+        public Instant getOldest() {
+            return oldest;
+        }
+
+        public Instant getNewest() {
+            return newest;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.openmc.webapp.log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Objects;
+
+/**
+ * Follows a log file as it grows, reading only the bytes appended since the last poll.
+ *
+ * The file is kept open between polls. When the server rotates it, renaming it away and
+ * starting a new one at the same path, the open file still holds whatever was written
+ * before the rename; that rest is read first, then the new file from its start. A file
+ * that is truncated in place is also read again from its start.
+ */
+public class LogTailer implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // A longer run without a line break is passed on in pieces of this size
+    private static final int MAX_LINE_LENGTH = 1024 * 1024;
+
+    /**
+     * Told about what the tailer reads, on the polling thread.
+     */
+    public interface Listener {
+
+        /**
+         * A file is about to be read from its start; {@code created} is when it was
+         * created, or last modified where creation times are not recorded.
+         */
+        default void fileStarted(FileTime created) {
+        }
+
+        /**
+         * One complete line, without its line terminator.
+         */
+        void line(String line);
+    }
+
+    private final Path file;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final ByteArrayOutputStream partialLine = new ByteArrayOutputStream();
+    private FileChannel channel;
+    private Object fileKey;
+    private FileTime created;
+    private long position;
+
+    public LogTailer(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Read what was appended since the last poll, and follow a rotation if there was one.
+     *
+     * @return the number of bytes read
+     */
+    public long poll(Listener listener) throws IOException {
+        long read = 0;
+        if (channel != null) {
+            read += readToEnd(listener);
+        }
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            // Between the rename and the new file; the open one, if any, was read above
+            return read;
+        }
+        if (channel != null && !replaced(attributes)) {
+            return read;
+        }
+        if (channel != null) {
+            endLine(listener);
+            channel.close();
+            channel = null;
+        }
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            return read;
+        }
+        fileKey = attributes.fileKey();
+        created = attributes.creationTime();
+        position = 0;
+        listener.fileStarted(created.toMillis() > 0 ? created : attributes.lastModifiedTime());
+        return read + readToEnd(listener);
+    }
+
+    /**
+     * Whether the path now names a different file than the one open, or the open one was
+     * truncated.
+     */
+    private boolean replaced(BasicFileAttributes attributes) throws IOException {
+        if (attributes.fileKey() != null && fileKey != null) {
+            if (!attributes.fileKey().equals(fileKey)) {
+                return true;
+            }
+        } else if (!Objects.equals(attributes.creationTime(), created)) {
+            return true;
+        }
+        return channel.size() < position;
+    }
+
+    private long readToEnd(Listener listener) throws IOException {
+        long read = 0;
+        while (true) {
+            buffer.clear();
+            int count = channel.read(buffer, position);
+            if (count <= 0) {
+                return read;
+            }
+            position += count;
+            read += count;
+            splitLines(buffer.array(), count, listener);
+        }
+    }
+
+    private void splitLines(byte[] bytes, int length, Listener listener) {
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] != '\n') {
+                continue;
+            }
+            int end = i > start && bytes[i - 1] == '\r' ? i - 1 : i;
+            if (partialLine.size() > 0) {
+                partialLine.write(bytes, start, end - start);
+                endLine(listener);
+            } else {
+                listener.line(new String(bytes, start, end - start, StandardCharsets.UTF_8));
+            }
+            start = i + 1;
+        }
+        partialLine.write(bytes, start, length - start);
+        if (partialLine.size() > MAX_LINE_LENGTH) {
+            endLine(listener);
+        }
+    }
+
+    /**
+     * Pass on the line in progress, if any.
+     */
+    private void endLine(Listener listener) {
+        if (partialLine.size() == 0) {
+            return;
+        }
+        byte[] line = partialLine.toByteArray();
+        partialLine.reset();
+        int length = line.length > 0 && line[line.length - 1] == '\r' ? line.length - 1 : line.length;
+        listener.line(new String(line, 0, length, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * How far into the current file has been read.
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.openmc.webapp.log;
+
+import com.openmc.webapp.model.LogEvent;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns server log lines into {@link LogEvent}s. Two formats are understood: the one the
+ * server writes to {@code logs/latest.log}, {@code [12:34:56] [Server thread/INFO]: Done},
+ * and the console format some forks use there, {@code [12:34:56 INFO]: Done}. Lines that
+ * match neither, such as stack trace frames, are added to the event before them.
+ *
+ * Log lines carry only a time of day. The date comes from the file being read and moves
+ * on by a day when the time goes back by more than an hour, as it does at midnight.
+ */
+public class ServerLogParser {
+
+    private static final Pattern FILE_FORMAT =
+        Pattern.compile("\\[(\\d{2}):(\\d{2}):(\\d{2})] \\[(.+?)/([A-Z]+)]: ?(.*)");
+    private static final Pattern CONSOLE_FORMAT =
+        Pattern.compile("\\[(\\d{2}):(\\d{2}):(\\d{2}) ([A-Z]+)]: ?(.*)");
+
+    // Continuation lines beyond these are dropped, so one runaway trace cannot fill the index
+    static final int MAX_MESSAGE_LENGTH = 16 * 1024;
+    private static final int MAX_CONTINUATION_LINES = 200;
+
+    private final ZoneId zone;
+    private long nextSequence;
+    private LocalDate date;
+    private LocalTime lastTime;
+
+    private Instant pendingTimestamp;
+    private String pendingLevel;
+    private String pendingThread;
+    private StringBuilder pendingMessage;
+    private int pendingLines;
+
+    public ServerLogParser(ZoneId zone, LocalDate date) {
+        this.zone = zone;
+        this.date = date;
+    }
+
+    /**
+     * Start reading a file whose first line was written on {@code date}. The event in
+     * progress, if any, is passed on first.
+     */
+    public void startFile(LocalDate date, Consumer<LogEvent> sink) {
+        flush(sink);
+        this.date = date;
+        this.lastTime = null;
+    }
+
+    /**
+     * Read one line. The event before it is passed to {@code sink} once this line shows it
+     * is complete, so an event is always one line behind; {@link #flush} ends it sooner.
+     */
+    public void accept(String line, Consumer<LogEvent> sink) {
+        Matcher matcher = FILE_FORMAT.matcher(line);
+        String thread = null;
+        String level;
+        String message;
+        if (matcher.matches()) {
+            thread = matcher.group(4);
+            level = matcher.group(5);
+            message = matcher.group(6);
+        } else {
+            matcher = CONSOLE_FORMAT.matcher(line);
+            if (!matcher.matches()) {
+                continueEvent(line);
+                return;
+            }
+            level = matcher.group(4);
+            message = matcher.group(5);
+        }
+        LocalTime time;
+        try {
+            time = LocalTime.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)),
+                Integer.parseInt(matcher.group(3)));
+        } catch (DateTimeException e) {
+            continueEvent(line);
+            return;
+        }
+        flush(sink);
+        if (lastTime != null && time.toSecondOfDay() + 3600 < lastTime.toSecondOfDay()) {
+            date = date.plusDays(1);
+        }
+        lastTime = time;
+        pendingTimestamp = date.atTime(time).atZone(zone).toInstant();
+        pendingLevel = level;
+        pendingThread = thread;
+        pendingMessage = new StringBuilder(truncate(message, MAX_MESSAGE_LENGTH));
+        pendingLines = 0;
+    }
+
+    /**
+     * Pass on the event in progress, if any.
+     */
+    public void flush(Consumer<LogEvent> sink) {
+        if (pendingMessage == null) {
+            return;
+        }
+        LogEvent event = new LogEvent(nextSequence++, pendingTimestamp, pendingLevel, pendingThread,
+            pendingMessage.toString());
+        pendingMessage = null;
+        sink.accept(event);
+    }
+
+    private void continueEvent(String line) {
+        if (pendingMessage == null) {
+            // Output before the first formatted line, such as from the launcher; it has no time
+            return;
+        }
+        if (pendingLines++ < MAX_CONTINUATION_LINES && pendingMessage.length() < MAX_MESSAGE_LENGTH) {
+            pendingMessage.append('\n')
+                .append(truncate(line, MAX_MESSAGE_LENGTH - pendingMessage.length()));
+        }
+    }
+
+    private static String truncate(String text, int length) {
+        return text.length() <= length ? text : text.substring(0, Math.max(0, length));
+    }
+}
@@ -0,0 +1,225 @@
+package com.openmc.webapp.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One backup: which files the server directory held and the chunks their content is
+ * made of. Saved as the snapshot's manifest, so it keeps a no-argument constructor and
+ * setters for JSON binding. Summaries leave out the file list.
+ */
+public class BackupSnapshot {
+    
+    private String id;
+    private Instant createdAt;
+    private boolean quiesced;
+    private int fileCount;
+    private long totalBytes;
+    private long bytesRead;
+    private int changedFiles;
+    private int newChunks;
+    private long newChunkBytes;
+    private long durationMs;
+    private List<FileEntry> files = new ArrayList<>();
+    
+    public BackupSnapshot() {
+    }
+    
+    /**
+     * A copy without the file list, for listing snapshots.
+     */
+    public BackupSnapshot summary() {
+        BackupSnapshot summary = new BackupSnapshot();
+        summary.id = id;
+        summary.createdAt = createdAt;
+        summary.quiesced = quiesced;
+        summary.fileCount = fileCount;
+        summary.totalBytes = totalBytes;
+        summary.bytesRead = bytesRead;
+        summary.changedFiles = changedFiles;
+        summary.newChunks = newChunks;
+        summary.newChunkBytes = newChunkBytes;
+        summary.durationMs = durationMs;
+        summary.files = null;
+        return summary;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    /**
+     * Whether saving was paused with save-off and flushed with save-all flush while
+     * the files were read. Without it, files may have been caught mid-write.
+     */
+    public boolean isQuiesced() {
+        return quiesced;
+    }
+    
+    public void setQuiesced(boolean quiesced) {
+        this.quiesced = quiesced;
+    }
+    
+    public int getFileCount() {
+        return fileCount;
+    }
+    
+    public void setFileCount(int fileCount) {
+        this.fileCount = fileCount;
+    }
+    
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+    
+    public void setTotalBytes(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+    
+    /**
+     * Bytes read from the server directory; unchanged files and unchanged parts of
+     * region files are not read.
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+    
+    public void setBytesRead(long bytesRead) {
+        this.bytesRead = bytesRead;
+    }
+    
+    /**
+     * Files that were read again because their size or modification time changed.
+     */
+    public int getChangedFiles() {
+        return changedFiles;
+    }
+    
+    public void setChangedFiles(int changedFiles) {
+        this.changedFiles = changedFiles;
+    }
+    
+    public int getNewChunks() {
+        return newChunks;
+    }
+    
+    public void setNewChunks(int newChunks) {
+        this.newChunks = newChunks;
+    }
+    
+    /**
+     * Bytes this snapshot added to the repository.
+     */
+    public long getNewChunkBytes() {
+        return newChunkBytes;
+    }
+    
+    public void setNewChunkBytes(long newChunkBytes) {
+        this.newChunkBytes = newChunkBytes;
+    }
+    
+    public long getDurationMs() {
+        return durationMs;
+    }
+    
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+    
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public List<FileEntry> getFiles() {
+        return files;
+    }
+    
+    public void setFiles(List<FileEntry> files) {
+        this.files = files;
+    }
+    
+    /**
+     * A regular file, by its path relative to the server directory with / separators.
+     */
+    public static class FileEntry {
+        
+        private String path;
+        private long size;
+        private long lastModified;
+        private List<String> chunks = new ArrayList<>();
+        private String layout;
+        
+        public FileEntry() {
+        }
+        
+        public FileEntry(String path, long size, long lastModified, List<String> chunks) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.chunks = chunks;
+        }
+        
+        public String getPath() {
+            return path;
+        }
+        
+        public void setPath(String path) {
+            this.path = path;
+        }
+        
+        public long getSize() {
+            return size;
+        }
+        
+        public void setSize(long size) {
+            this.size = size;
+        }
+        
+        /**
+         * Modification time in epoch milliseconds.
+         */
+        public long getLastModified() {
+            return lastModified;
+        }
+        
+        public void setLastModified(long lastModified) {
+            this.lastModified = lastModified;
+        }
+        
+        /**
+         * SHA-256 hashes of the file's chunks, in order.
+         */
+        public List<String> getChunks() {
+            return chunks;
+        }
+        
+        public void setChunks(List<String> chunks) {
+            this.chunks = chunks;
+        }
+        
+        /**
+         * How the file was split into chunks: null for content-defined chunks, "region"
+         * for a region file's header followed by fixed sector-aligned extents.
+         */
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        public String getLayout() {
+            return layout;
+        }
+        
+        public void setLayout(String layout) {
+            this.layout = layout;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.openmc.webapp.model;
+
+/**
+ * Outcome of one command in a batch.
+ */
+public class CommandResult {
+    private final int index;
+    private final String command;
+    private final boolean success;
+    private final String output;
+    
+    public CommandResult(int index, String command, boolean success, String output) {
+        this.index = index;
+        this.command = command;
+        this.success = success;
+        this.output = output;
+    }
+    
+    public int getIndex() {
+        return index;
+    }
+    
+    public String getCommand() {
+        return command;
+    }
+    
+    public boolean isSuccess() {
+        return success;
+    }
+    
+    public String getOutput() {
+        return output;
+    }
+}
@@ -0,0 +1,55 @@
+package com.openmc.webapp.model;
+
+import java.time.Instant;
+
+/**
+ * A lag warning the server wrote to its log: ticks it fell behind on, a watchdog warning
+ * about a stalled tick, or a long garbage collection pause.
+ */
+public class LagEvent {
+
+    public enum Kind { TICK_LAG, WATCHDOG, GC_PAUSE }
+
+    private final Instant timestamp;
+    private final Kind kind;
+    private final long millis;
+    private final long ticks;
+    private final String message;
+
+    public LagEvent(Instant timestamp, Kind kind, long millis, long ticks, String message) {
+        this.timestamp = timestamp;
+        this.kind = kind;
+        this.millis = millis;
+        this.ticks = ticks;
+        this.message = message;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * How long the server was behind, stalled or paused, or 0 where the warning does not say.
+     */
+    public long getMillis() {
+        return millis;
+    }
+
+    /**
+     * Ticks skipped to catch up; only known for {@link Kind#TICK_LAG}.
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * The first line of the log message.
+     */
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,86 @@
+package com.openmc.webapp.model;
+
+import java.time.Instant;
+
+/**
+ * Lag seen during one interval of a time series, from the server log, together with the
+ * RCON status taken during it, if one was.
+ */
+public class LagSample {
+
+    private final Instant start;
+    private final int tickLagWarnings;
+    private final long ticksSkipped;
+    private final long maxMillisBehind;
+    private final int watchdogWarnings;
+    private final int gcPauses;
+    private final long maxGcPauseMillis;
+    private final double estimatedTps;
+    private final Double rconTps;
+    private final Integer playerCount;
+
+    public LagSample(Instant start, int tickLagWarnings, long ticksSkipped, long maxMillisBehind,
+                     int watchdogWarnings, int gcPauses, long maxGcPauseMillis, double estimatedTps,
+                     Double rconTps, Integer playerCount) {
+        this.start = start;
+        this.tickLagWarnings = tickLagWarnings;
+        this.ticksSkipped = ticksSkipped;
+        this.maxMillisBehind = maxMillisBehind;
+        this.watchdogWarnings = watchdogWarnings;
+        this.gcPauses = gcPauses;
+        this.maxGcPauseMillis = maxGcPauseMillis;
+        this.estimatedTps = estimatedTps;
+        this.rconTps = rconTps;
+        this.playerCount = playerCount;
+    }
+
+    public Instant getStart() {
+        return start;
+    }
+
+    public int getTickLagWarnings() {
+        return tickLagWarnings;
+    }
+
+    public long getTicksSkipped() {
+        return ticksSkipped;
+    }
+
+    public long getMaxMillisBehind() {
+        return maxMillisBehind;
+    }
+
+    public int getWatchdogWarnings() {
+        return watchdogWarnings;
+    }
+
+    public int getGcPauses() {
+        return gcPauses;
+    }
+
+    public long getMaxGcPauseMillis() {
+        return maxGcPauseMillis;
+    }
+
+    /**
+     * Ticks per second over the interval, less the ticks the server said it skipped. The
+     * server only warns once it is two seconds behind, so smaller losses do not show.
+     */
+    public double getEstimatedTps() {
+        return estimatedTps;
+    }
+
+    /**
+     * The 1-minute TPS from an RCON status taken during the interval, or null.
+     */
+    public Double getRconTps() {
+        return rconTps;
+    }
+
+    /**
+     * The player count from an RCON status taken during the interval, or null.
+     */
+    public Integer getPlayerCount() {
+        return playerCount;
+    }
+}
@@ -0,0 +1,50 @@
+package com.openmc.webapp.model;
+
+import java.time.Instant;
+
+/**
+ * One entry of the server log: a line with a timestamp, thread and level, plus any
+ * lines without one that follow it, such as a stack trace.
+ */
+public class LogEvent {
+
+    private final long sequence;
+    private final Instant timestamp;
+    private final String level;
+    private final String thread;
+    private final String message;
+
+    public LogEvent(long sequence, Instant timestamp, String level, String thread, String message) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.level = level;
+        this.thread = thread;
+        this.message = message;
+    }
+
+    /**
+     * Position of the event among all events read since the app started.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public String getLevel() {
+        return level;
+    }
+
+    /**
+     * The logging thread, or null for log formats that leave it out.
+     */
+    public String getThread() {
+        return thread;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
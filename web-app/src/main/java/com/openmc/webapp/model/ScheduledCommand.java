@@ -0,0 +1,108 @@
+package com.openmc.webapp.model;
+
+import java.time.Instant;
+
+/**
+ * A command that runs on a cron schedule. Stored in the schedules file, so it keeps
+ * a no-argument constructor and setters for JSON binding.
+ */
+public class ScheduledCommand {
+    
+    /**
+     * What to do with a run that was due longer ago than the misfire threshold,
+     * for example because the application was stopped.
+     */
+    public enum MisfirePolicy {
+        /** Run once now, however many runs were missed */
+        RUN_ONCE,
+        /** Record the missed run and wait for the next one */
+        SKIP
+    }
+    
+    private String id;
+    private String name;
+    private String cron;
+    private String command;
+    private boolean enabled = true;
+    private MisfirePolicy misfirePolicy = MisfirePolicy.RUN_ONCE;
+    private Instant lastRunAt;
+    private Instant nextRunAt;
+    
+    public ScheduledCommand() {
+    }
+    
+    public ScheduledCommand(ScheduledCommand other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.cron = other.cron;
+        this.command = other.command;
+        this.enabled = other.enabled;
+        this.misfirePolicy = other.misfirePolicy;
+        this.lastRunAt = other.lastRunAt;
+        this.nextRunAt = other.nextRunAt;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public String getCron() {
+        return cron;
+    }
+    
+    public void setCron(String cron) {
+        this.cron = cron;
+    }
+    
+    public String getCommand() {
+        return command;
+    }
+    
+    public void setCommand(String command) {
+        this.command = command;
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public MisfirePolicy getMisfirePolicy() {
+        return misfirePolicy;
+    }
+    
+    public void setMisfirePolicy(MisfirePolicy misfirePolicy) {
+        this.misfirePolicy = misfirePolicy;
+    }
+    
+    public Instant getLastRunAt() {
+        return lastRunAt;
+    }
+    
+    public void setLastRunAt(Instant lastRunAt) {
+        this.lastRunAt = lastRunAt;
+    }
+    
+    public Instant getNextRunAt() {
+        return nextRunAt;
+    }
+    
+    public void setNextRunAt(Instant nextRunAt) {
+        this.nextRunAt = nextRunAt;
+    }
+}
@@ -0,0 +1,31 @@
+package com.openmc.webapp.model;
+
+import com.openmc.webapp.service.RconService.ServerStatus;
+
+/**
+ * A refreshed server status snapshot together with the retrieval record it produced.
+ * The version increases by one with every refresh and doubles as the SSE event id.
+ */
+public class StatusUpdate {
+    private final long version;
+    private final ServerStatus status;
+    private final RetrievalRecord record;
+
+    public StatusUpdate(long version, ServerStatus status, RetrievalRecord record) {
+        this.version = version;
+        this.status = status;
+        this.record = record;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public ServerStatus getStatus() {
+        return status;
+    }
+
+    public RetrievalRecord getRecord() {
+        return record;
+    }
+}
@@ -0,0 +1,13 @@
+package com.openmc.webapp.rcon;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a request waited too long for the command scheduler and was dropped.
+ */
+public class RconBusyException extends IOException {
+
+    public RconBusyException(String message) {
+        super(message);
+    }
+}
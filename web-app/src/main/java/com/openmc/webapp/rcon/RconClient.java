@@ -2,9 +2,11 @@ package com.openmc.webapp.rcon;
 
 import java.io.*;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
 
 public class RconClient implements AutoCloseable {
     
@@ -13,39 +15,132 @@ public class RconClient implements AutoCloseable {
     private static final int SERVERDATA_EXECCOMMAND = 2;
     private static final int SERVERDATA_RESPONSE_VALUE = 0;
     
+    // The server splits responses into packets of at most this many payload bytes
+    private static final int MAX_RESPONSE_PAYLOAD = 4096;
+    
     private final Socket socket;
     private final DataOutputStream out;
     private final DataInputStream in;
+    private final RconListener listener;
     private int requestId = 0;
+    private long bytesSent;
+    private long bytesReceived;
+    private long packetsSent;
     
     public RconClient(String host, int port, String password) throws IOException {
-        socket = new Socket(host, port);
+        this(host, port, password, RconListener.NONE);
+    }
+    
+    public RconClient(String host, int port, String password, RconListener listener) throws IOException {
+        this.listener = listener;
+        long connectStart = System.nanoTime();
+        try {
+            socket = new Socket(host, port);
+        } catch (IOException e) {
+            listener.connected(System.nanoTime() - connectStart, false);
+            throw e;
+        }
+        listener.connected(System.nanoTime() - connectStart, true);
         socket.setSoTimeout(5000);
         out = new DataOutputStream(socket.getOutputStream());
         in = new DataInputStream(socket.getInputStream());
         
         // Authenticate
-        sendPacket(SERVERDATA_AUTH, password);
-        RconPacket response = receivePacket();
-        if (response.getRequestId() == -1) {
+        long authStart = System.nanoTime();
+        boolean authenticated = false;
+        try {
+            sendPacket(SERVERDATA_AUTH, password);
+            RconPacket response = receivePacket();
+            authenticated = response.getRequestId() != -1;
+        } finally {
+            listener.authenticated(System.nanoTime() - authStart, authenticated);
+            if (!authenticated) {
+                socket.close();
+            }
+        }
+        if (!authenticated) {
             throw new IOException("Authentication failed");
         }
     }
     
     public String sendCommand(String command) throws IOException {
-        sendPacket(SERVERDATA_EXECCOMMAND, command);
-        RconPacket response = receivePacket();
-        return response.getPayload();
+        StringBuilder output = new StringBuilder();
+        sendCommand(command, output::append);
+        return output.toString();
+    }
+    
+    /**
+     * Send a command and hand each response packet to the consumer as it arrives.
+     * 
+     * Long outputs are split by the server into several packets. When a packet comes back
+     * full, an extra marker packet is sent; the server answers it only after the remaining
+     * fragments, so everything read before the marker reply belongs to this command.
+     */
+    public void sendCommand(String command, Consumer<String> fragmentConsumer) throws IOException {
+        RconCommandEvent event = new RconCommandEvent();
+        event.begin();
+        long start = System.nanoTime();
+        bytesSent = 0;
+        bytesReceived = 0;
+        Throwable failure = null;
+        try {
+            exchange(command, fragmentConsumer);
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            event.end();
+            if (event.shouldCommit()) {
+                event.command = RconCommandEvent.commandName(command);
+                event.outcome = RconCommandEvent.outcome(failure);
+                event.bytesSent = bytesSent;
+                event.bytesReceived = bytesReceived;
+                event.commit();
+            }
+            listener.commandCompleted(command, nanos, bytesSent, bytesReceived, failure);
+        }
+    }
+    
+    private void exchange(String command, Consumer<String> fragmentConsumer) throws IOException {
+        int commandId = sendPacket(SERVERDATA_EXECCOMMAND, command);
+        RconPacket response = receiveResponse(commandId);
+        fragmentConsumer.accept(response.getPayload());
+        
+        if (response.getPayloadLength() < MAX_RESPONSE_PAYLOAD) {
+            return;
+        }
+        
+        int markerId = sendPacket(SERVERDATA_RESPONSE_VALUE, "");
+        while (true) {
+            RconPacket fragment = receivePacket();
+            if (fragment.getRequestId() == markerId) {
+                return;
+            }
+            if (fragment.getRequestId() == commandId) {
+                fragmentConsumer.accept(fragment.getPayload());
+            }
+        }
     }
     
-    private void sendPacket(int type, String payload) throws IOException {
+    private RconPacket receiveResponse(int commandId) throws IOException {
+        // Skip anything left over from an earlier command on this connection
+        RconPacket packet = receivePacket();
+        while (packet.getRequestId() != commandId) {
+            packet = receivePacket();
+        }
+        return packet;
+    }
+    
+    private int sendPacket(int type, String payload) throws IOException {
         byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
         int packetSize = 10 + payloadBytes.length; // 4 (id) + 4 (type) + payload + 2 (null terminators)
         
         ByteBuffer buffer = ByteBuffer.allocate(packetSize + 4);
         buffer.order(ByteOrder.LITTLE_ENDIAN);
         buffer.putInt(packetSize);
-        buffer.putInt(++requestId);
+        int id = ++requestId;
+        buffer.putInt(id);
         buffer.putInt(type);
         buffer.put(payloadBytes);
         buffer.put((byte) 0);
@@ -53,6 +148,9 @@ public class RconClient implements AutoCloseable {
         
         out.write(buffer.array());
         out.flush();
+        bytesSent += buffer.capacity();
+        packetsSent++;
+        return id;
     }
     
     private RconPacket receivePacket() throws IOException {
@@ -66,9 +164,10 @@ public class RconClient implements AutoCloseable {
         // Read the two null terminators
         in.readByte();
         in.readByte();
+        bytesReceived += size + 4;
         
         String payload = new String(payloadBytes, StandardCharsets.UTF_8);
-        return new RconPacket(id, type, payload);
+        return new RconPacket(id, type, payload, payloadBytes.length);
     }
     
     private int readInt() throws IOException {
@@ -77,6 +176,46 @@ public class RconClient implements AutoCloseable {
         return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).getInt();
     }
     
+    public boolean isClosed() {
+        return socket.isClosed();
+    }
+    
+    /**
+     * Packets written and flushed to the server since connecting, authentication included.
+     * Once a command's packet is counted, the server may have run it.
+     */
+    public long getPacketsSent() {
+        return packetsSent;
+    }
+    
+    /**
+     * Whether an idle connection can still take a command. The server never sends
+     * anything unasked, so anything to read, even the end of the stream left by a server
+     * that closed the connection, means it cannot. Waits at most a millisecond.
+     */
+    public boolean isUsable() {
+        if (socket.isClosed()) {
+            return false;
+        }
+        try {
+            if (in.available() > 0) {
+                return false;
+            }
+            int timeout = socket.getSoTimeout();
+            socket.setSoTimeout(1);
+            try {
+                in.read();
+                return false;
+            } catch (SocketTimeoutException e) {
+                return true;
+            } finally {
+                socket.setSoTimeout(timeout);
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
     @Override
     public void close() throws IOException {
         if (socket != null && !socket.isClosed()) {
@@ -88,11 +227,13 @@ public class RconClient implements AutoCloseable {
         private final int requestId;
         private final int type;
         private final String payload;
+        private final int payloadLength;
         
-        public RconPacket(int requestId, int type, String payload) {
+        public RconPacket(int requestId, int type, String payload, int payloadLength) {
             this.requestId = requestId;
             this.type = type;
             this.payload = payload;
+            this.payloadLength = payloadLength;
         }
         
         public int getRequestId() {
@@ -106,5 +247,9 @@ public class RconClient implements AutoCloseable {
         public String getPayload() {
             return payload;
         }
+        
+        public int getPayloadLength() {
+            return payloadLength;
+        }
     }
 }
@@ -0,0 +1,195 @@
+package com.openmc.webapp.rcon;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches the output of read-only commands such as {@code list} or {@code whitelist list}.
+ *
+ * Only commands on the allowlist are cached, each for its own TTL, keyed on the
+ * normalized command text. Identical requests that arrive while one is running wait
+ * for that request's result instead of sending their own. Every other command
+ * bypasses the cache and, once it has run, invalidates the entries it may have changed.
+ */
+public class RconCommandCache {
+
+    /**
+     * The cached command whose output the write command may change, where its first
+     * word alone does not say so.
+     */
+    private static final Map<String, String> RELATED_READS = Map.of(
+        "ban", "banlist",
+        "ban-ip", "banlist",
+        "pardon", "banlist",
+        "pardon-ip", "banlist",
+        "kick", "list");
+
+    private final Map<String, Long> ttlMsByCommand;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // Bumped after every write, so a read that overlapped one is not cached
+    private final AtomicLong writeGeneration = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public RconCommandCache(Map<String, Long> ttlMsByCommand) {
+        this(ttlMsByCommand, System::nanoTime);
+    }
+
+    RconCommandCache(Map<String, Long> ttlMsByCommand, LongSupplier clock) {
+        Map<String, Long> normalized = new HashMap<>();
+        ttlMsByCommand.forEach((command, ttl) -> normalized.put(normalize(command), ttl));
+        this.ttlMsByCommand = normalized;
+        this.clock = clock;
+    }
+
+    /**
+     * Parse an allowlist of the form {@code "list=2000,whitelist list=30000"}.
+     *
+     * @throws IllegalArgumentException if an entry has no TTL
+     */
+    public static Map<String, Long> parseAllowlist(String allowlist) {
+        Map<String, Long> ttls = new HashMap<>();
+        if (allowlist == null || allowlist.isBlank()) {
+            return ttls;
+        }
+        for (String entry : allowlist.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int equals = entry.lastIndexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Missing TTL for read-only command '" + entry.trim() + "'");
+            }
+            ttls.put(normalize(entry.substring(0, equals)), Long.parseLong(entry.substring(equals + 1).trim()));
+        }
+        return ttls;
+    }
+
+    static String normalize(String command) {
+        String trimmed = command.trim();
+        if (trimmed.startsWith("/")) {
+            trimmed = trimmed.substring(1);
+        }
+        return trimmed.replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    public boolean isCacheable(String command) {
+        return ttlMsByCommand.containsKey(normalize(command));
+    }
+
+    /**
+     * Return the cached output of a read-only command, or send it and cache the result.
+     * Failures are passed to every waiting caller and are not cached.
+     */
+    public String get(String command, CommandLoader loader) throws IOException {
+        String key = normalize(command);
+        Long ttlMs = ttlMsByCommand.get(key);
+        if (ttlMs == null) {
+            return loader.load();
+        }
+
+        Entry mine = new Entry();
+        Entry current = entries.compute(key, (k, existing) ->
+            existing != null && existing.isValid(clock.getAsLong()) ? existing : mine);
+        if (current != mine) {
+            hits.increment();
+            return await(current.result);
+        }
+
+        misses.increment();
+        long generation = writeGeneration.get();
+        try {
+            String output = loader.load();
+            if (writeGeneration.get() == generation) {
+                mine.expiresAt = clock.getAsLong() + TimeUnit.MILLISECONDS.toNanos(ttlMs);
+            } else {
+                entries.remove(key, mine);
+            }
+            mine.result.complete(output);
+            return output;
+        } catch (IOException | RuntimeException e) {
+            entries.remove(key, mine);
+            mine.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Drop the entries a command may have changed. Read-only commands change nothing.
+     */
+    public void invalidateFor(String command) {
+        String key = normalize(command);
+        if (ttlMsByCommand.containsKey(key)) {
+            return;
+        }
+        writeGeneration.incrementAndGet();
+        String name = key.split(" ", 2)[0];
+        if (name.equals("reload")) {
+            entries.clear();
+            return;
+        }
+        String related = RELATED_READS.get(name);
+        entries.keySet().removeIf(cached -> {
+            String cachedName = cached.split(" ", 2)[0];
+            return cachedName.equals(name) || cachedName.equals(related);
+        });
+    }
+
+    private static String await(CompletableFuture<String> result) throws IOException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a shared command result");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Sends the command when it is not cached.
+     */
+    @FunctionalInterface
+    public interface CommandLoader {
+        String load() throws IOException;
+    }
+
+    private static class Entry {
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+        private volatile long expiresAt;
+
+        // Shared while the command runs, then until it expires
+        boolean isValid(long now) {
+            return !result.isDone() || now - expiresAt < 0;
+        }
+    }
+}
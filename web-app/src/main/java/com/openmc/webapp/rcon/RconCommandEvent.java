@@ -0,0 +1,59 @@
+package com.openmc.webapp.rcon;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.net.SocketTimeoutException;
+import java.util.Locale;
+
+/**
+ * Flight recorder event for one RCON command, from sending it to reading its last
+ * response packet. Only the command name is recorded, not its arguments.
+ */
+@Name("com.openmc.webapp.RconCommand")
+@Label("RCON Command")
+@Category({"Open MC", "RCON"})
+@Description("An RCON command sent to the Minecraft server")
+public class RconCommandEvent extends Event {
+
+    @Label("Command")
+    @Description("First word of the command")
+    String command;
+
+    @Label("Outcome")
+    @Description("success, error or timeout")
+    String outcome;
+
+    @Label("Bytes Sent")
+    @DataAmount
+    long bytesSent;
+
+    @Label("Bytes Received")
+    @DataAmount
+    long bytesReceived;
+
+    /**
+     * The lower-cased first word of a command, without a leading slash.
+     */
+    public static String commandName(String command) {
+        String trimmed = command.trim();
+        if (trimmed.startsWith("/")) {
+            trimmed = trimmed.substring(1);
+        }
+        return trimmed.split("\\s+", 2)[0].toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * How a command ended: {@code success}, {@code timeout} or {@code error}.
+     */
+    public static String outcome(Throwable failure) {
+        if (failure == null) {
+            return "success";
+        }
+        return failure instanceof SocketTimeoutException ? "timeout" : "error";
+    }
+}
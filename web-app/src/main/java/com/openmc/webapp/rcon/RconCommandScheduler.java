@@ -0,0 +1,230 @@
+package com.openmc.webapp.rcon;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Orders RCON work by priority and limits how much of it runs at once.
+ *
+ * The Minecraft server runs RCON commands on its main thread, so this is where the load
+ * on it is controlled. Callers wait in one queue ordered by priority, then by arrival,
+ * and run their own operation once they reach the front and a slot is free. A request
+ * that is still waiting when its deadline passes is dropped with {@link RconBusyException}.
+ */
+public class RconCommandScheduler {
+
+    public enum Priority {
+        /** Commands sent by an operator */
+        ADMIN,
+        /** Checks whose results feed alerts */
+        ALERTING,
+        /** Background status polling */
+        POLLING
+    }
+
+    /**
+     * Work to run once the request has been admitted.
+     */
+    @FunctionalInterface
+    public interface ScheduledOperation<T> {
+        T run() throws IOException;
+    }
+
+    private final int maxConcurrent;
+    private final Map<Priority, Long> maxWaitMs;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final PriorityQueue<Request> queue = new PriorityQueue<>();
+    private final Map<Priority, Counters> counters = new EnumMap<>(Priority.class);
+    private long sequence;
+    private int inFlight;
+
+    /**
+     * @param maxWaitMs how long each priority may wait before it is dropped; 0 waits indefinitely
+     */
+    public RconCommandScheduler(int maxConcurrent, Map<Priority, Long> maxWaitMs) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxWaitMs = new EnumMap<>(Priority.class);
+        this.maxWaitMs.putAll(maxWaitMs);
+        for (Priority priority : Priority.values()) {
+            counters.put(priority, new Counters());
+        }
+    }
+
+    /**
+     * Wait for a slot, then run the operation on the calling thread.
+     *
+     * @throws RconBusyException if the request waited past its deadline
+     */
+    public <T> T execute(Priority priority, ScheduledOperation<T> operation) throws IOException {
+        long enqueuedAt = System.nanoTime();
+        long maxWait = TimeUnit.MILLISECONDS.toNanos(maxWaitMs.getOrDefault(priority, 0L));
+
+        lock.lock();
+        try {
+            Request request = new Request(priority, sequence++);
+            queue.add(request);
+            Counters priorityCounters = counters.get(priority);
+            try {
+                while (true) {
+                    long remaining = maxWait > 0 ? maxWait - (System.nanoTime() - enqueuedAt) : Long.MAX_VALUE;
+                    if (remaining <= 0) {
+                        queue.remove(request);
+                        priorityCounters.dropped++;
+                        changed.signalAll();
+                        throw new RconBusyException("Dropped " + priority + " request after waiting "
+                            + TimeUnit.NANOSECONDS.toMillis(maxWait) + " ms");
+                    }
+                    if (inFlight < maxConcurrent && queue.peek() == request) {
+                        queue.poll();
+                        inFlight++;
+                        break;
+                    }
+                    if (maxWait > 0) {
+                        changed.awaitNanos(remaining);
+                    } else {
+                        changed.await();
+                    }
+                }
+            } catch (InterruptedException e) {
+                queue.remove(request);
+                changed.signalAll();
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for RCON");
+            }
+
+            long waited = System.nanoTime() - enqueuedAt;
+            priorityCounters.executed++;
+            priorityCounters.totalWaitNanos += waited;
+            priorityCounters.maxWaitNanos = Math.max(priorityCounters.maxWaitNanos, waited);
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            return operation.run();
+        } finally {
+            lock.lock();
+            try {
+                inFlight--;
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Snapshot of queue depth, throughput and wait times per priority.
+     */
+    public SchedulerStats getStats() {
+        lock.lock();
+        try {
+            Map<Priority, PriorityStats> priorities = new EnumMap<>(Priority.class);
+            for (Priority priority : Priority.values()) {
+                int depth = 0;
+                for (Request request : queue) {
+                    if (request.priority == priority) {
+                        depth++;
+                    }
+                }
+                Counters c = counters.get(priority);
+                double averageWaitMs = c.executed > 0 ? c.totalWaitNanos / (double) c.executed / 1_000_000 : 0;
+                priorities.put(priority, new PriorityStats(depth, c.executed, c.dropped, averageWaitMs,
+                    c.maxWaitNanos / 1_000_000.0));
+            }
+            return new SchedulerStats(maxConcurrent, inFlight, priorities);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static class Request implements Comparable<Request> {
+        private final Priority priority;
+        private final long sequence;
+
+        Request(Priority priority, long sequence) {
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Request other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private static class Counters {
+        private long executed;
+        private long dropped;
+        private long totalWaitNanos;
+        private long maxWaitNanos;
+    }
+
+    public static class SchedulerStats {
+        private final int maxConcurrent;
+        private final int inFlight;
+        private final Map<Priority, PriorityStats> priorities;
+
+        SchedulerStats(int maxConcurrent, int inFlight, Map<Priority, PriorityStats> priorities) {
+            this.maxConcurrent = maxConcurrent;
+            this.inFlight = inFlight;
+            this.priorities = priorities;
+        }
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        public Map<Priority, PriorityStats> getPriorities() {
+            return priorities;
+        }
+    }
+
+    public static class PriorityStats {
+        private final int queueDepth;
+        private final long executed;
+        private final long dropped;
+        private final double averageWaitMs;
+        private final double maxWaitMs;
+
+        PriorityStats(int queueDepth, long executed, long dropped, double averageWaitMs, double maxWaitMs) {
+            this.queueDepth = queueDepth;
+            this.executed = executed;
+            this.dropped = dropped;
+            this.averageWaitMs = averageWaitMs;
+            this.maxWaitMs = maxWaitMs;
+        }
+
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        public long getExecuted() {
+            return executed;
+        }
+
+        public long getDropped() {
+            return dropped;
+        }
+
+        public double getAverageWaitMs() {
+            return averageWaitMs;
+        }
+
+        public double getMaxWaitMs() {
+            return maxWaitMs;
+        }
+    }
+}
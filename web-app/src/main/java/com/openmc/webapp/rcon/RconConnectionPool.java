@@ -0,0 +1,169 @@
+package com.openmc.webapp.rcon;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps a few authenticated RCON connections open so commands skip the TCP and
+ * auth handshake. A connection is used by one caller at a time; broken connections
+ * are closed instead of being returned.
+ */
+public class RconConnectionPool implements AutoCloseable {
+
+    /**
+     * Opens and authenticates a new connection.
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        RconClient connect() throws IOException;
+    }
+
+    /**
+     * Work to run on a borrowed connection.
+     */
+    @FunctionalInterface
+    public interface RconOperation<T> {
+        T execute(RconClient client) throws IOException;
+    }
+
+    private final ConnectionFactory connectionFactory;
+    private final int maxIdleConnections;
+    private final long idleTimeoutMs;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<IdleConnection> idleConnections = new ArrayDeque<>();
+    private boolean closed;
+
+    public RconConnectionPool(ConnectionFactory connectionFactory, int maxIdleConnections, long idleTimeoutMs) {
+        this.connectionFactory = connectionFactory;
+        this.maxIdleConnections = maxIdleConnections;
+        this.idleTimeoutMs = idleTimeoutMs;
+    }
+
+    /**
+     * Run an operation on a pooled connection. A reused connection is checked first, and
+     * one the server has closed is replaced. If a reused connection still fails before
+     * anything was sent on it, the operation is retried once on a fresh one; once a
+     * command went out it is not, as the server may have run it and commands such as
+     * {@code give} must not run twice.
+     */
+    public <T> T execute(RconOperation<T> operation) throws IOException {
+        RconClient client = pollIdle();
+        if (client != null) {
+            long sentBefore = client.getPacketsSent();
+            try {
+                T result = operation.execute(client);
+                release(client);
+                return result;
+            } catch (IOException e) {
+                closeQuietly(client);
+                if (client.getPacketsSent() != sentBefore) {
+                    throw e;
+                }
+                // Nothing reached the server, fall through to a fresh connection
+            } catch (RuntimeException e) {
+                closeQuietly(client);
+                throw e;
+            }
+        }
+
+        client = connectionFactory.connect();
+        try {
+            T result = operation.execute(client);
+            release(client);
+            return result;
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(client);
+            throw e;
+        }
+    }
+
+    public int getIdleCount() {
+        lock.lock();
+        try {
+            return idleConnections.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * An idle connection that is still open, or null if there is none.
+     */
+    private RconClient pollIdle() {
+        while (true) {
+            long now = System.currentTimeMillis();
+            List<RconClient> expired = new ArrayList<>();
+            RconClient candidate = null;
+            lock.lock();
+            try {
+                IdleConnection idle;
+                while ((idle = idleConnections.pollFirst()) != null) {
+                    if (now - idle.idleSince < idleTimeoutMs && !idle.client.isClosed()) {
+                        candidate = idle.client;
+                        break;
+                    }
+                    expired.add(idle.client);
+                }
+            } finally {
+                lock.unlock();
+            }
+            // Close and check outside the lock so socket I/O never blocks other borrowers
+            expired.forEach(RconConnectionPool::closeQuietly);
+            if (candidate == null || candidate.isUsable()) {
+                return candidate;
+            }
+            closeQuietly(candidate);
+        }
+    }
+
+    private void release(RconClient client) {
+        lock.lock();
+        try {
+            if (!closed && !client.isClosed() && idleConnections.size() < maxIdleConnections) {
+                idleConnections.addFirst(new IdleConnection(client, System.currentTimeMillis()));
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        closeQuietly(client);
+    }
+
+    private static void closeQuietly(RconClient client) {
+        try {
+            client.close();
+        } catch (IOException e) {
+            // Nothing useful to do with a failed close
+        }
+    }
+
+    @Override
+    public void close() {
+        List<RconClient> idleClients = new ArrayList<>();
+        lock.lock();
+        try {
+            closed = true;
+            IdleConnection idle;
+            while ((idle = idleConnections.pollFirst()) != null) {
+                idleClients.add(idle.client);
+            }
+        } finally {
+            lock.unlock();
+        }
+        idleClients.forEach(RconConnectionPool::closeQuietly);
+    }
+
+    private static class IdleConnection {
+        private final RconClient client;
+        private final long idleSince;
+
+        IdleConnection(RconClient client, long idleSince) {
+            this.client = client;
+            this.idleSince = idleSince;
+        }
+    }
+}
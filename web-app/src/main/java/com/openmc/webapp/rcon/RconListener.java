@@ -0,0 +1,55 @@
+package com.openmc.webapp.rcon;
+
+import java.util.List;
+
+/**
+ * Told about each connect, authentication and command an {@link RconClient} makes.
+ * Times are in nanoseconds. Called on the thread that talks to the server, so
+ * implementations must be quick and must not throw.
+ */
+public interface RconListener {
+
+    RconListener NONE = new RconListener() { };
+
+    default void connected(long nanos, boolean success) {
+    }
+
+    default void authenticated(long nanos, boolean success) {
+    }
+
+    /**
+     * @param failure what the command failed with, or {@code null} if it succeeded
+     */
+    default void commandCompleted(String command, long nanos, long bytesSent, long bytesReceived, Throwable failure) {
+    }
+
+    /**
+     * Combine several listeners into one that calls each of them in turn.
+     */
+    static RconListener composite(List<? extends RconListener> listeners) {
+        if (listeners.isEmpty()) {
+            return NONE;
+        }
+        if (listeners.size() == 1) {
+            return listeners.get(0);
+        }
+        List<RconListener> copy = List.copyOf(listeners);
+        return new RconListener() {
+            @Override
+            public void connected(long nanos, boolean success) {
+                copy.forEach(listener -> listener.connected(nanos, success));
+            }
+
+            @Override
+            public void authenticated(long nanos, boolean success) {
+                copy.forEach(listener -> listener.authenticated(nanos, success));
+            }
+
+            @Override
+            public void commandCompleted(String command, long nanos, long bytesSent, long bytesReceived,
+                                         Throwable failure) {
+                copy.forEach(listener -> listener.commandCompleted(command, nanos, bytesSent, bytesReceived, failure));
+            }
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.openmc.webapp.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for one HTTP call to the Activity Tracker plugin.
+ */
+@Name("com.openmc.webapp.ActivityTrackerCall")
+@Label("Activity Tracker Call")
+@Category({"Open MC", "Activity Tracker"})
+@Description("An HTTP call to the Activity Tracker plugin API")
+class ActivityTrackerCallEvent extends Event {
+
+    @Label("Path")
+    String path;
+
+    @Label("Success")
+    boolean success;
+
+    @Label("Error")
+    @Description("Exception class when the call failed")
+    String error;
+}
@@ -3,6 +3,8 @@ package com.openmc.webapp.service;
 import com.openmc.webapp.config.ServerConfig;
 import com.openmc.webapp.model.ActivityTrackerStats;
 import com.openmc.webapp.model.LeaderboardEntry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.slf4j.Logger;
@@ -11,9 +13,12 @@ import org.slf4j.LoggerFactory;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 /**
- * Service for fetching data from the Activity Tracker plugin API
+ * Service for fetching data from the Activity Tracker plugin API, falling back to the
+ * sessions tracked from the server log when the plugin is not configured
  */
 @Service
 public class ActivityTrackerService {
@@ -22,10 +27,33 @@ public class ActivityTrackerService {
     
     private final ServerConfig serverConfig;
     private final RestTemplate restTemplate;
+    private final SessionTrackerService sessionTracker;
+    private final CachedResult<ActivityTrackerStats> cachedStats = new CachedResult<>();
+    private final CachedResult<List<LeaderboardEntry>> cachedLeaderboard = new CachedResult<>();
     
     public ActivityTrackerService(ServerConfig serverConfig) {
+        this(serverConfig, new RestTemplate(), null);
+    }
+    
+    ActivityTrackerService(ServerConfig serverConfig, SessionTrackerService sessionTracker) {
+        this(serverConfig, new RestTemplate(), sessionTracker);
+    }
+    
+    /**
+     * Build the client from Spring Boot's builder, so every call to the plugin is
+     * recorded in the http.client.requests metrics with its latency and outcome
+     */
+    @Autowired
+    public ActivityTrackerService(ServerConfig serverConfig, RestTemplateBuilder restTemplateBuilder,
+                                  SessionTrackerService sessionTracker) {
+        this(serverConfig, restTemplateBuilder.build(), sessionTracker);
+    }
+    
+    private ActivityTrackerService(ServerConfig serverConfig, RestTemplate restTemplate,
+                                   SessionTrackerService sessionTracker) {
         this.serverConfig = serverConfig;
-        this.restTemplate = new RestTemplate();
+        this.restTemplate = restTemplate;
+        this.sessionTracker = sessionTracker;
         logConfiguration();
     }
     
@@ -38,6 +66,9 @@ public class ActivityTrackerService {
         logger.info("  - URL: {}", serverConfig.getActivityTrackerUrl() != null && !serverConfig.getActivityTrackerUrl().isEmpty() 
             ? serverConfig.getActivityTrackerUrl() : "(not configured)");
         logger.info("  - Integration active: {}", isEnabled());
+        if (!isEnabled() && usesLocalSessions()) {
+            logger.info("  - Using sessions tracked from the server log instead");
+        }
     }
     
     /**
@@ -56,18 +87,44 @@ public class ActivityTrackerService {
     }
     
     /**
-     * Fetch server statistics from Activity Tracker
+     * Check if stats and a leaderboard can be served, from the plugin or from the
+     * sessions tracked from the server log
+     */
+    public boolean isAvailable() {
+        return isEnabled() || usesLocalSessions();
+    }
+    
+    /**
+     * Where the stats and leaderboard come from: "plugin", "log" or "none"
+     */
+    public String getSource() {
+        return isEnabled() ? "plugin" : usesLocalSessions() ? "log" : "none";
+    }
+    
+    private boolean usesLocalSessions() {
+        return sessionTracker != null && sessionTracker.isEnabled();
+    }
+    
+    /**
+     * Fetch server statistics from Activity Tracker, reusing the last result for
+     * activityTrackerCacheTtlMs
      */
     public ActivityTrackerStats getStats() {
+        if (!isEnabled() && usesLocalSessions()) {
+            return sessionTracker.getStats();
+        }
         if (!isEnabled()) {
             logger.debug("Activity Tracker is not enabled, skipping stats fetch");
             return null;
         }
         
+        return cachedStats.get(serverConfig.getActivityTrackerCacheTtlMs(), this::fetchStats);
+    }
+    
+    private ActivityTrackerStats fetchStats() {
         try {
-            String url = buildUrl("/api/stats");
-            logger.debug("Fetching Activity Tracker stats from: {}", url);
-            ActivityTrackerStats stats = restTemplate.getForObject(url, ActivityTrackerStats.class);
+            logger.debug("Fetching Activity Tracker stats from: {}", buildUrl("/api/stats"));
+            ActivityTrackerStats stats = call("/api/stats", ActivityTrackerStats.class);
             if (stats != null) {
                 logger.info("Successfully fetched Activity Tracker stats: {} unique logins, {} total logins", 
                     stats.getUniqueLogins(), stats.getTotalLogins());
@@ -86,18 +143,25 @@ public class ActivityTrackerService {
     }
     
     /**
-     * Fetch leaderboard from Activity Tracker
+     * Fetch leaderboard from Activity Tracker, reusing the last result for
+     * activityTrackerCacheTtlMs
      */
     public List<LeaderboardEntry> getLeaderboard() {
+        if (!isEnabled() && usesLocalSessions()) {
+            return sessionTracker.getLeaderboard();
+        }
         if (!isEnabled()) {
             logger.debug("Activity Tracker is not enabled, skipping leaderboard fetch");
             return Collections.emptyList();
         }
         
+        return cachedLeaderboard.get(serverConfig.getActivityTrackerCacheTtlMs(), this::fetchLeaderboard);
+    }
+    
+    private List<LeaderboardEntry> fetchLeaderboard() {
         try {
-            String url = buildUrl("/api/leaderboard");
-            logger.debug("Fetching Activity Tracker leaderboard from: {}", url);
-            LeaderboardEntry[] entries = restTemplate.getForObject(url, LeaderboardEntry[].class);
+            logger.debug("Fetching Activity Tracker leaderboard from: {}", buildUrl("/api/leaderboard"));
+            LeaderboardEntry[] entries = call("/api/leaderboard", LeaderboardEntry[].class);
             List<LeaderboardEntry> leaderboard = entries != null ? Arrays.asList(entries) : Collections.emptyList();
             logger.info("Successfully fetched Activity Tracker leaderboard with {} entries", leaderboard.size());
             return leaderboard;
@@ -121,9 +185,8 @@ public class ActivityTrackerService {
         }
         
         try {
-            String url = buildUrl("/api/health");
-            logger.debug("Performing Activity Tracker health check at: {}", url);
-            restTemplate.getForObject(url, String.class);
+            logger.debug("Performing Activity Tracker health check at: {}", buildUrl("/api/health"));
+            call("/api/health", String.class);
             logger.info("Activity Tracker health check passed");
             return true;
         } catch (Exception e) {
@@ -133,6 +196,65 @@ public class ActivityTrackerService {
         }
     }
     
+    /**
+     * Version of the cached stats; changes whenever they are fetched again
+     */
+    public long getStatsVersion() {
+        if (!isEnabled() && usesLocalSessions()) {
+            return sessionTracker.getVersion();
+        }
+        return cachedStats.version;
+    }
+    
+    /**
+     * Version of the cached leaderboard; changes whenever it is fetched again
+     */
+    public long getLeaderboardVersion() {
+        if (!isEnabled() && usesLocalSessions()) {
+            return sessionTracker.getVersion();
+        }
+        return cachedLeaderboard.version;
+    }
+    
+    /**
+     * Milliseconds until the cached stats expire
+     */
+    public long getStatsTtlRemainingMs() {
+        if (!isEnabled() && usesLocalSessions()) {
+            return sessionTracker.getMillisUntilChange();
+        }
+        return cachedStats.remainingMs(serverConfig.getActivityTrackerCacheTtlMs());
+    }
+    
+    /**
+     * Milliseconds until the cached leaderboard expires
+     */
+    public long getLeaderboardTtlRemainingMs() {
+        if (!isEnabled() && usesLocalSessions()) {
+            return sessionTracker.getMillisUntilChange();
+        }
+        return cachedLeaderboard.remainingMs(serverConfig.getActivityTrackerCacheTtlMs());
+    }
+    
+    /**
+     * GET a plugin API path, recording the call as a flight recorder event
+     */
+    private <T> T call(String path, Class<T> responseType) {
+        ActivityTrackerCallEvent event = new ActivityTrackerCallEvent();
+        event.begin();
+        event.path = path;
+        try {
+            T response = restTemplate.getForObject(buildUrl(path), responseType);
+            event.success = true;
+            return response;
+        } catch (RuntimeException e) {
+            event.error = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+    
     private String buildUrl(String path) {
         String baseUrl = serverConfig.getActivityTrackerUrl().trim();
         // Remove trailing slash if present
@@ -141,4 +263,44 @@ public class ActivityTrackerService {
         }
         return baseUrl + path;
     }
+    
+    /**
+     * Last fetched value with its fetch time. Concurrent callers of an expired entry
+     * wait for a single fetch instead of each calling the plugin.
+     */
+    private static final class CachedResult<T> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile T value;
+        private volatile long fetchedAtMs;
+        private volatile long version;
+        
+        T get(long ttlMs, Supplier<T> loader) {
+            if (isFresh(ttlMs)) {
+                return value;
+            }
+            lock.lock();
+            try {
+                if (isFresh(ttlMs)) {
+                    return value;
+                }
+                value = loader.get();
+                fetchedAtMs = System.currentTimeMillis();
+                version++;
+                return value;
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        long remainingMs(long ttlMs) {
+            if (version == 0) {
+                return 0;
+            }
+            return Math.max(0, fetchedAtMs + ttlMs - System.currentTimeMillis());
+        }
+        
+        private boolean isFresh(long ttlMs) {
+            return version > 0 && ttlMs > 0 && System.currentTimeMillis() - fetchedAtMs < ttlMs;
+        }
+    }
 }
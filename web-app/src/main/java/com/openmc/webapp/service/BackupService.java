@@ -0,0 +1,751 @@
+package com.openmc.webapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openmc.webapp.backup.BackupEngine;
+import com.openmc.webapp.backup.BackupProgress;
+import com.openmc.webapp.backup.ParallelGzipInputStream;
+import com.openmc.webapp.backup.ParallelGzipOutputStream;
+import com.openmc.webapp.backup.RetentionPolicy;
+import com.openmc.webapp.config.ServerConfig;
+import com.openmc.webapp.config.WorkerThreads;
+import com.openmc.webapp.model.BackupSnapshot;
+import com.openmc.webapp.rcon.RconCommandScheduler.Priority;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Runs backups, restores and repository maintenance in the background, one at a time.
+ *
+ * Before a backup, world saving is paused with save-off and pending chunks are written
+ * with save-all flush, so region files are not changing while they are read; save-on
+ * always follows. If the server cannot be reached the backup still runs, and the snapshot
+ * records that it was not quiesced. Restores go to a directory of their own, never over
+ * the live server directory.
+ *
+ * With a backup cron expression configured, backups also run on schedule. A scheduled
+ * backup is verified chunk by chunk, then snapshots outside the retention policy are
+ * deleted and chunks no snapshot refers to any more are pruned. Every operation reports
+ * its progress while it runs and is kept in a bounded history once it finishes.
+ */
+@Service
+public class BackupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackupService.class);
+
+    public enum Operation { IDLE, BACKUP, RESTORE, ARCHIVE, VERIFY, PRUNE }
+
+    private static final String ARCHIVE_SUFFIX = ".tar.gz";
+    private static final String CHECKSUM_SUFFIX = ".sha256";
+    private static final Pattern ARCHIVE_NAME = Pattern.compile("[A-Za-z0-9._-]+\\.tar\\.gz");
+
+    private final RconService rconService;
+    private final ServerConfig serverConfig;
+    private final BackupEngine engine;
+    private final Executor runner;
+    private final ExecutorService workers;
+    private final ExecutorService compressionPool;
+    private final Supplier<Instant> clock;
+    private final CronExpression schedule;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private Status status = new Status(Operation.IDLE, null, null, null, null, null, null);
+    private final Deque<OperationRecord> history = new ArrayDeque<>();
+    private Instant nextScheduledBackup;
+
+    @Autowired
+    public BackupService(RconService rconService, ServerConfig serverConfig, ObjectMapper objectMapper) {
+        this(rconService, serverConfig,
+            new BackupEngine(Path.of(serverConfig.getBackupRepositoryDir()), objectMapper,
+                serverConfig.getBackupCompressionLevel(), serverConfig.isBackupRegionAware()),
+            Executors.newSingleThreadExecutor(WorkerThreads.factory(serverConfig, "backup-")),
+            Executors.newFixedThreadPool(Math.max(1, serverConfig.getBackupWorkers()),
+                WorkerThreads.factory(serverConfig, "backup-worker-")),
+            new ForkJoinPool(serverConfig.getBackupCompressionThreads() > 0
+                ? serverConfig.getBackupCompressionThreads() : Runtime.getRuntime().availableProcessors()),
+            Instant::now);
+    }
+
+    BackupService(RconService rconService, ServerConfig serverConfig, BackupEngine engine,
+                  Executor runner, ExecutorService workers, ExecutorService compressionPool,
+                  Supplier<Instant> clock) {
+        this.rconService = rconService;
+        this.serverConfig = serverConfig;
+        this.engine = engine;
+        this.runner = runner;
+        this.workers = workers;
+        this.compressionPool = compressionPool;
+        this.clock = clock;
+        this.schedule = parseSchedule(serverConfig.getBackupCron());
+    }
+
+    private static CronExpression parseSchedule(String cron) {
+        if (cron == null || cron.isBlank()) {
+            return null;
+        }
+        try {
+            return ScheduledCommandService.parseCron(cron);
+        } catch (IllegalArgumentException e) {
+            logger.error("Scheduled backups are disabled: invalid backup cron '{}'", cron);
+            return null;
+        }
+    }
+
+    /**
+     * Start a scheduled backup when one is due. A backup that comes due while another
+     * operation runs is skipped, not queued.
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void tick() {
+        if (schedule == null) {
+            return;
+        }
+        Instant now = clock.get();
+        lock.lock();
+        try {
+            if (nextScheduledBackup == null) {
+                nextScheduledBackup = nextRun(now);
+                return;
+            }
+            if (now.isBefore(nextScheduledBackup)) {
+                return;
+            }
+            nextScheduledBackup = nextRun(now);
+        } finally {
+            lock.unlock();
+        }
+        if (!start(Operation.BACKUP, null, this::runScheduledBackup)) {
+            logger.warn("Skipping scheduled backup: another backup operation is running");
+        }
+    }
+
+    private Instant nextRun(Instant after) {
+        ZonedDateTime next = schedule.next(ZonedDateTime.ofInstant(after, ZoneId.systemDefault()));
+        return next != null ? next.toInstant() : null;
+    }
+
+    /**
+     * When the next scheduled backup is due, or null if backups are not scheduled.
+     */
+    public Instant getNextScheduledBackup() {
+        lock.lock();
+        try {
+            return nextScheduledBackup;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Start a backup in the background.
+     *
+     * @return false if a backup or restore is already running
+     */
+    public boolean startBackup() {
+        return start(Operation.BACKUP, null, progress -> {
+            BackupSnapshot snapshot = runBackup(progress);
+            verify(snapshot, progress);
+            return snapshot;
+        });
+    }
+
+    /**
+     * Start checking every chunk of a snapshot against its hash.
+     *
+     * @return false if another operation is already running
+     * @throws IllegalArgumentException if there is no such snapshot
+     */
+    public boolean startVerify(String id) throws IOException {
+        if (engine.loadSnapshot(id) == null) {
+            throw new IllegalArgumentException("No backup snapshot " + id);
+        }
+        return start(Operation.VERIFY, id, progress -> {
+            progress.startPhase("verify");
+            engine.verifySnapshot(id, workers, progress);
+            return null;
+        });
+    }
+
+    /**
+     * Start checking an archive: its checksum, when it has one, and that it decompresses
+     * and reads as a tar archive.
+     *
+     * @return false if another operation is already running
+     * @throws IllegalArgumentException if there is no such archive
+     */
+    public boolean startArchiveVerify(String name) {
+        Path archive = archivePath(name);
+        if (archive == null || !Files.isRegularFile(archive)) {
+            throw new IllegalArgumentException("No archive " + name);
+        }
+        return start(Operation.VERIFY, name, progress -> {
+            verifyArchive(archive, progress);
+            return null;
+        });
+    }
+
+    /**
+     * Start deleting snapshots outside the retention policy and the chunks no remaining
+     * snapshot uses.
+     *
+     * @return false if another operation is already running
+     */
+    public boolean startPrune() {
+        return start(Operation.PRUNE, null, progress -> {
+            prune(progress);
+            return null;
+        });
+    }
+
+    /**
+     * Start restoring a snapshot into its own directory under the restore directory.
+     *
+     * @return false if a backup or restore is already running
+     * @throws IllegalArgumentException if there is no such snapshot
+     */
+    public boolean startRestore(String id) throws IOException {
+        if (engine.loadSnapshot(id) == null) {
+            throw new IllegalArgumentException("No backup snapshot " + id);
+        }
+        return start(Operation.RESTORE, id, progress -> {
+            progress.startPhase("restore");
+            Path target = Path.of(serverConfig.getBackupRestoreDir()).resolve(id);
+            engine.restore(id, target, workers, progress);
+            return null;
+        });
+    }
+
+    /**
+     * Start exporting a snapshot as {@code <id>.tar.gz} in the archive directory,
+     * compressed on the compression pool. Its SHA-256 is computed as it is written and
+     * saved next to it as {@code <id>.tar.gz.sha256}, in the format sha256sum reads; with
+     * verification on, the finished archive is then read back and checked against it.
+     *
+     * @return false if a backup or restore is already running
+     * @throws IllegalArgumentException if there is no such snapshot
+     */
+    public boolean startArchive(String id) throws IOException {
+        if (engine.loadSnapshot(id) == null) {
+            throw new IllegalArgumentException("No backup snapshot " + id);
+        }
+        return start(Operation.ARCHIVE, id, progress -> {
+            progress.startPhase("archive");
+            Path directory = Path.of(serverConfig.getBackupArchiveDir());
+            Files.createDirectories(directory);
+            Path archive = directory.resolve(id + ARCHIVE_SUFFIX);
+            Path temp = Files.createTempFile(directory, id, ".tmp");
+            MessageDigest digest = sha256();
+            try {
+                try (OutputStream out = new ParallelGzipOutputStream(
+                        new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1024 * 1024), digest),
+                        compressionPool, serverConfig.getBackupArchiveCompressionLevel())) {
+                    engine.writeArchive(id, out, progress);
+                }
+                Files.move(temp, archive, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            writeChecksum(archive, HexFormat.of().formatHex(digest.digest()));
+            if (serverConfig.isBackupVerify()) {
+                verifyArchive(archive, progress);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Start extracting a .tar.gz from the archive directory into its own directory under
+     * the restore directory. Archives from this app are decompressed in parallel; others,
+     * such as those from backup.sh, are read sequentially.
+     *
+     * @return false if a backup or restore is already running
+     * @throws IllegalArgumentException if there is no such archive
+     */
+    public boolean startArchiveRestore(String name) {
+        Path archive = archivePath(name);
+        if (archive == null || !Files.isRegularFile(archive)) {
+            throw new IllegalArgumentException("No archive " + name);
+        }
+        return start(Operation.RESTORE, name, progress -> {
+            progress.startPhase("restore");
+            Path target = Path.of(serverConfig.getBackupRestoreDir())
+                .resolve(name.substring(0, name.length() - ARCHIVE_SUFFIX.length()));
+            try (InputStream in = new ParallelGzipInputStream(
+                    new BufferedInputStream(Files.newInputStream(archive), 1024 * 1024), compressionPool)) {
+                BackupEngine.extractArchive(in, target);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Stream the server directory as it is now to {@code out} as a tar archive, gzipped
+     * on the compression pool if {@code compress}; backup excludes apply. Pending chunks
+     * are flushed with save-all flush first, but saving is not paused, as a download can
+     * take as long as the client makes it; a snapshot archive is the consistent choice.
+     * This runs on the calling thread, beside any backup operation.
+     *
+     * @return the number of files written
+     */
+    public int writeServerArchive(OutputStream out, boolean compress) throws IOException {
+        String response = rconService.sendCommand("save-all flush", Priority.ADMIN);
+        if (!succeeded(response)) {
+            logger.warn("Could not flush the world before streaming it: {}", response);
+        }
+        Path source = Path.of(serverConfig.getBackupSourceDir());
+        if (!compress) {
+            return BackupEngine.writeDirectoryArchive(source, getExcludes(), out);
+        }
+        ParallelGzipOutputStream gzip = new ParallelGzipOutputStream(out, compressionPool,
+            serverConfig.getBackupArchiveCompressionLevel());
+        int files = BackupEngine.writeDirectoryArchive(source, getExcludes(), gzip);
+        gzip.finish();
+        return files;
+    }
+
+    /**
+     * The archive file with this name, or null if the name is not a plain .tar.gz file name.
+     */
+    Path archivePath(String name) {
+        if (!ARCHIVE_NAME.matcher(name).matches()) {
+            return null;
+        }
+        return Path.of(serverConfig.getBackupArchiveDir()).resolve(name);
+    }
+
+    /**
+     * The archive with this name in the archive directory, or null if there is none.
+     */
+    public Path findArchive(String name) {
+        Path archive = archivePath(name);
+        return archive != null && Files.isRegularFile(archive) ? archive : null;
+    }
+
+    /**
+     * The .tar.gz files in the archive directory, newest first.
+     */
+    public List<Archive> getArchives() throws IOException {
+        Path directory = Path.of(serverConfig.getBackupArchiveDir());
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        List<Archive> archives = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + ARCHIVE_SUFFIX)) {
+            for (Path file : files) {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                if (attributes.isRegularFile()) {
+                    archives.add(new Archive(file.getFileName().toString(), attributes.size(),
+                        attributes.lastModifiedTime().toInstant(), readChecksum(file)));
+                }
+            }
+        }
+        archives.sort(Comparator.comparing(Archive::getLastModified).reversed());
+        return archives;
+    }
+
+    /**
+     * Check the archive's SHA-256 against its checksum file, if it has one, in the same
+     * streaming pass that decompresses and reads it.
+     */
+    void verifyArchive(Path archive, BackupProgress progress) throws IOException {
+        progress.startPhase("verify");
+        String actual = BackupEngine.verifyArchive(archive, compressionPool, progress);
+        String expected = readChecksum(archive);
+        if (expected != null && !expected.equals(actual)) {
+            throw new IOException("Archive " + archive.getFileName() + " does not match its checksum: expected "
+                + expected + ", found " + actual);
+        }
+        logger.info("Verified archive {}{}", archive.getFileName(), expected != null ? " against its checksum" : "");
+    }
+
+    private static void writeChecksum(Path archive, String checksum) throws IOException {
+        Path file = archive.resolveSibling(archive.getFileName() + CHECKSUM_SUFFIX);
+        Files.writeString(file, checksum + "  " + archive.getFileName() + "\n");
+    }
+
+    /**
+     * The checksum from the archive's .sha256 file, or null if it has none.
+     */
+    private static String readChecksum(Path archive) throws IOException {
+        Path file = archive.resolveSibling(archive.getFileName() + CHECKSUM_SUFFIX);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        String content = Files.readString(file).trim();
+        int end = content.indexOf(' ');
+        return (end > 0 ? content.substring(0, end) : content).toLowerCase(Locale.ROOT);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Task {
+        BackupSnapshot run(BackupProgress progress) throws IOException;
+    }
+
+    private boolean start(Operation operation, String snapshotId, Task task) {
+        Status previous;
+        BackupProgress progress = new BackupProgress();
+        lock.lock();
+        try {
+            if (status.operation != Operation.IDLE) {
+                return false;
+            }
+            previous = status;
+            status = new Status(operation, snapshotId, clock.get(), null, previous.lastSnapshot, null, progress);
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            runner.execute(() -> run(task, progress));
+        } catch (RejectedExecutionException e) {
+            setStatus(previous);
+            throw e;
+        }
+        return true;
+    }
+
+    private void run(Task task, BackupProgress progress) {
+        BackupSnapshot snapshot = null;
+        String error = null;
+        try {
+            snapshot = task.run(progress);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Backup operation failed", e);
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+        progress.finish();
+        lock.lock();
+        try {
+            Instant finishedAt = clock.get();
+            history.addFirst(new OperationRecord(status.operation, snapshot != null ? snapshot.getId() : status.snapshotId,
+                status.startedAt, finishedAt, progress, error));
+            while (history.size() > Math.max(0, serverConfig.getBackupHistorySize())) {
+                history.removeLast();
+            }
+            status = new Status(Operation.IDLE, status.snapshotId, status.startedAt, finishedAt,
+                snapshot != null ? snapshot.summary() : status.lastSnapshot, error, progress);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A backup, then with verification on a check of its chunks, then retention and
+     * pruning.
+     */
+    BackupSnapshot runScheduledBackup(BackupProgress progress) throws IOException {
+        BackupSnapshot snapshot = runBackup(progress);
+        verify(snapshot, progress);
+        prune(progress);
+        return snapshot;
+    }
+
+    private void verify(BackupSnapshot snapshot, BackupProgress progress) throws IOException {
+        if (serverConfig.isBackupVerify()) {
+            progress.startPhase("verify");
+            engine.verifySnapshot(snapshot.getId(), workers, progress);
+        }
+    }
+
+    private void prune(BackupProgress progress) throws IOException {
+        progress.startPhase("retention");
+        RetentionPolicy policy = new RetentionPolicy(serverConfig.getBackupKeepDaily(),
+            serverConfig.getBackupKeepWeekly(), serverConfig.getBackupKeepMonthly());
+        List<String> deleted = engine.applyRetention(policy, ZoneId.systemDefault());
+        progress.addDone(deleted.size(), 0);
+        progress.startPhase("prune");
+        engine.pruneChunks(progress);
+    }
+
+    BackupSnapshot runBackup(BackupProgress progress) throws IOException {
+        progress.startPhase("backup");
+        boolean savingOff = succeeded(rconService.sendCommand("save-off", Priority.ADMIN));
+        boolean flushed = savingOff && succeeded(rconService.sendCommand("save-all flush", Priority.ADMIN));
+        if (!flushed) {
+            logger.warn("Could not pause and flush world saving; backing up while the server may be writing");
+        }
+        try {
+            return engine.backup(Path.of(serverConfig.getBackupSourceDir()), getExcludes(), workers, flushed, progress);
+        } finally {
+            if (savingOff) {
+                String response = rconService.sendCommand("save-on", Priority.ADMIN);
+                if (!succeeded(response)) {
+                    logger.error("Could not turn world saving back on after the backup: {}", response);
+                }
+            }
+        }
+    }
+
+    private static boolean succeeded(String response) {
+        return !response.startsWith("Error:") && !RconService.isCommandError(response);
+    }
+
+    private List<String> getExcludes() {
+        return Arrays.stream(serverConfig.getBackupExcludes().split(","))
+            .map(String::trim)
+            .filter(glob -> !glob.isEmpty())
+            .toList();
+    }
+
+    /**
+     * Summaries of all snapshots, newest first.
+     */
+    public List<BackupSnapshot> getSnapshots() throws IOException {
+        return engine.listSnapshots();
+    }
+
+    /**
+     * Finished operations, newest first.
+     */
+    public List<OperationRecord> getHistory() {
+        lock.lock();
+        try {
+            return new ArrayList<>(history);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Status getStatus() {
+        lock.lock();
+        try {
+            return status;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void setStatus(Status status) {
+        lock.lock();
+        try {
+            this.status = status;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (runner instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+        workers.shutdownNow();
+        compressionPool.shutdownNow();
+    }
+
+    /**
+     * What the service is doing, and how its last operation ended.
+     */
+    public static class Status {
+        private final Operation operation;
+        private final String snapshotId;
+        private final Instant startedAt;
+        private final Instant finishedAt;
+        private final BackupSnapshot lastSnapshot;
+        private final String lastError;
+        private final BackupProgress progress;
+
+        public Status(Operation operation, String snapshotId, Instant startedAt, Instant finishedAt,
+                      BackupSnapshot lastSnapshot, String lastError, BackupProgress progress) {
+            this.operation = operation;
+            this.snapshotId = snapshotId;
+            this.startedAt = startedAt;
+            this.finishedAt = finishedAt;
+            this.lastSnapshot = lastSnapshot;
+            this.lastError = lastError;
+            this.progress = progress;
+        }
+
+        public Operation getOperation() {
+            return operation;
+        }
+
+        /**
+         * The snapshot or archive being or last restored or archived; null for backups.
+         */
+        public String getSnapshotId() {
+            return snapshotId;
+        }
+
+        public Instant getStartedAt() {
+            return startedAt;
+        }
+
+        public Instant getFinishedAt() {
+            return finishedAt;
+        }
+
+        /**
+         * The most recent snapshot this service created.
+         */
+        public BackupSnapshot getLastSnapshot() {
+            return lastSnapshot;
+        }
+
+        /**
+         * Why the last operation failed, or null if it succeeded.
+         */
+        public String getLastError() {
+            return lastError;
+        }
+
+        /**
+         * Progress of the running operation, or how the last one ended; null before the first.
+         */
+        public BackupProgress getProgress() {
+            return progress;
+        }
+    }
+
+    /**
+     * A finished operation: what it was, how long each phase took and how fast it went.
+     */
+    public static class OperationRecord {
+        private final Operation operation;
+        private final String snapshotId;
+        private final Instant startedAt;
+        private final Instant finishedAt;
+        private final long durationMs;
+        private final long bytesProcessed;
+        private final long throughputBytesPerSecond;
+        private final Map<String, Long> phaseDurationsMs;
+        private final String error;
+
+        OperationRecord(Operation operation, String snapshotId, Instant startedAt, Instant finishedAt,
+                        BackupProgress progress, String error) {
+            this.operation = operation;
+            this.snapshotId = snapshotId;
+            this.startedAt = startedAt;
+            this.finishedAt = finishedAt;
+            this.durationMs = progress.getElapsedMs();
+            this.bytesProcessed = progress.getBytesProcessed();
+            this.throughputBytesPerSecond = progress.getThroughputBytesPerSecond();
+            this.phaseDurationsMs = progress.getPhaseDurationsMs();
+            this.error = error;
+        }
+
+        public Operation getOperation() {
+            return operation;
+        }
+
+        /**
+         * The snapshot created, or the snapshot or archive operated on; null for pruning.
+         */
+        public String getSnapshotId() {
+            return snapshotId;
+        }
+
+        public Instant getStartedAt() {
+            return startedAt;
+        }
+
+        public Instant getFinishedAt() {
+            return finishedAt;
+        }
+
+        public long getDurationMs() {
+            return durationMs;
+        }
+
+        public long getBytesProcessed() {
+            return bytesProcessed;
+        }
+
+        public long getThroughputBytesPerSecond() {
+            return throughputBytesPerSecond;
+        }
+
+        public Map<String, Long> getPhaseDurationsMs() {
+            return phaseDurationsMs;
+        }
+
+        /**
+         * Why the operation failed, or null if it succeeded.
+         */
+        public String getError() {
+            return error;
+        }
+    }
+
+    /**
+     * An exported snapshot or other .tar.gz in the archive directory.
+     */
+    public static class Archive {
+        private final String name;
+        private final long size;
+        private final Instant lastModified;
+        private final String sha256;
+
+        public Archive(String name, long size, Instant lastModified, String sha256) {
+            this.name = name;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.sha256 = sha256;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public Instant getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * The checksum from the archive's .sha256 file, or null if it has none.
+         */
+        public String getSha256() {
+            return sha256;
+        }
+    }
+}
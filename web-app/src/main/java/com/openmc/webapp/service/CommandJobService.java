@@ -0,0 +1,213 @@
+package com.openmc.webapp.service;
+
+import com.openmc.webapp.config.ServerConfig;
+import com.openmc.webapp.config.WorkerThreads;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs admin commands in the background so slow commands do not hold a request thread.
+ *
+ * Jobs run on a small bounded worker pool. Their results stay in a bounded store until
+ * they expire, and clients fetch them by id. When the queue or the store is full, new
+ * jobs are rejected rather than queued without limit.
+ */
+@Service
+public class CommandJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommandJobService.class);
+
+    public enum JobStatus { QUEUED, RUNNING, SUCCEEDED, FAILED }
+
+    private final RconService rconService;
+    private final ServerConfig serverConfig;
+    private final ExecutorService workers;
+
+    // Insertion ordered, so the oldest jobs are evicted first
+    private final ReentrantLock storeLock = new ReentrantLock();
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+
+    @Autowired
+    public CommandJobService(RconService rconService, ServerConfig serverConfig) {
+        this(rconService, serverConfig, new ThreadPoolExecutor(
+            serverConfig.getCommandJobWorkers(), serverConfig.getCommandJobWorkers(), 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, serverConfig.getCommandJobQueueSize())),
+            WorkerThreads.factory(serverConfig, "command-job-")));
+    }
+
+    CommandJobService(RconService rconService, ServerConfig serverConfig, ExecutorService workers) {
+        this.rconService = rconService;
+        this.serverConfig = serverConfig;
+        this.workers = workers;
+    }
+
+    /**
+     * Queue a command and return its job straight away.
+     *
+     * @throws RejectedExecutionException if the queue or the result store is full
+     */
+    public Job submit(String command) {
+        Job job = new Job(UUID.randomUUID().toString(), command, Instant.now());
+        storeLock.lock();
+        try {
+            if (jobs.size() >= serverConfig.getCommandJobMaxStored()) {
+                evictJobs(true);
+            }
+            if (jobs.size() >= serverConfig.getCommandJobMaxStored()) {
+                throw new RejectedExecutionException("Too many unfinished jobs");
+            }
+            jobs.put(job.id, job);
+        } finally {
+            storeLock.unlock();
+        }
+
+        try {
+            workers.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            remove(job.id);
+            throw new RejectedExecutionException("Job queue is full", e);
+        }
+        logger.info("Queued command job {}", job.id);
+        return job;
+    }
+
+    public Job getJob(String id) {
+        storeLock.lock();
+        try {
+            return jobs.get(id);
+        } finally {
+            storeLock.unlock();
+        }
+    }
+
+    private void run(Job job) {
+        job.startedAt = Instant.now();
+        job.status = JobStatus.RUNNING;
+        String output;
+        try {
+            output = rconService.sendCommand(job.command);
+        } catch (RuntimeException e) {
+            output = "Error: " + e.getMessage();
+        }
+        job.output = output;
+        job.finishedAt = Instant.now();
+        job.status = output.startsWith("Error:") || RconService.isCommandError(output)
+            ? JobStatus.FAILED : JobStatus.SUCCEEDED;
+        logger.debug("Command job {} finished as {}", job.id, job.status);
+    }
+
+    /**
+     * Drop finished jobs whose results have expired.
+     */
+    @Scheduled(fixedRate = 60000)
+    public void evictExpiredJobs() {
+        storeLock.lock();
+        try {
+            evictJobs(false);
+        } finally {
+            storeLock.unlock();
+        }
+    }
+
+    /**
+     * Remove expired results; when making room, also remove the oldest finished job.
+     */
+    private void evictJobs(boolean makeRoom) {
+        Instant expiredBefore = Instant.now().minusMillis(serverConfig.getCommandJobResultTtlMs());
+        boolean madeRoom = false;
+        Iterator<Job> iterator = jobs.values().iterator();
+        while (iterator.hasNext()) {
+            Job job = iterator.next();
+            if (job.finishedAt == null) {
+                continue;
+            }
+            if (job.finishedAt.isBefore(expiredBefore) || (makeRoom && !madeRoom)) {
+                iterator.remove();
+                madeRoom = true;
+            }
+        }
+    }
+
+    private void remove(String id) {
+        storeLock.lock();
+        try {
+            jobs.remove(id);
+        } finally {
+            storeLock.unlock();
+        }
+    }
+
+    int getStoredJobCount() {
+        storeLock.lock();
+        try {
+            return jobs.size();
+        } finally {
+            storeLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    public static class Job {
+        private final String id;
+        private final String command;
+        private final Instant submittedAt;
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile String output;
+
+        public Job(String id, String command, Instant submittedAt) {
+            this.id = id;
+            this.command = command;
+            this.submittedAt = submittedAt;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getCommand() {
+            return command;
+        }
+
+        public JobStatus getStatus() {
+            return status;
+        }
+
+        public Instant getSubmittedAt() {
+            return submittedAt;
+        }
+
+        public Instant getStartedAt() {
+            return startedAt;
+        }
+
+        public Instant getFinishedAt() {
+            return finishedAt;
+        }
+
+        public String getOutput() {
+            return output;
+        }
+    }
+}
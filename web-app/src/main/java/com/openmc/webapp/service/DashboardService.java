@@ -0,0 +1,186 @@
+package com.openmc.webapp.service;
+
+import com.openmc.webapp.config.ServerConfig;
+import com.openmc.webapp.config.WorkerThreads;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Assembles the data behind the public page in one call.
+ *
+ * Sections are fetched in parallel, each with its own timeout. A section that fails or
+ * times out is left empty and reported in the errors, so the rest of the dashboard is
+ * still returned.
+ */
+@Service
+public class DashboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
+    public static final String STATUS = "status";
+    public static final String HISTORY = "history";
+    public static final String STATS = "stats";
+    public static final String LEADERBOARD = "leaderboard";
+    public static final String ACTIVITY_TRACKER_ENABLED = "activityTrackerEnabled";
+
+    static final int WORKER_THREADS = 4;
+    static final int QUEUE_CAPACITY = 16;
+
+    private final ServerConfig serverConfig;
+    private final Executor executor;
+    private final Map<String, Supplier<Object>> sections = new LinkedHashMap<>();
+
+    @Autowired
+    public DashboardService(RconService rconService, ActivityTrackerService activityTrackerService,
+                            ServerConfig serverConfig) {
+        this(rconService, activityTrackerService, serverConfig, createExecutor(serverConfig));
+    }
+
+    DashboardService(RconService rconService, ActivityTrackerService activityTrackerService,
+                     ServerConfig serverConfig, Executor executor) {
+        this.serverConfig = serverConfig;
+        this.executor = executor;
+        sections.put(STATUS, rconService::getServerStatus);
+        sections.put(HISTORY, rconService::getRetrievalHistory);
+        sections.put(STATS, activityTrackerService::getStats);
+        sections.put(LEADERBOARD, activityTrackerService::getLeaderboard);
+        sections.put(ACTIVITY_TRACKER_ENABLED, activityTrackerService::isAvailable);
+    }
+
+    /**
+     * Sections block on RCON or HTTP, so in virtual-thread mode each one gets its own
+     * virtual thread instead of a slot in a small platform pool.
+     *
+     * The platform pool has a bounded queue. A timed-out section keeps its worker until
+     * the call returns, so when RCON hangs new sections are rejected straight away rather
+     * than queueing behind it without limit.
+     */
+    static ExecutorService createExecutor(ServerConfig serverConfig) {
+        ThreadFactory threadFactory = WorkerThreads.factory(serverConfig, "dashboard-");
+        return serverConfig.isVirtualThreadsEnabled()
+            ? Executors.newThreadPerTaskExecutor(threadFactory)
+            : new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), threadFactory);
+    }
+
+    public Set<String> getSectionNames() {
+        return Collections.unmodifiableSet(sections.keySet());
+    }
+
+    /**
+     * Parse a comma-separated include list; null or blank selects every section.
+     *
+     * @throws IllegalArgumentException if a section name is unknown
+     */
+    public Set<String> parseInclude(String include) {
+        if (include == null || include.isBlank()) {
+            return getSectionNames();
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        for (String name : include.split(",")) {
+            String section = name.trim();
+            if (section.isEmpty()) {
+                continue;
+            }
+            if (!sections.containsKey(section)) {
+                throw new IllegalArgumentException("Unknown dashboard section: " + section);
+            }
+            selected.add(section);
+        }
+        return selected;
+    }
+
+    /**
+     * Fetch the selected sections in parallel and wait at most the section timeout for each.
+     */
+    public Dashboard assemble(Set<String> include) {
+        long timeoutMs = serverConfig.getDashboardSectionTimeoutMs();
+        Map<String, CompletableFuture<Object>> futures = new LinkedHashMap<>();
+        for (Map.Entry<String, Supplier<Object>> section : sections.entrySet()) {
+            if (!include.contains(section.getKey())) {
+                continue;
+            }
+            CompletableFuture<Object> future;
+            try {
+                CompletableFuture<Object> status = futures.get(STATUS);
+                if (section.getKey().equals(HISTORY) && status != null) {
+                    // A status refresh adds a history record, so read the history after it
+                    future = status.handle((result, error) -> null)
+                        .thenApplyAsync(ignored -> section.getValue().get(), executor);
+                } else {
+                    future = CompletableFuture.supplyAsync(section.getValue(), executor);
+                }
+            } catch (RejectedExecutionException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            // Completing the future on timeout also stops a still-queued task from running
+            futures.put(section.getKey(), future.orTimeout(timeoutMs, TimeUnit.MILLISECONDS));
+        }
+
+        Dashboard dashboard = new Dashboard();
+        for (Map.Entry<String, CompletableFuture<Object>> entry : futures.entrySet()) {
+            try {
+                dashboard.sections.put(entry.getKey(), entry.getValue().join());
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                String error;
+                if (cause instanceof TimeoutException) {
+                    error = "Timed out after " + timeoutMs + " ms";
+                } else if (cause instanceof RejectedExecutionException) {
+                    error = "Rejected: dashboard workers are busy";
+                } else {
+                    error = "Failed: " + cause.getMessage();
+                }
+                logger.warn("Dashboard section '{}' unavailable: {}", entry.getKey(), error);
+                dashboard.sections.put(entry.getKey(), null);
+                dashboard.errors.put(entry.getKey(), error);
+            }
+        }
+        return dashboard;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    public static class Dashboard {
+        private final Map<String, Object> sections = new LinkedHashMap<>();
+        private final Map<String, String> errors = new LinkedHashMap<>();
+
+        public Map<String, Object> getSections() {
+            return sections;
+        }
+
+        public Map<String, String> getErrors() {
+            return errors;
+        }
+
+        public boolean isComplete() {
+            return errors.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.openmc.webapp.service;
+
+import com.openmc.webapp.config.ServerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Files in the deposit box, the directory shared between the host and the server
+ * container, for download and upload over the admin API.
+ *
+ * Uploads are written straight into their destination with
+ * {@link FileChannel#transferFrom}, never buffered whole or staged in a temporary file.
+ * They can arrive in pieces: each piece says where it starts, and after each one the file
+ * is cut to the end of what was received, so its size is always the offset to resume from.
+ */
+@Service
+public class DepositBoxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DepositBoxService.class);
+
+    // Largest single transferFrom call; the loop continues until the piece is complete
+    private static final long TRANSFER_STEP = 64L * 1024 * 1024;
+
+    private final Path root;
+    private final Set<Path> uploading = ConcurrentHashMap.newKeySet();
+
+    public DepositBoxService(ServerConfig serverConfig) {
+        this.root = Path.of(serverConfig.getDepositBoxDir()).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Every regular file in the deposit box, by path. Symbolic links are not followed.
+     */
+    public List<DepositFile> listFiles() throws IOException {
+        if (!Files.isDirectory(root)) {
+            return List.of();
+        }
+        List<DepositFile> files = new ArrayList<>();
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (attributes.isRegularFile()) {
+                    files.add(new DepositFile(relativePath(file), attributes.size(),
+                        attributes.lastModifiedTime().toInstant(), uploading.contains(file)));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                logger.warn("Skipping {} in the deposit box listing: {}", file, e.getMessage());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        files.sort(Comparator.comparing(DepositFile::getPath));
+        return files;
+    }
+
+    /**
+     * The regular file at {@code path} in the deposit box, or null if there is none.
+     *
+     * @throws IllegalArgumentException if the path leads out of the deposit box
+     */
+    public Path findFile(String path) throws IOException {
+        Path file = resolve(path);
+        return Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS) ? file : null;
+    }
+
+    /**
+     * The size of the file at {@code path}, which is where an interrupted upload resumes;
+     * 0 if it does not exist.
+     */
+    public long uploadOffset(String path) throws IOException {
+        Path file = resolve(path);
+        return Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS) ? Files.size(file) : 0;
+    }
+
+    /**
+     * Write one piece of an upload, or a whole file, from {@code body}. The piece is
+     * written at {@code offset}, which may not be past the end of what is already there,
+     * and the file is then cut to end with it.
+     *
+     * @param length bytes in the piece, or -1 to read {@code body} to its end
+     * @param total  size of the finished file, or -1 if this piece finishes it
+     * @throws IllegalArgumentException if the path leads out of the deposit box
+     * @throws IllegalStateException    if the offset is past the end of the file or the
+     *                                  file is being uploaded by another request
+     * @throws EOFException             if {@code body} ends before {@code length} bytes;
+     *                                  what did arrive is kept
+     */
+    public UploadResult upload(String path, long offset, long length, long total, InputStream body)
+            throws IOException {
+        Path file = resolve(path);
+        if (!uploading.add(file)) {
+            throw new IllegalStateException(path + " is already being uploaded");
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    LinkOption.NOFOLLOW_LINKS)) {
+                long size = channel.size();
+                if (offset > size) {
+                    throw new IllegalStateException("Upload of " + path + " must resume at " + size + ", not " + offset);
+                }
+                ReadableByteChannel source = Channels.newChannel(body);
+                long limit = length >= 0 ? length : Long.MAX_VALUE - offset;
+                long written = 0;
+                while (written < limit) {
+                    long transferred = channel.transferFrom(source, offset + written,
+                        Math.min(limit - written, TRANSFER_STEP));
+                    if (transferred <= 0) {
+                        break;
+                    }
+                    written += transferred;
+                }
+                long end = offset + written;
+                channel.truncate(end);
+                if (length >= 0 && written < length) {
+                    throw new EOFException("Upload of " + path + " ended after " + written + " of "
+                        + length + " bytes; resume at " + end);
+                }
+                boolean complete = total < 0 || end == total;
+                if (complete) {
+                    channel.force(true);
+                    logger.info("Received {} ({} bytes) in the deposit box", path, end);
+                }
+                return new UploadResult(relativePath(file), end, total < 0 ? end : total, complete);
+            }
+        } finally {
+            uploading.remove(file);
+        }
+    }
+
+    /**
+     * Resolve a path relative to the deposit box, refusing any that lead out of it,
+     * including through a symbolic link.
+     */
+    private Path resolve(String path) throws IOException {
+        String relative = path == null ? "" : path.replaceFirst("^/+", "");
+        Path file = root.resolve(relative).normalize();
+        if (relative.isEmpty() || !file.startsWith(root) || file.equals(root)) {
+            throw new IllegalArgumentException("Not a path in the deposit box: " + path);
+        }
+        if (Files.exists(root)) {
+            Path existing = file;
+            while (!Files.exists(existing, LinkOption.NOFOLLOW_LINKS)) {
+                existing = existing.getParent();
+            }
+            if (!existing.toRealPath().startsWith(root.toRealPath())) {
+                throw new IllegalArgumentException("Not a path in the deposit box: " + path);
+            }
+        }
+        return file;
+    }
+
+    private String relativePath(Path file) {
+        return root.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+    }
+
+    /**
+     * A file in the deposit box.
+     */
+    public static class DepositFile {
+        private final String path;
+        private final long size;
+        private final Instant lastModified;
+        private final boolean uploading;
+
+        public DepositFile(String path, long size, Instant lastModified, boolean uploading) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.uploading = uploading;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public Instant getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * Whether a piece of the file is being received right now.
+         */
+        public boolean isUploading() {
+            return uploading;
+        }
+    }
+
+    /**
+     * Where an upload stands after a piece was received.
+     */
+    public static class UploadResult {
+        private final String path;
+        private final long size;
+        private final long total;
+        private final boolean complete;
+
+        public UploadResult(String path, long size, long total, boolean complete) {
+            this.path = path;
+            this.size = size;
+            this.total = total;
+            this.complete = complete;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * Bytes received so far, and the offset the next piece starts at.
+         */
+        public long getSize() {
+            return size;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+}
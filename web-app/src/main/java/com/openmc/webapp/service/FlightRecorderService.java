@@ -0,0 +1,129 @@
+package com.openmc.webapp.service;
+
+import com.openmc.webapp.config.ServerConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.management.jfr.FlightRecorderMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Keeps a continuous flight recording with the JDK's low-overhead "default" settings
+ * plus the app's own RCON, status refresh, Activity Tracker and page render events,
+ * so a slowdown can be examined after it happened.
+ *
+ * The recording is kept on disk for flightRecorderMaxAgeMinutes, bounded by
+ * flightRecorderMaxSizeMb, and can be dumped on demand for a recent time window.
+ */
+@Service
+public class FlightRecorderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecorderService.class);
+
+    static final String RECORDING_NAME = "open-mc-webapp";
+    private static final String BLOCK_SIZE = "65536";
+
+    private final ServerConfig serverConfig;
+    private final Clock clock;
+    private volatile Recording recording;
+
+    @Autowired
+    public FlightRecorderService(ServerConfig serverConfig) {
+        this(serverConfig, Clock.systemUTC());
+    }
+
+    FlightRecorderService(ServerConfig serverConfig, Clock clock) {
+        this.serverConfig = serverConfig;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!serverConfig.isFlightRecorderEnabled()) {
+            return;
+        }
+        if (!FlightRecorder.isAvailable()) {
+            logger.warn("Flight recorder is not available in this JVM; continuous recording is off");
+            return;
+        }
+        try {
+            Recording continuous = new Recording(Configuration.getConfiguration("default"));
+            continuous.setName(RECORDING_NAME);
+            continuous.setToDisk(true);
+            continuous.setMaxAge(getMaxAge());
+            continuous.setMaxSize(serverConfig.getFlightRecorderMaxSizeMb() * 1024 * 1024);
+            continuous.start();
+            recording = continuous;
+            logger.info("Started continuous flight recording, keeping the last {} minutes",
+                serverConfig.getFlightRecorderMaxAgeMinutes());
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            logger.warn("Could not start continuous flight recording: {}", e.getMessage());
+        }
+    }
+
+    public boolean isRecording() {
+        return recording != null;
+    }
+
+    /**
+     * How far back a dump can reach.
+     */
+    public Duration getMaxAge() {
+        return Duration.ofMinutes(serverConfig.getFlightRecorderMaxAgeMinutes());
+    }
+
+    /**
+     * Write the data recorded in the last {@code window} to {@code out} as a .jfr file.
+     *
+     * The recording is stored in chunks, so the file starts at the beginning of the
+     * chunk holding the start of the window and may reach a little further back. Data is
+     * streamed in blocks and never held in memory as a whole.
+     *
+     * @throws IllegalStateException if no continuous recording is running
+     */
+    public void dump(Duration window, OutputStream out) throws IOException {
+        if (!isRecording()) {
+            throw new IllegalStateException("Flight recording is not running");
+        }
+        FlightRecorderMXBean flightRecorder = ManagementFactory.getPlatformMXBean(FlightRecorderMXBean.class);
+        long snapshotId = flightRecorder.takeSnapshot();
+        try {
+            Instant start = Instant.now(clock).minus(window);
+            long streamId = flightRecorder.openStream(snapshotId,
+                Map.of("startTime", start.toString(), "blockSize", BLOCK_SIZE));
+            try {
+                byte[] block;
+                while ((block = flightRecorder.readStream(streamId)) != null) {
+                    out.write(block);
+                }
+            } finally {
+                flightRecorder.closeStream(streamId);
+            }
+        } finally {
+            flightRecorder.closeRecording(snapshotId);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        Recording continuous = recording;
+        recording = null;
+        if (continuous != null) {
+            continuous.close();
+        }
+    }
+}
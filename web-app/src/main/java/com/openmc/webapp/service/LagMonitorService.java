@@ -0,0 +1,213 @@
+package com.openmc.webapp.service;
+
+import com.openmc.webapp.config.ServerConfig;
+import com.openmc.webapp.log.LagDetector;
+import com.openmc.webapp.model.LagEvent;
+import com.openmc.webapp.model.LagSample;
+import com.openmc.webapp.model.LogEvent;
+import com.openmc.webapp.model.RetrievalRecord;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the lag warnings found in the server log, as they are read, and sums them up into
+ * a time series. This shows lag at the resolution the server reports it, without sending
+ * {@code tps} over RCON, which runs on the very thread being measured. The RCON status
+ * history is merged into the series, so both can be read on one time axis.
+ */
+@Service
+public class LagMonitorService {
+
+    static final int MAX_BUCKETS = 2000;
+    private static final double TICKS_PER_SECOND = 20.0;
+    private static final Pattern FIRST_NUMBER = Pattern.compile("\\d+(?:\\.\\d+)?");
+
+    private final int capacity;
+    private final ArrayDeque<LagEvent> events = new ArrayDeque<>();
+    private long detected;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public LagMonitorService(ServerLogService serverLogService, ServerConfig serverConfig) {
+        this.capacity = Math.max(1, serverConfig.getLagHistorySize());
+        serverLogService.addListener(this::accept);
+    }
+
+    void accept(LogEvent event) {
+        LagEvent lag = LagDetector.detect(event);
+        if (lag == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            events.addLast(lag);
+            while (events.size() > capacity) {
+                events.removeFirst();
+            }
+            detected++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lag events from {@code from}, inclusive, to {@code to}, exclusive, newest first.
+     */
+    public List<LagEvent> getEvents(Instant from, Instant to, int limit) {
+        List<LagEvent> found = new ArrayList<>();
+        lock.lock();
+        try {
+            Iterator<LagEvent> newestFirst = events.descendingIterator();
+            while (newestFirst.hasNext() && found.size() < limit) {
+                LagEvent event = newestFirst.next();
+                if (!event.getTimestamp().isBefore(from) && event.getTimestamp().isBefore(to)) {
+                    found.add(event);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return found;
+    }
+
+    /**
+     * Lag from {@code from} to {@code to} in intervals of {@code bucket}, oldest first.
+     * Intervals start at whole multiples of their length, so the same interval sums up
+     * the same way from one call to the next. Each RCON status in {@code history} is
+     * merged into the interval it was taken in.
+     *
+     * @throws IllegalArgumentException if the range would need more than {@value #MAX_BUCKETS} intervals
+     */
+    public List<LagSample> getSeries(Instant from, Instant to, Duration bucket, List<RetrievalRecord> history) {
+        long size = bucket.toMillis();
+        if (size <= 0) {
+            throw new IllegalArgumentException("Interval must be positive");
+        }
+        long start = Math.floorDiv(from.toEpochMilli(), size) * size;
+        long end = to.toEpochMilli();
+        long count = end > start ? (end - start + size - 1) / size : 0;
+        if (count > MAX_BUCKETS) {
+            throw new IllegalArgumentException("Range needs more than " + MAX_BUCKETS + " intervals");
+        }
+
+        Bucket[] buckets = new Bucket[(int) count];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket();
+        }
+        lock.lock();
+        try {
+            for (LagEvent event : events) {
+                Bucket bucketOf = find(buckets, start, end, size, event.getTimestamp());
+                if (bucketOf != null) {
+                    bucketOf.add(event);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (RetrievalRecord record : history) {
+            Bucket bucketOf = find(buckets, start, end, size, record.getTimestamp());
+            if (bucketOf != null && record.isSuccess()) {
+                bucketOf.record(record);
+            }
+        }
+
+        List<LagSample> series = new ArrayList<>(buckets.length);
+        for (int i = 0; i < buckets.length; i++) {
+            long bucketStart = start + i * size;
+            double seconds = (Math.min(end, bucketStart + size) - bucketStart) / 1000.0;
+            series.add(buckets[i].toSample(Instant.ofEpochMilli(bucketStart), seconds));
+        }
+        return series;
+    }
+
+    /**
+     * Lag events found since the app started, including those no longer kept.
+     */
+    public long getEventsDetected() {
+        lock.lock();
+        try {
+            return detected;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Bucket find(Bucket[] buckets, long start, long end, long size, Instant time) {
+        long millis = time.toEpochMilli();
+        if (millis < start || millis >= end) {
+            return null;
+        }
+        return buckets[(int) ((millis - start) / size)];
+    }
+
+    static Double firstTps(String tps) {
+        if (tps == null) {
+            return null;
+        }
+        Matcher matcher = FIRST_NUMBER.matcher(tps);
+        return matcher.find() ? Double.valueOf(matcher.group()) : null;
+    }
+
+    private static class Bucket {
+        private int tickLagWarnings;
+        private long ticksSkipped;
+        private long maxMillisBehind;
+        private int watchdogWarnings;
+        private int gcPauses;
+        private long maxGcPauseMillis;
+        private Double rconTps;
+        private Integer playerCount;
+        private Instant recordedAt;
+
+        void add(LagEvent event) {
+            switch (event.getKind()) {
+                case TICK_LAG -> {
+                    tickLagWarnings++;
+                    ticksSkipped += event.getTicks();
+                    maxMillisBehind = Math.max(maxMillisBehind, event.getMillis());
+                }
+                case WATCHDOG -> {
+                    watchdogWarnings++;
+                    maxMillisBehind = Math.max(maxMillisBehind, event.getMillis());
+                }
+                case GC_PAUSE -> {
+                    gcPauses++;
+                    maxGcPauseMillis = Math.max(maxGcPauseMillis, event.getMillis());
+                }
+            }
+        }
+
+        /**
+         * Take the status from {@code record} if it is the latest one in the interval so far.
+         */
+        void record(RetrievalRecord record) {
+            if (recordedAt != null && !record.getTimestamp().isAfter(recordedAt)) {
+                return;
+            }
+            recordedAt = record.getTimestamp();
+            rconTps = null;
+            playerCount = record.getPlayerCount();
+            if (record.getResourceUsage() != null) {
+                rconTps = firstTps(record.getResourceUsage().getTps());
+            }
+        }
+
+        LagSample toSample(Instant start, double seconds) {
+            double tps = seconds > 0
+                ? Math.max(0, TICKS_PER_SECOND - ticksSkipped / seconds)
+                : TICKS_PER_SECOND;
+            return new LagSample(start, tickLagWarnings, ticksSkipped, maxMillisBehind, watchdogWarnings,
+                gcPauses, maxGcPauseMillis, Math.round(tps * 100) / 100.0, rconTps, playerCount);
+        }
+    }
+}
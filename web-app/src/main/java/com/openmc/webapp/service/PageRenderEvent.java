@@ -0,0 +1,33 @@
+package com.openmc.webapp.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for rendering a Thymeleaf page, either for a request or
+ * ahead of time by {@link PublicPageRenderer}.
+ */
+@Name("com.openmc.webapp.PageRender")
+@Label("Page Render")
+@Category({"Open MC", "Web"})
+@Description("A Thymeleaf template was rendered")
+public class PageRenderEvent extends Event {
+
+    @Label("View")
+    public String view;
+
+    @Label("Prerendered")
+    @Description("Rendered once per status snapshot instead of for a request")
+    public boolean prerendered;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,119 @@
+package com.openmc.webapp.service;
+
+import com.openmc.webapp.config.ServerConfig;
+import com.openmc.webapp.model.StatusUpdate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Renders the public page once per status snapshot and keeps the HTML and its gzip
+ * encoding in memory, so repeated requests for the same snapshot skip the template engine.
+ */
+@Service
+public class PublicPageRenderer {
+
+    private static final Logger logger = LoggerFactory.getLogger(PublicPageRenderer.class);
+
+    static final String TEMPLATE = "public";
+    static final String CACHE_KEY = "public-page";
+
+    private final RconService rconService;
+    private final ServerConfig serverConfig;
+    private final ActivityTrackerService activityTrackerService;
+    private final ITemplateEngine templateEngine;
+    private final SnapshotResponseCache responseCache;
+
+    // Only one thread renders a new snapshot; the others wait and reuse its result
+    private final ReentrantLock renderLock = new ReentrantLock();
+    private volatile StatusUpdate latestUpdate;
+    private volatile SnapshotResponseCache.CachedResponse rendered;
+
+    public PublicPageRenderer(RconService rconService, ServerConfig serverConfig,
+                              ActivityTrackerService activityTrackerService,
+                              ITemplateEngine templateEngine, SnapshotResponseCache responseCache) {
+        this.rconService = rconService;
+        this.serverConfig = serverConfig;
+        this.activityTrackerService = activityTrackerService;
+        this.templateEngine = templateEngine;
+        this.responseCache = responseCache;
+        rconService.addStatusListener(update -> latestUpdate = update);
+    }
+
+    /**
+     * The page for the current snapshot, rendering it only if the snapshot changed.
+     */
+    public SnapshotResponseCache.CachedResponse render() {
+        // Refreshes the snapshot when it is stale, which publishes a new update
+        RconService.Snapshot snapshot = rconService.getSnapshot();
+        StatusUpdate update = latestUpdate;
+        if (update == null) {
+            // No snapshot has been published yet, so there is nothing to key the page on
+            return responseCache.getRendered(CACHE_KEY, 0,
+                () -> renderPage(snapshot.getStatus(), snapshot.getFetchTime()));
+        }
+
+        SnapshotResponseCache.CachedResponse current = rendered;
+        if (current != null && current.getVersion() == update.getVersion()) {
+            return current;
+        }
+
+        renderLock.lock();
+        try {
+            current = rendered;
+            if (current == null || current.getVersion() != update.getVersion()) {
+                current = responseCache.getRendered(CACHE_KEY, update.getVersion(),
+                    () -> renderPage(update.getStatus(), update.getRecord().getTimestamp()));
+                // Compress now rather than on the first request that accepts gzip
+                if (current.isCompressible()) {
+                    current.getGzipBody();
+                }
+                rendered = current;
+                logger.debug("Rendered public page for snapshot {} ({} bytes)",
+                    update.getVersion(), current.getBody().length);
+            }
+            return current;
+        } finally {
+            renderLock.unlock();
+        }
+    }
+
+    /**
+     * The model attributes the public template expects.
+     */
+    public Map<String, Object> pageAttributes(RconService.ServerStatus status, Instant lastFetchTime) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("status", status);
+        attributes.put("dynmapUrl", serverConfig.getDynmapUrl());
+        attributes.put("bluemapUrl", serverConfig.getBluemapUrl());
+        attributes.put("refreshIntervalMs", serverConfig.getRefreshIntervalMs());
+        attributes.put("lastFetchTime", lastFetchTime);
+        attributes.put("activityTrackerEnabled", activityTrackerService.isAvailable());
+        return attributes;
+    }
+
+    private byte[] renderPage(RconService.ServerStatus status, Instant lastFetchTime) {
+        PageRenderEvent event = new PageRenderEvent();
+        event.begin();
+        event.view = TEMPLATE;
+        event.prerendered = true;
+        try {
+            Context context = new Context(Locale.getDefault(), pageAttributes(status, lastFetchTime));
+            byte[] page = templateEngine.process(TEMPLATE, context).getBytes(StandardCharsets.UTF_8);
+            event.bytes = page.length;
+            event.success = true;
+            return page;
+        } finally {
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.openmc.webapp.service;
+
+import com.openmc.webapp.config.ServerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket admission control per client and budget.
+ *
+ * Every client gets its own bucket for each budget. Requests that reach RCON also draw
+ * from one global bucket, so many clients together cannot saturate the server either.
+ * Buckets that have refilled completely are evicted, which loses no information.
+ */
+@Service
+public class RateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+
+    // Evict idle buckets early if this many are tracked between sweeps
+    private static final int MAX_TRACKED_BUCKETS = 10000;
+
+    public enum Budget {
+        /** Admin commands sent to the server */
+        COMMAND,
+        /** Read endpoints that query RCON directly */
+        RCON,
+        /** Every other API endpoint */
+        API,
+        /** Endpoints behind the admin Basic-auth login */
+        ADMIN,
+        /** Failed admin console logins */
+        LOGIN,
+        /** Commands sent in a batch, one token per command */
+        BATCH
+    }
+
+    private final ServerConfig serverConfig;
+    private final LongSupplier clock;
+    private final Map<String, TokenBucket> clientBuckets = new ConcurrentHashMap<>();
+    private final TokenBucket globalRconBucket;
+
+    @Autowired
+    public RateLimiter(ServerConfig serverConfig) {
+        this(serverConfig, System::nanoTime);
+    }
+
+    RateLimiter(ServerConfig serverConfig, LongSupplier clock) {
+        this.serverConfig = serverConfig;
+        this.clock = clock;
+        this.globalRconBucket = createBucket(serverConfig.getRateLimitGlobalRconPerMinute(),
+            serverConfig.getRateLimitGlobalRconBurst(), clock.getAsLong());
+    }
+
+    /**
+     * Admit one request from the client.
+     *
+     * @return 0 if the request is admitted, otherwise the milliseconds until it may retry
+     */
+    public long tryAcquire(Budget budget, String client) {
+        return tryAcquire(budget, client, 1);
+    }
+
+    /**
+     * Admit a request that costs several tokens, such as a batch of commands.
+     *
+     * @return 0 if the request is admitted, otherwise the milliseconds until it may retry
+     */
+    public long tryAcquire(Budget budget, String client, int permits) {
+        if (!serverConfig.isRateLimitEnabled()) {
+            return 0;
+        }
+        long now = clock.getAsLong();
+
+        String key = budget.name() + '|' + (client != null ? client : "unknown");
+        TokenBucket clientBucket = clientBuckets.get(key);
+        if (clientBucket == null) {
+            if (clientBuckets.size() >= MAX_TRACKED_BUCKETS) {
+                evictIdleBuckets();
+            }
+            clientBucket = clientBuckets.computeIfAbsent(key, k -> createBucket(perMinute(budget), burst(budget), now));
+        }
+        long waitNanos = clientBucket != null ? clientBucket.tryAcquire(now, permits) : 0;
+
+        // Clients over their own budget do not use up the shared one, and a request the
+        // shared one turns away does not cost the client either
+        if (waitNanos == 0 && (budget == Budget.COMMAND || budget == Budget.RCON) && globalRconBucket != null) {
+            waitNanos = globalRconBucket.tryAcquire(now);
+            if (waitNanos > 0 && clientBucket != null) {
+                clientBucket.refund(permits);
+            }
+        }
+        if (waitNanos > 0) {
+            logger.debug("Rate limited {} request from {}", budget, client);
+            return Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+        }
+        return 0;
+    }
+
+    /**
+     * Check the client's own bucket without taking a token.
+     *
+     * @return 0 if a request would be admitted, otherwise the milliseconds until it would be
+     */
+    public long retryAfterMs(Budget budget, String client) {
+        if (!serverConfig.isRateLimitEnabled()) {
+            return 0;
+        }
+        TokenBucket clientBucket = clientBuckets.get(budget.name() + '|' + (client != null ? client : "unknown"));
+        long waitNanos = clientBucket != null ? clientBucket.waitNanos(clock.getAsLong()) : 0;
+        return waitNanos > 0 ? Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos)) : 0;
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void evictIdleBuckets() {
+        long now = clock.getAsLong();
+        clientBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    int getTrackedBucketCount() {
+        return clientBuckets.size();
+    }
+
+    private int perMinute(Budget budget) {
+        return switch (budget) {
+            case COMMAND -> serverConfig.getRateLimitCommandPerMinute();
+            case RCON -> serverConfig.getRateLimitRconPerMinute();
+            case API -> serverConfig.getRateLimitApiPerMinute();
+            case ADMIN -> serverConfig.getRateLimitAdminPerMinute();
+            case LOGIN -> serverConfig.getRateLimitLoginPerMinute();
+            case BATCH -> serverConfig.getRateLimitBatchCommandsPerMinute();
+        };
+    }
+
+    private int burst(Budget budget) {
+        return switch (budget) {
+            case COMMAND -> serverConfig.getRateLimitCommandBurst();
+            case RCON -> serverConfig.getRateLimitRconBurst();
+            case API -> serverConfig.getRateLimitApiBurst();
+            case ADMIN -> serverConfig.getRateLimitAdminBurst();
+            case LOGIN -> serverConfig.getRateLimitLoginBurst();
+            case BATCH -> serverConfig.getRateLimitBatchCommandsBurst();
+        };
+    }
+
+    /**
+     * A bucket for the budget, or null when the budget is unlimited.
+     */
+    private static TokenBucket createBucket(int perMinute, int burst, long now) {
+        return perMinute > 0 ? new TokenBucket(perMinute / 60.0, burst, now) : null;
+    }
+}
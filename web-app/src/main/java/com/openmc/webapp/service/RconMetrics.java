@@ -0,0 +1,99 @@
+package com.openmc.webapp.service;
+
+import com.openmc.webapp.rcon.RconCommandEvent;
+import com.openmc.webapp.rcon.RconListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Records RCON connect, authentication and command latency, failures and bytes
+ * transferred as Micrometer meters.
+ *
+ * Commands are tagged with their first word only. After {@link #MAX_COMMAND_NAMES}
+ * distinct names, or for anything that does not look like a command name, the tag is
+ * {@code other}, so a console full of typos cannot create unbounded time series.
+ */
+@Component
+public class RconMetrics implements RconListener {
+
+    static final int MAX_COMMAND_NAMES = 100;
+    static final String OTHER = "other";
+
+    private static final Pattern COMMAND_NAME = Pattern.compile("[a-z0-9_.:-]{1,32}");
+
+    private final MeterRegistry registry;
+    private final Set<String> commandNames = ConcurrentHashMap.newKeySet();
+
+    public RconMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void connected(long nanos, boolean success) {
+        Timer.builder("rcon.connect")
+            .description("Time to open a TCP connection to the RCON port")
+            .tag("outcome", success ? "success" : "error")
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void authenticated(long nanos, boolean success) {
+        Timer.builder("rcon.auth")
+            .description("Time for the server to accept or reject the RCON password")
+            .tag("outcome", success ? "success" : "error")
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void commandCompleted(String command, long nanos, long bytesSent, long bytesReceived, Throwable failure) {
+        String name = commandName(command);
+        Timer.builder("rcon.command")
+            .description("Time from sending an RCON command to reading its last response packet")
+            .tag("command", name)
+            .tag("outcome", RconCommandEvent.outcome(failure))
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+        bytes(name, "sent").increment(bytesSent);
+        bytes(name, "received").increment(bytesReceived);
+    }
+
+    private Counter bytes(String command, String direction) {
+        return Counter.builder("rcon.bytes")
+            .description("RCON packet bytes, including headers")
+            .baseUnit("bytes")
+            .tag("command", command)
+            .tag("direction", direction)
+            .register(registry);
+    }
+
+    /**
+     * The bounded tag value for a command: its lower-cased first word.
+     */
+    String commandName(String command) {
+        String name = RconCommandEvent.commandName(command);
+        if (!COMMAND_NAME.matcher(name).matches()) {
+            return OTHER;
+        }
+        if (commandNames.contains(name)) {
+            return name;
+        }
+        // Racing callers may overshoot the limit by a few names, which is harmless
+        if (commandNames.size() >= MAX_COMMAND_NAMES) {
+            return OTHER;
+        }
+        commandNames.add(name);
+        return name;
+    }
+}
@@ -1,8 +1,20 @@
 package com.openmc.webapp.service;
 
 import com.openmc.webapp.config.ServerConfig;
+import com.openmc.webapp.model.CommandResult;
 import com.openmc.webapp.model.RetrievalRecord;
+import com.openmc.webapp.model.StatusUpdate;
+import com.openmc.webapp.rcon.RconBusyException;
 import com.openmc.webapp.rcon.RconClient;
+import com.openmc.webapp.rcon.RconCommandCache;
+import com.openmc.webapp.rcon.RconCommandScheduler;
+import com.openmc.webapp.rcon.RconCommandScheduler.Priority;
+import com.openmc.webapp.rcon.RconConnectionPool;
+import com.openmc.webapp.rcon.RconListener;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
@@ -10,47 +22,196 @@ import java.io.IOException;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 @Service
 public class RconService {
     
+    private static final Logger logger = LoggerFactory.getLogger(RconService.class);
+    
     private static final int MAX_HISTORY_SIZE = 10;
     
+    // Replies the server sends instead of running a command; "<--[HERE]" marks a syntax error
+    private static final List<String> COMMAND_ERROR_MARKERS = List.of(
+        "Unknown or incomplete command", "Incorrect argument for command", "<--[HERE]");
+    
     private final ServerConfig serverConfig;
-    private ServerStatus cachedStatus;
-    private Instant lastFetchTime;
+    private final RconConnectionPool connectionPool;
+    private final RconCommandScheduler scheduler;
+    private final RconCommandCache commandCache;
+    private volatile Snapshot snapshot = Snapshot.NONE;
+    // A lock rather than synchronized, which would pin a virtual thread to its carrier
+    private final ReentrantLock historyLock = new ReentrantLock();
+    private final ReentrantLock refreshLock = new ReentrantLock();
     private final LinkedList<RetrievalRecord> retrievalHistory = new LinkedList<>();
+    private final AtomicLong snapshotVersion = new AtomicLong();
+    private final List<Consumer<StatusUpdate>> statusListeners = new CopyOnWriteArrayList<>();
+    private final LongAdder statusCacheHits = new LongAdder();
+    private final LongAdder statusCacheMisses = new LongAdder();
     
     public RconService(ServerConfig serverConfig) {
+        this(serverConfig, List.of());
+    }
+    
+    /**
+     * @param rconListeners told about every connect, authentication and command, e.g. for metrics
+     */
+    @Autowired
+    public RconService(ServerConfig serverConfig, List<RconListener> rconListeners) {
         this.serverConfig = serverConfig;
+        RconListener rconListener = RconListener.composite(rconListeners);
+        this.connectionPool = new RconConnectionPool(
+            () -> new RconClient(serverConfig.getHost(), serverConfig.getRconPort(), serverConfig.getRconPassword(),
+                rconListener),
+            serverConfig.getRconPoolSize(), serverConfig.getRconPoolIdleTimeoutMs());
+        Map<Priority, Long> maxWaitMs = new EnumMap<>(Priority.class);
+        maxWaitMs.put(Priority.ADMIN, serverConfig.getRconAdminMaxWaitMs());
+        maxWaitMs.put(Priority.ALERTING, serverConfig.getRconAlertingMaxWaitMs());
+        maxWaitMs.put(Priority.POLLING, serverConfig.getRconPollingMaxWaitMs());
+        this.scheduler = new RconCommandScheduler(serverConfig.getRconMaxConcurrentCommands(), maxWaitMs);
+        this.commandCache = new RconCommandCache(serverConfig.isRconCacheEnabled()
+            ? RconCommandCache.parseAllowlist(serverConfig.getRconCacheCommands()) : Map.of());
     }
     
+    /**
+     * Send a command on behalf of an operator, ahead of any queued background work.
+     */
     public String sendCommand(String command) {
-        try (RconClient rcon = new RconClient(serverConfig.getHost(), serverConfig.getRconPort(), 
-                                              serverConfig.getRconPassword())) {
-            return rcon.sendCommand(command);
+        return sendCommand(command, Priority.ADMIN);
+    }
+    
+    /**
+     * Send a command at the given priority. Returns an "Error:" message when the server
+     * cannot be reached or the request waited too long for its turn.
+     */
+    public String sendCommand(String command, Priority priority) {
+        try {
+            return execute(priority, command);
+        } catch (IOException e) {
+            return errorMessage(e);
+        }
+    }
+    
+    /**
+     * Read-only commands are answered from the command cache where possible; any
+     * other command invalidates the cached results it may have changed.
+     */
+    private String execute(Priority priority, String command) throws IOException {
+        try {
+            return commandCache.get(command,
+                () -> scheduler.execute(priority, () -> connectionPool.execute(rcon -> rcon.sendCommand(command))));
+        } finally {
+            commandCache.invalidateFor(command);
+        }
+    }
+    
+    private static String errorMessage(IOException e) {
+        if (e instanceof RconBusyException) {
+            return "Error: Server busy - " + e.getMessage();
+        }
+        return "Error: Unable to connect to server - " + e.getMessage();
+    }
+    
+    /**
+     * Send a command over a pooled connection, passing each output fragment to the
+     * consumer as soon as it is read. Returns an error message, or null on success.
+     */
+    public String sendCommand(String command, Consumer<String> fragmentConsumer) {
+        try {
+            scheduler.execute(Priority.ADMIN, () -> connectionPool.execute(rcon -> {
+                rcon.sendCommand(command, fragmentConsumer);
+                return null;
+            }));
+            return null;
         } catch (IOException e) {
-            return "Error: Unable to connect to server - " + e.getMessage();
+            return errorMessage(e);
+        } finally {
+            commandCache.invalidateFor(command);
         }
     }
     
+    /**
+     * Run commands in order and pass each result to the consumer as soon as it completes.
+     * Every command borrows the most recently used pooled connection, so a batch runs over
+     * one connection without a handshake per command. Returns how many commands ran.
+     */
+    public int sendCommands(List<String> commands, boolean stopOnError, Consumer<CommandResult> resultConsumer) {
+        int executed = 0;
+        for (String command : commands) {
+            CommandResult result;
+            try {
+                String output = execute(Priority.ADMIN, command);
+                result = new CommandResult(executed, command, !isCommandError(output), output);
+            } catch (IOException e) {
+                result = new CommandResult(executed, command, false, errorMessage(e));
+            }
+            executed++;
+            resultConsumer.accept(result);
+            if (stopOnError && !result.isSuccess()) {
+                break;
+            }
+        }
+        return executed;
+    }
+    
+    static boolean isCommandError(String output) {
+        for (String marker : COMMAND_ERROR_MARKERS) {
+            if (output.contains(marker)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
     public ServerStatus getServerStatus() {
-        // Check if we need to refresh the cache
-        if (shouldRefreshCache()) {
-            refreshCache();
+        return getSnapshot().getStatus();
+    }
+    
+    /**
+     * The current status snapshot, refreshed first if it is due. Its status, history and
+     * version always belong together, so responses cached under the version match it.
+     *
+     * Only one caller refreshes; the others wait for it and then take its snapshot, so
+     * each expiry costs one round of RCON commands and one new version.
+     */
+    public Snapshot getSnapshot() {
+        if (!shouldRefreshCache()) {
+            statusCacheHits.increment();
+            return snapshot;
         }
-        
-        // Return cached status or fetch fresh if cache is not initialized
-        if (cachedStatus == null) {
-            refreshCache();
+        refreshLock.lock();
+        try {
+            // Another caller may have refreshed while this one waited for the lock
+            if (shouldRefreshCache()) {
+                statusCacheMisses.increment();
+                refreshCache();
+            } else {
+                statusCacheHits.increment();
+            }
+            return snapshot;
+        } finally {
+            refreshLock.unlock();
         }
-        
-        return cachedStatus;
+    }
+    
+    /**
+     * The current status snapshot as it is, without refreshing it; {@link Snapshot#NONE}
+     * before the first refresh.
+     */
+    public Snapshot getLatestSnapshot() {
+        return snapshot;
     }
     
     private boolean shouldRefreshCache() {
+        Instant lastFetchTime = snapshot.getFetchTime();
         if (lastFetchTime == null) {
             return true;
         }
@@ -60,15 +221,58 @@ public class RconService {
     }
     
     private void refreshCache() {
-        String response = sendCommand("list");
+        StatusRefreshEvent event = new StatusRefreshEvent();
+        event.begin();
+        String response = sendCommand("list", Priority.POLLING);
         ResourceUsage resourceUsage = getResourceUsage();
-        cachedStatus = new ServerStatus(serverConfig, response, resourceUsage);
-        lastFetchTime = Instant.now();
+        ServerStatus status = new ServerStatus(serverConfig, response, resourceUsage);
+        Instant fetchTime = Instant.now();
         
         // Track retrieval in history
         boolean success = !response.startsWith("Error:");
         int playerCount = extractPlayerCount(response);
-        addRetrievalRecord(new RetrievalRecord(lastFetchTime, success, playerCount, resourceUsage));
+        RetrievalRecord record = new RetrievalRecord(fetchTime, success, playerCount, resourceUsage);
+        long version;
+        // Under the history lock, so concurrent refreshes publish snapshots in version order
+        historyLock.lock();
+        try {
+            addRetrievalRecord(record);
+            version = snapshotVersion.incrementAndGet();
+            snapshot = new Snapshot(version, status, fetchTime, List.copyOf(retrievalHistory));
+        } finally {
+            historyLock.unlock();
+        }
+        
+        event.snapshotVersion = version;
+        event.success = success;
+        event.playerCount = playerCount;
+        event.commit();
+        
+        publishStatusUpdate(new StatusUpdate(version, status, record));
+    }
+    
+    private void publishStatusUpdate(StatusUpdate update) {
+        for (Consumer<StatusUpdate> listener : statusListeners) {
+            try {
+                listener.accept(update);
+            } catch (Exception e) {
+                logger.warn("Status listener failed for snapshot {}: {}", update.getVersion(), e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Register a listener that is called once for every refreshed status snapshot.
+     */
+    public void addStatusListener(Consumer<StatusUpdate> listener) {
+        statusListeners.add(listener);
+    }
+    
+    /**
+     * Version of the current status snapshot; 0 until the first refresh.
+     */
+    public long getSnapshotVersion() {
+        return snapshot.getVersion();
     }
     
     private int extractPlayerCount(String playerListResponse) {
@@ -90,32 +294,91 @@ public class RconService {
         return 0;
     }
     
-    private synchronized void addRetrievalRecord(RetrievalRecord record) {
-        retrievalHistory.addFirst(record);
-        
-        // Keep only the last MAX_HISTORY_SIZE records
-        while (retrievalHistory.size() > MAX_HISTORY_SIZE) {
-            retrievalHistory.removeLast();
+    private void addRetrievalRecord(RetrievalRecord record) {
+        historyLock.lock();
+        try {
+            retrievalHistory.addFirst(record);
+            
+            // Keep only the last MAX_HISTORY_SIZE records
+            while (retrievalHistory.size() > MAX_HISTORY_SIZE) {
+                retrievalHistory.removeLast();
+            }
+        } finally {
+            historyLock.unlock();
         }
     }
     
-    public synchronized List<RetrievalRecord> getRetrievalHistory() {
-        return Collections.unmodifiableList(new ArrayList<>(retrievalHistory));
+    public List<RetrievalRecord> getRetrievalHistory() {
+        historyLock.lock();
+        try {
+            return Collections.unmodifiableList(new ArrayList<>(retrievalHistory));
+        } finally {
+            historyLock.unlock();
+        }
     }
     
-    // Scheduled task to fetch data every 30 minutes regardless of user visits
-    @Scheduled(fixedRate = 1800000) // 30 minutes in milliseconds
+    // Scheduled task to fetch data every refresh interval regardless of user visits;
+    // status stream clients get their updates from it
+    @Scheduled(fixedRateString = "${minecraft.server.refresh-interval-ms:1800000}")
     public void scheduledDataFetch() {
         // Force a cache refresh to ensure history is populated
         refreshCache();
     }
     
     public Instant getLastFetchTime() {
-        return lastFetchTime;
+        return snapshot.getFetchTime();
+    }
+    
+    /**
+     * Queue depth, throughput and wait times of the RCON command scheduler.
+     */
+    public RconCommandScheduler.SchedulerStats getSchedulerStats() {
+        return scheduler.getStats();
+    }
+    
+    /**
+     * Read-only command results cached for a short time, with their hit and miss counts.
+     */
+    public RconCommandCache getCommandCache() {
+        return commandCache;
+    }
+    
+    /**
+     * Status requests answered from the cached status.
+     */
+    public long getStatusCacheHits() {
+        return statusCacheHits.sum();
+    }
+    
+    /**
+     * Status requests that had to refresh the cached status first.
+     */
+    public long getStatusCacheMisses() {
+        return statusCacheMisses.sum();
+    }
+    
+    /**
+     * Milliseconds since the cached status was fetched; -1 before the first fetch.
+     */
+    public long getStatusAgeMs() {
+        Instant fetched = snapshot.getFetchTime();
+        return fetched == null ? -1 : Instant.now().toEpochMilli() - fetched.toEpochMilli();
+    }
+    
+    /**
+     * Milliseconds until the cached status is due for a refresh.
+     */
+    public long getMillisUntilRefresh() {
+        Instant lastFetchTime = snapshot.getFetchTime();
+        if (lastFetchTime == null) {
+            return 0;
+        }
+        long dueAt = lastFetchTime.toEpochMilli() + serverConfig.getRefreshIntervalMs();
+        return Math.max(0, dueAt - Instant.now().toEpochMilli());
     }
     
     public ResourceUsage getResourceUsage() {
-        String tpsResponse = sendCommand("tps");
+        String tpsResponse = sendCommand("tps", Priority.POLLING);
         
         // Default values when unable to fetch
         String tps = "N/A";
@@ -145,7 +408,7 @@ public class RconService {
         
         // Try to get memory from forge tps command if standard tps didn't provide it
         if ("N/A".equals(memoryUsed)) {
-            String forgeResponse = sendCommand("forge tps");
+            String forgeResponse = sendCommand("forge tps", Priority.POLLING);
             if (!forgeResponse.startsWith("Error:") && forgeResponse.contains("Memory")) {
                 String[] memoryParts = parseMemory(forgeResponse);
                 if (memoryParts.length >= 3) {
@@ -247,7 +510,7 @@ public class RconService {
         return result;
     }
     
-    private double parseMemoryValue(String memoryStr) {
+    static double parseMemoryValue(String memoryStr) {
         // Parse memory string like "1024MB" or "2.5GB" to MB
         if (memoryStr == null || memoryStr.equals("N/A")) {
             return 0.0;
@@ -263,6 +526,53 @@ public class RconService {
         return value;
     }
     
+    @PreDestroy
+    public void closeConnections() {
+        connectionPool.close();
+    }
+    
+    /**
+     * One refresh of the status: the status itself, when it was fetched, the retrieval
+     * history up to and including it, and the version that identifies it.
+     */
+    public static class Snapshot {
+        /**
+         * Before the first refresh: version 0, no status and no history.
+         */
+        public static final Snapshot NONE = new Snapshot(0, null, null, List.of());
+        
+        private final long version;
+        private final ServerStatus status;
+        private final Instant fetchTime;
+        private final List<RetrievalRecord> history;
+        
+        public Snapshot(long version, ServerStatus status, Instant fetchTime, List<RetrievalRecord> history) {
+            this.version = version;
+            this.status = status;
+            this.fetchTime = fetchTime;
+            this.history = history;
+        }
+        
+        public long getVersion() {
+            return version;
+        }
+        
+        public ServerStatus getStatus() {
+            return status;
+        }
+        
+        public Instant getFetchTime() {
+            return fetchTime;
+        }
+        
+        /**
+         * Retrieval records, newest first.
+         */
+        public List<RetrievalRecord> getHistory() {
+            return history;
+        }
+    }
+    
     public static class ServerStatus {
         private final String motd;
         private final int maxPlayers;
@@ -0,0 +1,443 @@
+package com.openmc.webapp.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openmc.webapp.config.ServerConfig;
+import com.openmc.webapp.config.WorkerThreads;
+import com.openmc.webapp.model.ScheduledCommand;
+import com.openmc.webapp.model.ScheduledCommand.MisfirePolicy;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Runs admin commands on cron schedules, replacing host crontabs that shell into the
+ * container for every run.
+ *
+ * Schedules are kept in a local JSON file together with their next due time, so runs
+ * missed while the application was stopped are detected on startup and handled by the
+ * schedule's misfire policy. A schedule never overlaps itself: a run that comes due
+ * while the previous one is still going is skipped. Every run, skip and misfire is
+ * recorded in a bounded history with its duration.
+ */
+@Service
+public class ScheduledCommandService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledCommandService.class);
+
+    public enum RunOutcome { SUCCEEDED, FAILED, SKIPPED_RUNNING, MISFIRED }
+
+    private final RconService rconService;
+    private final ServerConfig serverConfig;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService runners;
+    private final Supplier<Instant> clock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, ScheduledCommand> schedules = new LinkedHashMap<>();
+    private final Map<String, CronExpression> crons = new HashMap<>();
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+    private final Deque<Run> history = new ArrayDeque<>();
+
+    @Autowired
+    public ScheduledCommandService(RconService rconService, ServerConfig serverConfig, ObjectMapper objectMapper) {
+        this(rconService, serverConfig, objectMapper,
+            Executors.newFixedThreadPool(Math.max(1, serverConfig.getScheduledCommandWorkers()),
+                WorkerThreads.factory(serverConfig, "scheduled-command-")),
+            Instant::now);
+    }
+
+    ScheduledCommandService(RconService rconService, ServerConfig serverConfig, ObjectMapper objectMapper,
+                            ExecutorService runners, Supplier<Instant> clock) {
+        this.rconService = rconService;
+        this.serverConfig = serverConfig;
+        this.objectMapper = objectMapper;
+        this.runners = runners;
+        this.clock = clock;
+    }
+
+    /**
+     * Parse a cron expression. Accepts the five fields of a crontab line as well as
+     * Spring's six, which start with seconds.
+     *
+     * @throws IllegalArgumentException if the expression is invalid
+     */
+    static CronExpression parseCron(String cron) {
+        if (cron == null || cron.isBlank()) {
+            throw new IllegalArgumentException("Cron expression is required");
+        }
+        String trimmed = cron.trim();
+        if (trimmed.split("\\s+").length == 5) {
+            trimmed = "0 " + trimmed;
+        }
+        return CronExpression.parse(trimmed);
+    }
+
+    private static Instant nextRun(CronExpression cron, Instant after) {
+        ZonedDateTime next = cron.next(ZonedDateTime.ofInstant(after, ZoneId.systemDefault()));
+        return next != null ? next.toInstant() : null;
+    }
+
+    @PostConstruct
+    public void load() {
+        Path file = Path.of(serverConfig.getScheduledCommandsFile());
+        if (!Files.exists(file)) {
+            return;
+        }
+        List<ScheduledCommand> stored;
+        try {
+            stored = objectMapper.readValue(Files.readAllBytes(file), new TypeReference<List<ScheduledCommand>>() {});
+        } catch (IOException e) {
+            logger.error("Could not read scheduled commands from {}", file, e);
+            return;
+        }
+
+        Instant now = clock.get();
+        lock.lock();
+        try {
+            for (ScheduledCommand schedule : stored) {
+                try {
+                    CronExpression cron = parseCron(schedule.getCron());
+                    if (schedule.getNextRunAt() == null) {
+                        schedule.setNextRunAt(nextRun(cron, now));
+                    }
+                    schedules.put(schedule.getId(), schedule);
+                    crons.put(schedule.getId(), cron);
+                } catch (IllegalArgumentException e) {
+                    logger.warn("Ignoring scheduled command {} with invalid cron '{}'", schedule.getId(), schedule.getCron());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        logger.info("Loaded {} scheduled commands from {}", schedules.size(), file);
+    }
+
+    public List<ScheduledCommand> getSchedules() {
+        lock.lock();
+        try {
+            List<ScheduledCommand> copies = new ArrayList<>(schedules.size());
+            for (ScheduledCommand schedule : schedules.values()) {
+                copies.add(new ScheduledCommand(schedule));
+            }
+            return copies;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ids of the schedules whose command is running right now.
+     */
+    public Set<String> getRunningIds() {
+        return Set.copyOf(running);
+    }
+
+    /**
+     * Add a schedule and save it.
+     *
+     * @throws IllegalArgumentException if the command is empty or the cron expression is invalid
+     */
+    public ScheduledCommand create(ScheduledCommand request) {
+        CronExpression cron = validate(request);
+        ScheduledCommand schedule = new ScheduledCommand(request);
+        schedule.setId(UUID.randomUUID().toString());
+        if (schedule.getName() == null || schedule.getName().isBlank()) {
+            schedule.setName(schedule.getCommand());
+        }
+        if (schedule.getMisfirePolicy() == null) {
+            schedule.setMisfirePolicy(MisfirePolicy.RUN_ONCE);
+        }
+        schedule.setLastRunAt(null);
+        schedule.setNextRunAt(nextRun(cron, clock.get()));
+
+        lock.lock();
+        try {
+            schedules.put(schedule.getId(), schedule);
+            crons.put(schedule.getId(), cron);
+            persist();
+            return new ScheduledCommand(schedule);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replace a schedule's definition. The next run is worked out again from now.
+     *
+     * @return the updated schedule, or null if there is no schedule with that id
+     * @throws IllegalArgumentException if the command is empty or the cron expression is invalid
+     */
+    public ScheduledCommand update(String id, ScheduledCommand request) {
+        CronExpression cron = validate(request);
+        lock.lock();
+        try {
+            ScheduledCommand schedule = schedules.get(id);
+            if (schedule == null) {
+                return null;
+            }
+            if (request.getName() != null && !request.getName().isBlank()) {
+                schedule.setName(request.getName());
+            }
+            schedule.setCron(request.getCron());
+            schedule.setCommand(request.getCommand());
+            schedule.setEnabled(request.isEnabled());
+            if (request.getMisfirePolicy() != null) {
+                schedule.setMisfirePolicy(request.getMisfirePolicy());
+            }
+            schedule.setNextRunAt(nextRun(cron, clock.get()));
+            crons.put(id, cron);
+            persist();
+            return new ScheduledCommand(schedule);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean delete(String id) {
+        lock.lock();
+        try {
+            if (schedules.remove(id) == null) {
+                return false;
+            }
+            crons.remove(id);
+            persist();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static CronExpression validate(ScheduledCommand request) {
+        if (request.getCommand() == null || request.getCommand().isBlank()) {
+            throw new IllegalArgumentException("Command cannot be empty");
+        }
+        return parseCron(request.getCron());
+    }
+
+    /**
+     * Most recent runs first, optionally only those of one schedule.
+     */
+    public List<Run> getHistory(String scheduleId, int limit) {
+        lock.lock();
+        try {
+            List<Run> runs = new ArrayList<>();
+            Iterator<Run> newestFirst = history.descendingIterator();
+            while (newestFirst.hasNext() && runs.size() < limit) {
+                Run run = newestFirst.next();
+                if (scheduleId == null || scheduleId.equals(run.scheduleId)) {
+                    runs.add(run);
+                }
+            }
+            return runs;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Start every schedule that has come due.
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void tick() {
+        Instant now = clock.get();
+        Duration misfireThreshold = Duration.ofMillis(serverConfig.getScheduledCommandMisfireThresholdMs());
+        List<ScheduledCommand> due = new ArrayList<>();
+
+        lock.lock();
+        try {
+            boolean changed = false;
+            for (ScheduledCommand schedule : schedules.values()) {
+                Instant scheduledFor = schedule.getNextRunAt();
+                if (!schedule.isEnabled() || scheduledFor == null || scheduledFor.isAfter(now)) {
+                    continue;
+                }
+                // Runs missed in between are folded into this one
+                schedule.setNextRunAt(nextRun(crons.get(schedule.getId()), now));
+                changed = true;
+
+                boolean misfired = Duration.between(scheduledFor, now).compareTo(misfireThreshold) > 0;
+                if (misfired && schedule.getMisfirePolicy() == MisfirePolicy.SKIP) {
+                    logger.warn("Scheduled command '{}' missed its run at {}", schedule.getName(), scheduledFor);
+                    record(Run.notRun(schedule, scheduledFor, RunOutcome.MISFIRED));
+                } else if (!running.add(schedule.getId())) {
+                    logger.warn("Scheduled command '{}' is still running; skipping run at {}",
+                        schedule.getName(), scheduledFor);
+                    record(Run.notRun(schedule, scheduledFor, RunOutcome.SKIPPED_RUNNING));
+                } else {
+                    ScheduledCommand snapshot = new ScheduledCommand(schedule);
+                    snapshot.setNextRunAt(scheduledFor);
+                    due.add(snapshot);
+                }
+            }
+            if (changed) {
+                persist();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (ScheduledCommand schedule : due) {
+            try {
+                runners.execute(() -> run(schedule));
+            } catch (RejectedExecutionException e) {
+                running.remove(schedule.getId());
+                logger.error("Could not start scheduled command '{}'", schedule.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Run a snapshot of a schedule whose next run time is the run being made.
+     */
+    private void run(ScheduledCommand schedule) {
+        Instant startedAt = clock.get();
+        long start = System.nanoTime();
+        String output;
+        try {
+            output = rconService.sendCommand(schedule.getCommand());
+        } catch (RuntimeException e) {
+            output = "Error: " + e.getMessage();
+        }
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        RunOutcome outcome = output.startsWith("Error:") || RconService.isCommandError(output)
+            ? RunOutcome.FAILED : RunOutcome.SUCCEEDED;
+
+        lock.lock();
+        try {
+            ScheduledCommand current = schedules.get(schedule.getId());
+            if (current != null) {
+                current.setLastRunAt(startedAt);
+                persist();
+            }
+            record(new Run(schedule.getId(), schedule.getName(), schedule.getCommand(), schedule.getNextRunAt(),
+                startedAt, durationMs, outcome, output));
+        } finally {
+            running.remove(schedule.getId());
+            lock.unlock();
+        }
+        logger.info("Scheduled command '{}' finished as {} in {} ms", schedule.getName(), outcome, durationMs);
+    }
+
+    // Callers hold the lock
+    private void record(Run run) {
+        history.addLast(run);
+        while (history.size() > Math.max(1, serverConfig.getScheduledCommandHistorySize())) {
+            history.removeFirst();
+        }
+    }
+
+    // Callers hold the lock, so writes are never interleaved
+    private void persist() {
+        Path file = Path.of(serverConfig.getScheduledCommandsFile());
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            Files.write(temp, objectMapper.writeValueAsBytes(new ArrayList<>(schedules.values())));
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            logger.error("Could not save scheduled commands to {}", file, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runners.shutdownNow();
+    }
+
+    public static class Run {
+        private final String scheduleId;
+        private final String name;
+        private final String command;
+        private final Instant scheduledFor;
+        private final Instant startedAt;
+        private final long durationMs;
+        private final RunOutcome outcome;
+        private final String output;
+
+        public Run(String scheduleId, String name, String command, Instant scheduledFor, Instant startedAt,
+                   long durationMs, RunOutcome outcome, String output) {
+            this.scheduleId = scheduleId;
+            this.name = name;
+            this.command = command;
+            this.scheduledFor = scheduledFor;
+            this.startedAt = startedAt;
+            this.durationMs = durationMs;
+            this.outcome = outcome;
+            this.output = output;
+        }
+
+        static Run notRun(ScheduledCommand schedule, Instant scheduledFor, RunOutcome outcome) {
+            return new Run(schedule.getId(), schedule.getName(), schedule.getCommand(), scheduledFor,
+                null, 0, outcome, null);
+        }
+
+        public String getScheduleId() {
+            return scheduleId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getCommand() {
+            return command;
+        }
+
+        public Instant getScheduledFor() {
+            return scheduledFor;
+        }
+
+        public Instant getStartedAt() {
+            return startedAt;
+        }
+
+        public long getDurationMs() {
+            return durationMs;
+        }
+
+        public RunOutcome getOutcome() {
+            return outcome;
+        }
+
+        public String getOutput() {
+            return output;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.openmc.webapp.service;
+
+import com.openmc.webapp.config.ServerConfig;
+import com.openmc.webapp.log.LogIndex;
+import com.openmc.webapp.log.LogTailer;
+import com.openmc.webapp.log.ServerLogParser;
+import com.openmc.webapp.model.LogEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Follows the server's {@code logs/latest.log}, turning its lines into events that are
+ * indexed for search and passed to listeners. Only bytes appended since the last poll are
+ * read. On the first poll, the rotated logs of the last few days are read as well, so the
+ * index starts out with some history.
+ */
+@Service
+public class ServerLogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServerLogService.class);
+
+    // Rotated logs, such as 2026-01-01-1.log.gz
+    private static final Pattern ARCHIVE_NAME = Pattern.compile("(\\d{4}-\\d{2}-\\d{2})-(\\d+)\\.log\\.gz");
+
+    private final Path logDir;
+    private final int backfillDays;
+    private final ZoneId zone;
+    private final Supplier<Instant> clock;
+    private final LogIndex index;
+    private final ServerLogParser parser;
+    private final LogTailer tailer;
+    private final List<Consumer<LogEvent>> listeners = new CopyOnWriteArrayList<>();
+    private final ReentrantLock pollLock = new ReentrantLock();
+    private boolean backfilled;
+
+    private final LogTailer.Listener tailListener = new LogTailer.Listener() {
+        @Override
+        public void fileStarted(FileTime created) {
+            parser.startFile(LocalDate.ofInstant(created.toInstant(), zone), ServerLogService.this::publish);
+        }
+
+        @Override
+        public void line(String line) {
+            parser.accept(line, ServerLogService.this::publish);
+        }
+    };
+
+    @Autowired
+    public ServerLogService(ServerConfig serverConfig) {
+        this(serverConfig, ZoneId.systemDefault(), Instant::now);
+    }
+
+    ServerLogService(ServerConfig serverConfig, ZoneId zone, Supplier<Instant> clock) {
+        this.logDir = Path.of(serverConfig.getServerLogDir());
+        this.backfillDays = Math.max(0, serverConfig.getLogBackfillDays());
+        this.zone = zone;
+        this.clock = clock;
+        this.index = new LogIndex(serverConfig.getLogIndexCapacity());
+        this.parser = new ServerLogParser(zone, LocalDate.ofInstant(clock.get(), zone));
+        this.tailer = new LogTailer(logDir.resolve("latest.log"));
+    }
+
+    /**
+     * Have {@code listener} told about every event, on the polling thread, starting with
+     * those read from rotated logs on the first poll.
+     */
+    public void addListener(Consumer<LogEvent> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Read what the server logged since the last poll. An event is held back until the
+     * line after it arrives, as that could still add to it, or until a poll finds nothing
+     * new.
+     */
+    @Scheduled(fixedDelayString = "${minecraft.server.log-poll-interval-ms:1000}")
+    public void poll() {
+        if (!pollLock.tryLock()) {
+            return;
+        }
+        try {
+            if (!Files.isDirectory(logDir)) {
+                return;
+            }
+            if (!backfilled) {
+                backfilled = true;
+                backfill();
+            }
+            if (tailer.poll(tailListener) == 0) {
+                parser.flush(this::publish);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not read the server log in {}: {}", logDir, e.getMessage());
+        } finally {
+            pollLock.unlock();
+        }
+    }
+
+    /**
+     * Events matching a search, newest first; see {@link LogIndex#search}.
+     *
+     * @throws IllegalArgumentException if the level is not a known one
+     */
+    public LogIndex.SearchResult search(String query, Instant from, Instant to, String minLevel, int limit) {
+        return index.search(query, from, to, minLevel, limit);
+    }
+
+    public LogIndex.Stats getStats() {
+        return index.getStats();
+    }
+
+    /**
+     * Read the rotated logs from the last {@code backfillDays} days, oldest first.
+     */
+    private void backfill() {
+        if (backfillDays == 0) {
+            return;
+        }
+        LocalDate since = LocalDate.ofInstant(clock.get(), zone).minusDays(backfillDays);
+        List<Path> archives = new ArrayList<>();
+        try (Stream<Path> files = Files.list(logDir)) {
+            files.filter(file -> {
+                Matcher matcher = ARCHIVE_NAME.matcher(file.getFileName().toString());
+                return matcher.matches() && !LocalDate.parse(matcher.group(1)).isBefore(since);
+            }).forEach(archives::add);
+        } catch (IOException e) {
+            logger.warn("Could not list the rotated server logs in {}: {}", logDir, e.getMessage());
+            return;
+        }
+        archives.sort(Comparator.comparing((Path file) -> archiveDate(file))
+            .thenComparingInt(ServerLogService::archiveNumber));
+
+        long started = System.nanoTime();
+        long before = index.getStats().getEventsIndexed();
+        for (Path archive : archives) {
+            parser.startFile(archiveDate(archive), this::publish);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(archive)), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    parser.accept(line, this::publish);
+                }
+            } catch (IOException e) {
+                logger.warn("Could not read rotated server log {}: {}", archive, e.getMessage());
+            }
+            parser.flush(this::publish);
+        }
+        if (!archives.isEmpty()) {
+            logger.info("Indexed {} events from {} rotated server logs in {} ms",
+                index.getStats().getEventsIndexed() - before, archives.size(),
+                (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    private static LocalDate archiveDate(Path archive) {
+        Matcher matcher = ARCHIVE_NAME.matcher(archive.getFileName().toString());
+        matcher.matches();
+        return LocalDate.parse(matcher.group(1));
+    }
+
+    private static int archiveNumber(Path archive) {
+        Matcher matcher = ARCHIVE_NAME.matcher(archive.getFileName().toString());
+        matcher.matches();
+        return Integer.parseInt(matcher.group(2));
+    }
+
+    private void publish(LogEvent event) {
+        index.add(event);
+        for (Consumer<LogEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                logger.warn("Log listener failed on event {}: {}", event.getSequence(), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        tailer.close();
+    }
+}
@@ -0,0 +1,156 @@
+package com.openmc.webapp.service;
+
+import com.openmc.webapp.model.RetrievalRecord;
+import com.openmc.webapp.model.StatusUpdate;
+import com.openmc.webapp.rcon.RconCommandCache;
+import com.openmc.webapp.rcon.RconCommandScheduler.Priority;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Publishes the server's health as parsed from each status refresh (online, players,
+ * TPS, memory) together with the status cache, the command cache and the RCON
+ * scheduler queues as Micrometer gauges and counters.
+ *
+ * Server gauges read the last refresh, so scraping never sends an RCON command.
+ * Values the server did not report are published as NaN rather than 0.
+ */
+@Component
+public class ServerMetrics {
+
+    private static final Pattern FIRST_NUMBER = Pattern.compile("\\d+(\\.\\d+)?");
+    private static final double BYTES_PER_MB = 1024.0 * 1024.0;
+
+    private final RconService rconService;
+    private volatile double online = Double.NaN;
+    private volatile double players = Double.NaN;
+    private volatile double maxPlayers = Double.NaN;
+    private volatile double tps = Double.NaN;
+    private volatile double memoryUsedBytes = Double.NaN;
+    private volatile double memoryMaxBytes = Double.NaN;
+
+    public ServerMetrics(RconService rconService, MeterRegistry registry) {
+        this.rconService = rconService;
+        registerServerGauges(registry);
+        registerCacheMeters(registry);
+        registerSchedulerGauges(registry);
+        rconService.addStatusListener(this::onStatusUpdate);
+    }
+
+    private void registerServerGauges(MeterRegistry registry) {
+        Gauge.builder("minecraft.server.online", this, metrics -> metrics.online)
+            .description("1 if the last status refresh reached the server, otherwise 0")
+            .register(registry);
+        Gauge.builder("minecraft.players.online", this, metrics -> metrics.players)
+            .description("Players online at the last status refresh")
+            .register(registry);
+        Gauge.builder("minecraft.players.max", this, metrics -> metrics.maxPlayers)
+            .description("Configured player limit")
+            .register(registry);
+        Gauge.builder("minecraft.tps", this, metrics -> metrics.tps)
+            .description("Ticks per second over the last minute, as reported by the tps command")
+            .register(registry);
+        Gauge.builder("minecraft.memory.used", this, metrics -> metrics.memoryUsedBytes)
+            .description("JVM heap in use on the Minecraft server")
+            .baseUnit("bytes")
+            .register(registry);
+        Gauge.builder("minecraft.memory.max", this, metrics -> metrics.memoryMaxBytes)
+            .description("Maximum JVM heap of the Minecraft server")
+            .baseUnit("bytes")
+            .register(registry);
+    }
+
+    private void registerCacheMeters(MeterRegistry registry) {
+        FunctionCounter.builder("status.cache.requests", rconService, RconService::getStatusCacheHits)
+            .description("Status requests answered from the cached status")
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder("status.cache.requests", rconService, RconService::getStatusCacheMisses)
+            .description("Status requests that refreshed the cached status")
+            .tag("result", "miss")
+            .register(registry);
+        Gauge.builder("status.cache.age", rconService, service -> {
+                long ageMs = service.getStatusAgeMs();
+                return ageMs < 0 ? Double.NaN : ageMs / 1000.0;
+            })
+            .description("Time since the cached status was fetched from the server")
+            .baseUnit("seconds")
+            .register(registry);
+
+        RconCommandCache commandCache = rconService.getCommandCache();
+        FunctionCounter.builder("rcon.command.cache.requests", commandCache, RconCommandCache::getHitCount)
+            .description("Read-only commands answered from the command cache")
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder("rcon.command.cache.requests", commandCache, RconCommandCache::getMissCount)
+            .description("Read-only commands sent to the server")
+            .tag("result", "miss")
+            .register(registry);
+    }
+
+    private void registerSchedulerGauges(MeterRegistry registry) {
+        Gauge.builder("rcon.scheduler.in.flight", rconService,
+                service -> service.getSchedulerStats().getInFlight())
+            .description("RCON commands running now")
+            .register(registry);
+        for (Priority priority : Priority.values()) {
+            String tag = priority.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("rcon.scheduler.queue.depth", rconService,
+                    service -> service.getSchedulerStats().getPriorities().get(priority).getQueueDepth())
+                .description("RCON commands waiting for a free slot")
+                .tag("priority", tag)
+                .register(registry);
+            FunctionCounter.builder("rcon.scheduler.dropped", rconService,
+                    service -> service.getSchedulerStats().getPriorities().get(priority).getDropped())
+                .description("RCON commands that gave up waiting for a free slot")
+                .tag("priority", tag)
+                .register(registry);
+        }
+    }
+
+    void onStatusUpdate(StatusUpdate update) {
+        RetrievalRecord record = update.getRecord();
+        online = record.isSuccess() ? 1 : 0;
+        maxPlayers = update.getStatus().getMaxPlayers();
+        if (!record.isSuccess()) {
+            players = Double.NaN;
+            tps = Double.NaN;
+            memoryUsedBytes = Double.NaN;
+            memoryMaxBytes = Double.NaN;
+            return;
+        }
+        players = record.getPlayerCount();
+        RconService.ResourceUsage usage = record.getResourceUsage();
+        tps = parseTps(usage.getTps());
+        memoryUsedBytes = parseMemoryBytes(usage.getMemoryUsed());
+        memoryMaxBytes = parseMemoryBytes(usage.getMemoryMax());
+    }
+
+    /**
+     * The one-minute figure from a value like {@code "20.0, 19.8, 19.9"}, or NaN.
+     */
+    static double parseTps(String tps) {
+        if (tps == null) {
+            return Double.NaN;
+        }
+        Matcher matcher = FIRST_NUMBER.matcher(tps);
+        return matcher.find() ? Double.parseDouble(matcher.group()) : Double.NaN;
+    }
+
+    static double parseMemoryBytes(String memory) {
+        if (memory == null || memory.equals("N/A")) {
+            return Double.NaN;
+        }
+        try {
+            return RconService.parseMemoryValue(memory) * BYTES_PER_MB;
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.openmc.webapp.service;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+/**
+ * An append-only file of player sessions: who joined and left when, and when the server
+ * stopped. Records are a type byte followed by a few fields, 13 bytes for a join or leave,
+ * and are only ever added at the end, so a crash can at worst leave one record half
+ * written; that tail is cut off when the file is next read.
+ */
+public class SessionStore implements Closeable {
+
+    private static final int MAGIC = 0x4F4D4353; // "OMCS"
+    private static final int VERSION = 1;
+
+    private static final byte PLAYER = 'P';
+    private static final byte JOIN = 'J';
+    private static final byte LEAVE = 'L';
+    private static final byte STOP = 'S';
+
+    /**
+     * Told about each record as the file is read, in the order they were added.
+     */
+    public interface Replay {
+
+        /**
+         * Player {@code id} was first seen, or seen under a new name; {@code uuid} is
+         * null where the log did not give one.
+         */
+        void player(int id, String uuid, String name);
+
+        void join(int id, Instant time);
+
+        void leave(int id, Instant time);
+
+        /**
+         * The server stopped, or was found to have crashed, ending every open session.
+         */
+        void stop(Instant time);
+    }
+
+    private final Path file;
+    private FileChannel channel;
+
+    public SessionStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Read every record into {@code replay}, cut off a half-written last record, and get
+     * ready to add more. A missing file is created with the first record added.
+     */
+    public void open(Replay replay) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long valid = 0;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            CountingInputStream counting = new CountingInputStream(in);
+            DataInputStream data = new DataInputStream(counting);
+            if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+                close();
+                throw new IOException("Not a session store: " + file);
+            }
+            valid = counting.count;
+            while (true) {
+                int type = data.read();
+                if (type < 0) {
+                    break;
+                }
+                switch (type) {
+                    case PLAYER -> {
+                        int id = data.readInt();
+                        String uuid = data.readUTF();
+                        String name = data.readUTF();
+                        replay.player(id, uuid.isEmpty() ? null : uuid, name);
+                    }
+                    case JOIN -> replay.join(data.readInt(), Instant.ofEpochSecond(data.readLong()));
+                    case LEAVE -> replay.leave(data.readInt(), Instant.ofEpochSecond(data.readLong()));
+                    case STOP -> replay.stop(Instant.ofEpochSecond(data.readLong()));
+                    default -> {
+                        close();
+                        throw new IOException("Unknown record type " + type + " at offset " + valid + " of " + file);
+                    }
+                }
+                valid = counting.count;
+            }
+        } catch (EOFException e) {
+            // A record cut short by a crash while it was being written
+        }
+        channel.truncate(valid);
+        channel.position(valid);
+        if (valid == 0) {
+            writeHeader();
+        }
+    }
+
+    public void addPlayer(int id, String uuid, String name) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(PLAYER);
+        out.writeInt(id);
+        out.writeUTF(uuid != null ? uuid : "");
+        out.writeUTF(name);
+        append(ByteBuffer.wrap(bytes.toByteArray()));
+    }
+
+    public void addJoin(int id, Instant time) throws IOException {
+        append(ByteBuffer.allocate(13).put(JOIN).putInt(id).putLong(time.getEpochSecond()).flip());
+    }
+
+    public void addLeave(int id, Instant time) throws IOException {
+        append(ByteBuffer.allocate(13).put(LEAVE).putInt(id).putLong(time.getEpochSecond()).flip());
+    }
+
+    public void addStop(Instant time) throws IOException {
+        append(ByteBuffer.allocate(9).put(STOP).putLong(time.getEpochSecond()).flip());
+    }
+
+    private void append(ByteBuffer record) throws IOException {
+        if (channel == null) {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+            writeHeader();
+        }
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(8).putInt(MAGIC).putInt(VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+    }
+
+    /**
+     * Bytes stored, including the header.
+     */
+    public long size() throws IOException {
+        return channel != null ? channel.size() : 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Tracks how many bytes were read, so the end of the last whole record is known.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.openmc.webapp.service;
+
+import com.openmc.webapp.config.ServerConfig;
+import com.openmc.webapp.model.ActivityTrackerStats;
+import com.openmc.webapp.model.LeaderboardEntry;
+import com.openmc.webapp.model.LogEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Playtime and logins worked out from the join and leave messages in the server log, so
+ * the leaderboard works without the Activity Tracker plugin.
+ *
+ * Sessions are kept in a {@link SessionStore}, and each player's total is updated as they
+ * leave, so a leaderboard only has to add the time of the sessions still open. The server
+ * log is read again from its start whenever the app starts; records at or before the
+ * time of the last one stored are recognised as already counted and skipped.
+ */
+@Service
+public class SessionTrackerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionTrackerService.class);
+
+    private static final Pattern JOINED =
+        Pattern.compile("(\\w{1,16})(?: \\(formerly known as \\w{1,16}\\))? joined the game");
+    private static final Pattern LEFT = Pattern.compile("(\\w{1,16}) left the game");
+    private static final Pattern UUID_OF =
+        Pattern.compile("UUID of player (\\w{1,16}) is ([0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12})");
+    private static final Pattern STOPPING = Pattern.compile("Stopping (?:the )?server");
+    private static final Pattern STARTING = Pattern.compile("Starting minecraft server version .*");
+
+    // While anyone is online, totals are taken to have changed once a minute
+    private static final long ONLINE_VERSION_INTERVAL_MS = 60_000;
+
+    private final boolean enabled;
+    private final int leaderboardSize;
+    private final SessionStore store;
+    private final Supplier<Instant> clock;
+
+    private final Map<String, Integer> idsByKey = new HashMap<>();
+    private final List<PlayerTotals> players = new ArrayList<>();
+    private final Map<String, String> uuidsByName = new HashMap<>();
+    private final State state = new State();
+    private long totalLogins;
+    private int online;
+    private long version;
+    private long versionChangedAtMs;
+    // Time of the last record stored, and the records stored at that second
+    private long watermark = Long.MIN_VALUE;
+    private final Set<String> atWatermark = new HashSet<>();
+    private Instant lastEventTime;
+    private boolean storeFailed;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @Autowired
+    public SessionTrackerService(ServerLogService serverLogService, ServerConfig serverConfig) {
+        this(serverLogService, serverConfig, Instant::now);
+    }
+
+    SessionTrackerService(ServerLogService serverLogService, ServerConfig serverConfig, Supplier<Instant> clock) {
+        this.enabled = serverConfig.isSessionTrackerEnabled();
+        this.leaderboardSize = Math.max(1, serverConfig.getSessionLeaderboardSize());
+        this.store = new SessionStore(Path.of(serverConfig.getSessionStoreFile()));
+        this.clock = clock;
+        if (!enabled) {
+            return;
+        }
+        try {
+            store.open(state);
+            logger.info("Loaded {} players and {} logins from the session store {}",
+                players.size(), totalLogins, serverConfig.getSessionStoreFile());
+        } catch (IOException e) {
+            storeFailed = true;
+            logger.error("Could not open the session store {}; sessions are tracked in memory only: {}",
+                serverConfig.getSessionStoreFile(), e.getMessage());
+        }
+        serverLogService.addListener(this::accept);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    void accept(LogEvent event) {
+        if (!"INFO".equals(event.getLevel())) {
+            return;
+        }
+        String message = event.getMessage();
+        Instant time = event.getTimestamp();
+        lock.lock();
+        try {
+            Instant previous = lastEventTime;
+            lastEventTime = time;
+
+            Matcher matcher = UUID_OF.matcher(message);
+            if (matcher.matches()) {
+                uuidsByName.put(matcher.group(1).toLowerCase(Locale.ROOT), matcher.group(2).toLowerCase(Locale.ROOT));
+                return;
+            }
+            matcher = JOINED.matcher(message);
+            if (matcher.matches()) {
+                int id = idOf(matcher.group(1));
+                if (isNew("J" + id, time)) {
+                    state.join(id, time);
+                    store(() -> store.addJoin(id, time));
+                }
+                return;
+            }
+            matcher = LEFT.matcher(message);
+            if (matcher.matches()) {
+                Integer id = idsByKey.get(keyOf(matcher.group(1)));
+                if (id != null && isNew("L" + id, time)) {
+                    state.leave(id, time);
+                    store(() -> store.addLeave(id, time));
+                }
+                return;
+            }
+            // A start without a stop before it means the server crashed; sessions ended with its last line
+            Instant stoppedAt = STOPPING.matcher(message).matches() ? time
+                : STARTING.matcher(message).matches() && online > 0 && previous != null ? previous
+                : null;
+            if (stoppedAt != null && online > 0 && isNew("S", stoppedAt)) {
+                state.stop(stoppedAt);
+                store(() -> store.addStop(stoppedAt));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether a record is newer than those stored, so not one read again from the log.
+     */
+    private boolean isNew(String record, Instant time) {
+        long second = time.getEpochSecond();
+        if (second < watermark) {
+            return false;
+        }
+        if (second > watermark) {
+            watermark = second;
+            atWatermark.clear();
+        }
+        return atWatermark.add(record);
+    }
+
+    private String keyOf(String name) {
+        String uuid = uuidsByName.get(name.toLowerCase(Locale.ROOT));
+        return uuid != null ? uuid : "name:" + name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The id of a player, recording them, or their new name, if need be.
+     */
+    private int idOf(String name) {
+        String uuid = uuidsByName.get(name.toLowerCase(Locale.ROOT));
+        String key = keyOf(name);
+        Integer id = idsByKey.get(key);
+        if (id != null && players.get(id).name.equals(name)) {
+            return id;
+        }
+        int playerId = id != null ? id : players.size();
+        state.player(playerId, uuid, name);
+        store(() -> store.addPlayer(playerId, uuid, name));
+        return playerId;
+    }
+
+    private void store(StoreWrite write) {
+        if (storeFailed) {
+            return;
+        }
+        try {
+            write.run();
+        } catch (IOException e) {
+            storeFailed = true;
+            logger.error("Could not write to the session store; sessions are tracked in memory only: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Players by time played, most first, counting sessions still open up to now.
+     */
+    public List<LeaderboardEntry> getLeaderboard() {
+        long now = clock.get().getEpochSecond();
+        List<PlayerTotals> ranked = new ArrayList<>();
+        List<LeaderboardEntry> leaderboard = new ArrayList<>();
+        lock.lock();
+        try {
+            ranked.addAll(players);
+            ranked.sort((a, b) -> Long.compare(b.secondsAt(now), a.secondsAt(now)));
+            for (PlayerTotals player : ranked.subList(0, Math.min(leaderboardSize, ranked.size()))) {
+                double hours = Math.round(player.secondsAt(now) / 36.0) / 100.0;
+                leaderboard.add(new LeaderboardEntry(player.uuid, player.name, hours, player.logins));
+            }
+        } finally {
+            lock.unlock();
+        }
+        return leaderboard;
+    }
+
+    public ActivityTrackerStats getStats() {
+        lock.lock();
+        try {
+            return new ActivityTrackerStats(players.size(), (int) Math.min(Integer.MAX_VALUE, totalLogins));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Changes whenever the stats or leaderboard do: on every join and leave, and every
+     * minute while anyone is online.
+     */
+    public long getVersion() {
+        lock.lock();
+        try {
+            long nowMs = clock.get().toEpochMilli();
+            if (online > 0 && nowMs - versionChangedAtMs >= ONLINE_VERSION_INTERVAL_MS) {
+                changed();
+            }
+            return version;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Milliseconds until the version next changes by itself; 0 if nobody is online.
+     */
+    public long getMillisUntilChange() {
+        lock.lock();
+        try {
+            if (online == 0) {
+                return 0;
+            }
+            return Math.max(0, versionChangedAtMs + ONLINE_VERSION_INTERVAL_MS - clock.get().toEpochMilli());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getOnlineCount() {
+        lock.lock();
+        try {
+            return online;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void changed() {
+        version++;
+        versionChangedAtMs = clock.get().toEpochMilli();
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        store.close();
+    }
+
+    private interface StoreWrite {
+        void run() throws IOException;
+    }
+
+    private static class PlayerTotals {
+        private final String uuid;
+        private String name;
+        private long seconds;
+        private int logins;
+        private long openSince = -1;
+
+        PlayerTotals(String uuid, String name) {
+            this.uuid = uuid;
+            this.name = name;
+        }
+
+        long secondsAt(long now) {
+            return openSince >= 0 ? seconds + Math.max(0, now - openSince) : seconds;
+        }
+    }
+
+    /**
+     * Applies records, both those read back from the store and new ones; callers hold the lock.
+     */
+    private class State implements SessionStore.Replay {
+
+        @Override
+        public void player(int id, String uuid, String name) {
+            if (id < players.size()) {
+                players.get(id).name = name;
+            } else {
+                players.add(new PlayerTotals(uuid, name));
+                idsByKey.put(uuid != null ? uuid : "name:" + name.toLowerCase(Locale.ROOT), id);
+            }
+            if (uuid != null) {
+                uuidsByName.put(name.toLowerCase(Locale.ROOT), uuid);
+            }
+        }
+
+        @Override
+        public void join(int id, Instant time) {
+            PlayerTotals player = players.get(id);
+            long second = time.getEpochSecond();
+            if (player.openSince >= 0) {
+                // The leave was never logged; count the session up to this join
+                end(player, second);
+            }
+            player.openSince = second;
+            player.logins++;
+            totalLogins++;
+            online++;
+            stored(second, "J" + id);
+        }
+
+        @Override
+        public void leave(int id, Instant time) {
+            PlayerTotals player = players.get(id);
+            if (player.openSince >= 0) {
+                end(player, time.getEpochSecond());
+            }
+            stored(time.getEpochSecond(), "L" + id);
+        }
+
+        @Override
+        public void stop(Instant time) {
+            for (PlayerTotals player : players) {
+                if (player.openSince >= 0) {
+                    end(player, time.getEpochSecond());
+                }
+            }
+            stored(time.getEpochSecond(), "S");
+        }
+
+        private void end(PlayerTotals player, long second) {
+            player.seconds += Math.max(0, second - player.openSince);
+            player.openSince = -1;
+            online--;
+        }
+
+        private void stored(long second, String record) {
+            if (second > watermark) {
+                watermark = second;
+                atWatermark.clear();
+            }
+            atWatermark.add(record);
+            changed();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.openmc.webapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds serialized API responses and rendered pages per snapshot version.
+ *
+ * A response is serialized and hashed once per version; later requests for the same
+ * version reuse the bytes, the ETag and the gzip encoding computed for the first one.
+ * Version 0 means the caller has no version information, so the body is always
+ * serialized again (the ETag still allows a 304).
+ */
+@Component
+public class SnapshotResponseCache {
+
+    // Bodies smaller than this are not worth compressing
+    private static final int MIN_COMPRESS_BYTES = 512;
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, CachedResponse> responses = new ConcurrentHashMap<>();
+
+    public SnapshotResponseCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Cached JSON serialization of the body for this version.
+     */
+    public CachedResponse get(String key, long version, Supplier<?> body) {
+        return getRendered(key, version, () -> {
+            try {
+                return objectMapper.writeValueAsBytes(body.get());
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Cached output of the renderer for this version.
+     */
+    public CachedResponse getRendered(String key, long version, Supplier<byte[]> renderer) {
+        CachedResponse cached = responses.get(key);
+        if (version > 0 && cached != null && cached.version == version) {
+            return cached;
+        }
+
+        byte[] rendered = renderer.get();
+
+        // Keep the previous entry when the content did not change, so its gzip bytes are reused
+        String etag = "W/\"" + hash(rendered) + "\"";
+        if (cached != null && cached.etag.equals(etag)) {
+            cached = new CachedResponse(version, etag, cached.body, cached.gzipBody);
+        } else {
+            cached = new CachedResponse(version, etag, rendered, null);
+        }
+        if (version > 0) {
+            responses.put(key, cached);
+        }
+        return cached;
+    }
+
+    private static String hash(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static class CachedResponse {
+        private final long version;
+        private final String etag;
+        private final byte[] body;
+        private volatile byte[] gzipBody;
+
+        CachedResponse(long version, String etag, byte[] body, byte[] gzipBody) {
+            this.version = version;
+            this.etag = etag;
+            this.body = body;
+            this.gzipBody = gzipBody;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public boolean isCompressible() {
+            return body.length >= MIN_COMPRESS_BYTES;
+        }
+
+        /**
+         * The gzip encoding of the body, compressed on first use.
+         */
+        public byte[] getGzipBody() {
+            byte[] compressed = gzipBody;
+            if (compressed == null) {
+                compressed = gzip(body);
+                gzipBody = compressed;
+            }
+            return compressed;
+        }
+
+        /**
+         * Weak comparison against an If-None-Match header, which may list several tags.
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+                return false;
+            }
+            String opaqueTag = etag.substring(2);
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || tag.equals(etag) || tag.equals(opaqueTag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static byte[] gzip(byte[] data) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(data);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.openmc.webapp.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for a refresh of the cached server status, which runs the
+ * list and tps commands.
+ */
+@Name("com.openmc.webapp.StatusRefresh")
+@Label("Status Refresh")
+@Category({"Open MC", "Status"})
+@Description("The cached server status was fetched again over RCON")
+class StatusRefreshEvent extends Event {
+
+    @Label("Snapshot Version")
+    long snapshotVersion;
+
+    @Label("Success")
+    boolean success;
+
+    @Label("Player Count")
+    int playerCount;
+}
@@ -0,0 +1,311 @@
+package com.openmc.webapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openmc.webapp.config.ServerConfig;
+import com.openmc.webapp.config.WorkerThreads;
+import com.openmc.webapp.model.StatusUpdate;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes status snapshots to browsers over Server-Sent Events.
+ *
+ * Each refresh is serialized once and fanned out to every subscriber. A short replay
+ * buffer lets reconnecting clients resume from their Last-Event-ID, and every client
+ * gets its own bounded queue so a slow connection drops old events instead of growing.
+ *
+ * A send blocks until the container has written it, so each client drains on its own
+ * thread, virtual in virtual-thread mode. A client stuck in one send for longer than the
+ * send timeout is dropped, and the next heartbeat finds it.
+ */
+@Service
+public class StatusStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatusStreamService.class);
+
+    static final String STATUS_EVENT = "status";
+
+    private final ServerConfig serverConfig;
+    private final ObjectMapper objectMapper;
+    private final Executor sendExecutor;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ArrayDeque<StreamEvent> replayBuffer = new ArrayDeque<>();
+
+    @Autowired
+    public StatusStreamService(RconService rconService, ServerConfig serverConfig, ObjectMapper objectMapper) {
+        this(rconService, serverConfig, objectMapper,
+            Executors.newThreadPerTaskExecutor(WorkerThreads.factory(serverConfig, "sse-sender-")));
+    }
+
+    StatusStreamService(RconService rconService, ServerConfig serverConfig, ObjectMapper objectMapper,
+                        Executor sendExecutor) {
+        this.serverConfig = serverConfig;
+        this.objectMapper = objectMapper;
+        this.sendExecutor = sendExecutor;
+        rconService.addStatusListener(this::broadcast);
+    }
+
+    /**
+     * Open a new event stream. Clients that pass the id of the last event they saw get
+     * every newer buffered event; new clients get the latest snapshot straight away.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = createEmitter(serverConfig.getSseEmitterTimeoutMs());
+        Subscriber subscriber = new Subscriber(emitter, Math.max(1, serverConfig.getSseClientBufferSize()));
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(() -> {
+            subscriber.close();
+            emitter.complete();
+        });
+        emitter.onError(error -> subscriber.close());
+
+        synchronized (replayBuffer) {
+            for (StreamEvent event : eventsSince(parseEventId(lastEventId))) {
+                subscriber.enqueue(event);
+            }
+            subscribers.add(subscriber);
+        }
+
+        logger.debug("SSE client subscribed (last event id: {}), {} active", lastEventId, subscribers.size());
+        return emitter;
+    }
+
+    SseEmitter createEmitter(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+
+    /**
+     * Serialize a refreshed snapshot once and queue it for every subscriber.
+     */
+    void broadcast(StatusUpdate update) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(update);
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to serialize status snapshot {}: {}", update.getVersion(), e.getMessage());
+            return;
+        }
+
+        StreamEvent event = new StreamEvent(update.getVersion(), data);
+        synchronized (replayBuffer) {
+            replayBuffer.addLast(event);
+            while (replayBuffer.size() > Math.max(1, serverConfig.getSseReplayBufferSize())) {
+                replayBuffer.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                subscriber.enqueue(event);
+            }
+        }
+    }
+
+    /**
+     * Send a comment line to idle streams so proxies do not close them, and drop streams
+     * whose current send has been blocked for longer than the send timeout.
+     */
+    @Scheduled(fixedRateString = "${minecraft.server.sse-heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        long now = System.nanoTime();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(serverConfig.getSseSendTimeoutMs());
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.isStalled(now, timeoutNanos)) {
+                logger.debug("SSE client dropped after a send blocked for over {} ms", serverConfig.getSseSendTimeoutMs());
+                subscriber.close();
+            } else {
+                subscriber.enqueueHeartbeat();
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * The buffered events after {@code lastEventId}. A client that missed more than the
+     * buffer holds gets all of it. Any other id that is not buffered, such as one from
+     * before the app restarted and ids started again at 1, gets just the latest event, as
+     * there is no telling which events the client has seen.
+     */
+    private List<StreamEvent> eventsSince(Long lastEventId) {
+        List<StreamEvent> events = new ArrayList<>();
+        if (replayBuffer.isEmpty()) {
+            return events;
+        }
+        if (lastEventId != null && lastEventId < replayBuffer.peekFirst().id) {
+            events.addAll(replayBuffer);
+            return events;
+        }
+        boolean buffered = false;
+        for (StreamEvent event : replayBuffer) {
+            if (buffered) {
+                events.add(event);
+            } else if (lastEventId != null && event.id == lastEventId) {
+                buffered = true;
+            }
+        }
+        if (!buffered) {
+            events.add(replayBuffer.peekLast());
+        }
+        return events;
+    }
+
+    private Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+        if (sendExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static final class StreamEvent {
+        private static final StreamEvent HEARTBEAT = new StreamEvent(-1, null);
+
+        private final long id;
+        private final String data;
+
+        private StreamEvent(long id, String data) {
+            this.id = id;
+            this.data = data;
+        }
+
+        private SseEmitter.SseEventBuilder toSseEvent() {
+            if (this == HEARTBEAT) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().id(Long.toString(id)).name(STATUS_EVENT).data(data);
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final int capacity;
+        private final ArrayDeque<StreamEvent> pending = new ArrayDeque<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile long sendStartedAt;
+        private volatile boolean closed;
+        private long dropped;
+
+        private Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.capacity = capacity;
+        }
+
+        private void enqueue(StreamEvent event) {
+            synchronized (pending) {
+                if (pending.size() >= capacity) {
+                    pending.removeFirst();
+                    dropped++;
+                }
+                pending.addLast(event);
+            }
+            scheduleDrain();
+        }
+
+        private void enqueueHeartbeat() {
+            synchronized (pending) {
+                if (!pending.isEmpty()) {
+                    return;
+                }
+                pending.addLast(StreamEvent.HEARTBEAT);
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (closed || !draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sendExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                StreamEvent next;
+                while (!closed && (next = poll()) != null) {
+                    sendStartedAt = System.nanoTime();
+                    emitter.send(next.toSseEvent());
+                    sendStartedAt = 0;
+                }
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("SSE client disconnected: {}", e.getMessage());
+                close();
+                return;
+            } finally {
+                sendStartedAt = 0;
+                draining.set(false);
+            }
+
+            boolean more;
+            synchronized (pending) {
+                more = !pending.isEmpty();
+            }
+            if (more) {
+                scheduleDrain();
+            }
+        }
+
+        /**
+         * While a send is blocked the drain flag stays set, so new events only queue up
+         * behind it and no second thread is started for this client.
+         */
+        private boolean isStalled(long now, long timeoutNanos) {
+            long startedAt = sendStartedAt;
+            return startedAt != 0 && now - startedAt > timeoutNanos;
+        }
+
+        private StreamEvent poll() {
+            synchronized (pending) {
+                return pending.pollFirst();
+            }
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            subscribers.remove(this);
+            if (dropped > 0) {
+                logger.debug("SSE client closed after dropping {} events", dropped);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.openmc.webapp.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket held in a single timestamp so it can be updated with compare-and-set.
+ *
+ * The bucket records the moment it will be full again. Taking a token pushes that moment
+ * forward by one refill interval; a request is refused when that would leave the bucket
+ * more than its whole capacity behind the current time.
+ */
+final class TokenBucket {
+
+    private final long refillIntervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong fullAt;
+
+    TokenBucket(double permitsPerSecond, int capacity, long nowNanos) {
+        this.refillIntervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.capacityNanos = refillIntervalNanos * Math.max(1, capacity);
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Take one token.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one is available
+     */
+    long tryAcquire(long nowNanos) {
+        return tryAcquire(nowNanos, 1);
+    }
+
+    /**
+     * Take several tokens at once. A request for more than the whole capacity is admitted
+     * only when the bucket is full, and then empties it.
+     *
+     * @return 0 if the tokens were taken, otherwise the nanoseconds until they are available
+     */
+    long tryAcquire(long nowNanos, int permits) {
+        long cost = Math.min(refillIntervalNanos * Math.max(1, permits), capacityNanos);
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + cost;
+            long backlog = next - nowNanos;
+            if (backlog > capacityNanos) {
+                return backlog - capacityNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Give back tokens taken by a request that was turned away after all.
+     */
+    void refund(int permits) {
+        fullAt.addAndGet(-Math.min(refillIntervalNanos * Math.max(1, permits), capacityNanos));
+    }
+
+    /**
+     * @return 0 if a token is available, otherwise the nanoseconds until one is
+     */
+    long waitNanos(long nowNanos) {
+        long backlog = Math.max(fullAt.get(), nowNanos) + refillIntervalNanos - nowNanos;
+        return Math.max(0, backlog - capacityNanos);
+    }
+
+    /**
+     * A full bucket holds no state worth keeping, so it can be dropped and recreated later.
+     */
+    boolean isFull(long nowNanos) {
+        return fullAt.get() - nowNanos <= 0;
+    }
+}
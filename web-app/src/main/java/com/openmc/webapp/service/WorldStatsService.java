@@ -0,0 +1,105 @@
+package com.openmc.webapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openmc.webapp.config.ServerConfig;
+import com.openmc.webapp.stats.StatsIndex;
+import com.openmc.webapp.stats.StatsScanner;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Leaderboards for any statistic the server keeps per player, such as blocks mined,
+ * distance travelled or deaths, read from the world's stats files rather than asked of a
+ * plugin. The files are rescanned on a schedule; see {@link StatsScanner}.
+ */
+@Service
+public class WorldStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorldStatsService.class);
+
+    private final StatsScanner scanner;
+    private final ForkJoinPool pool;
+    private final ReentrantLock scanLock = new ReentrantLock();
+    private volatile StatsIndex index = StatsIndex.EMPTY;
+    private volatile StatsScanner.ScanResult lastScan;
+
+    @Autowired
+    public WorldStatsService(ServerConfig serverConfig, ObjectMapper objectMapper) {
+        this(serverConfig, objectMapper, new ForkJoinPool(serverConfig.getStatsScanThreads() > 0
+            ? serverConfig.getStatsScanThreads() : Runtime.getRuntime().availableProcessors()), Instant::now);
+    }
+
+    WorldStatsService(ServerConfig serverConfig, ObjectMapper objectMapper, ForkJoinPool pool,
+                      Supplier<Instant> clock) {
+        this.pool = pool;
+        this.scanner = new StatsScanner(Path.of(serverConfig.getWorldDir()), Path.of(serverConfig.getUserCacheFile()),
+            objectMapper, pool, clock);
+    }
+
+    /**
+     * Rescan the stats files, reading those that changed, and swap in the new index.
+     * Queries keep using the old index until then.
+     */
+    @Scheduled(fixedDelayString = "${minecraft.server.stats-scan-interval-ms:300000}")
+    public void scan() {
+        if (!scanLock.tryLock()) {
+            return;
+        }
+        try {
+            StatsScanner.ScanResult result = scanner.scan();
+            index = result.getIndex();
+            lastScan = result;
+            if (result.getParsed() > 0 || result.getFailed() > 0) {
+                logger.info("Indexed stats of {} players in {} ms: {} files read, {} unchanged, {} unreadable",
+                    result.getIndex().getPlayerCount(), result.getMillis(), result.getParsed(),
+                    result.getFiles() - result.getParsed() - result.getFailed(), result.getFailed());
+            }
+        } catch (IOException e) {
+            logger.warn("Could not scan the player stats: {}", e.getMessage());
+        } finally {
+            scanLock.unlock();
+        }
+    }
+
+    /**
+     * The players with the highest values of {@code stat}, highest first.
+     *
+     * @throws IllegalArgumentException if no player has that stat
+     */
+    public List<StatsIndex.Entry> top(String stat, int limit) {
+        StatsIndex current = index;
+        List<StatsIndex.Entry> entries = current.top(stat, limit);
+        if (entries.isEmpty() && limit > 0) {
+            throw new IllegalArgumentException("No player has the stat " + stat);
+        }
+        return entries;
+    }
+
+    public StatsIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * The last scan, or null before the first one.
+     */
+    public StatsScanner.ScanResult getLastScan() {
+        return lastScan;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,66 @@
+package com.openmc.webapp.service;
+
+import com.openmc.webapp.config.ServerConfig;
+import com.openmc.webapp.world.WorldAnalyzer;
+import com.openmc.webapp.world.WorldReport;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Where the world's disk space goes, for deciding what to trim; see {@link WorldAnalyzer}.
+ * The world is scanned when a report is asked for, not on a schedule, as the answer is
+ * only wanted now and then and a scan of unchanged regions is quick.
+ */
+@Service
+public class WorldStorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorldStorageService.class);
+
+    private final WorldAnalyzer analyzer;
+    private final ForkJoinPool pool;
+    private final ReentrantLock scanLock = new ReentrantLock();
+
+    @Autowired
+    public WorldStorageService(ServerConfig serverConfig) {
+        this(serverConfig, new ForkJoinPool(serverConfig.getWorldScanThreads() > 0
+            ? serverConfig.getWorldScanThreads() : Runtime.getRuntime().availableProcessors()), Instant::now);
+    }
+
+    WorldStorageService(ServerConfig serverConfig, ForkJoinPool pool, Supplier<Instant> clock) {
+        this.pool = pool;
+        this.analyzer = new WorldAnalyzer(Path.of(serverConfig.getWorldDir()), pool, clock);
+    }
+
+    /**
+     * Scan the world and report on it. A request made during a scan waits for it, and
+     * its own scan then finds nearly every region unchanged.
+     *
+     * @throws IllegalArgumentException if the limit is out of range
+     */
+    public WorldReport analyze(int limit) throws IOException {
+        scanLock.lock();
+        try {
+            WorldReport report = analyzer.analyze(limit);
+            logger.info("Scanned {} world files in {} ms: {} region headers read, {} unreadable",
+                report.getFiles(), report.getMillis(), report.getRead(), report.getFailed());
+            return report;
+        } finally {
+            scanLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
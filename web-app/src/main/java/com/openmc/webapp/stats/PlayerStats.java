@@ -0,0 +1,46 @@
+package com.openmc.webapp.stats;
+
+/**
+ * The statistics of one player, as read from their stats file: parallel arrays of stat
+ * names and values, with the names shared between players.
+ */
+public class PlayerStats {
+
+    private final String uuid;
+    private final String[] names;
+    private final long[] values;
+
+    public PlayerStats(String uuid, String[] names, long[] values) {
+        this.uuid = uuid;
+        this.names = names;
+        this.values = values;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String nameAt(int index) {
+        return names[index];
+    }
+
+    public long valueAt(int index) {
+        return values[index];
+    }
+
+    /**
+     * The value of one stat, or 0 if the player has none.
+     */
+    public long get(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return values[i];
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,103 @@
+package com.openmc.webapp.stats;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads the stats files the server writes to {@code world/stats/<uuid>.json}:
+ * <pre>{"stats": {"minecraft:mined": {"minecraft:stone": 1024}, ...}, "DataVersion": 3700}</pre>
+ * Each value becomes a stat named {@code category/stat}, with the {@code minecraft:}
+ * namespace left out, such as {@code mined/stone} or {@code custom/deaths}. Two kinds of
+ * totals are added: {@code category/*} sums a whole category other than {@code custom},
+ * such as all blocks mined, and {@code custom/*_one_cm} sums every distance travelled,
+ * in centimetres.
+ *
+ * The file is read as a stream of tokens, without building a tree, and stat names are
+ * shared between all files read by the same parser.
+ */
+public class StatsFileParser {
+
+    public static final String TOTAL = "*";
+    public static final String DISTANCE = "custom/*_one_cm";
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final String NAMESPACE = "minecraft:";
+    private static final String DISTANCE_SUFFIX = "_one_cm";
+
+    private final Map<String, String> names = new ConcurrentHashMap<>();
+
+    /**
+     * @throws IOException if the file cannot be read or is not a stats file
+     */
+    public PlayerStats parse(String uuid, InputStream in) throws IOException {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        try (JsonParser parser = JSON.createParser(in)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!"stats".equals(field) || value != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String category = shorten(parser.currentName());
+                    if (parser.nextToken() != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    readCategory(parser, category, stats);
+                }
+            }
+        }
+
+        String[] statNames = new String[stats.size()];
+        long[] values = new long[stats.size()];
+        int i = 0;
+        for (Map.Entry<String, Long> stat : stats.entrySet()) {
+            statNames[i] = names.computeIfAbsent(stat.getKey(), name -> name);
+            values[i++] = stat.getValue();
+        }
+        return new PlayerStats(uuid, statNames, values);
+    }
+
+    private static void readCategory(JsonParser parser, String category, Map<String, Long> stats) throws IOException {
+        long total = 0;
+        long distance = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String stat = shorten(parser.currentName());
+            if (!parser.nextToken().isNumeric()) {
+                parser.skipChildren();
+                continue;
+            }
+            long value = parser.getLongValue();
+            stats.put(category + "/" + stat, value);
+            total += value;
+            if (category.equals("custom") && stat.endsWith(DISTANCE_SUFFIX)) {
+                distance += value;
+            }
+        }
+        if (category.equals("custom")) {
+            stats.put(DISTANCE, distance);
+        } else {
+            stats.put(category + "/" + TOTAL, total);
+        }
+    }
+
+    private static String shorten(String id) {
+        return id.startsWith(NAMESPACE) ? id.substring(NAMESPACE.length()) : id;
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Expected " + expected + " but found " + actual);
+        }
+    }
+}
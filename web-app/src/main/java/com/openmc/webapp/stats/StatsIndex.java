@@ -0,0 +1,235 @@
+package com.openmc.webapp.stats;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The statistics of every player, stored by column: for each stat, the rows of the
+ * players who have it and their values, side by side in two arrays. A leaderboard for a
+ * stat only reads that stat's column, keeping the best {@code k} in a small heap, so any
+ * stat can be ranked without sorting, or even touching, the others.
+ *
+ * An index is not changed once built; a rescan builds a new one.
+ */
+public class StatsIndex {
+
+    public static final StatsIndex EMPTY = new StatsIndex(List.of(), Map.of(), Map.of(), null);
+
+    private final String[] uuids;
+    private final String[] names;
+    private final Instant[] lastSaved;
+    private final Map<String, Column> columns;
+    private final Instant scannedAt;
+
+    /**
+     * @param players   the players, one row each
+     * @param names     player names by UUID, where known
+     * @param lastSaved when each player's data was last saved, by UUID, where known
+     */
+    public StatsIndex(List<PlayerStats> players, Map<String, String> names, Map<String, Instant> lastSaved,
+                      Instant scannedAt) {
+        int rows = players.size();
+        this.uuids = new String[rows];
+        this.names = new String[rows];
+        this.lastSaved = new Instant[rows];
+        this.scannedAt = scannedAt;
+
+        Map<String, ColumnBuilder> builders = new HashMap<>();
+        for (int row = 0; row < rows; row++) {
+            PlayerStats player = players.get(row);
+            uuids[row] = player.getUuid();
+            this.names[row] = names.get(player.getUuid());
+            this.lastSaved[row] = lastSaved.get(player.getUuid());
+            for (int i = 0; i < player.size(); i++) {
+                builders.computeIfAbsent(player.nameAt(i), name -> new ColumnBuilder()).add(row, player.valueAt(i));
+            }
+        }
+        Map<String, Column> built = new HashMap<>(builders.size() * 2);
+        builders.forEach((stat, builder) -> built.put(stat, builder.build()));
+        this.columns = built;
+    }
+
+    public int getPlayerCount() {
+        return uuids.length;
+    }
+
+    public int getStatCount() {
+        return columns.size();
+    }
+
+    /**
+     * When the files this index was built from were scanned, or null before the first scan.
+     */
+    public Instant getScannedAt() {
+        return scannedAt;
+    }
+
+    /**
+     * Every stat, with how many players have it, by name.
+     */
+    public Map<String, Integer> getStats() {
+        Map<String, Integer> stats = new TreeMap<>();
+        columns.forEach((stat, column) -> stats.put(stat, column.rows.length));
+        return stats;
+    }
+
+    /**
+     * The {@code limit} players with the highest values of {@code stat}, highest first;
+     * players without the stat are left out. Ties go to the lower row, that is, to the
+     * player whose file was listed first.
+     */
+    public List<Entry> top(String stat, int limit) {
+        Column column = columns.get(stat);
+        if (column == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        int size = Math.min(limit, column.rows.length);
+        // A min-heap of column positions: the weakest of the best so far at the root
+        int[] heap = new int[size];
+        int count = 0;
+        for (int position = 0; position < column.rows.length; position++) {
+            if (count < size) {
+                heap[count] = position;
+                siftUp(heap, count++, column);
+            } else if (better(position, heap[0], column)) {
+                heap[0] = position;
+                siftDown(heap, count, column);
+            }
+        }
+
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = heap[i];
+        }
+        Arrays.sort(order, (a, b) -> better(a, b, column) ? -1 : better(b, a, column) ? 1 : 0);
+        List<Entry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int row = column.rows[order[i]];
+            entries.add(new Entry(i + 1, uuids[row], names[row], column.values[order[i]], lastSaved[row]));
+        }
+        return entries;
+    }
+
+    private static boolean better(int a, int b, Column column) {
+        long valueA = column.values[a];
+        long valueB = column.values[b];
+        return valueA != valueB ? valueA > valueB : column.rows[a] < column.rows[b];
+    }
+
+    private static void siftUp(int[] heap, int index, Column column) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!better(heap[parent], heap[index], column)) {
+                return;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int count, Column column) {
+        int index = 0;
+        while (true) {
+            int weakest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < count && better(heap[weakest], heap[left], column)) {
+                weakest = left;
+            }
+            if (right < count && better(heap[weakest], heap[right], column)) {
+                weakest = right;
+            }
+            if (weakest == index) {
+                return;
+            }
+            swap(heap, index, weakest);
+            index = weakest;
+        }
+    }
+
+    private static void swap(int[] heap, int a, int b) {
+        int swap = heap[a];
+        heap[a] = heap[b];
+        heap[b] = swap;
+    }
+
+    private static final class Column {
+        private final int[] rows;
+        private final long[] values;
+
+        private Column(int[] rows, long[] values) {
+            this.rows = rows;
+            this.values = values;
+        }
+    }
+
+    private static final class ColumnBuilder {
+        private int[] rows = new int[8];
+        private long[] values = new long[8];
+        private int size;
+
+        void add(int row, long value) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            rows[size] = row;
+            values[size++] = value;
+        }
+
+        Column build() {
+            return new Column(Arrays.copyOf(rows, size), Arrays.copyOf(values, size));
+        }
+    }
+
+    /**
+     * One place on a leaderboard.
+     */
+    public static class Entry {
+        private final int rank;
+        private final String playerUuid;
+        private final String playerName;
+        private final long value;
+        private final Instant lastSaved;
+
+        public Entry(int rank, String playerUuid, String playerName, long value, Instant lastSaved) {
+            this.rank = rank;
+            this.playerUuid = playerUuid;
+            this.playerName = playerName;
+            this.value = value;
+            this.lastSaved = lastSaved;
+        }
+
+        public int getRank() {
+            return rank;
+        }
+
+        public String getPlayerUuid() {
+            return playerUuid;
+        }
+
+        /**
+         * The name from the server's user cache, or null if it has none for this player.
+         */
+        public String getPlayerName() {
+            return playerName;
+        }
+
+        public long getValue() {
+            return value;
+        }
+
+        /**
+         * When the server last saved the player's data, or null if it has none.
+         */
+        public Instant getLastSaved() {
+            return lastSaved;
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.openmc.webapp.stats;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Builds {@link StatsIndex}es from a world's {@code stats/<uuid>.json} files, reading
+ * only the files that changed since the last scan.
+ *
+ * Each scan lists the stats and {@code playerdata} folders and splits the files between
+ * the workers of a fork-join pool, halving the list until each piece is small. A file
+ * whose modification time and size are those of the last scan keeps its parsed stats;
+ * only the others are read. Player names come from the server's {@code usercache.json}.
+ *
+ * Scans are not meant to overlap; callers take care of that.
+ */
+public class StatsScanner {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatsScanner.class);
+
+    // Files per fork-join leaf; below this, splitting costs more than it saves
+    private static final int FILES_PER_TASK = 32;
+    private static final String STATS_SUFFIX = ".json";
+    private static final String PLAYERDATA_SUFFIX = ".dat";
+
+    private final Path worldDir;
+    private final Path userCacheFile;
+    private final ObjectMapper objectMapper;
+    private final ForkJoinPool pool;
+    private final Supplier<Instant> clock;
+    private final StatsFileParser parser = new StatsFileParser();
+    private final Map<String, CachedFile> cache = new ConcurrentHashMap<>();
+    private Map<String, String> userNames = Map.of();
+    private CachedFile userCache;
+
+    public StatsScanner(Path worldDir, Path userCacheFile, ObjectMapper objectMapper, ForkJoinPool pool,
+                        Supplier<Instant> clock) {
+        this.worldDir = worldDir;
+        this.userCacheFile = userCacheFile;
+        this.objectMapper = objectMapper;
+        this.pool = pool;
+        this.clock = clock;
+    }
+
+    /**
+     * Scan the world's stats files and build an index of them.
+     */
+    public ScanResult scan() throws IOException {
+        long started = System.nanoTime();
+        Instant scannedAt = clock.get();
+        List<Path> statsFiles = list(worldDir.resolve("stats"), STATS_SUFFIX);
+        List<Path> playerFiles = list(worldDir.resolve("playerdata"), PLAYERDATA_SUFFIX);
+
+        PlayerStats[] players = new PlayerStats[statsFiles.size()];
+        Instant[] saved = new Instant[playerFiles.size()];
+        AtomicInteger parsed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        pool.invoke(new ScanTask(statsFiles, 0, statsFiles.size(), players, parsed, failed));
+        pool.invoke(new ModifiedTask(playerFiles, 0, playerFiles.size(), saved));
+
+        List<PlayerStats> indexed = new ArrayList<>(players.length);
+        Set<String> present = new HashSet<>();
+        for (PlayerStats player : players) {
+            if (player != null) {
+                indexed.add(player);
+                present.add(player.getUuid());
+            }
+        }
+        // Players whose stats file is gone, such as after a reset, leave the cache
+        cache.keySet().retainAll(present);
+
+        Map<String, Instant> lastSaved = new HashMap<>();
+        for (int i = 0; i < playerFiles.size(); i++) {
+            if (saved[i] != null) {
+                lastSaved.put(uuidOf(playerFiles.get(i), PLAYERDATA_SUFFIX), saved[i]);
+            }
+        }
+
+        StatsIndex index = new StatsIndex(indexed, readUserNames(), lastSaved, scannedAt);
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        return new ScanResult(index, statsFiles.size(), parsed.get(), failed.get(), millis);
+    }
+
+    private static List<Path> list(Path directory, String suffix) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + suffix)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        files.sort(null);
+        return files;
+    }
+
+    private static String uuidOf(Path file, String suffix) {
+        String name = file.getFileName().toString();
+        return name.substring(0, name.length() - suffix.length()).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The stats of one file, parsed again only if it changed; null if it cannot be read
+     * and was never read before.
+     */
+    private PlayerStats load(Path file, AtomicInteger parsed, AtomicInteger failed) {
+        String uuid = uuidOf(file, STATS_SUFFIX);
+        CachedFile cached = cache.get(uuid);
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            failed.incrementAndGet();
+            return cached != null ? cached.stats : null;
+        }
+        if (cached != null && cached.matches(attributes)) {
+            return cached.stats;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            PlayerStats stats = parser.parse(uuid, in);
+            cache.put(uuid, new CachedFile(attributes, stats));
+            parsed.incrementAndGet();
+            return stats;
+        } catch (IOException e) {
+            // Most likely caught while the server was writing it; the next scan reads it again
+            logger.debug("Could not read stats file {}: {}", file, e.getMessage());
+            failed.incrementAndGet();
+            return cached != null ? cached.stats : null;
+        }
+    }
+
+    private Map<String, String> readUserNames() {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(userCacheFile, BasicFileAttributes.class);
+            if (userCache != null && userCache.matches(attributes)) {
+                return userNames;
+            }
+            Map<String, String> names = new HashMap<>();
+            for (JsonNode user : objectMapper.readTree(userCacheFile.toFile())) {
+                if (user.hasNonNull("uuid") && user.hasNonNull("name")) {
+                    names.put(user.get("uuid").asText().toLowerCase(Locale.ROOT), user.get("name").asText());
+                }
+            }
+            userNames = names;
+            userCache = new CachedFile(attributes, null);
+        } catch (NoSuchFileException e) {
+            // Not every server has one; players are then listed by UUID only
+        } catch (IOException e) {
+            logger.warn("Could not read the user cache {}: {}", userCacheFile, e.getMessage());
+        }
+        return userNames;
+    }
+
+    private final class ScanTask extends RecursiveAction {
+        private final List<Path> files;
+        private final int from;
+        private final int to;
+        private final PlayerStats[] results;
+        private final AtomicInteger parsed;
+        private final AtomicInteger failed;
+
+        ScanTask(List<Path> files, int from, int to, PlayerStats[] results, AtomicInteger parsed, AtomicInteger failed) {
+            this.files = files;
+            this.from = from;
+            this.to = to;
+            this.results = results;
+            this.parsed = parsed;
+            this.failed = failed;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= FILES_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    results[i] = load(files.get(i), parsed, failed);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ScanTask(files, from, middle, results, parsed, failed),
+                new ScanTask(files, middle, to, results, parsed, failed));
+        }
+    }
+
+    private static final class ModifiedTask extends RecursiveAction {
+        private final List<Path> files;
+        private final int from;
+        private final int to;
+        private final Instant[] results;
+
+        ModifiedTask(List<Path> files, int from, int to, Instant[] results) {
+            this.files = files;
+            this.from = from;
+            this.to = to;
+            this.results = results;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= FILES_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    try {
+                        results[i] = Files.getLastModifiedTime(files.get(i)).toInstant();
+                    } catch (IOException e) {
+                        // Removed since it was listed
+                    }
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ModifiedTask(files, from, middle, results), new ModifiedTask(files, middle, to, results));
+        }
+    }
+
+    private static final class CachedFile {
+        private final long modified;
+        private final long size;
+        private final PlayerStats stats;
+
+        private CachedFile(BasicFileAttributes attributes, PlayerStats stats) {
+            this.modified = attributes.lastModifiedTime().toMillis();
+            this.size = attributes.size();
+            this.stats = stats;
+        }
+
+        private boolean matches(BasicFileAttributes attributes) {
+            return attributes.lastModifiedTime().toMillis() == modified && attributes.size() == size;
+        }
+    }
+
+    /**
+     * A new index, and what it took to build.
+     */
+    public static class ScanResult {
+        private final StatsIndex index;
+        private final int files;
+        private final int parsed;
+        private final int failed;
+        private final long millis;
+
+        public ScanResult(StatsIndex index, int files, int parsed, int failed, long millis) {
+            this.index = index;
+            this.files = files;
+            this.parsed = parsed;
+            this.failed = failed;
+            this.millis = millis;
+        }
+
+        public StatsIndex getIndex() {
+            return index;
+        }
+
+        public int getFiles() {
+            return files;
+        }
+
+        /**
+         * Files read because they were new or had changed; the rest were taken from the last scan.
+         */
+        public int getParsed() {
+            return parsed;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+    }
+}
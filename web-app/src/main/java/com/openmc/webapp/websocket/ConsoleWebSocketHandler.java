@@ -0,0 +1,238 @@
+package com.openmc.webapp.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openmc.webapp.config.AdminCredentials;
+import com.openmc.webapp.config.ServerConfig;
+import com.openmc.webapp.config.WorkerThreads;
+import com.openmc.webapp.service.RateLimiter;
+import com.openmc.webapp.service.RconService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admin console over WebSocket.
+ *
+ * A session authenticates once with {"type":"auth","username":..,"password":..} and then
+ * sends {"type":"command","id":..,"command":..}. Commands from one session run in order on
+ * a pooled RCON connection; output comes back as "output" messages of at most
+ * consoleChunkSize characters, followed by a "done" message for the same id.
+ *
+ * Failed logins are also charged to a per-address budget, and while it is spent new
+ * connections from that address are closed straight away.
+ */
+@Component
+public class ConsoleWebSocketHandler extends TextWebSocketHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsoleWebSocketHandler.class);
+
+    private static final int COMMAND_THREADS = 4;
+    private static final int MAX_AUTH_ATTEMPTS = 3;
+    private static final int MAX_QUEUED_COMMANDS = 32;
+    private static final int SEND_TIME_LIMIT_MS = 10000;
+    private static final int SEND_BUFFER_LIMIT_BYTES = 512 * 1024;
+
+    private final RconService rconService;
+    private final ServerConfig serverConfig;
+    private final ObjectMapper objectMapper;
+    private final RateLimiter rateLimiter;
+    private final Executor commandExecutor;
+    private final Map<String, ConsoleSession> sessions = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ConsoleWebSocketHandler(RconService rconService, ServerConfig serverConfig, ObjectMapper objectMapper,
+                                   RateLimiter rateLimiter) {
+        this(rconService, serverConfig, objectMapper, rateLimiter,
+            Executors.newFixedThreadPool(COMMAND_THREADS, WorkerThreads.factory(serverConfig, "console-command-")));
+    }
+
+    ConsoleWebSocketHandler(RconService rconService, ServerConfig serverConfig, ObjectMapper objectMapper,
+                            RateLimiter rateLimiter, Executor commandExecutor) {
+        this.rconService = rconService;
+        this.serverConfig = serverConfig;
+        this.objectMapper = objectMapper;
+        this.rateLimiter = rateLimiter;
+        this.commandExecutor = commandExecutor;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws IOException {
+        // Reconnecting does not reset the failed-login budget, which is kept per address
+        String client = clientAddress(session);
+        if (rateLimiter.retryAfterMs(RateLimiter.Budget.LOGIN, client) > 0) {
+            logger.warn("Refusing console connection from {} after too many failed logins", client);
+            session.close(CloseStatus.POLICY_VIOLATION);
+            return;
+        }
+        WebSocketSession concurrentSession =
+            new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS, SEND_BUFFER_LIMIT_BYTES);
+        sessions.put(session.getId(), new ConsoleSession(concurrentSession));
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        ConsoleSession console = sessions.get(session.getId());
+        if (console == null) {
+            return;
+        }
+
+        Map<?, ?> request;
+        try {
+            request = objectMapper.readValue(message.getPayload(), Map.class);
+        } catch (JsonProcessingException e) {
+            send(console, message("error", null).with("message", "Malformed message"));
+            return;
+        }
+
+        Object type = request.get("type");
+        if ("auth".equals(type)) {
+            handleAuth(console, asString(request.get("username")), asString(request.get("password")));
+        } else if ("command".equals(type)) {
+            handleCommand(console, asString(request.get("id")), asString(request.get("command")));
+        } else {
+            send(console, message("error", null).with("message", "Unknown message type"));
+        }
+    }
+
+    private void handleAuth(ConsoleSession console, String username, String password) throws IOException {
+        if (AdminCredentials.matches(serverConfig, username, password)) {
+            console.authenticated = true;
+            send(console, message("auth", null).with("success", true));
+            return;
+        }
+
+        console.failedAttempts++;
+        long retryAfterMs = rateLimiter.tryAcquire(RateLimiter.Budget.LOGIN, clientAddress(console.session));
+        send(console, message("auth", null).with("success", false)
+            .with("message", "Invalid username or password"));
+        if (console.failedAttempts >= MAX_AUTH_ATTEMPTS || retryAfterMs > 0) {
+            logger.warn("Closing console session {} after {} failed logins", console.session.getId(),
+                console.failedAttempts);
+            console.session.close(CloseStatus.POLICY_VIOLATION);
+        }
+    }
+
+    private void handleCommand(ConsoleSession console, String id, String command) throws IOException {
+        if (!console.authenticated) {
+            send(console, message("error", id).with("message", "Not authenticated"));
+            return;
+        }
+        if (command == null || command.trim().isEmpty()) {
+            send(console, message("error", id).with("message", "Command cannot be empty"));
+            return;
+        }
+        // Console commands share the command budget with POST /api/command
+        long retryAfterMs = rateLimiter.tryAcquire(RateLimiter.Budget.COMMAND, clientAddress(console.session));
+        if (retryAfterMs > 0) {
+            send(console, message("error", id).with("message", "Too many commands")
+                .with("retryAfterMs", retryAfterMs));
+            return;
+        }
+        if (console.queuedCommands.incrementAndGet() > MAX_QUEUED_COMMANDS) {
+            console.queuedCommands.decrementAndGet();
+            send(console, message("error", id).with("message", "Too many queued commands"));
+            return;
+        }
+
+        synchronized (console) {
+            console.tail = console.tail.thenRunAsync(() -> runCommand(console, id, command), commandExecutor);
+        }
+    }
+
+    private void runCommand(ConsoleSession console, String id, String command) {
+        try {
+            if (!console.session.isOpen()) {
+                return;
+            }
+            AtomicInteger sequence = new AtomicInteger();
+            String error = rconService.sendCommand(command, fragment -> sendOutput(console, id, fragment, sequence));
+            send(console, message("done", id).with("error", error));
+        } catch (Exception e) {
+            logger.debug("Console command failed for session {}: {}", console.session.getId(), e.getMessage());
+        } finally {
+            console.queuedCommands.decrementAndGet();
+        }
+    }
+
+    private void sendOutput(ConsoleSession console, String id, String fragment, AtomicInteger sequence) {
+        int chunkSize = Math.max(1, serverConfig.getConsoleChunkSize());
+        try {
+            for (int start = 0; start < fragment.length(); start += chunkSize) {
+                String chunk = fragment.substring(start, Math.min(fragment.length(), start + chunkSize));
+                send(console, message("output", id).with("seq", sequence.getAndIncrement()).with("data", chunk));
+            }
+        } catch (IOException e) {
+            logger.debug("Failed to stream console output to session {}: {}", console.session.getId(), e.getMessage());
+        }
+    }
+
+    private void send(ConsoleSession console, ConsoleMessage message) throws IOException {
+        console.session.sendMessage(new TextMessage(objectMapper.writeValueAsString(message.fields)));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        sessions.remove(session.getId());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (commandExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static String clientAddress(WebSocketSession session) {
+        InetSocketAddress address = session.getRemoteAddress();
+        return address != null ? address.getHostString() : null;
+    }
+
+    private static String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static ConsoleMessage message(String type, String id) {
+        ConsoleMessage message = new ConsoleMessage().with("type", type);
+        return id != null ? message.with("id", id) : message;
+    }
+
+    private static class ConsoleMessage {
+        private final Map<String, Object> fields = new LinkedHashMap<>();
+
+        private ConsoleMessage with(String key, Object value) {
+            fields.put(key, value);
+            return this;
+        }
+    }
+
+    private static class ConsoleSession {
+        private final WebSocketSession session;
+        private final AtomicInteger queuedCommands = new AtomicInteger();
+        private volatile boolean authenticated;
+        private int failedAttempts;
+        private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+
+        ConsoleSession(WebSocketSession session) {
+            this.session = session;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.openmc.webapp.world;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * What the header of one region file, {@code r.<x>.<z>.mca}, says about its 32 by 32
+ * chunks, read without touching any chunk data.
+ *
+ * The header is two tables of 1024 big-endian ints, one entry per chunk, each table one
+ * 4 KiB sector long. In the first, an entry holds the chunk's offset in sectors in its
+ * high three bytes and its length in sectors in the low byte; zero means the chunk was
+ * never generated. The second holds when each chunk was last saved, in epoch seconds.
+ * Only these 8 KiB are mapped, however large the file.
+ */
+public class RegionSummary {
+
+    public static final int SECTOR_SIZE = 4096;
+    public static final int HEADER_SIZE = 2 * SECTOR_SIZE;
+    public static final int CHUNKS = 1024;
+
+    private static final Pattern NAME = Pattern.compile("r\\.(-?\\d+)\\.(-?\\d+)\\.mca");
+
+    private final int x;
+    private final int z;
+    private final long fileSize;
+    private final Instant modified;
+    private final int chunks;
+    private final long usedBytes;
+    private final long oldestSave;
+    private final long newestSave;
+
+    private RegionSummary(int x, int z, long fileSize, Instant modified, int chunks, long usedBytes,
+                          long oldestSave, long newestSave) {
+        this.x = x;
+        this.z = z;
+        this.fileSize = fileSize;
+        this.modified = modified;
+        this.chunks = chunks;
+        this.usedBytes = usedBytes;
+        this.oldestSave = oldestSave;
+        this.newestSave = newestSave;
+    }
+
+    /**
+     * Whether {@code fileName} names a region file.
+     */
+    public static boolean isRegionFile(String fileName) {
+        return NAME.matcher(fileName).matches();
+    }
+
+    /**
+     * Read the header of a region file.
+     *
+     * @throws IllegalArgumentException if the file is not named like a region file
+     */
+    public static RegionSummary read(Path file, BasicFileAttributes attributes) throws IOException {
+        Matcher matcher = NAME.matcher(file.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not a region file: " + file);
+        }
+        int x = Integer.parseInt(matcher.group(1));
+        int z = Integer.parseInt(matcher.group(2));
+        long size = attributes.size();
+        Instant modified = attributes.lastModifiedTime().toInstant();
+        if (size < HEADER_SIZE) {
+            // The server leaves empty files behind for regions it opened but never wrote to
+            return new RegionSummary(x, z, size, modified, 0, size, 0, 0);
+        }
+
+        ByteBuffer header = mapHeader(file);
+        int chunks = 0;
+        long sectors = 0;
+        long oldest = 0;
+        long newest = 0;
+        for (int i = 0; i < CHUNKS; i++) {
+            int location = header.getInt(i * 4);
+            if (location == 0) {
+                continue;
+            }
+            chunks++;
+            sectors += location & 0xFF;
+            long save = Integer.toUnsignedLong(header.getInt(SECTOR_SIZE + i * 4));
+            if (save > 0) {
+                oldest = oldest == 0 ? save : Math.min(oldest, save);
+                newest = Math.max(newest, save);
+            }
+        }
+        long used = Math.min(size, HEADER_SIZE + sectors * SECTOR_SIZE);
+        return new RegionSummary(x, z, size, modified, chunks, used, oldest, newest);
+    }
+
+    /**
+     * The {@code limit} chunks of a region file saved longest ago, oldest first, each
+     * packed as its save time in epoch seconds shifted left by ten bits, or'ed with its
+     * index in the region; see {@link #chunkX} and {@link #chunkZ}. Chunks without a save
+     * time are left out.
+     */
+    public static long[] readOldestChunks(Path file, int limit) throws IOException {
+        if (limit <= 0 || Files.size(file) < HEADER_SIZE) {
+            return new long[0];
+        }
+        ByteBuffer header = mapHeader(file);
+        long[] saved = new long[CHUNKS];
+        int count = 0;
+        for (int i = 0; i < CHUNKS; i++) {
+            long save = Integer.toUnsignedLong(header.getInt(SECTOR_SIZE + i * 4));
+            if (header.getInt(i * 4) != 0 && save > 0) {
+                saved[count++] = save << 10 | i;
+            }
+        }
+        Arrays.sort(saved, 0, count);
+        return Arrays.copyOf(saved, Math.min(count, limit));
+    }
+
+    private static ByteBuffer mapHeader(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid once the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        }
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getZ() {
+        return z;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public Instant getModified() {
+        return modified;
+    }
+
+    /**
+     * Chunks generated in this region, out of {@value #CHUNKS}.
+     */
+    public int getChunks() {
+        return chunks;
+    }
+
+    /**
+     * Bytes taken by the header and the sectors chunks claim.
+     */
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Bytes in sectors no chunk claims. Region files never shrink, so these are left
+     * where chunks were rewritten smaller or deleted.
+     */
+    public long getFreeBytes() {
+        return fileSize - usedBytes;
+    }
+
+    /**
+     * When the chunk saved longest ago was saved, or null if no chunk has a save time.
+     */
+    public Instant getOldestSave() {
+        return oldestSave > 0 ? Instant.ofEpochSecond(oldestSave) : null;
+    }
+
+    /**
+     * When a chunk of this region was last saved, or null if no chunk has a save time.
+     */
+    public Instant getNewestSave() {
+        return newestSave > 0 ? Instant.ofEpochSecond(newestSave) : null;
+    }
+
+    /**
+     * World chunk x of a packed chunk of this region.
+     */
+    public int chunkX(long packed) {
+        return x * 32 + (int) (packed & 31);
+    }
+
+    /**
+     * World chunk z of a packed chunk of this region.
+     */
+    public int chunkZ(long packed) {
+        return z * 32 + (int) (packed >> 5 & 31);
+    }
+}
@@ -0,0 +1,411 @@
+package com.openmc.webapp.world;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Reports how a world's disk space is spread over its dimensions and regions, from the
+ * headers of its region files; see {@link RegionSummary}.
+ *
+ * The dimensions are found in the world folder, in the {@code DIM-1} and {@code DIM1}
+ * folders vanilla keeps the Nether and the End in, in the {@code <world>_nether} and
+ * {@code <world>_the_end} folders Bukkit-based servers use instead, and in the
+ * {@code dimensions} folder of datapack dimensions. Each has a {@code region} folder for
+ * terrain, and since 1.17 {@code entities} and {@code poi} folders in the same format.
+ * Only region headers are read; of entity and POI files only the size is taken.
+ *
+ * The files are split between the workers of a fork-join pool. A region file whose
+ * modification time and size are those of the last scan keeps its summary, so a scan
+ * after the first reads only the regions the server saved since.
+ *
+ * Scans are not meant to overlap; callers take care of that.
+ */
+public class WorldAnalyzer {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorldAnalyzer.class);
+
+    /**
+     * Most entries a report lists of each kind.
+     */
+    public static final int MAX_LIMIT = 1000;
+
+    // Files per fork-join leaf; below this, splitting costs more than it saves
+    private static final int FILES_PER_TASK = 64;
+    private static final String REGION = "region";
+    private static final List<String> FOLDERS = List.of(REGION, "entities", "poi");
+
+    private final Path worldDir;
+    private final ForkJoinPool pool;
+    private final Supplier<Instant> clock;
+    private final Map<Path, CachedRegion> cache = new ConcurrentHashMap<>();
+
+    public WorldAnalyzer(Path worldDir, ForkJoinPool pool, Supplier<Instant> clock) {
+        this.worldDir = worldDir;
+        this.pool = pool;
+        this.clock = clock;
+    }
+
+    /**
+     * Scan the world and report on it.
+     *
+     * @param limit how many of the largest and stalest regions and the oldest chunks to list
+     * @throws IllegalArgumentException if {@code limit} is below 0 or above {@value #MAX_LIMIT}
+     */
+    public WorldReport analyze(int limit) throws IOException {
+        if (limit < 0 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 0 and " + MAX_LIMIT);
+        }
+        long started = System.nanoTime();
+        Instant scannedAt = clock.get();
+        Map<String, List<Path>> dimensions = findDimensions();
+
+        List<String> fileDimensions = new ArrayList<>();
+        List<String> fileFolders = new ArrayList<>();
+        List<Path> files = new ArrayList<>();
+        for (Map.Entry<String, List<Path>> dimension : dimensions.entrySet()) {
+            for (Path dimensionDir : dimension.getValue()) {
+                for (String folder : FOLDERS) {
+                    for (Path file : listRegionFiles(dimensionDir.resolve(folder))) {
+                        fileDimensions.add(dimension.getKey());
+                        fileFolders.add(folder);
+                        files.add(file);
+                    }
+                }
+            }
+        }
+
+        RegionSummary[] summaries = new RegionSummary[files.size()];
+        long[] sizes = new long[files.size()];
+        AtomicInteger read = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        pool.invoke(new ScanTask(files, fileFolders, 0, files.size(), summaries, sizes, read, failed));
+
+        Set<Path> present = new HashSet<>();
+        for (int i = 0; i < files.size(); i++) {
+            if (summaries[i] != null) {
+                present.add(files.get(i));
+            }
+        }
+        // Regions deleted since, such as by a trim, leave the cache
+        cache.keySet().retainAll(present);
+
+        Map<String, DimensionTotals> totals = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Path>> dimension : dimensions.entrySet()) {
+            totals.put(dimension.getKey(), new DimensionTotals(dimension.getValue()));
+        }
+        List<WorldReport.Region> regions = new ArrayList<>();
+        List<Path> regionFiles = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            DimensionTotals dimension = totals.get(fileDimensions.get(i));
+            switch (fileFolders.get(i)) {
+                case REGION -> {
+                    if (summaries[i] != null) {
+                        dimension.add(summaries[i]);
+                        regions.add(new WorldReport.Region(fileDimensions.get(i), summaries[i]));
+                        regionFiles.add(files.get(i));
+                    }
+                }
+                case "entities" -> dimension.entitiesBytes += sizes[i];
+                default -> dimension.poiBytes += sizes[i];
+            }
+        }
+
+        List<WorldReport.Dimension> dimensionReports = new ArrayList<>();
+        for (Map.Entry<String, DimensionTotals> dimension : totals.entrySet()) {
+            dimensionReports.add(dimension.getValue().toReport(dimension.getKey(), relativePath(dimension.getValue())));
+        }
+        List<WorldReport.Region> largest = regions.stream()
+            .sorted(Comparator.comparingLong(WorldReport.Region::getFileSize).reversed())
+            .limit(limit)
+            .toList();
+        List<WorldReport.Region> stalest = regions.stream()
+            .filter(region -> region.getNewestSave() != null)
+            .sorted(Comparator.comparing(WorldReport.Region::getNewestSave))
+            .limit(limit)
+            .toList();
+
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        return new WorldReport(scannedAt, files.size(), read.get(), failed.get(), millis, dimensionReports,
+            largest, stalest, oldestChunks(regions, regionFiles, limit));
+    }
+
+    /**
+     * The dimension folders of the world by dimension name, in the order vanilla lists
+     * dimensions.
+     */
+    private Map<String, List<Path>> findDimensions() throws IOException {
+        Map<String, List<Path>> dimensions = new LinkedHashMap<>();
+        String worldName = worldDir.getFileName().toString();
+        List<Path> roots = List.of(worldDir, worldDir.resolveSibling(worldName + "_nether"),
+            worldDir.resolveSibling(worldName + "_the_end"));
+        for (Path root : roots) {
+            addIfPresent(dimensions, "minecraft:overworld", root);
+            addIfPresent(dimensions, "minecraft:the_nether", root.resolve("DIM-1"));
+            addIfPresent(dimensions, "minecraft:the_end", root.resolve("DIM1"));
+        }
+        for (Path root : roots) {
+            Path custom = root.resolve("dimensions");
+            for (Path namespace : listDirectories(custom)) {
+                for (Path dimension : listDirectories(namespace)) {
+                    addIfPresent(dimensions, namespace.getFileName() + ":" + dimension.getFileName(), dimension);
+                }
+            }
+        }
+        return dimensions;
+    }
+
+    private static void addIfPresent(Map<String, List<Path>> dimensions, String name, Path directory) {
+        for (String folder : FOLDERS) {
+            if (Files.isDirectory(directory.resolve(folder))) {
+                dimensions.computeIfAbsent(name, key -> new ArrayList<>()).add(directory);
+                return;
+            }
+        }
+    }
+
+    private static List<Path> listDirectories(Path directory) throws IOException {
+        List<Path> directories = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return directories;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            for (Path child : stream) {
+                directories.add(child);
+            }
+        }
+        directories.sort(null);
+        return directories;
+    }
+
+    private static List<Path> listRegionFiles(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                file -> RegionSummary.isRegionFile(file.getFileName().toString()))) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        files.sort(null);
+        return files;
+    }
+
+    private String relativePath(DimensionTotals dimension) {
+        Path base = worldDir.toAbsolutePath().getParent();
+        Path directory = dimension.directories.get(0).toAbsolutePath();
+        return base != null ? base.relativize(directory).toString() : directory.toString();
+    }
+
+    /**
+     * The {@code limit} chunks saved longest ago. Regions are visited from the one whose
+     * oldest chunk is oldest, reading their headers again for the save time of every
+     * chunk, until the next region's oldest chunk is newer than every chunk found. Only a
+     * few regions are read that way, and summaries need not hold all their chunks.
+     */
+    private static List<WorldReport.Chunk> oldestChunks(List<WorldReport.Region> regions, List<Path> files, int limit) {
+        if (limit == 0) {
+            return List.of();
+        }
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < regions.size(); i++) {
+            if (regions.get(i).getOldestSave() != null) {
+                order.add(i);
+            }
+        }
+        order.sort(Comparator.comparing(i -> regions.get(i).getOldestSave()));
+
+        // The newest of the oldest chunks so far on top, to be replaced by anything older
+        PriorityQueue<OldChunk> oldest = new PriorityQueue<>(
+            Comparator.comparingLong((OldChunk chunk) -> chunk.saved()).reversed());
+        for (int i : order) {
+            WorldReport.Region region = regions.get(i);
+            if (oldest.size() == limit && region.getOldestSave().getEpochSecond() >= oldest.peek().saved()) {
+                break;
+            }
+            long[] chunks;
+            try {
+                chunks = RegionSummary.readOldestChunks(files.get(i), limit);
+            } catch (IOException e) {
+                logger.debug("Could not read region file {}: {}", files.get(i), e.getMessage());
+                continue;
+            }
+            for (long packed : chunks) {
+                if (oldest.size() == limit) {
+                    if (packed >>> 10 >= oldest.peek().saved()) {
+                        break;
+                    }
+                    oldest.poll();
+                }
+                oldest.add(new OldChunk(region.getDimension(), region.summary(), packed));
+            }
+        }
+        List<OldChunk> sorted = new ArrayList<>(oldest);
+        sorted.sort(Comparator.comparingLong(OldChunk::saved));
+        List<WorldReport.Chunk> chunks = new ArrayList<>(sorted.size());
+        for (OldChunk chunk : sorted) {
+            chunks.add(new WorldReport.Chunk(chunk.dimension, chunk.region.chunkX(chunk.packed),
+                chunk.region.chunkZ(chunk.packed), Instant.ofEpochSecond(chunk.saved())));
+        }
+        return chunks;
+    }
+
+    /**
+     * The header of one region file, read again only if it changed; null if it cannot be
+     * read and was never read before.
+     */
+    private RegionSummary load(Path file, BasicFileAttributes attributes, AtomicInteger read, AtomicInteger failed) {
+        CachedRegion cached = cache.get(file);
+        if (cached != null && cached.matches(attributes)) {
+            return cached.summary;
+        }
+        try {
+            RegionSummary summary = RegionSummary.read(file, attributes);
+            cache.put(file, new CachedRegion(attributes, summary));
+            read.incrementAndGet();
+            return summary;
+        } catch (IOException e) {
+            logger.debug("Could not read region file {}: {}", file, e.getMessage());
+            failed.incrementAndGet();
+            return cached != null ? cached.summary : null;
+        }
+    }
+
+    private final class ScanTask extends RecursiveAction {
+        private final List<Path> files;
+        private final List<String> folders;
+        private final int from;
+        private final int to;
+        private final RegionSummary[] summaries;
+        private final long[] sizes;
+        private final AtomicInteger read;
+        private final AtomicInteger failed;
+
+        ScanTask(List<Path> files, List<String> folders, int from, int to, RegionSummary[] summaries, long[] sizes,
+                 AtomicInteger read, AtomicInteger failed) {
+            this.files = files;
+            this.folders = folders;
+            this.from = from;
+            this.to = to;
+            this.summaries = summaries;
+            this.sizes = sizes;
+            this.read = read;
+            this.failed = failed;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= FILES_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    BasicFileAttributes attributes;
+                    try {
+                        attributes = Files.readAttributes(files.get(i), BasicFileAttributes.class);
+                    } catch (NoSuchFileException e) {
+                        continue;
+                    } catch (IOException e) {
+                        failed.incrementAndGet();
+                        continue;
+                    }
+                    sizes[i] = attributes.size();
+                    if (folders.get(i).equals(REGION)) {
+                        summaries[i] = load(files.get(i), attributes, read, failed);
+                    }
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ScanTask(files, folders, from, middle, summaries, sizes, read, failed),
+                new ScanTask(files, folders, middle, to, summaries, sizes, read, failed));
+        }
+    }
+
+    private static final class DimensionTotals {
+        private final List<Path> directories;
+        private int regionFiles;
+        private long chunks;
+        private long regionBytes;
+        private long freeBytes;
+        private long entitiesBytes;
+        private long poiBytes;
+        private Instant oldestSave;
+        private Instant newestSave;
+
+        private DimensionTotals(List<Path> directories) {
+            this.directories = directories;
+        }
+
+        private void add(RegionSummary region) {
+            regionFiles++;
+            chunks += region.getChunks();
+            regionBytes += region.getFileSize();
+            freeBytes += region.getFreeBytes();
+            if (region.getOldestSave() != null
+                    && (oldestSave == null || region.getOldestSave().isBefore(oldestSave))) {
+                oldestSave = region.getOldestSave();
+            }
+            if (region.getNewestSave() != null
+                    && (newestSave == null || region.getNewestSave().isAfter(newestSave))) {
+                newestSave = region.getNewestSave();
+            }
+        }
+
+        private WorldReport.Dimension toReport(String name, String path) {
+            return new WorldReport.Dimension(name, path, regionFiles, chunks, regionBytes, freeBytes,
+                entitiesBytes, poiBytes, oldestSave, newestSave);
+        }
+    }
+
+    private static final class OldChunk {
+        private final String dimension;
+        private final RegionSummary region;
+        private final long packed;
+
+        private OldChunk(String dimension, RegionSummary region, long packed) {
+            this.dimension = dimension;
+            this.region = region;
+            this.packed = packed;
+        }
+
+        private long saved() {
+            return packed >>> 10;
+        }
+    }
+
+    private static final class CachedRegion {
+        private final long modified;
+        private final long size;
+        private final RegionSummary summary;
+
+        private CachedRegion(BasicFileAttributes attributes, RegionSummary summary) {
+            this.modified = attributes.lastModifiedTime().toMillis();
+            this.size = attributes.size();
+            this.summary = summary;
+        }
+
+        private boolean matches(BasicFileAttributes attributes) {
+            return attributes.lastModifiedTime().toMillis() == modified && attributes.size() == size;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.openmc.webapp.world;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Where a world's disk space goes, by dimension and region, and which of its chunks and
+ * regions have gone longest without being saved.
+ */
+public class WorldReport {
+
+    private final Instant scannedAt;
+    private final int files;
+    private final int read;
+    private final int failed;
+    private final long millis;
+    private final List<Dimension> dimensions;
+    private final List<Region> largestRegions;
+    private final List<Region> stalestRegions;
+    private final List<Chunk> oldestChunks;
+
+    public WorldReport(Instant scannedAt, int files, int read, int failed, long millis, List<Dimension> dimensions,
+                       List<Region> largestRegions, List<Region> stalestRegions, List<Chunk> oldestChunks) {
+        this.scannedAt = scannedAt;
+        this.files = files;
+        this.read = read;
+        this.failed = failed;
+        this.millis = millis;
+        this.dimensions = dimensions;
+        this.largestRegions = largestRegions;
+        this.stalestRegions = stalestRegions;
+        this.oldestChunks = oldestChunks;
+    }
+
+    public Instant getScannedAt() {
+        return scannedAt;
+    }
+
+    /**
+     * Region, entity and POI files found.
+     */
+    public int getFiles() {
+        return files;
+    }
+
+    /**
+     * Region headers read because the file was new or had changed; the rest were taken
+     * from the last scan.
+     */
+    public int getRead() {
+        return read;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    public List<Dimension> getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Region files by size, largest first.
+     */
+    public List<Region> getLargestRegions() {
+        return largestRegions;
+    }
+
+    /**
+     * Regions by when any of their chunks was last saved, longest ago first: those that
+     * nobody has been to since.
+     */
+    public List<Region> getStalestRegions() {
+        return stalestRegions;
+    }
+
+    /**
+     * Chunks by when they were last saved, longest ago first.
+     */
+    public List<Chunk> getOldestChunks() {
+        return oldestChunks;
+    }
+
+    /**
+     * Totals for one dimension, such as {@code minecraft:the_nether}.
+     */
+    public static class Dimension {
+        private final String name;
+        private final String path;
+        private final int regionFiles;
+        private final long chunks;
+        private final long regionBytes;
+        private final long freeBytes;
+        private final long entitiesBytes;
+        private final long poiBytes;
+        private final Instant oldestSave;
+        private final Instant newestSave;
+
+        public Dimension(String name, String path, int regionFiles, long chunks, long regionBytes, long freeBytes,
+                         long entitiesBytes, long poiBytes, Instant oldestSave, Instant newestSave) {
+            this.name = name;
+            this.path = path;
+            this.regionFiles = regionFiles;
+            this.chunks = chunks;
+            this.regionBytes = regionBytes;
+            this.freeBytes = freeBytes;
+            this.entitiesBytes = entitiesBytes;
+            this.poiBytes = poiBytes;
+            this.oldestSave = oldestSave;
+            this.newestSave = newestSave;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * The dimension's folder, relative to the folder holding the world.
+         */
+        public String getPath() {
+            return path;
+        }
+
+        public int getRegionFiles() {
+            return regionFiles;
+        }
+
+        public long getChunks() {
+            return chunks;
+        }
+
+        /**
+         * Size of the {@code region} folder's files, which hold the terrain.
+         */
+        public long getRegionBytes() {
+            return regionBytes;
+        }
+
+        /**
+         * Bytes of region files that no chunk uses.
+         */
+        public long getFreeBytes() {
+            return freeBytes;
+        }
+
+        public long getEntitiesBytes() {
+            return entitiesBytes;
+        }
+
+        public long getPoiBytes() {
+            return poiBytes;
+        }
+
+        public long getTotalBytes() {
+            return regionBytes + entitiesBytes + poiBytes;
+        }
+
+        public Instant getOldestSave() {
+            return oldestSave;
+        }
+
+        public Instant getNewestSave() {
+            return newestSave;
+        }
+    }
+
+    /**
+     * One region file of a dimension.
+     */
+    public static class Region {
+        private final String dimension;
+        private final RegionSummary summary;
+
+        public Region(String dimension, RegionSummary summary) {
+            this.dimension = dimension;
+            this.summary = summary;
+        }
+
+        public String getDimension() {
+            return dimension;
+        }
+
+        RegionSummary summary() {
+            return summary;
+        }
+
+        public int getX() {
+            return summary.getX();
+        }
+
+        public int getZ() {
+            return summary.getZ();
+        }
+
+        public long getFileSize() {
+            return summary.getFileSize();
+        }
+
+        public long getFreeBytes() {
+            return summary.getFreeBytes();
+        }
+
+        public int getChunks() {
+            return summary.getChunks();
+        }
+
+        public Instant getOldestSave() {
+            return summary.getOldestSave();
+        }
+
+        public Instant getNewestSave() {
+            return summary.getNewestSave();
+        }
+
+        public Instant getModified() {
+            return summary.getModified();
+        }
+    }
+
+    /**
+     * One chunk, by world chunk coordinates; block coordinates are 16 times these.
+     */
+    public static class Chunk {
+        private final String dimension;
+        private final int x;
+        private final int z;
+        private final Instant lastSaved;
+
+        public Chunk(String dimension, int x, int z, Instant lastSaved) {
+            this.dimension = dimension;
+            this.x = x;
+            this.z = z;
+            this.lastSaved = lastSaved;
+        }
+
+        public String getDimension() {
+            return dimension;
+        }
+
+        public int getX() {
+            return x;
+        }
+
+        public int getZ() {
+            return z;
+        }
+
+        public Instant getLastSaved() {
+            return lastSaved;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.openmc.webapp;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Sends one kind of request from many concurrent clients, each on its own virtual
+ * thread, for a fixed time and collects the latency of every request. Requests that
+ * start during the warm-up are sent but not recorded.
+ */
+class LoadGenerator {
+
+    /**
+     * Sends one request; returns whether the response counts as a success.
+     */
+    @FunctionalInterface
+    interface Request {
+        boolean send() throws Exception;
+    }
+
+    private final int clients;
+    private final Duration warmup;
+    private final Duration duration;
+
+    LoadGenerator(int clients, Duration warmup, Duration duration) {
+        this.clients = clients;
+        this.warmup = warmup;
+        this.duration = duration;
+    }
+
+    Result run(String name, Request request) {
+        long recordFrom = System.nanoTime() + warmup.toNanos();
+        long stopAt = recordFrom + duration.toNanos();
+        List<Client> finished = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                Client client = new Client();
+                finished.add(client);
+                executor.submit(() -> client.run(request, recordFrom, stopAt));
+            }
+        }
+
+        int total = finished.stream().mapToInt(client -> client.count).sum();
+        long[] latencies = new long[total];
+        int offset = 0;
+        long errors = 0;
+        for (Client client : finished) {
+            System.arraycopy(client.latencies, 0, latencies, offset, client.count);
+            offset += client.count;
+            errors += client.errors;
+        }
+        return new Result(name, latencies, errors, duration);
+    }
+
+    /**
+     * One virtual client. Only its own thread writes to it until the executor has closed.
+     */
+    private static class Client {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        void run(Request request, long recordFrom, long stopAt) {
+            long start;
+            while ((start = System.nanoTime()) < stopAt) {
+                boolean success;
+                try {
+                    success = request.send();
+                } catch (Exception e) {
+                    success = false;
+                }
+                if (start < recordFrom) {
+                    continue;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - start;
+                if (!success) {
+                    errors++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Latencies and error count of one run.
+     */
+    static class Result {
+        private final String name;
+        private final long[] sortedLatencies;
+        private final long errors;
+        private final Duration duration;
+
+        Result(String name, long[] latencies, long errors, Duration duration) {
+            this.name = name;
+            this.sortedLatencies = latencies.clone();
+            Arrays.sort(sortedLatencies);
+            this.errors = errors;
+            this.duration = duration;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        long getRequests() {
+            return sortedLatencies.length;
+        }
+
+        long getErrors() {
+            return errors;
+        }
+
+        double getThroughput() {
+            return sortedLatencies.length / (duration.toNanos() / 1e9);
+        }
+
+        /**
+         * The latency in milliseconds that this fraction of requests did not exceed.
+         */
+        double percentileMs(double fraction) {
+            if (sortedLatencies.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(fraction * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1e6;
+        }
+
+        double maxMs() {
+            return sortedLatencies.length == 0 ? Double.NaN : sortedLatencies[sortedLatencies.length - 1] / 1e6;
+        }
+
+        /**
+         * A fixed-width table with one line per result.
+         */
+        static String table(List<Result> results) {
+            StringBuilder table = new StringBuilder(String.format(Locale.ROOT,
+                "%-20s %10s %8s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+            for (Result result : results) {
+                table.append(String.format(Locale.ROOT, "%-20s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    result.name, result.getRequests(), result.errors, result.getThroughput(),
+                    result.percentileMs(0.50), result.percentileMs(0.99), result.percentileMs(0.999), result.maxMs()));
+            }
+            return table.toString();
+        }
+    }
+}
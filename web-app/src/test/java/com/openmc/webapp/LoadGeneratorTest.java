@@ -0,0 +1,52 @@
+package com.openmc.webapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LoadGenerator Tests")
+class LoadGeneratorTest {
+
+    @Test
+    @DisplayName("Should compute latency percentiles from the recorded requests")
+    void shouldComputePercentiles() {
+        long[] latencies = new long[1000];
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = (latencies.length - i) * 1_000_000L;
+        }
+
+        LoadGenerator.Result result = new LoadGenerator.Result("GET /", latencies, 2, Duration.ofSeconds(10));
+
+        assertEquals(1000, result.getRequests());
+        assertEquals(100.0, result.getThroughput(), 0.001);
+        assertEquals(500.0, result.percentileMs(0.50), 0.001);
+        assertEquals(990.0, result.percentileMs(0.99), 0.001);
+        assertEquals(999.0, result.percentileMs(0.999), 0.001);
+        assertEquals(1000.0, result.maxMs(), 0.001);
+        assertTrue(LoadGenerator.Result.table(List.of(result)).contains("GET /"));
+    }
+
+    @Test
+    @DisplayName("Should run concurrent clients and count failed requests")
+    void shouldRunConcurrentClientsAndCountFailures() {
+        AtomicInteger sent = new AtomicInteger();
+        LoadGenerator generator = new LoadGenerator(4, Duration.ZERO, Duration.ofMillis(200));
+
+        LoadGenerator.Result result = generator.run("test", () -> {
+            Thread.sleep(1);
+            if (sent.incrementAndGet() % 10 == 0) {
+                throw new IllegalStateException("Simulated failure");
+            }
+            return true;
+        });
+
+        assertTrue(result.getRequests() > 0);
+        assertTrue(result.getErrors() > 0);
+        assertTrue(result.getErrors() < result.getRequests());
+    }
+}
@@ -11,7 +11,9 @@ import org.springframework.test.context.TestPropertySource;
     "minecraft.server.rcon-port=25575",
     "minecraft.server.rcon-password=test",
     "minecraft.server.admin-username=admin",
-    "minecraft.server.admin-password=admin"
+    "minecraft.server.admin-password=admin",
+    // Each test context starts its own management server, so none may take the fixed port
+    "management.server.port=0"
 })
 @DisplayName("WebAppApplication Tests")
 class WebAppApplicationTest {
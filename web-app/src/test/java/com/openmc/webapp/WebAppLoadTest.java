@@ -0,0 +1,129 @@
+package com.openmc.webapp;
+
+import com.openmc.webapp.rcon.RconSimulator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the whole web app against the RCON simulator and measures throughput and latency
+ * percentiles of the public page, the status API and the command API under concurrent
+ * clients. Excluded from the regular build; run it with {@code ./gradlew loadTest},
+ * optionally with -Dloadtest.clients, -Dloadtest.duration-seconds,
+ * -Dloadtest.warmup-seconds, -Dloadtest.rcon-latency-ms and -Dloadtest.rcon-jitter-ms.
+ * The table is printed and written to build/reports/load-test/summary.txt.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("WebApp Load Test")
+class WebAppLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 50);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 10));
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 3));
+    private static final Duration RCON_LATENCY = Duration.ofMillis(Long.getLong("loadtest.rcon-latency-ms", 5));
+    private static final Duration RCON_JITTER = Duration.ofMillis(Long.getLong("loadtest.rcon-jitter-ms", 10));
+
+    private static final RconSimulator simulator = startSimulator();
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .build();
+
+    @LocalServerPort
+    private int port;
+
+    private static RconSimulator startSimulator() {
+        try {
+            return RconSimulator.builder()
+                .password("secret")
+                .latency(RCON_LATENCY, RCON_JITTER)
+                .respond("list", "There are 3 of a max of 20 players online: Alex, Steve, Notch")
+                .respond("tps", "§6TPS from last 1m, 5m, 15m: §a20.0, §a20.0, §a19.9")
+                .responder(command -> command.startsWith("say ") ? "" : "Unknown or incomplete command")
+                .backlog(1024)
+                .start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void serverProperties(DynamicPropertyRegistry registry) {
+        registry.add("minecraft.server.host", () -> "localhost");
+        registry.add("minecraft.server.rcon-port", simulator::getPort);
+        registry.add("minecraft.server.rcon-password", () -> "secret");
+        registry.add("minecraft.server.admin-username", () -> "admin");
+        registry.add("minecraft.server.admin-password", () -> "admin");
+        registry.add("minecraft.server.rate-limit-enabled", () -> "false");
+        registry.add("management.server.port", () -> "0");
+        // Refresh often so status requests keep reaching the simulator
+        registry.add("minecraft.server.refresh-interval-ms", () -> "1000");
+    }
+
+    @AfterAll
+    static void stopSimulator() throws IOException {
+        simulator.close();
+    }
+
+    @Test
+    @DisplayName("Should serve the public page, status and commands under concurrent load")
+    void shouldServeEndpointsUnderConcurrentLoad() throws IOException {
+        LoadGenerator generator = new LoadGenerator(CLIENTS, WARMUP, DURATION);
+        HttpRequest publicPage = HttpRequest.newBuilder(uri("/public")).GET().build();
+        HttpRequest status = HttpRequest.newBuilder(uri("/api/status")).GET().build();
+        HttpRequest command = HttpRequest.newBuilder(uri("/api/command"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(
+                "{\"username\":\"admin\",\"password\":\"admin\",\"command\":\"say load test\"}"))
+            .build();
+
+        List<LoadGenerator.Result> results = List.of(
+            generator.run("GET /public", () -> send(publicPage).statusCode() == 200),
+            generator.run("GET /api/status", () -> send(status).statusCode() == 200),
+            generator.run("POST /api/command", () -> {
+                HttpResponse<String> response = send(command);
+                return response.statusCode() == 200 && !response.body().contains("Error:");
+            }));
+
+        String table = LoadGenerator.Result.table(results);
+        System.out.printf("%d clients, %s per endpoint after %s warm-up, RCON latency %s + up to %s jitter%n%s",
+            CLIENTS, DURATION, WARMUP, RCON_LATENCY, RCON_JITTER, table);
+        Path report = Path.of("build", "reports", "load-test", "summary.txt");
+        Files.createDirectories(report.getParent());
+        Files.writeString(report, table);
+
+        for (LoadGenerator.Result result : results) {
+            assertTrue(result.getRequests() > 0, result.getName() + " completed no requests");
+            assertEquals(0, result.getErrors(), result.getName() + " had failed requests");
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
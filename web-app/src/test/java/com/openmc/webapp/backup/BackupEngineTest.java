@@ -0,0 +1,304 @@
+package com.openmc.webapp.backup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openmc.webapp.model.BackupSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BackupEngine Tests")
+class BackupEngineTest {
+
+    private static final List<String> EXCLUDES = List.of("logs/**");
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private Path root;
+    private Path source;
+    private Path repository;
+    private ExecutorService workers;
+    private BackupEngine engine;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = Files.createTempDirectory("backup-engine");
+        source = Files.createDirectories(root.resolve("server"));
+        repository = root.resolve("repository");
+        workers = Executors.newFixedThreadPool(2);
+        engine = new BackupEngine(repository, objectMapper, 1);
+
+        byte[] map = new byte[2_000_000];
+        new Random(5).nextBytes(map);
+        write("world/data/map_0.dat", map);
+        write("world/level.dat", "level".getBytes());
+        write("server.properties", "motd=A Minecraft Server\n".getBytes());
+        write("logs/latest.log", "[Server thread/INFO]: Done".getBytes());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        workers.shutdownNow();
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private void write(String path, byte[] content) throws IOException {
+        Path file = source.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2026-01-01T00:00:00Z")));
+    }
+
+    @Test
+    @DisplayName("Should back up every file except excluded ones")
+    void shouldBackUpAllFilesExceptExcluded() throws IOException {
+        BackupSnapshot snapshot = engine.backup(source, EXCLUDES, workers, true);
+
+        assertEquals(3, snapshot.getFileCount());
+        assertEquals(3, snapshot.getChangedFiles());
+        assertTrue(snapshot.isQuiesced());
+        assertEquals(List.of("server.properties", "world/data/map_0.dat", "world/level.dat"),
+            snapshot.getFiles().stream().map(BackupSnapshot.FileEntry::getPath).toList());
+        assertTrue(snapshot.getNewChunkBytes() > 2_000_000, "random data is stored as is");
+        assertTrue(Files.exists(repository.resolve("snapshots").resolve(snapshot.getId() + ".json")));
+    }
+
+    @Test
+    @DisplayName("Should only store the chunks that changed since the last backup")
+    void shouldStoreOnlyChangedChunks() throws IOException {
+        BackupSnapshot first = engine.backup(source, EXCLUDES, workers, true);
+
+        Path data = source.resolve("world/data/map_0.dat");
+        byte[] content = Files.readAllBytes(data);
+        for (int i = 1_000_000; i < 1_000_100; i++) {
+            content[i] = 0;
+        }
+        Files.write(data, content);
+
+        BackupSnapshot second = engine.backup(source, EXCLUDES, workers, true);
+
+        assertNotEquals(first.getId(), second.getId());
+        assertEquals(1, second.getChangedFiles());
+        assertTrue(second.getNewChunks() >= 1 && second.getNewChunks() <= 3, second.getNewChunks() + " new chunks");
+        assertTrue(second.getNewChunkBytes() < 600_000, second.getNewChunkBytes() + " new bytes");
+        assertEquals(first.getTotalBytes(), second.getTotalBytes());
+    }
+
+    @Test
+    @DisplayName("Should list snapshots newest first, also after reopening the repository")
+    void shouldListSnapshotsNewestFirst() throws IOException {
+        BackupSnapshot first = engine.backup(source, EXCLUDES, workers, false);
+        BackupSnapshot second = engine.backup(source, EXCLUDES, workers, true);
+
+        List<BackupSnapshot> listed = new BackupEngine(repository, objectMapper, 1).listSnapshots();
+
+        assertEquals(List.of(second.getId(), first.getId()), listed.stream().map(BackupSnapshot::getId).toList());
+        assertNull(listed.get(0).getFiles());
+        assertFalse(listed.get(1).isQuiesced());
+        assertEquals(0, second.getChangedFiles());
+        assertEquals(0, second.getNewChunks());
+    }
+
+    @Test
+    @DisplayName("Should restore files with their content and modification times")
+    void shouldRestoreSnapshot() throws IOException {
+        BackupSnapshot snapshot = engine.backup(source, EXCLUDES, workers, true);
+        Path target = root.resolve("restore");
+
+        int restored = new BackupEngine(repository, objectMapper, 1).restore(snapshot.getId(), target);
+
+        assertEquals(3, restored);
+        for (String path : List.of("server.properties", "world/level.dat", "world/data/map_0.dat")) {
+            assertArrayEquals(Files.readAllBytes(source.resolve(path)), Files.readAllBytes(target.resolve(path)));
+            assertEquals(Files.getLastModifiedTime(source.resolve(path)), Files.getLastModifiedTime(target.resolve(path)));
+        }
+        assertFalse(Files.exists(target.resolve("logs/latest.log")));
+    }
+
+    @Test
+    @DisplayName("Should restore in parallel on the worker pool")
+    void shouldRestoreInParallel() throws IOException {
+        BackupSnapshot snapshot = engine.backup(source, EXCLUDES, workers, true);
+        Path target = root.resolve("restore");
+
+        assertEquals(3, engine.restore(snapshot.getId(), target, workers));
+
+        assertArrayEquals(Files.readAllBytes(source.resolve("world/data/map_0.dat")),
+            Files.readAllBytes(target.resolve("world/data/map_0.dat")));
+    }
+
+    @Test
+    @DisplayName("Should export a snapshot as a .tar.gz that extracts to the same files")
+    void shouldExportAndExtractArchive() throws IOException {
+        BackupSnapshot snapshot = engine.backup(source, EXCLUDES, workers, true);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        Path archive = root.resolve("backup.tar.gz");
+        Path target = root.resolve("extracted");
+        try {
+            try (OutputStream out = new ParallelGzipOutputStream(Files.newOutputStream(archive), pool, 6)) {
+                engine.writeArchive(snapshot.getId(), out);
+            }
+            try (InputStream in = new ParallelGzipInputStream(Files.newInputStream(archive), pool)) {
+                assertEquals(3, BackupEngine.extractArchive(in, target));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        for (String path : List.of("server.properties", "world/level.dat", "world/data/map_0.dat")) {
+            assertArrayEquals(Files.readAllBytes(source.resolve(path)), Files.readAllBytes(target.resolve(path)));
+            assertEquals(Files.getLastModifiedTime(source.resolve(path)), Files.getLastModifiedTime(target.resolve(path)));
+        }
+    }
+
+    @Test
+    @DisplayName("Should archive a live directory straight from its files, leaving out excludes")
+    void shouldArchiveDirectory() throws IOException {
+        ByteArrayOutputStream tar = new ByteArrayOutputStream();
+
+        assertEquals(3, BackupEngine.writeDirectoryArchive(source, EXCLUDES, tar));
+
+        Path target = root.resolve("extracted");
+        assertEquals(3, BackupEngine.extractArchive(new ByteArrayInputStream(tar.toByteArray()), target));
+        for (String path : List.of("server.properties", "world/level.dat", "world/data/map_0.dat")) {
+            assertArrayEquals(Files.readAllBytes(source.resolve(path)), Files.readAllBytes(target.resolve(path)));
+            assertEquals(Files.getLastModifiedTime(source.resolve(path)), Files.getLastModifiedTime(target.resolve(path)));
+        }
+        assertFalse(Files.exists(target.resolve("logs/latest.log")));
+    }
+
+    @Test
+    @DisplayName("Should refuse archive entries outside the target directory")
+    void shouldRefuseEntriesOutsideTarget() throws IOException {
+        ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        TarArchiveWriter writer = new TarArchiveWriter(tar);
+        writer.putFile("../escaped.txt", 1, 0);
+        writer.write(new byte[1], 0, 1);
+        writer.finish();
+
+        assertThrows(IOException.class,
+            () -> BackupEngine.extractArchive(new ByteArrayInputStream(tar.toByteArray()), root.resolve("extracted")));
+        assertFalse(Files.exists(root.resolve("escaped.txt")));
+    }
+
+    @Test
+    @DisplayName("Should refuse to restore an unknown snapshot")
+    void shouldRefuseUnknownSnapshot() {
+        assertThrows(IllegalArgumentException.class, () -> engine.restore("20260101-000000", root.resolve("restore")));
+        assertThrows(IllegalArgumentException.class, () -> engine.restore("../etc", root.resolve("restore")));
+    }
+
+    @Test
+    @DisplayName("Should verify every chunk of a snapshot and name what is missing")
+    void shouldVerifySnapshot() throws IOException {
+        BackupSnapshot snapshot = engine.backup(source, EXCLUDES, workers, true);
+        BackupProgress progress = new BackupProgress();
+
+        int chunks = engine.verifySnapshot(snapshot.getId(), workers, progress);
+
+        assertTrue(chunks >= 3, chunks + " chunks");
+        assertEquals(chunks, progress.getItemsTotal());
+        assertEquals(chunks, progress.getItemsDone());
+        String hash = engine.loadSnapshot(snapshot.getId()).getFiles().get(0).getChunks().get(0);
+        Files.delete(engine.getChunkStore().pathOf(hash));
+        IOException e = assertThrows(IOException.class,
+            () -> engine.verifySnapshot(snapshot.getId(), workers, new BackupProgress()));
+        assertTrue(e.getMessage().contains(hash), e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should delete snapshots outside the retention policy and prune their chunks")
+    void shouldApplyRetentionAndPrune() throws IOException {
+        BackupSnapshot first = engine.backup(source, EXCLUDES, workers, true);
+        byte[] replaced = new byte[500_000];
+        new Random(7).nextBytes(replaced);
+        write("world/data/map_0.dat", replaced);
+        BackupSnapshot second = engine.backup(source, EXCLUDES, workers, true);
+
+        List<String> deleted = engine.applyRetention(new RetentionPolicy(1, 0, 0), ZoneOffset.UTC);
+
+        assertEquals(List.of(first.getId()), deleted);
+        assertEquals(List.of(second.getId()), engine.listSnapshots().stream().map(BackupSnapshot::getId).toList());
+        assertNull(engine.loadSnapshot(first.getId()));
+
+        ChunkStore.PruneResult result = engine.pruneChunks(new BackupProgress());
+
+        assertTrue(result.getDeleted() >= 1, result.getDeleted() + " chunks deleted");
+        assertTrue(result.getBytesFreed() > 2_000_000, "the replaced map's chunks are freed");
+        engine.verifySnapshot(second.getId(), workers, new BackupProgress());
+        assertEquals(3, engine.restore(second.getId(), root.resolve("restore")));
+    }
+
+    @Test
+    @DisplayName("Should not prune any chunk while a manifest cannot be read")
+    void shouldNotPruneWithCorruptManifest() throws IOException {
+        BackupSnapshot first = engine.backup(source, EXCLUDES, workers, true);
+        write("server.properties", "motd=Changed\n".getBytes());
+        engine.backup(source, EXCLUDES, workers, true);
+        Path manifest = repository.resolve("snapshots").resolve(first.getId() + ".json");
+        Files.write(manifest, "{\"id\":".getBytes());
+        // A fresh engine skips the corrupt manifest when it lists snapshots
+        engine = new BackupEngine(repository, objectMapper, 1);
+        assertEquals(1, engine.listSnapshots().size());
+        long chunks;
+        try (Stream<Path> files = Files.walk(repository.resolve("chunks"))) {
+            chunks = files.filter(Files::isRegularFile).count();
+        }
+
+        IOException e = assertThrows(IOException.class, () -> engine.pruneChunks(new BackupProgress()));
+
+        assertTrue(e.getMessage().contains(first.getId()), e.getMessage());
+        try (Stream<Path> files = Files.walk(repository.resolve("chunks"))) {
+            assertEquals(chunks, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    @DisplayName("Should checksum an archive in one streaming pass and reject a damaged one")
+    void shouldVerifyArchive() throws IOException {
+        BackupSnapshot snapshot = engine.backup(source, EXCLUDES, workers, true);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        Path archive = root.resolve("backup.tar.gz");
+        try {
+            try (OutputStream out = new ParallelGzipOutputStream(Files.newOutputStream(archive), pool, 6)) {
+                engine.writeArchive(snapshot.getId(), out);
+            }
+            BackupProgress progress = new BackupProgress();
+
+            String checksum = BackupEngine.verifyArchive(archive, pool, progress);
+
+            byte[] content = Files.readAllBytes(archive);
+            assertEquals(ChunkStore.hash(content, 0, content.length), checksum);
+            assertEquals(content.length, progress.getBytesDone());
+
+            content[content.length / 2] ^= 1;
+            Files.write(archive, content);
+            assertThrows(IOException.class, () -> BackupEngine.verifyArchive(archive, pool, new BackupProgress()));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
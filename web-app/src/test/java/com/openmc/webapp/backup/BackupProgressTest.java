@@ -0,0 +1,52 @@
+package com.openmc.webapp.backup;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BackupProgress Tests")
+class BackupProgressTest {
+
+    @Test
+    @DisplayName("Should restart counters with each phase and keep the bytes processed overall")
+    void shouldCountPerPhase() {
+        BackupProgress progress = new BackupProgress();
+        progress.startPhase("backup");
+        progress.addTotal(3, 300);
+        progress.addDone(2, 200);
+
+        assertEquals("backup", progress.getPhase());
+        assertEquals(3, progress.getItemsTotal());
+        assertEquals(2, progress.getItemsDone());
+        assertEquals(200, progress.getBytesDone());
+
+        progress.startPhase("verify");
+        progress.addDone(1, 50);
+
+        assertEquals(0, progress.getItemsTotal());
+        assertEquals(1, progress.getItemsDone());
+        assertEquals(50, progress.getBytesDone());
+        assertEquals(250, progress.getBytesProcessed());
+    }
+
+    @Test
+    @DisplayName("Should record phase durations in order and stop the clock when finished")
+    void shouldRecordPhaseDurations() throws InterruptedException {
+        BackupProgress progress = new BackupProgress();
+        progress.startPhase("backup");
+        Thread.sleep(20);
+        progress.startPhase("prune");
+        progress.finish();
+
+        assertTrue(progress.isFinished());
+        assertEquals("finished", progress.getPhase());
+        assertEquals(List.of("backup", "prune"), List.copyOf(progress.getPhaseDurationsMs().keySet()));
+        assertTrue(progress.getPhaseDurationsMs().get("backup") >= 20);
+        long elapsed = progress.getElapsedMs();
+        Thread.sleep(10);
+        assertEquals(elapsed, progress.getElapsedMs());
+    }
+}
@@ -0,0 +1,128 @@
+package com.openmc.webapp.backup;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ChunkStore Tests")
+class ChunkStoreTest {
+
+    private Path directory;
+    private ChunkStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("chunks");
+        store = new ChunkStore(directory, 1);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should store a chunk once and read it back")
+    void shouldStoreChunkOnce() throws IOException {
+        byte[] data = "region data ".repeat(1000).getBytes();
+        String hash = ChunkStore.hash(data, 0, data.length);
+
+        long written = store.put(hash, data, 0, data.length);
+
+        assertTrue(written > 0 && written < data.length, "compressible chunk should be deflated");
+        assertEquals(0, store.put(hash, data, 0, data.length));
+        assertEquals(0, new ChunkStore(directory, 1).put(hash, data, 0, data.length));
+        assertTrue(store.contains(hash));
+        assertArrayEquals(data, store.read(hash));
+    }
+
+    @Test
+    @DisplayName("Should store incompressible chunks as they are")
+    void shouldStoreIncompressibleChunksRaw() throws IOException {
+        byte[] data = new byte[10_000];
+        new Random(3).nextBytes(data);
+        String hash = ChunkStore.hash(data, 0, data.length);
+
+        assertEquals(data.length + 1, store.put(hash, data, 0, data.length));
+        assertArrayEquals(data, store.read(hash));
+    }
+
+    @Test
+    @DisplayName("Should detect a corrupt chunk")
+    void shouldDetectCorruptChunk() throws IOException {
+        byte[] data = new byte[1000];
+        new Random(4).nextBytes(data);
+        String hash = ChunkStore.hash(data, 0, data.length);
+        store.put(hash, data, 0, data.length);
+
+        Path file = store.pathOf(hash);
+        byte[] stored = Files.readAllBytes(file);
+        stored[500] ^= 1;
+        Files.write(file, stored);
+
+        IOException e = assertThrows(IOException.class, () -> store.read(hash));
+        assertTrue(e.getMessage().contains("corrupt"));
+    }
+
+    @Test
+    @DisplayName("Should verify stored and deflated chunks and report corrupt ones")
+    void shouldVerifyChunks() throws IOException {
+        byte[] compressible = "level data ".repeat(1000).getBytes();
+        byte[] random = new byte[5000];
+        new Random(6).nextBytes(random);
+        String deflated = ChunkStore.hash(compressible, 0, compressible.length);
+        String stored = ChunkStore.hash(random, 0, random.length);
+        store.put(deflated, compressible, 0, compressible.length);
+        store.put(stored, random, 0, random.length);
+
+        assertEquals(Files.size(store.pathOf(deflated)), store.verify(deflated));
+        assertEquals(random.length + 1, store.verify(stored));
+
+        byte[] content = Files.readAllBytes(store.pathOf(stored));
+        content[100] ^= 1;
+        Files.write(store.pathOf(stored), content);
+        assertThrows(IOException.class, () -> store.verify(stored));
+        Files.delete(store.pathOf(deflated));
+        assertThrows(NoSuchFileException.class, () -> store.verify(deflated));
+    }
+
+    @Test
+    @DisplayName("Should prune unreferenced chunks and leftover temporary files")
+    void shouldPruneUnreferencedChunks() throws IOException {
+        byte[] kept = "kept".getBytes();
+        byte[] dropped = "dropped".getBytes();
+        String keptHash = ChunkStore.hash(kept, 0, kept.length);
+        String droppedHash = ChunkStore.hash(dropped, 0, dropped.length);
+        store.put(keptHash, kept, 0, kept.length);
+        store.put(droppedHash, dropped, 0, dropped.length);
+        Path leftover = store.pathOf(keptHash).resolveSibling(keptHash + "123.tmp");
+        Files.write(leftover, new byte[10]);
+
+        BackupProgress progress = new BackupProgress();
+        ChunkStore.PruneResult result = store.prune(keptHash::equals, progress);
+
+        assertEquals(1, result.getKept());
+        assertEquals(2, result.getDeleted());
+        assertEquals(dropped.length + 1 + 10, result.getBytesFreed());
+        assertEquals(3, progress.getItemsDone());
+        assertTrue(store.contains(keptHash));
+        assertFalse(store.contains(droppedHash));
+        assertFalse(Files.exists(leftover));
+        assertTrue(store.put(droppedHash, dropped, 0, dropped.length) > 0, "a pruned chunk is stored again");
+    }
+}
@@ -0,0 +1,95 @@
+package com.openmc.webapp.backup;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ContentChunker Tests")
+class ContentChunkerTest {
+
+    private final ContentChunker chunker = new ContentChunker(1024, 4096, 16384);
+
+    private List<byte[]> split(byte[] data) throws IOException {
+        List<byte[]> chunks = new ArrayList<>();
+        chunker.split(new ByteArrayInputStream(data), (buffer, offset, length) -> {
+            byte[] chunk = new byte[length];
+            System.arraycopy(buffer, offset, chunk, 0, length);
+            chunks.add(chunk);
+        });
+        return chunks;
+    }
+
+    private static byte[] randomBytes(int length, long seed) {
+        byte[] data = new byte[length];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+
+    private static Set<String> hashes(List<byte[]> chunks) {
+        Set<String> hashes = new HashSet<>();
+        for (byte[] chunk : chunks) {
+            hashes.add(ChunkStore.hash(chunk, 0, chunk.length));
+        }
+        return hashes;
+    }
+
+    @Test
+    @DisplayName("Should split into chunks that rebuild the input and respect the size bounds")
+    void shouldSplitWithinSizeBounds() throws IOException {
+        byte[] data = randomBytes(500_000, 1);
+
+        List<byte[]> chunks = split(data);
+
+        int offset = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            byte[] chunk = chunks.get(i);
+            assertTrue(chunk.length <= 16384, "chunk " + i + " is too large");
+            if (i < chunks.size() - 1) {
+                assertTrue(chunk.length >= 1024, "chunk " + i + " is too small");
+            }
+            for (byte b : chunk) {
+                assertEquals(data[offset++], b);
+            }
+        }
+        assertEquals(data.length, offset);
+        assertTrue(chunks.size() > 30 && chunks.size() < 500, "unexpected chunk count " + chunks.size());
+    }
+
+    @Test
+    @DisplayName("Should keep chunks away from an insertion unchanged")
+    void shouldKeepChunksAwayFromInsertion() throws IOException {
+        byte[] original = randomBytes(500_000, 2);
+        byte[] edited = new byte[original.length + 10];
+        System.arraycopy(original, 0, edited, 0, 250_000);
+        System.arraycopy(original, 250_000, edited, 250_010, original.length - 250_000);
+
+        Set<String> before = hashes(split(original));
+        List<byte[]> after = split(edited);
+
+        Set<String> changed = hashes(after);
+        changed.removeAll(before);
+        assertTrue(changed.size() <= 3, changed.size() + " of " + after.size() + " chunks changed");
+    }
+
+    @Test
+    @DisplayName("Should produce no chunks for empty input and one for short input")
+    void shouldHandleEmptyAndShortInput() throws IOException {
+        assertTrue(split(new byte[0]).isEmpty());
+        assertEquals(1, split(new byte[100]).size());
+    }
+
+    @Test
+    @DisplayName("Should reject inconsistent sizes")
+    void shouldRejectInconsistentSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new ContentChunker(8192, 4096, 16384));
+    }
+}
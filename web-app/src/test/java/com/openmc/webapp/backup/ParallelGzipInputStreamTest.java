@@ -0,0 +1,95 @@
+package com.openmc.webapp.backup;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ParallelGzipInputStream Tests")
+class ParallelGzipInputStreamTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private byte[] parallelGzip(byte[] data, int blockSize) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ParallelGzipOutputStream out = new ParallelGzipOutputStream(compressed, pool, 6, blockSize, 4)) {
+            out.write(data);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] plainGzip(byte[] data) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(data);
+        }
+        return compressed.toByteArray();
+    }
+
+    private byte[] readAll(byte[] compressed) throws IOException {
+        try (ParallelGzipInputStream in = new ParallelGzipInputStream(new ByteArrayInputStream(compressed), pool, 3)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[7_777];
+            int count;
+            while ((count = in.read(buffer, 0, buffer.length)) >= 0) {
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    @Test
+    @DisplayName("Should read back streams written by ParallelGzipOutputStream")
+    void shouldReadParallelGzip() throws IOException {
+        byte[] data = ParallelGzipOutputStreamTest.sample(1_000_000);
+
+        assertArrayEquals(data, readAll(parallelGzip(data, 50_000)));
+        assertArrayEquals(new byte[0], readAll(parallelGzip(new byte[0], 50_000)));
+    }
+
+    @Test
+    @DisplayName("Should read plain gzip files sequentially")
+    void shouldReadPlainGzip() throws IOException {
+        byte[] data = ParallelGzipOutputStreamTest.sample(300_000);
+
+        assertArrayEquals(data, readAll(plainGzip(data)));
+    }
+
+    @Test
+    @DisplayName("Should switch to sequential reading at a plain member")
+    void shouldReadMixedMembers() throws IOException {
+        byte[] first = ParallelGzipOutputStreamTest.sample(200_000);
+        byte[] second = "appended by gzip".getBytes();
+        ByteArrayOutputStream concatenated = new ByteArrayOutputStream();
+        concatenated.write(parallelGzip(first, 30_000));
+        concatenated.write(plainGzip(second));
+
+        byte[] expected = new byte[first.length + second.length];
+        System.arraycopy(first, 0, expected, 0, first.length);
+        System.arraycopy(second, 0, expected, first.length, second.length);
+        assertArrayEquals(expected, readAll(concatenated.toByteArray()));
+    }
+
+    @Test
+    @DisplayName("Should detect corrupt members")
+    void shouldDetectCorruption() throws IOException {
+        byte[] compressed = parallelGzip(ParallelGzipOutputStreamTest.sample(100_000), 20_000);
+        // Flip a bit of the first member's CRC
+        int firstMemberSize = (compressed[16] & 0xff) | (compressed[17] & 0xff) << 8 | (compressed[18] & 0xff) << 16;
+        compressed[firstMemberSize - 8] ^= 1;
+
+        assertThrows(IOException.class, () -> readAll(compressed));
+    }
+}
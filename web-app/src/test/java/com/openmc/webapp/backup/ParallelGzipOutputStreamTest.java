@@ -0,0 +1,102 @@
+package com.openmc.webapp.backup;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ParallelGzipOutputStream Tests")
+class ParallelGzipOutputStreamTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    static byte[] sample(int length) {
+        // Compressible but not trivial: random words from a small vocabulary
+        String[] words = {"stone", "dirt", "grass", "oak_log", "water", "air", "bedrock", "iron_ore"};
+        Random random = new Random(11);
+        StringBuilder text = new StringBuilder(length + 16);
+        while (text.length() < length) {
+            text.append(words[random.nextInt(words.length)]).append(' ');
+        }
+        return text.substring(0, length).getBytes();
+    }
+
+    private byte[] compress(byte[] data, int blockSize, int writeSize) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ParallelGzipOutputStream out = new ParallelGzipOutputStream(compressed, pool, 6, blockSize, 3)) {
+            for (int offset = 0; offset < data.length; offset += writeSize) {
+                out.write(data, offset, Math.min(writeSize, data.length - offset));
+            }
+        }
+        return compressed.toByteArray();
+    }
+
+    @Test
+    @DisplayName("Should write a gzip stream that GZIPInputStream reads back")
+    void shouldWriteStandardGzip() throws IOException {
+        byte[] data = sample(1_000_000);
+
+        byte[] compressed = compress(data, 64 * 1024, 10_000);
+
+        assertTrue(compressed.length < data.length / 2, "should compress");
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(data, in.readAllBytes());
+        }
+    }
+
+    @Test
+    @DisplayName("Should write one member per block, in order")
+    void shouldWriteOneMemberPerBlock() throws IOException {
+        byte[] data = sample(100_000);
+
+        byte[] compressed = compress(data, 10_000, 3_333);
+
+        int members = 0;
+        for (int offset = 0; offset < compressed.length; members++) {
+            assertEquals(0x1f, compressed[offset] & 0xff);
+            assertEquals(0x8b, compressed[offset + 1] & 0xff);
+            int size = (compressed[offset + 16] & 0xff) | (compressed[offset + 17] & 0xff) << 8
+                | (compressed[offset + 18] & 0xff) << 16 | (compressed[offset + 19] & 0xff) << 24;
+            offset += size;
+        }
+        assertEquals(10, members);
+    }
+
+    @Test
+    @DisplayName("Should write a valid gzip file for empty input")
+    void shouldWriteValidEmptyFile() throws IOException {
+        byte[] compressed = compress(new byte[0], 1024, 1);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertEquals(0, in.readAllBytes().length);
+        }
+    }
+
+    @Test
+    @DisplayName("Should compress flushed data without waiting for a full block")
+    void shouldFlushPartialBlock() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        ParallelGzipOutputStream out = new ParallelGzipOutputStream(compressed, pool, 6, 1024 * 1024, 2);
+        out.write("save-all flush".getBytes());
+
+        out.flush();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+            assertEquals("save-all flush", new String(in.readAllBytes()));
+        }
+        out.close();
+    }
+}
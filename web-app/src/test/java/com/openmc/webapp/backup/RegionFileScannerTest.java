@@ -0,0 +1,167 @@
+package com.openmc.webapp.backup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openmc.webapp.model.BackupSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RegionFileScanner Tests")
+class RegionFileScannerTest {
+
+    private static final int SECTOR = RegionFileScanner.SECTOR_SIZE;
+    private static final int CHUNKS = 400;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final Random random = new Random(7);
+    private Path root;
+    private Path source;
+    private Path region;
+    private ExecutorService workers;
+    private BackupEngine engine;
+    private byte[] content;
+    private long mtime = 1_700_000_000_000L;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = Files.createTempDirectory("region-scanner");
+        source = root.resolve("server");
+        region = source.resolve("world/DIM-1/region/r.0.0.mca");
+        Files.createDirectories(region.getParent());
+        workers = Executors.newFixedThreadPool(2);
+        engine = new BackupEngine(root.resolve("repository"), objectMapper, 1);
+
+        // Chunk i takes two sectors starting at sector 2 + 2i
+        content = new byte[RegionFileScanner.HEADER_SIZE + CHUNKS * 2 * SECTOR];
+        for (int i = 0; i < CHUNKS; i++) {
+            writeChunk(i, 2 + 2 * i, 2, 1000);
+        }
+        save();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        workers.shutdownNow();
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private void writeChunk(int index, int sector, int sectors, int timestamp) {
+        int end = (sector + sectors) * SECTOR;
+        if (end > content.length) {
+            byte[] grown = new byte[end];
+            System.arraycopy(content, 0, grown, 0, content.length);
+            content = grown;
+        }
+        ByteBuffer header = ByteBuffer.wrap(content);
+        header.putInt(index * 4, sector << 8 | sectors);
+        header.putInt(SECTOR + index * 4, timestamp);
+        byte[] data = new byte[sectors * SECTOR];
+        random.nextBytes(data);
+        System.arraycopy(data, 0, content, sector * SECTOR, data.length);
+    }
+
+    private void save() throws IOException {
+        Files.write(region, content);
+        mtime += 60_000;
+        Files.setLastModifiedTime(region, FileTime.fromMillis(mtime));
+    }
+
+    private BackupSnapshot backup() throws IOException {
+        return engine.backup(source, List.of(), workers, true);
+    }
+
+    private void assertRestores(BackupSnapshot snapshot) throws IOException {
+        Path target = root.resolve("restore-" + snapshot.getId());
+        engine.restore(snapshot.getId(), target);
+        assertArrayEquals(content, Files.readAllBytes(target.resolve("world/DIM-1/region/r.0.0.mca")));
+    }
+
+    @Test
+    @DisplayName("Should store a region file as its header followed by sector-aligned extents")
+    void shouldStoreRegionLayout() throws IOException {
+        BackupSnapshot snapshot = backup();
+
+        BackupSnapshot.FileEntry entry = snapshot.getFiles().get(0);
+        assertEquals(RegionFileScanner.LAYOUT, entry.getLayout());
+        int extents = (content.length - RegionFileScanner.HEADER_SIZE + RegionFileScanner.EXTENT_SIZE - 1)
+            / RegionFileScanner.EXTENT_SIZE;
+        assertEquals(1 + extents, entry.getChunks().size());
+        assertEquals(content.length, snapshot.getBytesRead());
+        assertRestores(snapshot);
+    }
+
+    @Test
+    @DisplayName("Should read only the extent holding a chunk saved since the last backup")
+    void shouldReadOnlyChangedExtents() throws IOException {
+        backup();
+        writeChunk(100, 202, 2, 2000);
+        save();
+
+        BackupSnapshot snapshot = backup();
+
+        assertEquals(1, snapshot.getChangedFiles());
+        assertEquals(RegionFileScanner.HEADER_SIZE + RegionFileScanner.EXTENT_SIZE, snapshot.getBytesRead());
+        assertEquals(2, snapshot.getNewChunks(), "the header and one extent");
+        assertRestores(snapshot);
+    }
+
+    @Test
+    @DisplayName("Should pick up chunks moved to the end of a growing file")
+    void shouldHandleMovedChunks() throws IOException {
+        backup();
+        writeChunk(5, 2 + 2 * CHUNKS, 3, 2000);
+        save();
+
+        BackupSnapshot snapshot = backup();
+
+        assertTrue(snapshot.getBytesRead() < content.length / 4, snapshot.getBytesRead() + " bytes read");
+        assertRestores(snapshot);
+    }
+
+    @Test
+    @DisplayName("Should mark the old and new sectors of changed chunks only")
+    void shouldMarkChangedSectors() {
+        byte[] before = new byte[RegionFileScanner.HEADER_SIZE];
+        System.arraycopy(content, 0, before, 0, before.length);
+        writeChunk(3, 900, 1, 1000);
+        writeChunk(7, 16, 2, 5000);
+        byte[] after = new byte[RegionFileScanner.HEADER_SIZE];
+        System.arraycopy(content, 0, after, 0, after.length);
+
+        BitSet dirty = RegionFileScanner.changedSectors(before, after);
+
+        BitSet expected = new BitSet();
+        expected.set(8, 10);
+        expected.set(900);
+        expected.set(16, 18);
+        assertEquals(expected, dirty);
+    }
+
+    @Test
+    @DisplayName("Should leave short .mca files and other files to content-defined chunking")
+    void shouldOnlyHandleCompleteRegionFiles() {
+        assertTrue(RegionFileScanner.isRegionFile("world/entities/r.0.0.mca", 8192));
+        assertFalse(RegionFileScanner.isRegionFile("world/region/r.1.0.mca", 0));
+        assertFalse(RegionFileScanner.isRegionFile("world/level.dat", 100_000));
+    }
+}
@@ -0,0 +1,87 @@
+package com.openmc.webapp.backup;
+
+import com.openmc.webapp.model.BackupSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RetentionPolicy Tests")
+class RetentionPolicyTest {
+
+    private static BackupSnapshot snapshot(String id, String createdAt) {
+        BackupSnapshot snapshot = new BackupSnapshot();
+        snapshot.setId(id);
+        snapshot.setCreatedAt(Instant.parse(createdAt));
+        return snapshot;
+    }
+
+    /**
+     * One snapshot every six hours for 90 days, ending on Sunday 2026-03-29.
+     */
+    private static List<BackupSnapshot> everySixHours() {
+        List<BackupSnapshot> snapshots = new ArrayList<>();
+        Instant time = Instant.parse("2025-12-30T00:00:00Z");
+        for (int i = 0; i < 90 * 4; i++) {
+            snapshots.add(snapshot("s" + i, time.toString()));
+            time = time.plus(Duration.ofHours(6));
+        }
+        return snapshots;
+    }
+
+    @Test
+    @DisplayName("Should keep the newest snapshot of each recent day")
+    void shouldKeepNewestPerDay() {
+        List<BackupSnapshot> snapshots = List.of(
+            snapshot("a", "2026-03-01T04:00:00Z"),
+            snapshot("b", "2026-03-01T16:00:00Z"),
+            snapshot("c", "2026-03-02T04:00:00Z"),
+            snapshot("d", "2026-03-03T04:00:00Z"),
+            snapshot("e", "2026-03-03T10:00:00Z"));
+
+        assertEquals(Set.of("e", "c"), new RetentionPolicy(2, 0, 0).select(snapshots, ZoneOffset.UTC));
+        assertEquals(Set.of("e", "c", "b"), new RetentionPolicy(5, 0, 0).select(snapshots, ZoneOffset.UTC));
+    }
+
+    @Test
+    @DisplayName("Should combine daily, weekly and monthly generations")
+    void shouldCombineGenerations() {
+        Set<String> keep = new RetentionPolicy(7, 4, 3).select(everySixHours(), ZoneOffset.UTC);
+
+        // The last 7 days, the Sundays of the 3 weeks before, and the last of January and February
+        assertEquals(7 + 3 + 2, keep.size(), keep.toString());
+        assertTrue(keep.contains("s359"), "newest");
+        assertTrue(keep.contains("s335"), "newest of 2026-03-23");
+        assertTrue(keep.contains("s331"), "newest of the week ending 2026-03-22");
+        assertTrue(keep.contains("s131"), "newest of January");
+    }
+
+    @Test
+    @DisplayName("Should use the given time zone for day boundaries")
+    void shouldUseTimeZone() {
+        List<BackupSnapshot> snapshots = List.of(
+            snapshot("evening", "2026-03-01T22:00:00Z"),
+            snapshot("night", "2026-03-02T01:00:00Z"));
+
+        assertEquals(Set.of("night", "evening"), new RetentionPolicy(2, 0, 0).select(snapshots, ZoneOffset.UTC));
+        assertEquals(Set.of("night"), new RetentionPolicy(2, 0, 0).select(snapshots, ZoneOffset.ofHours(3)));
+    }
+
+    @Test
+    @DisplayName("Should always keep the newest snapshot and keep everything when disabled")
+    void shouldKeepNewestAndAllWhenDisabled() {
+        List<BackupSnapshot> snapshots = everySixHours();
+
+        assertEquals(Set.of("s359"), new RetentionPolicy(0, 0, 1).select(snapshots, ZoneOffset.UTC));
+        assertFalse(new RetentionPolicy(0, 0, 0).isEnabled());
+        assertEquals(snapshots.size(), new RetentionPolicy(0, 0, 0).select(snapshots, ZoneOffset.UTC).size());
+        assertTrue(new RetentionPolicy(1, 0, 0).select(List.of(), ZoneOffset.UTC).isEmpty());
+    }
+}
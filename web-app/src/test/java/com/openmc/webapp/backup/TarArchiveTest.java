@@ -0,0 +1,133 @@
+package com.openmc.webapp.backup;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TarArchiveWriter and TarArchiveReader Tests")
+class TarArchiveTest {
+
+    private static byte[] archive(List<String> names, List<byte[]> contents) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TarArchiveWriter writer = new TarArchiveWriter(out);
+        for (int i = 0; i < names.size(); i++) {
+            writer.putFile(names.get(i), contents.get(i).length, 1_700_000_000_000L + i * 1000L);
+            writer.write(contents.get(i), 0, contents.get(i).length);
+        }
+        writer.finish();
+        return out.toByteArray();
+    }
+
+    private static byte[] readEntry(TarArchiveReader reader) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] buffer = new byte[100];
+        int count;
+        while ((count = reader.read(buffer, 0, buffer.length)) >= 0) {
+            content.write(buffer, 0, count);
+        }
+        return content.toByteArray();
+    }
+
+    @Test
+    @DisplayName("Should read back files with their names, content and modification times")
+    void shouldRoundTripFiles() throws IOException {
+        String longPath = "world/" + "nested/".repeat(20) + "level.dat";
+        String longName = "world/" + "x".repeat(150) + ".dat";
+        List<String> names = List.of("server.properties", "empty.txt", longPath, longName);
+        List<byte[]> contents = List.of("motd=Hello\n".getBytes(StandardCharsets.UTF_8), new byte[0],
+            new byte[1500], "long".getBytes(StandardCharsets.UTF_8));
+
+        byte[] tar = archive(names, contents);
+
+        assertEquals(0, tar.length % 512);
+        TarArchiveReader reader = new TarArchiveReader(new ByteArrayInputStream(tar));
+        List<String> read = new ArrayList<>();
+        TarArchiveReader.Entry entry;
+        while ((entry = reader.next()) != null) {
+            int index = read.size();
+            read.add(entry.getName());
+            assertFalse(entry.isDirectory());
+            assertEquals(contents.get(index).length, entry.getSize());
+            assertEquals(1_700_000_000_000L + index * 1000L, entry.getLastModifiedMillis());
+            assertArrayEquals(contents.get(index), readEntry(reader));
+        }
+        assertEquals(names, read);
+    }
+
+    @Test
+    @DisplayName("Should skip unread content when moving to the next entry")
+    void shouldSkipUnreadContent() throws IOException {
+        byte[] tar = archive(List.of("a.bin", "b.txt"), List.of(new byte[2000], "b".getBytes(StandardCharsets.UTF_8)));
+
+        TarArchiveReader reader = new TarArchiveReader(new ByteArrayInputStream(tar));
+        assertEquals("a.bin", reader.next().getName());
+        TarArchiveReader.Entry second = reader.next();
+
+        assertEquals("b.txt", second.getName());
+        assertEquals("b", new String(readEntry(reader), StandardCharsets.UTF_8));
+        assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Should refuse entries with more or fewer bytes than declared")
+    void shouldRefuseWrongEntrySizes() throws IOException {
+        TarArchiveWriter writer = new TarArchiveWriter(new ByteArrayOutputStream());
+        writer.putFile("a.txt", 2, 0);
+
+        assertThrows(IOException.class, () -> writer.write(new byte[3], 0, 3));
+        writer.write(new byte[1], 0, 1);
+        assertThrows(IOException.class, writer::finish);
+    }
+
+    @Test
+    @DisplayName("Should detect a damaged header")
+    void shouldDetectDamagedHeader() throws IOException {
+        byte[] tar = archive(List.of("a.txt"), List.of("a".getBytes(StandardCharsets.UTF_8)));
+        tar[0] = 'b';
+
+        assertThrows(IOException.class, () -> new TarArchiveReader(new ByteArrayInputStream(tar)).next());
+    }
+
+    @Test
+    @DisplayName("Should copy entries from a file channel and pad a file that shrank")
+    void shouldTransferFromFileChannel() throws IOException {
+        Path file = Files.createTempFile("tar-transfer", ".bin");
+        try {
+            byte[] content = new byte[3000];
+            new Random(3).nextBytes(content);
+            Files.write(file, content);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            TarArchiveWriter writer = new TarArchiveWriter(out);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                writer.putFile("part.bin", 1000, 0);
+                assertEquals(1000, writer.transferFrom(channel, 500, 1000));
+                writer.putFile("shrunk.bin", 4000, 0);
+                assertEquals(3000, writer.transferFrom(channel, 0, 4000));
+            }
+            writer.finish();
+
+            TarArchiveReader reader = new TarArchiveReader(new ByteArrayInputStream(out.toByteArray()));
+            assertEquals("part.bin", reader.next().getName());
+            assertArrayEquals(Arrays.copyOfRange(content, 500, 1500), readEntry(reader));
+            assertEquals("shrunk.bin", reader.next().getName());
+            assertArrayEquals(Arrays.copyOf(content, 4000), readEntry(reader));
+            assertNull(reader.next());
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
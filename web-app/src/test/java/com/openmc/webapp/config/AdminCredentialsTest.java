@@ -0,0 +1,64 @@
+package com.openmc.webapp.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AdminCredentials Tests")
+class AdminCredentialsTest {
+
+    private ServerConfig serverConfig;
+
+    @BeforeEach
+    void setUp() {
+        serverConfig = new ServerConfig();
+        serverConfig.setAdminUsername("admin");
+        serverConfig.setAdminPassword("secret");
+    }
+
+    @Test
+    @DisplayName("Should accept matching credentials")
+    void shouldAcceptMatchingCredentials() {
+        assertTrue(AdminCredentials.matches(serverConfig, "admin", "secret"));
+    }
+
+    @Test
+    @DisplayName("Should reject wrong username or password")
+    void shouldRejectWrongUsernameOrPassword() {
+        assertFalse(AdminCredentials.matches(serverConfig, "admin", "wrong"));
+        assertFalse(AdminCredentials.matches(serverConfig, "root", "secret"));
+        assertFalse(AdminCredentials.matches(serverConfig, "admin", "secret2"));
+    }
+
+    @Test
+    @DisplayName("Should reject missing credentials")
+    void shouldRejectMissingCredentials() {
+        assertFalse(AdminCredentials.matches(serverConfig, null, "secret"));
+        assertFalse(AdminCredentials.matches(serverConfig, "admin", null));
+    }
+
+    private static String basic(String credentials) {
+        return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should accept a matching Basic Authorization header")
+    void shouldAcceptMatchingBasicAuthorizationHeader() {
+        assertTrue(AdminCredentials.matchesBasicAuth(serverConfig, basic("admin:secret")));
+    }
+
+    @Test
+    @DisplayName("Should reject wrong or malformed Basic Authorization headers")
+    void shouldRejectWrongOrMalformedBasicAuthorizationHeaders() {
+        assertFalse(AdminCredentials.matchesBasicAuth(serverConfig, basic("admin:wrong")));
+        assertFalse(AdminCredentials.matchesBasicAuth(serverConfig, basic("admin")));
+        assertFalse(AdminCredentials.matchesBasicAuth(serverConfig, "Basic not-base64!"));
+        assertFalse(AdminCredentials.matchesBasicAuth(serverConfig, "Bearer token"));
+        assertFalse(AdminCredentials.matchesBasicAuth(serverConfig, null));
+    }
+}
@@ -11,7 +11,8 @@ import static org.junit.jupiter.api.Assertions.*;
 @SpringBootTest
 @TestPropertySource(properties = {
     "ADMIN_USERNAME=testuser",
-    "ADMIN_PASSWORD=testpass123"
+    "ADMIN_PASSWORD=testpass123",
+    "management.server.port=0"
 })
 @DisplayName("ServerConfig Integration Tests - Environment Variable Binding")
 class ServerConfigIntegrationTest {
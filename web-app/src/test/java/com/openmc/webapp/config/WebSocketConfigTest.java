@@ -0,0 +1,25 @@
+package com.openmc.webapp.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("WebSocketConfig Tests")
+class WebSocketConfigTest {
+
+    @Test
+    @DisplayName("Should allow no other origins by default")
+    void shouldAllowNoOtherOriginsByDefault() {
+        assertEquals("", new ServerConfig().getConsoleAllowedOrigins());
+        assertArrayEquals(new String[0], WebSocketConfig.allowedOriginPatterns(""));
+        assertArrayEquals(new String[0], WebSocketConfig.allowedOriginPatterns(null));
+    }
+
+    @Test
+    @DisplayName("Should trim configured origins and skip blank entries")
+    void shouldTrimConfiguredOrigins() {
+        assertArrayEquals(new String[] {"https://admin.example.com", "https://*.example.org"},
+            WebSocketConfig.allowedOriginPatterns(" https://admin.example.com, ,https://*.example.org "));
+    }
+}
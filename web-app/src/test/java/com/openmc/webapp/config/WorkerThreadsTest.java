@@ -0,0 +1,38 @@
+package com.openmc.webapp.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.concurrent.ThreadFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("WorkerThreads Tests")
+class WorkerThreadsTest {
+
+    @Test
+    @DisplayName("Should create named daemon platform threads by default")
+    void shouldCreateNamedDaemonPlatformThreadsByDefault() {
+        ThreadFactory factory = WorkerThreads.factory(new ServerConfig(), "worker-");
+
+        Thread first = factory.newThread(() -> { });
+        Thread second = factory.newThread(() -> { });
+
+        assertFalse(first.isVirtual());
+        assertTrue(first.isDaemon());
+        assertEquals("worker-1", first.getName());
+        assertEquals("worker-2", second.getName());
+    }
+
+    @Test
+    @DisplayName("Should create virtual threads in virtual-thread mode")
+    void shouldCreateVirtualThreadsInVirtualThreadMode() {
+        ServerConfig serverConfig = new ServerConfig();
+        serverConfig.setVirtualThreadsEnabled(true);
+
+        Thread thread = WorkerThreads.factory(serverConfig, "worker-").newThread(() -> { });
+
+        assertTrue(thread.isVirtual());
+        assertEquals("worker-1", thread.getName());
+    }
+}
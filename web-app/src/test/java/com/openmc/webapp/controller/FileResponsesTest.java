@@ -0,0 +1,89 @@
+package com.openmc.webapp.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("FileResponses Tests")
+class FileResponsesTest {
+
+    @Test
+    @DisplayName("Should parse ranges from a start, to an end and of a suffix, clamped to the file")
+    void shouldParseRanges() {
+        FileResponses.ByteRange range = FileResponses.parseRange("bytes=100-199", 1000);
+        assertEquals(100, range.getStart());
+        assertEquals(199, range.getEnd());
+        assertEquals(100, range.length());
+
+        range = FileResponses.parseRange("bytes=900-", 1000);
+        assertEquals(900, range.getStart());
+        assertEquals(999, range.getEnd());
+
+        range = FileResponses.parseRange("bytes=-300", 1000);
+        assertEquals(700, range.getStart());
+        assertEquals(999, range.getEnd());
+
+        range = FileResponses.parseRange("bytes=500-5000", 1000);
+        assertEquals(999, range.getEnd());
+
+        range = FileResponses.parseRange("bytes=-5000", 1000);
+        assertEquals(0, range.getStart());
+    }
+
+    @Test
+    @DisplayName("Should find ranges past the end unsatisfiable and ignore malformed or multiple ranges")
+    void shouldRejectUnusableRanges() {
+        assertSame(FileResponses.UNSATISFIABLE, FileResponses.parseRange("bytes=1000-", 1000));
+        assertSame(FileResponses.UNSATISFIABLE, FileResponses.parseRange("bytes=0-", 0));
+        assertSame(FileResponses.UNSATISFIABLE, FileResponses.parseRange("bytes=-0", 1000));
+
+        assertNull(FileResponses.parseRange("bytes=0-1,5-9", 1000));
+        assertNull(FileResponses.parseRange("bytes=9-5", 1000));
+        assertNull(FileResponses.parseRange("bytes=-", 1000));
+        assertNull(FileResponses.parseRange("items=0-5", 1000));
+        assertNull(FileResponses.parseRange("bytes=99999999999999999999-", 1000));
+    }
+
+    @Test
+    @DisplayName("Should parse upload content ranges with known and unknown totals")
+    void shouldParseContentRanges() {
+        assertArrayEquals(new long[] {0, 1023, 4096}, FileResponses.parseContentRange("bytes 0-1023/4096"));
+        assertArrayEquals(new long[] {1024, 2047, -1}, FileResponses.parseContentRange("bytes 1024-2047/*"));
+
+        assertThrows(IllegalArgumentException.class, () -> FileResponses.parseContentRange("bytes 0-1023"));
+        assertThrows(IllegalArgumentException.class, () -> FileResponses.parseContentRange("bytes 10-5/100"));
+        assertThrows(IllegalArgumentException.class, () -> FileResponses.parseContentRange("bytes 0-100/100"));
+        assertThrows(IllegalArgumentException.class, () -> FileResponses.parseContentRange("bytes */100"));
+    }
+
+    @Test
+    @DisplayName("Should serve a range only while If-Range still matches the file")
+    void shouldMatchIfRange() {
+        long lastModified = Instant.parse("2026-01-01T12:00:00.250Z").toEpochMilli();
+        String etag = FileResponses.etag(4096, lastModified);
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(lastModified).atOffset(ZoneOffset.UTC));
+
+        assertTrue(FileResponses.ifRangeMatches(null, etag, lastModified));
+        assertTrue(FileResponses.ifRangeMatches(etag, etag, lastModified));
+        assertTrue(FileResponses.ifRangeMatches(date, etag, lastModified));
+
+        assertFalse(FileResponses.ifRangeMatches(FileResponses.etag(4097, lastModified), etag, lastModified));
+        assertFalse(FileResponses.ifRangeMatches("W/" + etag, etag, lastModified));
+        assertFalse(FileResponses.ifRangeMatches("Thu, 01 Jan 2026 11:00:00 GMT", etag, lastModified));
+        assertFalse(FileResponses.ifRangeMatches("yesterday", etag, lastModified));
+    }
+
+    @Test
+    @DisplayName("Should name attachments with an ASCII fallback and the encoded original")
+    void shouldNameAttachments() {
+        assertEquals("attachment; filename=\"world.tar.gz\"; filename*=UTF-8''world.tar.gz",
+            FileResponses.attachment("world.tar.gz"));
+        assertEquals("attachment; filename=\"_berwelt _1_.zip\"; filename*=UTF-8''%C3%9Cberwelt%20%221%22.zip",
+            FileResponses.attachment("Überwelt \"1\".zip"));
+    }
+}
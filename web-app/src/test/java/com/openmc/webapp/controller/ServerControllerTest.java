@@ -1,28 +1,86 @@
 package com.openmc.webapp.controller;
 
+import com.openmc.webapp.backup.BackupProgress;
 import com.openmc.webapp.config.ServerConfig;
+import com.openmc.webapp.log.LogIndex;
+import com.openmc.webapp.model.CommandResult;
+import com.openmc.webapp.model.LagEvent;
+import com.openmc.webapp.model.LagSample;
+import com.openmc.webapp.model.LogEvent;
+import com.openmc.webapp.model.RetrievalRecord;
+import com.openmc.webapp.model.ScheduledCommand;
+import com.openmc.webapp.rcon.RconCommandScheduler;
 import com.openmc.webapp.service.ActivityTrackerService;
+import com.openmc.webapp.service.BackupService;
+import com.openmc.webapp.service.CommandJobService;
+import com.openmc.webapp.service.DashboardService;
+import com.openmc.webapp.service.DepositBoxService;
+import com.openmc.webapp.service.FlightRecorderService;
+import com.openmc.webapp.service.LagMonitorService;
+import com.openmc.webapp.service.PublicPageRenderer;
+import com.openmc.webapp.service.RateLimiter;
 import com.openmc.webapp.service.RconService;
+import com.openmc.webapp.service.ScheduledCommandService;
+import com.openmc.webapp.service.ServerLogService;
+import com.openmc.webapp.service.SnapshotResponseCache;
+import com.openmc.webapp.service.StatusStreamService;
+import com.openmc.webapp.service.WorldStatsService;
+import com.openmc.webapp.service.WorldStorageService;
+import com.openmc.webapp.stats.PlayerStats;
+import com.openmc.webapp.stats.StatsIndex;
+import com.openmc.webapp.world.WorldAnalyzer;
+import com.openmc.webapp.world.WorldReport;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.EOFException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.containsString;
 
 @WebMvcTest(ServerController.class)
+@Import({SnapshotResponseCache.class, PublicPageRenderer.class, RateLimiter.class})
 @DisplayName("ServerController Tests")
 class ServerControllerTest {
 
@@ -37,14 +95,44 @@ class ServerControllerTest {
     
     @MockBean
     private ActivityTrackerService activityTrackerService;
+    
+    @MockBean
+    private StatusStreamService statusStreamService;
+    
+    @MockBean
+    private DashboardService dashboardService;
+    
+    @MockBean
+    private CommandJobService commandJobService;
+
+    @MockBean
+    private ScheduledCommandService scheduledCommandService;
+
+    @MockBean
+    private FlightRecorderService flightRecorderService;
+
+    @MockBean
+    private BackupService backupService;
+
+    @MockBean
+    private DepositBoxService depositBoxService;
+
+    @MockBean
+    private ServerLogService serverLogService;
+
+    @MockBean
+    private LagMonitorService lagMonitorService;
+
+    @MockBean
+    private WorldStatsService worldStatsService;
+
+    @MockBean
+    private WorldStorageService worldStorageService;
 
     private RconService.ServerStatus mockStatus;
 
     @BeforeEach
     void setUp() {
-        RconService.ResourceUsage mockResourceUsage = new RconService.ResourceUsage("20.0, 20.0, 20.0", "1024MB", "2048MB", "1024MB", 50.0);
-        mockStatus = new RconService.ServerStatus(serverConfig, "There are 0 of a max of 20 players online", mockResourceUsage);
-        
         when(serverConfig.getMotd()).thenReturn("Test Server");
         when(serverConfig.getMaxPlayers()).thenReturn(20);
         when(serverConfig.getDynmapUrl()).thenReturn("");
@@ -52,6 +140,11 @@ class ServerControllerTest {
         when(serverConfig.getAdminUsername()).thenReturn("admin");
         when(serverConfig.getAdminPassword()).thenReturn("admin");
         when(activityTrackerService.isEnabled()).thenReturn(false);
+        when(serverConfig.getCommandBatchMaxSize()).thenReturn(500);
+        
+        // The status copies the MOTD from the config, so build it after the stubs
+        RconService.ResourceUsage mockResourceUsage = new RconService.ResourceUsage("20.0, 20.0, 20.0", "1024MB", "2048MB", "1024MB", 50.0);
+        mockStatus = new RconService.ServerStatus(serverConfig, "There are 0 of a max of 20 players online", mockResourceUsage);
     }
 
     @Test
@@ -65,7 +158,7 @@ class ServerControllerTest {
     @Test
     @DisplayName("Should return public page on GET /public")
     void shouldReturnPublicPageOnGetPublic() throws Exception {
-        when(rconService.getServerStatus()).thenReturn(mockStatus);
+        when(rconService.getSnapshot()).thenReturn(new RconService.Snapshot(1, mockStatus, Instant.now(), List.of()));
 
         mockMvc.perform(get("/public"))
                 .andExpect(status().isOk())
@@ -75,6 +168,27 @@ class ServerControllerTest {
                 .andExpect(model().attributeExists("bluemapUrl"));
     }
 
+    @Test
+    @DisplayName("Should serve pre-rendered public page when enabled")
+    void shouldServePrerenderedPublicPageWhenEnabled() throws Exception {
+        when(serverConfig.isPublicPagePrerender()).thenReturn(true);
+        when(rconService.getSnapshot()).thenReturn(new RconService.Snapshot(1, mockStatus, Instant.now(), List.of()));
+
+        String etag = mockMvc.perform(get("/public"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_HTML))
+                .andExpect(content().string(containsString("Test Server")))
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/public").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/public").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"));
+    }
+
     @Test
     @DisplayName("Should return admin page on GET /admin")
     void shouldReturnAdminPageOnGetAdmin() throws Exception {
@@ -86,7 +200,7 @@ class ServerControllerTest {
     @Test
     @DisplayName("Should return server status on GET /api/status")
     void shouldReturnServerStatusOnGetApiStatus() throws Exception {
-        when(rconService.getServerStatus()).thenReturn(mockStatus);
+        when(rconService.getSnapshot()).thenReturn(new RconService.Snapshot(1, mockStatus, Instant.now(), List.of()));
 
         mockMvc.perform(get("/api/status"))
                 .andExpect(status().isOk())
@@ -106,6 +220,20 @@ class ServerControllerTest {
                 .andExpect(jsonPath("$.memoryUsed").value("1024MB"));
     }
 
+    @Test
+    @DisplayName("Should return RCON scheduler metrics on GET /api/rcon/scheduler")
+    void shouldReturnRconSchedulerMetrics() throws Exception {
+        RconCommandScheduler scheduler = new RconCommandScheduler(2, Map.of());
+        scheduler.execute(RconCommandScheduler.Priority.POLLING, () -> "ok");
+        when(rconService.getSchedulerStats()).thenReturn(scheduler.getStats());
+
+        mockMvc.perform(get("/api/rcon/scheduler"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.maxConcurrent").value(2))
+                .andExpect(jsonPath("$.priorities.POLLING.executed").value(1))
+                .andExpect(jsonPath("$.priorities.ADMIN.queueDepth").value(0));
+    }
+
     @Test
     @DisplayName("Should accept valid command with authentication")
     void shouldAcceptValidCommandWithAuthentication() throws Exception {
@@ -167,4 +295,871 @@ class ServerControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.result").value(containsString("Command cannot be empty")));
     }
+
+    @Test
+    @DisplayName("Should open status event stream on GET /api/stream")
+    void shouldOpenStatusEventStreamOnGetApiStream() throws Exception {
+        when(statusStreamService.subscribe(null)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/stream"))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string("X-Accel-Buffering", "no"));
+    }
+
+    @Test
+    @DisplayName("Should resume status event stream from Last-Event-ID")
+    void shouldResumeStatusEventStreamFromLastEventId() throws Exception {
+        when(statusStreamService.subscribe("5")).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/stream").header("Last-Event-ID", "5"))
+                .andExpect(status().isOk());
+
+        verify(statusStreamService).subscribe("5");
+    }
+
+    @Test
+    @DisplayName("Should return ETag and Cache-Control on GET /api/status")
+    void shouldReturnEtagAndCacheControlOnGetApiStatus() throws Exception {
+        when(rconService.getSnapshot()).thenReturn(new RconService.Snapshot(1, mockStatus, Instant.now(), List.of()));
+        when(rconService.getMillisUntilRefresh()).thenReturn(60000L);
+
+        mockMvc.perform(get("/api/status"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().string("Cache-Control", containsString("max-age=60")));
+    }
+
+    @Test
+    @DisplayName("Should return 304 when If-None-Match matches")
+    void shouldReturnNotModifiedWhenIfNoneMatchMatches() throws Exception {
+        when(rconService.getSnapshot()).thenReturn(new RconService.Snapshot(1, mockStatus, Instant.now(), List.of()));
+
+        String etag = mockMvc.perform(get("/api/status"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/status").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("Should serve gzip encoded history when accepted")
+    void shouldServeGzipEncodedHistoryWhenAccepted() throws Exception {
+        RconService.ResourceUsage usage = new RconService.ResourceUsage("20.0, 20.0, 20.0", "1024MB", "2048MB", "1024MB", 50.0);
+        List<RetrievalRecord> history = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            history.add(new RetrievalRecord(Instant.now(), true, i, usage));
+        }
+        when(rconService.getLatestSnapshot()).thenReturn(new RconService.Snapshot(1, mockStatus, Instant.now(), history));
+
+        mockMvc.perform(get("/api/history").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", containsString("Accept-Encoding")));
+
+        mockMvc.perform(get("/api/history"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$.history.length()").value(10));
+    }
+
+    @Test
+    @DisplayName("Should return selected sections on GET /api/dashboard")
+    void shouldReturnSelectedSectionsOnGetApiDashboard() throws Exception {
+        DashboardService.Dashboard dashboard = new DashboardService.Dashboard();
+        dashboard.getSections().put("activityTrackerEnabled", true);
+        when(dashboardService.parseInclude("activityTrackerEnabled")).thenReturn(Set.of("activityTrackerEnabled"));
+        when(dashboardService.assemble(Set.of("activityTrackerEnabled"))).thenReturn(dashboard);
+        when(rconService.getMillisUntilRefresh()).thenReturn(60000L);
+
+        mockMvc.perform(get("/api/dashboard").param("include", "activityTrackerEnabled"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.sections.activityTrackerEnabled").value(true))
+                .andExpect(jsonPath("$.complete").value(true))
+                .andExpect(header().string("Cache-Control", containsString("max-age=60")));
+    }
+
+    @Test
+    @DisplayName("Should not let partial dashboards be cached")
+    void shouldNotLetPartialDashboardsBeCached() throws Exception {
+        DashboardService.Dashboard dashboard = new DashboardService.Dashboard();
+        dashboard.getSections().put("stats", null);
+        dashboard.getErrors().put("stats", "Timed out after 3000 ms");
+        when(dashboardService.parseInclude(null)).thenReturn(Set.of("stats"));
+        when(dashboardService.assemble(Set.of("stats"))).thenReturn(dashboard);
+        when(rconService.getMillisUntilRefresh()).thenReturn(60000L);
+
+        mockMvc.perform(get("/api/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errors.stats").value("Timed out after 3000 ms"))
+                .andExpect(header().string("Cache-Control", containsString("max-age=0")));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown dashboard sections")
+    void shouldRejectUnknownDashboardSections() throws Exception {
+        when(dashboardService.parseInclude("players"))
+                .thenThrow(new IllegalArgumentException("Unknown dashboard section: players"));
+
+        mockMvc.perform(get("/api/dashboard").param("include", "players"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should answer 429 with Retry-After when a client exceeds its budget")
+    void shouldAnswerTooManyRequestsWhenClientExceedsBudget() throws Exception {
+        RconService.ResourceUsage usage = new RconService.ResourceUsage("20.0, 20.0, 20.0", "1024MB", "2048MB", "1024MB", 50.0);
+        when(rconService.getResourceUsage()).thenReturn(usage);
+        when(serverConfig.isRateLimitEnabled()).thenReturn(true);
+        when(serverConfig.getRateLimitRconPerMinute()).thenReturn(1);
+        when(serverConfig.getRateLimitRconBurst()).thenReturn(1);
+
+        mockMvc.perform(get("/api/resources"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/resources"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.error").value("Too many requests"));
+    }
+
+    @Test
+    @DisplayName("Should limit admin endpoints by the admin budget rather than the public one")
+    void shouldLimitAdminEndpointsByAdminBudget() throws Exception {
+        when(backupService.getHistory()).thenReturn(List.of());
+        when(rconService.getSnapshot()).thenReturn(new RconService.Snapshot(1, mockStatus, Instant.now(), List.of()));
+        when(serverConfig.isRateLimitEnabled()).thenReturn(true);
+        when(serverConfig.getRateLimitApiPerMinute()).thenReturn(600);
+        when(serverConfig.getRateLimitApiBurst()).thenReturn(100);
+        when(serverConfig.getRateLimitAdminPerMinute()).thenReturn(1);
+        when(serverConfig.getRateLimitAdminBurst()).thenReturn(1);
+
+        mockMvc.perform(get("/api/backups/status").with(httpBasic("admin", "admin")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/backups/status").with(httpBasic("admin", "admin")))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(get("/api/status"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should stream batch command results as NDJSON")
+    void shouldStreamBatchCommandResultsAsNdjson() throws Exception {
+        when(rconService.sendCommands(eq(List.of("whitelist add Steve", "list")), eq(true), any()))
+                .thenAnswer(invocation -> {
+                    Consumer<CommandResult> results = invocation.getArgument(2);
+                    results.accept(new CommandResult(0, "whitelist add Steve", true, "Added Steve to the whitelist"));
+                    results.accept(new CommandResult(1, "list", true, "There are 0 of a max of 20 players online"));
+                    return 2;
+                });
+
+        String[] lines = mockMvc.perform(post("/api/command/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"admin\",\"password\":\"admin\","
+                                + "\"commands\":[\"whitelist add Steve\",\"list\"],\"stopOnError\":true}"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString().split("\n");
+
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].contains("Added Steve to the whitelist"));
+        assertTrue(lines[2].contains("\"executed\":2"));
+        assertTrue(lines[2].contains("\"stopped\":false"));
+    }
+
+    @Test
+    @DisplayName("Should charge every command in a batch to the batch budget")
+    void shouldChargeEveryBatchCommandToBatchBudget() throws Exception {
+        when(serverConfig.isRateLimitEnabled()).thenReturn(true);
+        when(serverConfig.getRateLimitCommandPerMinute()).thenReturn(60);
+        when(serverConfig.getRateLimitCommandBurst()).thenReturn(10);
+        when(serverConfig.getRateLimitBatchCommandsPerMinute()).thenReturn(60);
+        when(serverConfig.getRateLimitBatchCommandsBurst()).thenReturn(2);
+        String content = "{\"username\":\"admin\",\"password\":\"admin\",\"commands\":[\"list\",\"list\"]}";
+
+        mockMvc.perform(post("/api/command/batch")
+                        .contentType(MediaType.APPLICATION_JSON).content(content))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/command/batch")
+                        .contentType(MediaType.APPLICATION_JSON).content(content))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"));
+    }
+
+    @Test
+    @DisplayName("Should reject batch with invalid credentials")
+    void shouldRejectBatchWithInvalidCredentials() throws Exception {
+        mockMvc.perform(post("/api/command/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"admin\",\"password\":\"wrong\",\"commands\":[\"list\"]}"))
+                .andExpect(status().isUnauthorized());
+
+        verify(rconService, never()).sendCommands(anyList(), anyBoolean(), any());
+    }
+
+    @Test
+    @DisplayName("Should reject batch with empty command")
+    void shouldRejectBatchWithEmptyCommand() throws Exception {
+        mockMvc.perform(post("/api/command/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"admin\",\"password\":\"admin\",\"commands\":[\"list\",\" \"]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should accept command job and return its id")
+    void shouldAcceptCommandJobAndReturnItsId() throws Exception {
+        when(commandJobService.submit("save-all flush"))
+                .thenReturn(new CommandJobService.Job("job-1", "save-all flush", Instant.now()));
+
+        mockMvc.perform(post("/api/command/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"admin\",\"password\":\"admin\",\"command\":\"save-all flush\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/command/jobs/job-1"))
+                .andExpect(jsonPath("$.id").value("job-1"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    @DisplayName("Should reject command job with invalid credentials")
+    void shouldRejectCommandJobWithInvalidCredentials() throws Exception {
+        mockMvc.perform(post("/api/command/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"admin\",\"password\":\"wrong\",\"command\":\"list\"}"))
+                .andExpect(status().isUnauthorized());
+
+        verify(commandJobService, never()).submit(anyString());
+    }
+
+    @Test
+    @DisplayName("Should answer 503 when the job queue is full")
+    void shouldAnswerServiceUnavailableWhenJobQueueIsFull() throws Exception {
+        when(commandJobService.submit("list")).thenThrow(new RejectedExecutionException("Job queue is full"));
+
+        mockMvc.perform(post("/api/command/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"admin\",\"password\":\"admin\",\"command\":\"list\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    @DisplayName("Should return command job by id")
+    void shouldReturnCommandJobById() throws Exception {
+        when(commandJobService.getJob("job-1"))
+                .thenReturn(new CommandJobService.Job("job-1", "list", Instant.now()));
+
+        mockMvc.perform(get("/api/command/jobs/job-1").with(httpBasic("admin", "admin")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.command").value("list"));
+
+        mockMvc.perform(get("/api/command/jobs/missing").with(httpBasic("admin", "admin")))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should require Basic authentication for command jobs")
+    void shouldRequireBasicAuthenticationForCommandJobs() throws Exception {
+        mockMvc.perform(get("/api/command/jobs/job-1"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string("WWW-Authenticate", "Basic realm=\"admin\""));
+
+        mockMvc.perform(get("/api/command/jobs/job-1").with(httpBasic("admin", "wrong")))
+                .andExpect(status().isUnauthorized());
+
+        verify(commandJobService, never()).getJob(anyString());
+    }
+
+    @Test
+    @DisplayName("Should require Basic authentication for schedules")
+    void shouldRequireBasicAuthenticationForSchedules() throws Exception {
+        mockMvc.perform(get("/api/schedules"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string("WWW-Authenticate", "Basic realm=\"admin\""));
+
+        mockMvc.perform(get("/api/schedules").with(httpBasic("admin", "wrong")))
+                .andExpect(status().isUnauthorized());
+
+        verify(scheduledCommandService, never()).getSchedules();
+    }
+
+    @Test
+    @DisplayName("Should list schedules and running ids")
+    void shouldListSchedulesAndRunningIds() throws Exception {
+        ScheduledCommand schedule = new ScheduledCommand();
+        schedule.setId("nightly");
+        schedule.setCron("0 4 * * *");
+        schedule.setCommand("save-all flush");
+        when(scheduledCommandService.getSchedules()).thenReturn(List.of(schedule));
+        when(scheduledCommandService.getRunningIds()).thenReturn(Set.of("nightly"));
+
+        mockMvc.perform(get("/api/schedules").with(httpBasic("admin", "admin")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.schedules[0].command").value("save-all flush"))
+                .andExpect(jsonPath("$.running[0]").value("nightly"));
+    }
+
+    @Test
+    @DisplayName("Should create a schedule and reject invalid cron expressions")
+    void shouldCreateScheduleAndRejectInvalidCron() throws Exception {
+        ScheduledCommand created = new ScheduledCommand();
+        created.setId("nightly");
+        created.setCommand("save-all flush");
+        when(scheduledCommandService.create(any(ScheduledCommand.class))).thenReturn(created);
+
+        mockMvc.perform(post("/api/schedules").with(httpBasic("admin", "admin"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"cron\":\"0 4 * * *\",\"command\":\"save-all flush\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "/api/schedules/nightly"))
+                .andExpect(jsonPath("$.schedule.id").value("nightly"));
+
+        when(scheduledCommandService.create(any(ScheduledCommand.class)))
+                .thenThrow(new IllegalArgumentException("Cron expression is required"));
+
+        mockMvc.perform(post("/api/schedules").with(httpBasic("admin", "admin"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"command\":\"save-all flush\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Cron expression is required"));
+    }
+
+    @Test
+    @DisplayName("Should delete schedules and return 404 for unknown ids")
+    void shouldDeleteSchedules() throws Exception {
+        when(scheduledCommandService.delete("nightly")).thenReturn(true);
+
+        mockMvc.perform(delete("/api/schedules/nightly").with(httpBasic("admin", "admin")))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(delete("/api/schedules/missing").with(httpBasic("admin", "admin")))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should return schedule run history")
+    void shouldReturnScheduleRunHistory() throws Exception {
+        ScheduledCommandService.Run run = new ScheduledCommandService.Run("nightly", "Nightly save", "save-all flush",
+                Instant.parse("2026-01-01T04:00:00Z"), Instant.parse("2026-01-01T04:00:00Z"), 120,
+                ScheduledCommandService.RunOutcome.SUCCEEDED, "Saved the game");
+        when(scheduledCommandService.getHistory("nightly", 10)).thenReturn(List.of(run));
+
+        mockMvc.perform(get("/api/schedules/history").with(httpBasic("admin", "admin"))
+                        .param("scheduleId", "nightly").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.runs[0].durationMs").value(120))
+                .andExpect(jsonPath("$.runs[0].outcome").value("SUCCEEDED"));
+    }
+
+    @Test
+    @DisplayName("Should require Basic authentication for flight recordings")
+    void shouldRequireBasicAuthenticationForFlightRecordings() throws Exception {
+        mockMvc.perform(get("/api/admin/flight-recording").with(httpBasic("admin", "wrong")))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string("WWW-Authenticate", "Basic realm=\"admin\""));
+
+        verify(flightRecorderService, never()).dump(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should reject flight recording windows outside the recorded age")
+    void shouldRejectFlightRecordingWindowOutsideMaxAge() throws Exception {
+        when(flightRecorderService.isRecording()).thenReturn(true);
+        when(flightRecorderService.getMaxAge()).thenReturn(Duration.ofMinutes(60));
+
+        mockMvc.perform(get("/api/admin/flight-recording").with(httpBasic("admin", "admin")).param("minutes", "61"))
+                .andExpect(status().isBadRequest());
+
+        when(flightRecorderService.isRecording()).thenReturn(false);
+
+        mockMvc.perform(get("/api/admin/flight-recording").with(httpBasic("admin", "admin")))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    @DisplayName("Should stream the flight recording as a .jfr download")
+    void shouldStreamFlightRecordingAsDownload() throws Exception {
+        when(flightRecorderService.isRecording()).thenReturn(true);
+        when(flightRecorderService.getMaxAge()).thenReturn(Duration.ofMinutes(60));
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("FLR".getBytes(StandardCharsets.US_ASCII));
+            return null;
+        }).when(flightRecorderService).dump(eq(Duration.ofMinutes(15)), any());
+
+        mockMvc.perform(get("/api/admin/flight-recording").with(httpBasic("admin", "admin"))
+                        .param("minutes", "15"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(header().string("Content-Disposition", containsString(".jfr\"")))
+                .andExpect(content().string("FLR"));
+    }
+
+    @Test
+    @DisplayName("Should require Basic authentication for backups")
+    void shouldRequireBasicAuthenticationForBackups() throws Exception {
+        mockMvc.perform(post("/api/backups").with(httpBasic("admin", "wrong")))
+                .andExpect(status().isUnauthorized());
+
+        verify(backupService, never()).startBackup();
+    }
+
+    @Test
+    @DisplayName("Should start a backup and refuse a second one while it runs")
+    void shouldStartBackupAndRefuseWhileRunning() throws Exception {
+        when(backupService.getStatus()).thenReturn(new BackupService.Status(
+                BackupService.Operation.BACKUP, null, Instant.now(), null, null, null, null));
+        when(backupService.startBackup()).thenReturn(true, false);
+
+        mockMvc.perform(post("/api/backups").with(httpBasic("admin", "admin")))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status.operation").value("BACKUP"));
+
+        mockMvc.perform(post("/api/backups").with(httpBasic("admin", "admin")))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("Should return 404 when restoring an unknown backup")
+    void shouldReturnNotFoundForUnknownBackup() throws Exception {
+        when(backupService.startRestore("20260101-000000"))
+                .thenThrow(new IllegalArgumentException("No backup snapshot 20260101-000000"));
+
+        mockMvc.perform(post("/api/backups/20260101-000000/restore").with(httpBasic("admin", "admin")))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should start exporting a backup archive")
+    void shouldStartBackupArchive() throws Exception {
+        when(backupService.getStatus()).thenReturn(new BackupService.Status(
+                BackupService.Operation.ARCHIVE, "20260101-000000", Instant.now(), null, null, null, null));
+        when(backupService.startArchive("20260101-000000")).thenReturn(true);
+        when(backupService.startArchive("20250101-000000"))
+                .thenThrow(new IllegalArgumentException("No backup snapshot 20250101-000000"));
+
+        mockMvc.perform(post("/api/backups/20260101-000000/archive").with(httpBasic("admin", "admin")))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status.operation").value("ARCHIVE"));
+        mockMvc.perform(post("/api/backups/20250101-000000/archive").with(httpBasic("admin", "admin")))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should restore from an archive file name with dots")
+    void shouldRestoreFromArchive() throws Exception {
+        when(backupService.getStatus()).thenReturn(new BackupService.Status(
+                BackupService.Operation.RESTORE, "20260101-000000.tar.gz", Instant.now(), null, null, null, null));
+        when(backupService.startArchiveRestore("20260101-000000.tar.gz")).thenReturn(true);
+
+        mockMvc.perform(post("/api/backups/archives/20260101-000000.tar.gz/restore").with(httpBasic("admin", "admin")))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status.snapshotId").value("20260101-000000.tar.gz"));
+
+        verify(backupService).startArchiveRestore("20260101-000000.tar.gz");
+    }
+
+    @Test
+    @DisplayName("Should accept an archive export when the status is not available yet")
+    void shouldAcceptArchiveWithoutStatus() throws Exception {
+        when(backupService.getStatus()).thenReturn(null);
+        when(backupService.startArchive("20260101-000000")).thenReturn(true);
+
+        mockMvc.perform(post("/api/backups/20260101-000000/archive").with(httpBasic("admin", "admin")))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should start verifying a backup or an archive")
+    void shouldStartVerification() throws Exception {
+        when(backupService.getStatus()).thenReturn(new BackupService.Status(
+                BackupService.Operation.VERIFY, "20260101-000000", Instant.now(), null, null, null, null));
+        when(backupService.startVerify("20260101-000000")).thenReturn(true);
+        when(backupService.startVerify("20250101-000000"))
+                .thenThrow(new IllegalArgumentException("No backup snapshot 20250101-000000"));
+        when(backupService.startArchiveVerify("20260101-000000.tar.gz")).thenReturn(false);
+
+        mockMvc.perform(post("/api/backups/20260101-000000/verify").with(httpBasic("admin", "admin")))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status.operation").value("VERIFY"));
+        mockMvc.perform(post("/api/backups/20250101-000000/verify").with(httpBasic("admin", "admin")))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/backups/archives/20260101-000000.tar.gz/verify").with(httpBasic("admin", "admin")))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("Should start pruning old backups")
+    void shouldStartPrune() throws Exception {
+        when(backupService.getStatus()).thenReturn(new BackupService.Status(
+                BackupService.Operation.PRUNE, null, Instant.now(), null, null, null, null));
+        when(backupService.startPrune()).thenReturn(true);
+
+        mockMvc.perform(post("/api/backups/prune").with(httpBasic("admin", "admin")))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status.operation").value("PRUNE"));
+
+        verify(backupService).startPrune();
+    }
+
+    @Test
+    @DisplayName("Should list backups before any operation has reported a status")
+    void shouldListBackupsWithoutStatus() throws Exception {
+        when(backupService.getSnapshots()).thenReturn(List.of());
+        when(backupService.getArchives()).thenReturn(List.of());
+        when(backupService.getStatus()).thenReturn(null);
+
+        mockMvc.perform(get("/api/backups").with(httpBasic("admin", "admin")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.snapshots").isArray())
+                .andExpect(jsonPath("$.status").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should report backup progress, the next scheduled run and recent operations")
+    void shouldReturnBackupStatus() throws Exception {
+        BackupProgress progress = new BackupProgress();
+        progress.startPhase("verify");
+        progress.addTotal(10, 0);
+        progress.addDone(4, 4096);
+        when(backupService.getStatus()).thenReturn(new BackupService.Status(
+                BackupService.Operation.VERIFY, "20260101-000000", Instant.now(), null, null, null, progress));
+        when(backupService.getNextScheduledBackup()).thenReturn(null);
+        when(backupService.getHistory()).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/backups/status").with(httpBasic("admin", "admin")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status.progress.phase").value("verify"))
+                .andExpect(jsonPath("$.status.progress.itemsDone").value(4))
+                .andExpect(jsonPath("$.status.progress.itemsTotal").value(10))
+                .andExpect(jsonPath("$.history").isArray());
+        mockMvc.perform(get("/api/backups/status").with(httpBasic("admin", "wrong")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("Should download a deposit box file whole or from a byte range")
+    void shouldDownloadDepositFileWithRange() throws Exception {
+        Path file = Files.createTempFile("deposit", ".txt");
+        try {
+            Files.writeString(file, "hello world");
+            when(depositBoxService.findFile("/notes/hello.txt")).thenReturn(file);
+
+            mockMvc.perform(get("/api/deposit-box/files/notes/hello.txt").with(httpBasic("admin", "admin")))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Accept-Ranges", "bytes"))
+                    .andExpect(header().string("Upload-Offset", "11"))
+                    .andExpect(header().string("Content-Disposition", containsString("filename=\"" + file.getFileName())))
+                    .andExpect(content().string("hello world"));
+            mockMvc.perform(get("/api/deposit-box/files/notes/hello.txt").with(httpBasic("admin", "admin"))
+                            .header("Range", "bytes=6-"))
+                    .andExpect(status().isPartialContent())
+                    .andExpect(header().string("Content-Range", "bytes 6-10/11"))
+                    .andExpect(content().string("world"));
+            mockMvc.perform(get("/api/deposit-box/files/notes/hello.txt").with(httpBasic("admin", "admin"))
+                            .header("Range", "bytes=20-"))
+                    .andExpect(status().isRequestedRangeNotSatisfiable())
+                    .andExpect(header().string("Content-Range", "bytes */11"));
+            mockMvc.perform(get("/api/deposit-box/files/notes/hello.txt").with(httpBasic("admin", "admin"))
+                            .header("Range", "bytes=6-").header("If-Range", "\"stale\""))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("hello world"));
+            mockMvc.perform(head("/api/deposit-box/files/notes/hello.txt").with(httpBasic("admin", "admin")))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Upload-Offset", "11"))
+                    .andExpect(content().string(""));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse deposit box downloads without credentials, of missing files and outside the box")
+    void shouldRefuseDepositDownloads() throws Exception {
+        when(depositBoxService.findFile("/missing.txt")).thenReturn(null);
+        when(depositBoxService.findFile("/link/secret.txt")).thenThrow(new IllegalArgumentException("Not a path in the deposit box"));
+
+        mockMvc.perform(get("/api/deposit-box/files/missing.txt").with(httpBasic("admin", "wrong")))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().exists("WWW-Authenticate"));
+        verify(depositBoxService, never()).findFile(anyString());
+
+        mockMvc.perform(get("/api/deposit-box/files/missing.txt").with(httpBasic("admin", "admin")))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").exists());
+        mockMvc.perform(get("/api/deposit-box/files/link/secret.txt").with(httpBasic("admin", "admin")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should upload a deposit box file in pieces described by Content-Range")
+    void shouldUploadDepositFileInPieces() throws Exception {
+        when(depositBoxService.upload(eq("/world.zip"), eq(0L), eq(5L), eq(10L), any()))
+                .thenReturn(new DepositBoxService.UploadResult("world.zip", 5, 10, false));
+        when(depositBoxService.upload(eq("/world.zip"), eq(5L), eq(5L), eq(10L), any()))
+                .thenReturn(new DepositBoxService.UploadResult("world.zip", 10, 10, true));
+
+        mockMvc.perform(put("/api/deposit-box/files/world.zip").with(httpBasic("admin", "admin"))
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .header("Content-Range", "bytes 0-4/10")
+                        .content(new byte[5]))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Upload-Offset", "5"))
+                .andExpect(jsonPath("$.upload.complete").value(false));
+        mockMvc.perform(put("/api/deposit-box/files/world.zip").with(httpBasic("admin", "admin"))
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .header("Content-Range", "bytes 5-9/10")
+                        .content(new byte[5]))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Upload-Offset", "10"));
+        mockMvc.perform(put("/api/deposit-box/files/world.zip").with(httpBasic("admin", "admin"))
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .header("Content-Range", "bytes 0-9/10")
+                        .content(new byte[5]))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should report where to resume when an upload conflicts or is cut short")
+    void shouldReportUploadOffsetOnFailedUpload() throws Exception {
+        when(depositBoxService.upload(eq("/world.zip"), eq(20L), anyLong(), anyLong(), any()))
+                .thenThrow(new IllegalStateException("Upload of world.zip must resume at 10, not 20"));
+        when(depositBoxService.upload(eq("/world.zip"), eq(10L), anyLong(), anyLong(), any()))
+                .thenThrow(new EOFException("Upload of world.zip ended early"));
+        when(depositBoxService.uploadOffset("/world.zip")).thenReturn(10L);
+
+        mockMvc.perform(put("/api/deposit-box/files/world.zip").with(httpBasic("admin", "admin"))
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .header("Content-Range", "bytes 20-24/100")
+                        .content(new byte[5]))
+                .andExpect(status().isConflict())
+                .andExpect(header().string("Upload-Offset", "10"));
+        mockMvc.perform(put("/api/deposit-box/files/world.zip").with(httpBasic("admin", "admin"))
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .header("Content-Range", "bytes 10-14/100")
+                        .content(new byte[5]))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string("Upload-Offset", "10"));
+        mockMvc.perform(put("/api/deposit-box/files/world.zip").with(httpBasic("admin", "wrong"))
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(new byte[5]))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("Should download backup archives with range support")
+    void shouldDownloadBackupArchive() throws Exception {
+        Path archive = Files.createTempFile("archive", ".tar.gz");
+        try {
+            Files.write(archive, new byte[] {0x1f, (byte) 0x8b, 8, 0});
+            when(backupService.findArchive("20260101-000000.tar.gz")).thenReturn(archive);
+
+            mockMvc.perform(get("/api/backups/archives/20260101-000000.tar.gz").with(httpBasic("admin", "admin"))
+                            .header("Range", "bytes=0-1"))
+                    .andExpect(status().isPartialContent())
+                    .andExpect(content().contentType("application/gzip"))
+                    .andExpect(header().string("Content-Disposition", containsString("20260101-000000.tar.gz")))
+                    .andExpect(content().bytes(new byte[] {0x1f, (byte) 0x8b}));
+            mockMvc.perform(get("/api/backups/archives/20250101-000000.tar.gz").with(httpBasic("admin", "admin")))
+                    .andExpect(status().isNotFound());
+        } finally {
+            Files.delete(archive);
+        }
+    }
+
+    @Test
+    @DisplayName("Should stream the live world as an archive in the requested format")
+    void shouldStreamWorldArchive() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("TAR".getBytes(StandardCharsets.US_ASCII));
+            return 1;
+        }).when(backupService).writeServerArchive(any(), eq(false));
+
+        mockMvc.perform(get("/api/world/archive").with(httpBasic("admin", "admin")).param("format", "tar"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-tar"))
+                .andExpect(header().string("Accept-Ranges", "none"))
+                .andExpect(header().string("Content-Disposition", containsString(".tar\"")))
+                .andExpect(content().string("TAR"));
+        mockMvc.perform(get("/api/world/archive").with(httpBasic("admin", "admin")).param("format", "zip"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/world/archive").with(httpBasic("admin", "wrong")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("Should write the world archive on the request thread so no async timeout applies")
+    void shouldWriteWorldArchiveOnRequestThread() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("first".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            Thread.sleep(200);
+            out.write("second".getBytes(StandardCharsets.US_ASCII));
+            return 1;
+        }).when(backupService).writeServerArchive(any(), eq(true));
+
+        mockMvc.perform(get("/api/world/archive").with(httpBasic("admin", "admin")))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(content().string("firstsecond"));
+    }
+
+    @Test
+    @DisplayName("Should search the server log with the given terms, level and time range")
+    void shouldSearchServerLog() throws Exception {
+        LogEvent event = new LogEvent(7, Instant.parse("2026-01-01T18:04:11Z"), "INFO", "Server thread",
+                "Steve joined the game");
+        when(serverLogService.search("steve joined", Instant.parse("2026-01-01T00:00:00Z"), null, "INFO", 50))
+                .thenReturn(new LogIndex.SearchResult(List.of(event), false));
+        when(serverLogService.getStats()).thenReturn(new LogIndex.Stats(1, 1000, 1, 4, event.getTimestamp(), event.getTimestamp()));
+
+        mockMvc.perform(get("/api/logs/search").with(httpBasic("admin", "admin"))
+                        .param("q", "steve joined")
+                        .param("level", "INFO")
+                        .param("from", "2026-01-01T00:00:00Z")
+                        .param("limit", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events[0].message").value("Steve joined the game"))
+                .andExpect(jsonPath("$.events[0].thread").value("Server thread"))
+                .andExpect(jsonPath("$.truncated").value(false))
+                .andExpect(jsonPath("$.tookMicros").exists())
+                .andExpect(jsonPath("$.index.events").value(1));
+    }
+
+    @Test
+    @DisplayName("Should refuse log searches without credentials or with bad parameters")
+    void shouldRefuseBadLogSearches() throws Exception {
+        when(serverLogService.search(any(), any(), any(), eq("LOUD"), anyInt()))
+                .thenThrow(new IllegalArgumentException("Level must be one of [TRACE, DEBUG, INFO, WARN, ERROR, FATAL]"));
+
+        mockMvc.perform(get("/api/logs/search").with(httpBasic("admin", "wrong")))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/logs/search").with(httpBasic("admin", "admin")).param("from", "yesterday"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", containsString("ISO-8601")));
+        mockMvc.perform(get("/api/logs/search").with(httpBasic("admin", "admin")).param("limit", "5000"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/logs/search").with(httpBasic("admin", "admin")).param("level", "LOUD"))
+                .andExpect(status().isBadRequest());
+
+        verify(serverLogService, never()).search(any(), any(), any(), eq(null), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should serve the lag series merged with the status history")
+    void shouldServeLag() throws Exception {
+        Instant start = Instant.parse("2026-01-01T18:00:00Z");
+        LagSample sample = new LagSample(start, 1, 50, 2534, 0, 0, 0, 19.94, 19.5, 3);
+        LagEvent event = new LagEvent(start.plusSeconds(30), LagEvent.Kind.TICK_LAG, 2534, 50,
+                "Can't keep up! Is the server overloaded? Running 2534ms or 50 ticks behind");
+        when(rconService.getRetrievalHistory()).thenReturn(List.of());
+        when(lagMonitorService.getSeries(any(), any(), eq(Duration.ofSeconds(900)), eq(List.of())))
+                .thenReturn(List.of(sample));
+        when(lagMonitorService.getEvents(any(), any(), anyInt())).thenReturn(List.of(event));
+        when(lagMonitorService.getEventsDetected()).thenReturn(1L);
+
+        mockMvc.perform(get("/api/lag").param("hours", "6").param("bucket", "900"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bucketSeconds").value(900))
+                .andExpect(jsonPath("$.series[0].ticksSkipped").value(50))
+                .andExpect(jsonPath("$.series[0].rconTps").value(19.5))
+                .andExpect(jsonPath("$.events[0].kind").value("TICK_LAG"))
+                .andExpect(jsonPath("$.eventsDetected").value(1));
+    }
+
+    @Test
+    @DisplayName("Should refuse lag requests with bad ranges")
+    void shouldRefuseBadLagRequests() throws Exception {
+        when(lagMonitorService.getSeries(any(), any(), eq(Duration.ofSeconds(1)), any()))
+                .thenThrow(new IllegalArgumentException("Range needs more than 2000 intervals"));
+
+        mockMvc.perform(get("/api/lag").param("hours", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/lag").param("bucket", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/lag").param("bucket", "1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", containsString("2000")));
+    }
+
+    @Test
+    @DisplayName("Should report whether the leaderboard comes from the plugin or the server log")
+    void shouldReportLeaderboardSource() throws Exception {
+        when(activityTrackerService.isAvailable()).thenReturn(true);
+        when(activityTrackerService.getSource()).thenReturn("log");
+
+        mockMvc.perform(get("/api/activity-tracker/enabled"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enabled").value(true))
+                .andExpect(jsonPath("$.source").value("log"));
+    }
+
+    @Test
+    @DisplayName("Should serve a leaderboard for any indexed stat")
+    void shouldServeStatsLeaderboard() throws Exception {
+        Instant scannedAt = Instant.parse("2026-01-01T18:00:00Z");
+        StatsIndex index = new StatsIndex(
+                List.of(new PlayerStats("069a79f4", new String[] {"mined/*"}, new long[] {1027})),
+                Map.of("069a79f4", "Steve"), Map.of(), scannedAt);
+        when(worldStatsService.getIndex()).thenReturn(index);
+        when(worldStatsService.top("mined/*", 5)).thenReturn(index.top("mined/*", 5));
+        when(worldStatsService.top(eq("killed/*"), anyInt()))
+                .thenThrow(new IllegalArgumentException("No player has the stat killed/*"));
+
+        mockMvc.perform(get("/api/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.players").value(1))
+                .andExpect(jsonPath("$.stats['mined/*']").value(1));
+        mockMvc.perform(get("/api/stats/leaderboard").param("stat", "mined/*").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entries[0].playerName").value("Steve"))
+                .andExpect(jsonPath("$.entries[0].value").value(1027));
+        mockMvc.perform(get("/api/stats/leaderboard").param("stat", "killed/*"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/stats/leaderboard").param("stat", "mined/*").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should report world storage to admins only")
+    void shouldReportWorldStorage() throws Exception {
+        WorldReport report = new WorldReport(Instant.parse("2026-01-01T18:00:00Z"), 3, 1, 0, 12,
+                List.of(new WorldReport.Dimension("minecraft:overworld", "world", 1, 900, 4_000_000, 8192,
+                        1000, 500, Instant.parse("2025-06-01T00:00:00Z"), Instant.parse("2026-01-01T17:00:00Z"))),
+                List.of(), List.of(), List.of(new WorldReport.Chunk("minecraft:overworld", -3, 7,
+                        Instant.parse("2025-06-01T00:00:00Z"))));
+        when(worldStorageService.analyze(5)).thenReturn(report);
+        when(worldStorageService.analyze(WorldAnalyzer.MAX_LIMIT + 1))
+                .thenThrow(new IllegalArgumentException("Limit must be between 0 and " + WorldAnalyzer.MAX_LIMIT));
+
+        mockMvc.perform(get("/api/admin/world/storage").param("limit", "5"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/admin/world/storage").param("limit", "5").with(httpBasic("admin", "admin")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.report.dimensions[0].name").value("minecraft:overworld"))
+                .andExpect(jsonPath("$.report.dimensions[0].totalBytes").value(4_001_500))
+                .andExpect(jsonPath("$.report.oldestChunks[0].x").value(-3));
+        mockMvc.perform(get("/api/admin/world/storage").param("limit", String.valueOf(WorldAnalyzer.MAX_LIMIT + 1))
+                        .with(httpBasic("admin", "admin")))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static RequestPostProcessor httpBasic(String username, String password) {
+        String credentials = Base64.getEncoder().encodeToString(
+                (username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        return request -> {
+            request.addHeader("Authorization", "Basic " + credentials);
+            return request;
+        };
+    }
 }
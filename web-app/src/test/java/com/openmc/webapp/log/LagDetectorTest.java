@@ -0,0 +1,72 @@
+package com.openmc.webapp.log;
+
+import com.openmc.webapp.model.LagEvent;
+import com.openmc.webapp.model.LogEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LagDetector Tests")
+class LagDetectorTest {
+
+    private static final Instant TIME = Instant.parse("2026-01-01T18:04:11Z");
+
+    private static LagEvent detect(String level, String thread, String message) {
+        return LagDetector.detect(new LogEvent(1, TIME, level, thread, message));
+    }
+
+    @Test
+    @DisplayName("Should read the lag and skipped ticks from Can't keep up warnings")
+    void shouldDetectTickLag() {
+        LagEvent lag = detect("WARN", "Server thread",
+            "Can't keep up! Is the server overloaded? Running 2534ms or 50 ticks behind");
+
+        assertNotNull(lag);
+        assertEquals(TIME, lag.getTimestamp());
+        assertEquals(LagEvent.Kind.TICK_LAG, lag.getKind());
+        assertEquals(2534, lag.getMillis());
+        assertEquals(50, lag.getTicks());
+    }
+
+    @Test
+    @DisplayName("Should detect the vanilla, Paper and Spigot watchdog warnings")
+    void shouldDetectWatchdogWarnings() {
+        LagEvent vanilla = detect("FATAL", "Server Watchdog",
+            "A single server tick took 60.00 seconds (should be max 0.05)\n\tat java.base/java.lang.Thread.sleep");
+        LagEvent paper = detect("ERROR", "Paper Watchdog Thread",
+            "The server has not responded for 10 seconds! Creating thread dump");
+        LagEvent spigot = detect("ERROR", "Spigot Watchdog Thread",
+            "The server has stopped responding! This is (probably) not a Spigot bug.");
+
+        assertEquals(LagEvent.Kind.WATCHDOG, vanilla.getKind());
+        assertEquals(60_000, vanilla.getMillis());
+        assertEquals("A single server tick took 60.00 seconds (should be max 0.05)", vanilla.getMessage());
+        assertEquals(10_000, paper.getMillis());
+        assertEquals(LagEvent.Kind.WATCHDOG, spigot.getKind());
+        assertEquals(0, spigot.getMillis());
+    }
+
+    @Test
+    @DisplayName("Should detect garbage collection warnings with a pause time")
+    void shouldDetectGcPauses() {
+        LagEvent millis = detect("WARN", "Server thread", "[spark] GC pause of 1,234ms in G1 Old Generation");
+        LagEvent seconds = detect("WARN", "Server thread", "Garbage collection took 2.5 seconds");
+
+        assertEquals(LagEvent.Kind.GC_PAUSE, millis.getKind());
+        assertEquals(1234, millis.getMillis());
+        assertEquals(2500, seconds.getMillis());
+    }
+
+    @Test
+    @DisplayName("Should ignore ordinary lines, chat and informational GC messages")
+    void shouldIgnoreOtherEvents() {
+        assertNull(detect("INFO", "Server thread", "Steve joined the game"));
+        assertNull(detect("INFO", "Async Chat Thread - #0", "<Steve> GC took 500ms lol"));
+        assertNull(detect("WARN", "Server thread", "GC overhead limit is close"));
+        assertNull(detect("INFO", "Server thread",
+            "Done (12.345s)! For help, type \"help\"\nCan't keep up! Is the server overloaded? Running 2534ms or 50 ticks behind"));
+    }
+}
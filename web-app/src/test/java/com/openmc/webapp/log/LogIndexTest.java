@@ -0,0 +1,119 @@
+package com.openmc.webapp.log;
+
+import com.openmc.webapp.model.LogEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LogIndex Tests")
+class LogIndexTest {
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    private long sequence;
+
+    private LogEvent event(int minute, String level, String message) {
+        return new LogEvent(sequence++, START.plusSeconds(minute * 60L), level, "Server thread", message);
+    }
+
+    private static List<String> messages(LogIndex.SearchResult result) {
+        return result.getEvents().stream().map(LogEvent::getMessage).toList();
+    }
+
+    private LogIndex sampleIndex() {
+        LogIndex index = new LogIndex(100);
+        index.add(event(0, "INFO", "Starting minecraft server version 1.21.10"));
+        index.add(event(1, "INFO", "Steve_99 joined the game"));
+        index.add(event(2, "WARN", "Can't keep up! Is the server overloaded? Running 2500ms or 50 ticks behind"));
+        index.add(event(3, "INFO", "Steven joined the game"));
+        index.add(event(4, "ERROR", "Exception in net.minecraft.server.level.ServerLevel"));
+        index.add(event(5, "INFO", "Steve_99 left the game"));
+        return index;
+    }
+
+    @Test
+    @DisplayName("Should find events containing every term, newest first")
+    void shouldFindEventsWithAllTerms() {
+        LogIndex index = sampleIndex();
+
+        assertEquals(List.of("Steve_99 left the game", "Steve_99 joined the game"),
+            messages(index.search("steve", null, null, null, 10)));
+        assertEquals(List.of("Steven joined the game", "Steve_99 joined the game"),
+            messages(index.search("JOINED game", null, null, null, 10)));
+        assertEquals(List.of("Steve_99 joined the game"),
+            messages(index.search("steve_99 joined", null, null, null, 10)));
+        assertTrue(index.search("creeper", null, null, null, 10).getEvents().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should match terms with punctuation as written")
+    void shouldMatchTermsAsWritten() {
+        LogIndex index = sampleIndex();
+
+        assertEquals(1, index.search("net.minecraft.server", null, null, null, 10).getEvents().size());
+        assertTrue(index.search("minecraft.net", null, null, null, 10).getEvents().isEmpty());
+        assertEquals(1, index.search("can't", null, null, null, 10).getEvents().size());
+    }
+
+    @Test
+    @DisplayName("Should filter by time range and minimum level")
+    void shouldFilterByTimeAndLevel() {
+        LogIndex index = sampleIndex();
+
+        assertEquals(List.of("Steven joined the game", "Can't keep up! Is the server overloaded? Running 2500ms or 50 ticks behind"),
+            messages(index.search(null, START.plusSeconds(120), START.plusSeconds(240), null, 10)));
+        assertEquals(List.of("Exception in net.minecraft.server.level.ServerLevel",
+                "Can't keep up! Is the server overloaded? Running 2500ms or 50 ticks behind"),
+            messages(index.search("", null, null, "warn", 10)));
+        assertEquals(1, index.search("server", START.plusSeconds(60), null, "ERROR", 10).getEvents().size());
+        assertThrows(IllegalArgumentException.class, () -> index.search(null, null, null, "LOUD", 10));
+    }
+
+    @Test
+    @DisplayName("Should stop at the limit and say there were more")
+    void shouldTruncateAtLimit() {
+        LogIndex index = sampleIndex();
+
+        LogIndex.SearchResult result = index.search("the", null, null, null, 2);
+
+        assertEquals(2, result.getEvents().size());
+        assertTrue(result.isTruncated());
+        assertFalse(index.search("the", null, null, null, 4).isTruncated());
+    }
+
+    @Test
+    @DisplayName("Should keep only the newest events and forget words of dropped ones")
+    void shouldStayBounded() {
+        LogIndex index = new LogIndex(10);
+        for (int i = 0; i < 100; i++) {
+            index.add(event(i, "INFO", "tick" + i + " message"));
+        }
+
+        LogIndex.Stats stats = index.getStats();
+        assertEquals(10, stats.getEvents());
+        assertEquals(100, stats.getEventsIndexed());
+        assertEquals(START.plusSeconds(90 * 60), stats.getOldest());
+        assertEquals(START.plusSeconds(99 * 60), stats.getNewest());
+        assertTrue(stats.getWords() <= 21, "words: " + stats.getWords());
+        assertTrue(index.search("tick5", null, null, null, 10).getEvents().isEmpty());
+        assertEquals(10, index.search("message", null, null, null, 100).getEvents().size());
+        assertEquals(1, index.search("tick95", null, null, null, 10).getEvents().size());
+    }
+
+    @Test
+    @DisplayName("Should keep time ranges searchable when events arrive out of order")
+    void shouldHandleOutOfOrderEvents() {
+        LogIndex index = new LogIndex(10);
+        index.add(event(10, "INFO", "later"));
+        index.add(event(5, "INFO", "earlier clock"));
+        index.add(event(11, "INFO", "latest"));
+
+        assertEquals(List.of("latest", "earlier clock", "later"),
+            messages(index.search(null, START.plusSeconds(600), null, null, 10)));
+        assertEquals(List.of("latest"), messages(index.search(null, START.plusSeconds(660), null, null, 10)));
+    }
+}
@@ -0,0 +1,121 @@
+package com.openmc.webapp.log;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LogTailer Tests")
+class LogTailerTest {
+
+    private Path root;
+    private Path log;
+    private LogTailer tailer;
+    private final List<String> lines = new ArrayList<>();
+    private int filesStarted;
+
+    private final LogTailer.Listener listener = new LogTailer.Listener() {
+        @Override
+        public void fileStarted(FileTime created) {
+            filesStarted++;
+        }
+
+        @Override
+        public void line(String line) {
+            lines.add(line);
+        }
+    };
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = Files.createTempDirectory("log-tailer");
+        log = root.resolve("latest.log");
+        tailer = new LogTailer(log);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        tailer.close();
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private void append(String text) throws IOException {
+        Files.writeString(log, text, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Test
+    @DisplayName("Should read only what was appended since the last poll")
+    void shouldReadAppendedBytes() throws IOException {
+        assertEquals(0, tailer.poll(listener));
+
+        append("first\nsec");
+        assertEquals(9, tailer.poll(listener));
+        assertEquals(List.of("first"), lines);
+
+        append("ond\r\nthird\n");
+        assertEquals(11, tailer.poll(listener));
+        assertEquals(0, tailer.poll(listener));
+
+        assertEquals(List.of("first", "second", "third"), lines);
+        assertEquals(1, filesStarted);
+        assertEquals(20, tailer.getPosition());
+    }
+
+    @Test
+    @DisplayName("Should finish the rotated file and then read the new one from its start")
+    void shouldFollowRotation() throws IOException {
+        append("one\n");
+        tailer.poll(listener);
+
+        append("two\nunfinished");
+        Files.move(log, root.resolve("2026-01-01-1.log"));
+        append("three\n");
+        tailer.poll(listener);
+
+        assertEquals(List.of("one", "two", "unfinished", "three"), lines);
+        assertEquals(2, filesStarted);
+    }
+
+    @Test
+    @DisplayName("Should wait while the log is missing between rotation steps")
+    void shouldWaitForMissingFile() throws IOException {
+        append("one\n");
+        tailer.poll(listener);
+        Files.move(log, root.resolve("2026-01-01-1.log"));
+
+        assertEquals(0, tailer.poll(listener));
+
+        append("two\n");
+        tailer.poll(listener);
+        assertEquals(List.of("one", "two"), lines);
+    }
+
+    @Test
+    @DisplayName("Should read a file truncated in place again from its start")
+    void shouldFollowTruncation() throws IOException {
+        append("a long first line\n");
+        tailer.poll(listener);
+
+        Files.writeString(log, "new\n", StandardCharsets.UTF_8, StandardOpenOption.TRUNCATE_EXISTING);
+        tailer.poll(listener);
+
+        assertEquals(List.of("a long first line", "new"), lines);
+    }
+}
@@ -0,0 +1,118 @@
+package com.openmc.webapp.log;
+
+import com.openmc.webapp.model.LogEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ServerLogParser Tests")
+class ServerLogParserTest {
+
+    private final List<LogEvent> events = new ArrayList<>();
+    private final ServerLogParser parser = new ServerLogParser(ZoneOffset.UTC, LocalDate.of(2026, 1, 1));
+
+    private void accept(String... lines) {
+        for (String line : lines) {
+            parser.accept(line, events::add);
+        }
+        parser.flush(events::add);
+    }
+
+    @Test
+    @DisplayName("Should parse the time, thread, level and message of server log lines")
+    void shouldParseFileFormat() {
+        accept("[18:04:11] [Server thread/INFO]: Steve joined the game",
+            "[18:04:12] [User Authenticator #1/WARN]: Could not verify Alex");
+
+        assertEquals(2, events.size());
+        LogEvent first = events.get(0);
+        assertEquals(Instant.parse("2026-01-01T18:04:11Z"), first.getTimestamp());
+        assertEquals("Server thread", first.getThread());
+        assertEquals("INFO", first.getLevel());
+        assertEquals("Steve joined the game", first.getMessage());
+        assertEquals("User Authenticator #1", events.get(1).getThread());
+        assertEquals("WARN", events.get(1).getLevel());
+        assertEquals(1, events.get(1).getSequence());
+    }
+
+    @Test
+    @DisplayName("Should parse console-style lines without a thread")
+    void shouldParseConsoleFormat() {
+        accept("[09:00:00 ERROR]: Could not pass event PlayerJoinEvent");
+
+        assertEquals(1, events.size());
+        assertNull(events.get(0).getThread());
+        assertEquals("ERROR", events.get(0).getLevel());
+        assertEquals("Could not pass event PlayerJoinEvent", events.get(0).getMessage());
+    }
+
+    @Test
+    @DisplayName("Should add lines without a timestamp to the event before them")
+    void shouldAttachContinuationLines() {
+        accept("Starting launcher",
+            "[10:00:00] [Server thread/ERROR]: Encountered an unexpected exception",
+            "java.lang.IllegalStateException: boom",
+            "\tat net.minecraft.server.MinecraftServer.run(MinecraftServer.java:700)",
+            "[10:00:01] [Server thread/INFO]: Stopping server");
+
+        assertEquals(2, events.size());
+        assertEquals("Encountered an unexpected exception\njava.lang.IllegalStateException: boom\n"
+            + "\tat net.minecraft.server.MinecraftServer.run(MinecraftServer.java:700)", events.get(0).getMessage());
+    }
+
+    @Test
+    @DisplayName("Should hold an event back until the next line or a flush")
+    void shouldHoldEventUntilComplete() {
+        parser.accept("[10:00:00] [Server thread/INFO]: Done", events::add);
+        assertTrue(events.isEmpty());
+
+        parser.accept("[10:00:01] [Server thread/INFO]: Saved", events::add);
+        assertEquals(1, events.size());
+
+        parser.flush(events::add);
+        assertEquals(2, events.size());
+    }
+
+    @Test
+    @DisplayName("Should move to the next day when the time wraps past midnight")
+    void shouldRollOverAtMidnight() {
+        accept("[23:59:58] [Server thread/INFO]: late",
+            "[23:59:30] [Server thread/INFO]: slightly out of order",
+            "[00:00:03] [Server thread/INFO]: early");
+
+        assertEquals(Instant.parse("2026-01-01T23:59:30Z"), events.get(1).getTimestamp());
+        assertEquals(Instant.parse("2026-01-02T00:00:03Z"), events.get(2).getTimestamp());
+    }
+
+    @Test
+    @DisplayName("Should take the date of each new file")
+    void shouldUseFileDate() {
+        parser.accept("[23:00:00] [Server thread/INFO]: old file", events::add);
+        parser.startFile(LocalDate.of(2026, 1, 5), events::add);
+        accept("[01:00:00] [Server thread/INFO]: new file");
+
+        assertEquals(Instant.parse("2026-01-01T23:00:00Z"), events.get(0).getTimestamp());
+        assertEquals(Instant.parse("2026-01-05T01:00:00Z"), events.get(1).getTimestamp());
+    }
+
+    @Test
+    @DisplayName("Should cap the length of an event's message")
+    void shouldCapMessageLength() {
+        List<String> lines = new ArrayList<>();
+        lines.add("[10:00:00] [Server thread/ERROR]: trace");
+        for (int i = 0; i < 1000; i++) {
+            lines.add("\tat com.example.Plugin.method" + i + "(Plugin.java:" + i + ")");
+        }
+        accept(lines.toArray(new String[0]));
+
+        assertEquals(1, events.size());
+        assertTrue(events.get(0).getMessage().length() <= ServerLogParser.MAX_MESSAGE_LENGTH + 1);
+    }
+}
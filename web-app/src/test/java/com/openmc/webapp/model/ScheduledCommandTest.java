@@ -0,0 +1,48 @@
+package com.openmc.webapp.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ScheduledCommand Tests")
+class ScheduledCommandTest {
+
+    @Test
+    @DisplayName("Should be enabled and run misfires once by default")
+    void shouldBeEnabledAndRunMisfiresOnceByDefault() {
+        ScheduledCommand schedule = new ScheduledCommand();
+        
+        assertTrue(schedule.isEnabled());
+        assertEquals(ScheduledCommand.MisfirePolicy.RUN_ONCE, schedule.getMisfirePolicy());
+        assertNull(schedule.getNextRunAt());
+    }
+
+    @Test
+    @DisplayName("Should copy every field")
+    void shouldCopyEveryField() {
+        ScheduledCommand schedule = new ScheduledCommand();
+        schedule.setId("nightly");
+        schedule.setName("Nightly save");
+        schedule.setCron("0 4 * * *");
+        schedule.setCommand("save-all flush");
+        schedule.setEnabled(false);
+        schedule.setMisfirePolicy(ScheduledCommand.MisfirePolicy.SKIP);
+        schedule.setLastRunAt(Instant.parse("2026-01-01T04:00:00Z"));
+        schedule.setNextRunAt(Instant.parse("2026-01-02T04:00:00Z"));
+        
+        ScheduledCommand copy = new ScheduledCommand(schedule);
+        schedule.setCommand("stop");
+        
+        assertEquals("nightly", copy.getId());
+        assertEquals("Nightly save", copy.getName());
+        assertEquals("0 4 * * *", copy.getCron());
+        assertEquals("save-all flush", copy.getCommand());
+        assertFalse(copy.isEnabled());
+        assertEquals(ScheduledCommand.MisfirePolicy.SKIP, copy.getMisfirePolicy());
+        assertEquals(Instant.parse("2026-01-01T04:00:00Z"), copy.getLastRunAt());
+        assertEquals(Instant.parse("2026-01-02T04:00:00Z"), copy.getNextRunAt());
+    }
+}
@@ -4,6 +4,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -25,4 +27,97 @@ class RconClientTest {
             new RconClient("localhost", 99999, "password");
         });
     }
+
+    @Test
+    @DisplayName("Should send command and return response")
+    void shouldSendCommandAndReturnResponse() throws IOException {
+        try (RconSimulator server = RconSimulator.start("secret", command -> "ran " + command);
+             RconClient client = new RconClient("localhost", server.getPort(), "secret")) {
+            assertEquals("ran list", client.sendCommand("list"));
+            assertEquals("ran tps", client.sendCommand("tps"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should throw IOException when authentication fails")
+    void shouldThrowExceptionWhenAuthenticationFails() throws IOException {
+        try (RconSimulator server = RconSimulator.start("secret", command -> "")) {
+            assertThrows(IOException.class, () -> {
+                new RconClient("localhost", server.getPort(), "wrong");
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("Should reassemble responses split across packets")
+    void shouldReassembleResponsesSplitAcrossPackets() throws IOException {
+        String longOutput = "x".repeat(10000);
+        try (RconSimulator server = RconSimulator.start("secret", command -> command.equals("long") ? longOutput : "short");
+             RconClient client = new RconClient("localhost", server.getPort(), "secret")) {
+            List<String> fragments = new ArrayList<>();
+            client.sendCommand("long", fragments::add);
+
+            assertEquals(3, fragments.size());
+            assertEquals(longOutput, String.join("", fragments));
+            // The next command must not see leftovers from the previous one
+            assertEquals("short", client.sendCommand("other"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should report connect, authentication and command timings to the listener")
+    void shouldReportTimingsToListener() throws IOException {
+        List<String> events = new ArrayList<>();
+        RconListener listener = new RconListener() {
+            @Override
+            public void connected(long nanos, boolean success) {
+                events.add("connected " + success);
+            }
+
+            @Override
+            public void authenticated(long nanos, boolean success) {
+                events.add("authenticated " + success);
+            }
+
+            @Override
+            public void commandCompleted(String command, long nanos, long bytesSent, long bytesReceived,
+                                         Throwable failure) {
+                // 14 header bytes per packet, plus the payload
+                events.add(command + " " + bytesSent + "/" + bytesReceived + " " + (failure == null));
+            }
+        };
+        try (RconSimulator server = RconSimulator.start("secret", command -> "ran " + command);
+             RconClient client = new RconClient("localhost", server.getPort(), "secret", listener)) {
+            client.sendCommand("list");
+        }
+        try (RconSimulator server = RconSimulator.start("secret", command -> "")) {
+            assertThrows(IOException.class, () -> new RconClient("localhost", server.getPort(), "wrong", listener));
+        }
+
+        assertEquals(List.of("connected true", "authenticated true", "list 18/22 true",
+            "connected true", "authenticated false"), events);
+    }
+
+    @Test
+    @DisplayName("Should read packets that arrive in several TCP segments")
+    void shouldReadPacketsArrivingInPieces() throws IOException {
+        String longOutput = "y".repeat(5000);
+        try (RconSimulator server = RconSimulator.builder().password("secret").writeChunkSize(3)
+                     .respond("long", longOutput).responder(command -> "ran " + command).start();
+             RconClient client = new RconClient("localhost", server.getPort(), "secret")) {
+            assertEquals(longOutput, client.sendCommand("long"));
+            assertEquals("ran list", client.sendCommand("list"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail the command when the server drops the connection")
+    void shouldFailCommandWhenServerDropsConnection() throws IOException {
+        try (RconSimulator server = RconSimulator.builder().password("secret").dropAfterCommands(1)
+                     .responder(command -> "ran " + command).start();
+             RconClient client = new RconClient("localhost", server.getPort(), "secret")) {
+            assertEquals("ran list", client.sendCommand("list"));
+            assertThrows(IOException.class, () -> client.sendCommand("list"));
+        }
+    }
 }
@@ -0,0 +1,151 @@
+package com.openmc.webapp.rcon;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RconCommandCache Tests")
+class RconCommandCacheTest {
+
+    private AtomicLong clock;
+    private AtomicInteger loads;
+    private RconCommandCache cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+        loads = new AtomicInteger();
+        cache = new RconCommandCache(Map.of("list", 2000L, "whitelist list", 30000L, "banlist", 30000L), clock::get);
+    }
+
+    private String load(String command) throws IOException {
+        return cache.get(command, () -> command + " #" + loads.incrementAndGet());
+    }
+
+    private void advance(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    @Test
+    @DisplayName("Should reuse a read-only result until its TTL expires")
+    void shouldReuseReadOnlyResultUntilTtlExpires() throws IOException {
+        assertEquals("list #1", load("list"));
+        advance(1999);
+        assertEquals("list #1", load("list"));
+
+        advance(1);
+        assertEquals("list #2", load("list"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    @DisplayName("Should key entries on normalized command text")
+    void shouldKeyEntriesOnNormalizedCommandText() throws IOException {
+        load("whitelist list");
+
+        assertEquals("whitelist list #1", cache.get("/Whitelist   LIST ", () -> "unexpected"));
+        assertTrue(cache.isCacheable(" /LIST"));
+    }
+
+    @Test
+    @DisplayName("Should send commands that are not on the allowlist every time")
+    void shouldBypassCommandsNotOnAllowlist() throws IOException {
+        assertEquals("say hi #1", load("say hi"));
+        assertEquals("say hi #2", load("say hi"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should share one in-flight request between identical callers")
+    void shouldShareInFlightRequest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = callers.submit(() -> cache.get("list", () -> {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "list #" + loads.incrementAndGet();
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> follower = callers.submit(() -> load("list"));
+            for (int i = 0; i < 200 && cache.getHitCount() == 0; i++) {
+                Thread.sleep(10);
+            }
+
+            release.countDown();
+
+            assertEquals("list #1", leader.get(5, TimeUnit.SECONDS));
+            assertEquals("list #1", follower.get(5, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should not cache failures")
+    void shouldNotCacheFailures() throws IOException {
+        assertThrows(IOException.class, () -> cache.get("list", () -> {
+            throw new IOException("Connection refused");
+        }));
+
+        assertEquals("list #1", load("list"));
+    }
+
+    @Test
+    @DisplayName("Should invalidate related entries after a write")
+    void shouldInvalidateRelatedEntriesAfterWrite() throws IOException {
+        load("whitelist list");
+        load("banlist");
+        load("list");
+
+        cache.invalidateFor("whitelist add Steve");
+        assertEquals("whitelist list #4", load("whitelist list"));
+        assertEquals("list #3", load("list"));
+
+        cache.invalidateFor("ban Griefer");
+        assertEquals("banlist #5", load("banlist"));
+
+        cache.invalidateFor("list");
+        assertEquals("list #3", load("list"));
+    }
+
+    @Test
+    @DisplayName("Should not cache a read that overlapped a write")
+    void shouldNotCacheReadThatOverlappedWrite() throws IOException {
+        cache.get("whitelist list", () -> {
+            cache.invalidateFor("whitelist remove Steve");
+            return "stale";
+        });
+
+        assertEquals("whitelist list #1", load("whitelist list"));
+    }
+
+    @Test
+    @DisplayName("Should parse an allowlist with per-command TTLs")
+    void shouldParseAllowlist() {
+        Map<String, Long> ttls = RconCommandCache.parseAllowlist("list=2000, Whitelist List=30000,");
+
+        assertEquals(Map.of("list", 2000L, "whitelist list", 30000L), ttls);
+        assertTrue(RconCommandCache.parseAllowlist("").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> RconCommandCache.parseAllowlist("list"));
+    }
+}
@@ -0,0 +1,147 @@
+package com.openmc.webapp.rcon;
+
+import com.openmc.webapp.rcon.RconCommandScheduler.Priority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RconCommandScheduler Tests")
+class RconCommandSchedulerTest {
+
+    private ExecutorService callers;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() {
+        callers = Executors.newCachedThreadPool();
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+
+    /**
+     * Occupy one slot until the test releases it.
+     */
+    private Future<String> holdSlot(RconCommandScheduler scheduler) throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        Future<String> holder = callers.submit(() -> scheduler.execute(Priority.ADMIN, () -> {
+            running.countDown();
+            awaitRelease();
+            return "held";
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        return holder;
+    }
+
+    private void awaitRelease() throws IOException {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+    }
+
+    private static void awaitQueueDepth(RconCommandScheduler scheduler, Priority priority, int depth)
+            throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            if (scheduler.getStats().getPriorities().get(priority).getQueueDepth() == depth) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("Queue for " + priority + " never reached " + depth);
+    }
+
+    @Test
+    @DisplayName("Should run the operation and record it")
+    void shouldRunOperationAndRecordIt() throws IOException {
+        RconCommandScheduler scheduler = new RconCommandScheduler(1, Map.of());
+
+        assertEquals("ok", scheduler.execute(Priority.POLLING, () -> "ok"));
+
+        RconCommandScheduler.PriorityStats stats = scheduler.getStats().getPriorities().get(Priority.POLLING);
+        assertEquals(1, stats.getExecuted());
+        assertEquals(0, stats.getQueueDepth());
+        assertEquals(0, scheduler.getStats().getInFlight());
+    }
+
+    @Test
+    @DisplayName("Should run admin commands before polling queued earlier")
+    void shouldRunAdminCommandsBeforeEarlierPolling() throws Exception {
+        RconCommandScheduler scheduler = new RconCommandScheduler(1, Map.of());
+        List<Priority> order = new CopyOnWriteArrayList<>();
+        Future<String> holder = holdSlot(scheduler);
+
+        Future<Priority> polling = callers.submit(() -> scheduler.execute(Priority.POLLING, () -> {
+            order.add(Priority.POLLING);
+            return Priority.POLLING;
+        }));
+        awaitQueueDepth(scheduler, Priority.POLLING, 1);
+        Future<Priority> admin = callers.submit(() -> scheduler.execute(Priority.ADMIN, () -> {
+            order.add(Priority.ADMIN);
+            return Priority.ADMIN;
+        }));
+        awaitQueueDepth(scheduler, Priority.ADMIN, 1);
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        polling.get(5, TimeUnit.SECONDS);
+        admin.get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(Priority.ADMIN, Priority.POLLING), order);
+    }
+
+    @Test
+    @DisplayName("Should drop polling that waited past its deadline")
+    void shouldDropPollingPastDeadline() throws Exception {
+        RconCommandScheduler scheduler = new RconCommandScheduler(1, Map.of(Priority.POLLING, 50L));
+        holdSlot(scheduler);
+
+        assertThrows(RconBusyException.class, () -> scheduler.execute(Priority.POLLING, () -> "stale"));
+
+        RconCommandScheduler.PriorityStats stats = scheduler.getStats().getPriorities().get(Priority.POLLING);
+        assertEquals(1, stats.getDropped());
+        assertEquals(0, stats.getQueueDepth());
+    }
+
+    @Test
+    @DisplayName("Should run up to the concurrency limit at once")
+    void shouldRunUpToConcurrencyLimit() throws Exception {
+        RconCommandScheduler scheduler = new RconCommandScheduler(2, Map.of());
+        holdSlot(scheduler);
+
+        assertEquals("ok", scheduler.execute(Priority.POLLING, () -> "ok"));
+        assertEquals(1, scheduler.getStats().getInFlight());
+    }
+
+    @Test
+    @DisplayName("Should free the slot when the operation fails")
+    void shouldFreeSlotWhenOperationFails() throws IOException {
+        RconCommandScheduler scheduler = new RconCommandScheduler(1, Map.of());
+
+        assertThrows(IOException.class, () -> scheduler.execute(Priority.ADMIN, () -> {
+            throw new IOException("Connection refused");
+        }));
+
+        assertEquals(0, scheduler.getStats().getInFlight());
+        assertEquals("ok", scheduler.execute(Priority.ADMIN, () -> "ok"));
+    }
+}
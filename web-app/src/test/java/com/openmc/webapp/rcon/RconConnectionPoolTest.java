@@ -0,0 +1,115 @@
+package com.openmc.webapp.rcon;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RconConnectionPool Tests")
+class RconConnectionPoolTest {
+
+    private RconSimulator server;
+    private RconConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = RconSimulator.start("secret", command -> "ran " + command);
+        pool = new RconConnectionPool(() -> new RconClient("localhost", server.getPort(), "secret"), 2, 60000);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        pool.close();
+        server.close();
+    }
+
+    @Test
+    @DisplayName("Should reuse one connection for sequential commands")
+    void shouldReuseOneConnectionForSequentialCommands() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            assertEquals("ran list", pool.execute(client -> client.sendCommand("list")));
+        }
+
+        assertEquals(1, server.getConnectionCount());
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    @Test
+    @DisplayName("Should reconnect when pooled connection was dropped")
+    void shouldReconnectWhenPooledConnectionWasDropped() throws Exception {
+        pool.execute(client -> client.sendCommand("list"));
+        server.dropConnections();
+        Thread.sleep(50);
+
+        assertEquals("ran tps", pool.execute(client -> client.sendCommand("tps")));
+        assertEquals(2, server.getConnectionCount());
+    }
+
+    @Test
+    @DisplayName("Should not run an operation again once its command was sent")
+    void shouldNotRetryAfterCommandWasSent() throws IOException {
+        try (RconSimulator crashing = RconSimulator.builder().password("secret").dropAfterCommands(1)
+                .runBeforeDrop(true).responder(command -> "ran " + command).start()) {
+            RconConnectionPool crashingPool =
+                new RconConnectionPool(() -> new RconClient("localhost", crashing.getPort(), "secret"), 2, 60000);
+            crashingPool.execute(client -> client.sendCommand("list"));
+
+            assertThrows(IOException.class,
+                () -> crashingPool.execute(client -> client.sendCommand("give Steve diamond")));
+            assertEquals(2, crashing.getCommandCount());
+            assertEquals(1, crashing.getConnectionCount());
+            assertEquals(0, crashingPool.getIdleCount());
+            crashingPool.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should close a reused connection when an operation throws")
+    void shouldCloseConnectionOnRuntimeException() throws IOException {
+        pool.execute(client -> client.sendCommand("list"));
+
+        assertThrows(IllegalStateException.class, () -> pool.execute(client -> {
+            throw new IllegalStateException("broken consumer");
+        }));
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(1, server.getConnectionCount());
+    }
+
+    @Test
+    @DisplayName("Should open a fresh connection after idle timeout")
+    void shouldOpenFreshConnectionAfterIdleTimeout() throws Exception {
+        RconConnectionPool shortLivedPool =
+            new RconConnectionPool(() -> new RconClient("localhost", server.getPort(), "secret"), 2, 10);
+        shortLivedPool.execute(client -> client.sendCommand("list"));
+        Thread.sleep(30);
+
+        shortLivedPool.execute(client -> client.sendCommand("list"));
+
+        assertEquals(2, server.getConnectionCount());
+        shortLivedPool.close();
+    }
+
+    @Test
+    @DisplayName("Should propagate connection failures")
+    void shouldPropagateConnectionFailures() {
+        RconConnectionPool badPool =
+            new RconConnectionPool(() -> new RconClient("localhost", server.getPort(), "wrong"), 2, 60000);
+
+        assertThrows(IOException.class, () -> badPool.execute(client -> client.sendCommand("list")));
+        assertEquals(0, badPool.getIdleCount());
+    }
+
+    @Test
+    @DisplayName("Should close idle connections when pool is closed")
+    void shouldCloseIdleConnectionsWhenPoolIsClosed() throws IOException {
+        pool.execute(client -> client.sendCommand("list"));
+
+        pool.close();
+
+        assertEquals(0, pool.getIdleCount());
+    }
+}
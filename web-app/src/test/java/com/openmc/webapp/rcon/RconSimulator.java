@@ -0,0 +1,310 @@
+package com.openmc.webapp.rcon;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * RCON protocol simulator for tests and load tests. Speaks the protocol over a real
+ * socket on a free local port and answers commands from a script: exact responses for
+ * known commands, then a responder function for everything else.
+ *
+ * Long responses are split into 4096 byte packets like a Minecraft server. Optionally
+ * each reply is delayed by a latency plus random jitter, packets are written to the
+ * socket in small pieces, authentication is refused, or connections are dropped after
+ * a number of commands. Jitter comes from a seeded random per connection, so a run with
+ * the same seed and the same traffic produces the same delays.
+ */
+public class RconSimulator implements AutoCloseable {
+
+    static final int MAX_PAYLOAD = 4096;
+
+    private final ServerSocket serverSocket;
+    private final String password;
+    private final Map<String, String> responses;
+    private final Function<String, String> responder;
+    private final long latencyNanos;
+    private final long jitterNanos;
+    private final long seed;
+    private final int writeChunkSize;
+    private final int dropAfterCommands;
+    private final boolean runBeforeDrop;
+    private volatile boolean refuseAuth;
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final AtomicLong commandCount = new AtomicLong();
+    private final List<Socket> openSockets = new CopyOnWriteArrayList<>();
+
+    private RconSimulator(Builder builder) throws IOException {
+        this.password = builder.password;
+        this.responses = Map.copyOf(builder.responses);
+        this.responder = builder.responder;
+        this.latencyNanos = builder.latency.toNanos();
+        this.jitterNanos = builder.jitter.toNanos();
+        this.seed = builder.seed;
+        this.writeChunkSize = builder.writeChunkSize;
+        this.dropAfterCommands = builder.dropAfterCommands;
+        this.runBeforeDrop = builder.runBeforeDrop;
+        this.refuseAuth = builder.refuseAuth;
+        this.serverSocket = new ServerSocket(0, builder.backlog);
+        Thread acceptThread = new Thread(this::acceptLoop, "rcon-simulator-accept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * A simulator that accepts {@code password} and answers every command with the responder.
+     */
+    public static RconSimulator start(String password, Function<String, String> responder) throws IOException {
+        return builder().password(password).responder(responder).start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    public long getCommandCount() {
+        return commandCount.get();
+    }
+
+    /**
+     * Refuse or accept authentication from now on, as if the password had been changed.
+     */
+    public void setRefuseAuth(boolean refuseAuth) {
+        this.refuseAuth = refuseAuth;
+    }
+
+    /**
+     * Close every client connection, as a restarted server would.
+     */
+    public void dropConnections() throws IOException {
+        for (Socket socket : openSockets) {
+            socket.close();
+        }
+        openSockets.clear();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                int connection = connectionCount.incrementAndGet();
+                openSockets.add(socket);
+                Thread.ofVirtual().name("rcon-simulator-" + connection).start(() -> handle(socket, connection));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void handle(Socket socket, int connection) {
+        Random random = new Random(seed + connection);
+        int commandsOnConnection = 0;
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+            while (true) {
+                int size = readInt(in);
+                int id = readInt(in);
+                int type = readInt(in);
+                byte[] payload = new byte[size - 10];
+                in.readFully(payload);
+                in.readFully(new byte[2]);
+                String body = new String(payload, StandardCharsets.UTF_8);
+
+                if (type == 3) {
+                    writePacket(out, !refuseAuth && password.equals(body) ? id : -1, 2, new byte[0]);
+                } else if (type == 2) {
+                    if (dropAfterCommands > 0 && commandsOnConnection == dropAfterCommands) {
+                        // Drop without answering, like a server that crashed mid-command
+                        if (runBeforeDrop) {
+                            commandCount.incrementAndGet();
+                            respond(body);
+                        }
+                        return;
+                    }
+                    commandsOnConnection++;
+                    commandCount.incrementAndGet();
+                    pause(random);
+                    byte[] response = respond(body).getBytes(StandardCharsets.UTF_8);
+                    int offset = 0;
+                    do {
+                        int length = Math.min(MAX_PAYLOAD, response.length - offset);
+                        byte[] fragment = new byte[length];
+                        System.arraycopy(response, offset, fragment, 0, length);
+                        writePacket(out, id, 0, fragment);
+                        offset += length;
+                    } while (offset < response.length);
+                } else {
+                    writePacket(out, id, 0, ("Unknown request " + Integer.toHexString(type))
+                        .getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        } catch (IOException e) {
+            // Client went away
+        } finally {
+            openSockets.remove(socket);
+        }
+    }
+
+    private String respond(String command) {
+        String scripted = responses.get(command.trim());
+        return scripted != null ? scripted : responder.apply(command);
+    }
+
+    private void pause(Random random) {
+        long nanos = latencyNanos + (jitterNanos > 0 ? (long) (random.nextDouble() * jitterNanos) : 0);
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(Duration.ofNanos(nanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int readInt(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[4];
+        in.readFully(bytes);
+        return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).getInt();
+    }
+
+    private void writePacket(OutputStream out, int id, int type, byte[] payload) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(14 + payload.length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(10 + payload.length);
+        buffer.putInt(id);
+        buffer.putInt(type);
+        buffer.put(payload);
+        buffer.put((byte) 0);
+        buffer.put((byte) 0);
+        byte[] packet = buffer.array();
+        if (writeChunkSize <= 0) {
+            out.write(packet);
+            out.flush();
+            return;
+        }
+        // Separate flushed writes, so the client sees the packet arrive in pieces
+        for (int offset = 0; offset < packet.length; offset += writeChunkSize) {
+            out.write(packet, offset, Math.min(writeChunkSize, packet.length - offset));
+            out.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        dropConnections();
+    }
+
+    public static class Builder {
+        private String password = "minecraft";
+        private final Map<String, String> responses = new ConcurrentHashMap<>();
+        private Function<String, String> responder = command -> "Unknown or incomplete command, see below for error";
+        private Duration latency = Duration.ZERO;
+        private Duration jitter = Duration.ZERO;
+        private long seed = 42;
+        private int writeChunkSize;
+        private int dropAfterCommands;
+        private boolean runBeforeDrop;
+        private boolean refuseAuth;
+        private int backlog = 50;
+
+        public Builder password(String password) {
+            this.password = password;
+            return this;
+        }
+
+        /**
+         * Answer this exact command with a fixed response.
+         */
+        public Builder respond(String command, String response) {
+            responses.put(command, response);
+            return this;
+        }
+
+        /**
+         * Answer commands without a fixed response.
+         */
+        public Builder responder(Function<String, String> responder) {
+            this.responder = responder;
+            return this;
+        }
+
+        /**
+         * Delay each reply by {@code latency} plus a random share of {@code jitter}.
+         */
+        public Builder latency(Duration latency, Duration jitter) {
+            this.latency = latency;
+            this.jitter = jitter;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Write packets to the socket in pieces of this many bytes; 0 writes them whole.
+         */
+        public Builder writeChunkSize(int writeChunkSize) {
+            this.writeChunkSize = writeChunkSize;
+            return this;
+        }
+
+        /**
+         * Close each connection, without answering, when it sends its next command after
+         * this many; 0 keeps connections open.
+         */
+        public Builder dropAfterCommands(int dropAfterCommands) {
+            this.dropAfterCommands = dropAfterCommands;
+            return this;
+        }
+
+        /**
+         * Run the command that a connection is dropped on before dropping it, like a server
+         * that crashed after running it but before answering.
+         */
+        public Builder runBeforeDrop(boolean runBeforeDrop) {
+            this.runBeforeDrop = runBeforeDrop;
+            return this;
+        }
+
+        public Builder refuseAuth(boolean refuseAuth) {
+            this.refuseAuth = refuseAuth;
+            return this;
+        }
+
+        public Builder backlog(int backlog) {
+            this.backlog = backlog;
+            return this;
+        }
+
+        public RconSimulator start() throws IOException {
+            return new RconSimulator(this);
+        }
+    }
+}
@@ -3,10 +3,15 @@ package com.openmc.webapp.service;
 import com.openmc.webapp.config.ServerConfig;
 import com.openmc.webapp.model.ActivityTrackerStats;
 import com.openmc.webapp.model.LeaderboardEntry;
+import com.openmc.webapp.model.LogEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -101,4 +106,61 @@ class ActivityTrackerServiceTest {
             assertFalse(healthy);
         });
     }
+
+    @Test
+    @DisplayName("Should reuse cached stats within TTL")
+    void shouldReuseCachedStatsWithinTtl() {
+        serverConfig.setActivityTrackerEnabled(true);
+        serverConfig.setActivityTrackerUrl("http://localhost:1");
+        serverConfig.setActivityTrackerCacheTtlMs(60000);
+
+        activityTrackerService.getStats();
+        activityTrackerService.getStats();
+
+        assertEquals(1, activityTrackerService.getStatsVersion());
+        assertTrue(activityTrackerService.getStatsTtlRemainingMs() > 0);
+    }
+
+    @Test
+    @DisplayName("Should fetch again when cache is disabled")
+    void shouldFetchAgainWhenCacheIsDisabled() {
+        serverConfig.setActivityTrackerEnabled(true);
+        serverConfig.setActivityTrackerUrl("http://localhost:1");
+        serverConfig.setActivityTrackerCacheTtlMs(0);
+
+        activityTrackerService.getLeaderboard();
+        activityTrackerService.getLeaderboard();
+
+        assertEquals(2, activityTrackerService.getLeaderboardVersion());
+    }
+
+    @Test
+    @DisplayName("Should fall back to sessions tracked from the server log when the plugin is not configured")
+    void shouldFallBackToLocalSessions() throws IOException {
+        Path directory = Files.createTempDirectory("activity-fallback");
+        try {
+            serverConfig.setServerLogDir(directory.toString());
+            serverConfig.setSessionStoreFile(directory.resolve("sessions.dat").toString());
+            SessionTrackerService tracker = new SessionTrackerService(new ServerLogService(serverConfig), serverConfig,
+                () -> Instant.parse("2026-01-01T19:00:00Z"));
+            tracker.accept(new LogEvent(0, Instant.parse("2026-01-01T18:00:00Z"), "INFO", "Server thread",
+                "Steve joined the game"));
+            ActivityTrackerService service = new ActivityTrackerService(serverConfig, tracker);
+
+            assertFalse(service.isEnabled());
+            assertTrue(service.isAvailable());
+            assertEquals("log", service.getSource());
+            assertEquals(1, service.getStats().getUniqueLogins());
+            assertEquals(1.0, service.getLeaderboard().get(0).getHoursPlayed(), 0.001);
+            assertEquals(tracker.getVersion(), service.getLeaderboardVersion());
+
+            serverConfig.setActivityTrackerEnabled(true);
+            serverConfig.setActivityTrackerUrl("http://localhost:1");
+            assertEquals("plugin", service.getSource());
+            tracker.shutdown();
+        } finally {
+            Files.deleteIfExists(directory.resolve("sessions.dat"));
+            Files.deleteIfExists(directory);
+        }
+    }
 }
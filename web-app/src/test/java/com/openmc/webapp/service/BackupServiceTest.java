@@ -0,0 +1,337 @@
+package com.openmc.webapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openmc.webapp.backup.BackupEngine;
+import com.openmc.webapp.backup.ChunkStore;
+import com.openmc.webapp.config.ServerConfig;
+import com.openmc.webapp.model.BackupSnapshot;
+import com.openmc.webapp.rcon.RconCommandScheduler.Priority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BackupService Tests")
+class BackupServiceTest {
+
+    private ServerConfig serverConfig;
+    private Path root;
+    private ExecutorService workers;
+    private BackupEngine engine;
+    private List<String> sentCommands;
+    private Map<String, String> responses;
+    private Instant now;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = Files.createTempDirectory("backup-service");
+        serverConfig = new ServerConfig();
+        serverConfig.setHost("localhost");
+        serverConfig.setRconPort(1);
+        serverConfig.setBackupSourceDir(Files.createDirectories(root.resolve("server")).toString());
+        serverConfig.setBackupRestoreDir(root.resolve("restores").toString());
+        serverConfig.setBackupArchiveDir(root.resolve("archives").toString());
+        Files.writeString(root.resolve("server/server.properties"), "motd=A Minecraft Server\n");
+        Files.createDirectories(root.resolve("server/logs"));
+        Files.writeString(root.resolve("server/logs/latest.log"), "[Server thread/INFO]: Done");
+
+        workers = Executors.newFixedThreadPool(2);
+        engine = new BackupEngine(root.resolve("repository"), new ObjectMapper().findAndRegisterModules(), 1);
+        sentCommands = new CopyOnWriteArrayList<>();
+        responses = new HashMap<>();
+        responses.put("save-off", "Automatic saving is now disabled");
+        responses.put("save-all flush", "Saved the game");
+        responses.put("save-on", "Automatic saving is now enabled");
+        now = Instant.parse("2026-03-01T03:59:00Z");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        workers.shutdownNow();
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private BackupService createService(Executor runner) {
+        RconService rconService = new RconService(serverConfig) {
+            @Override
+            public String sendCommand(String command, Priority priority) {
+                sentCommands.add(command);
+                return responses.getOrDefault(command, "Error: Connection refused");
+            }
+        };
+        return new BackupService(rconService, serverConfig, engine, runner, workers, workers, () -> now);
+    }
+
+    @Test
+    @DisplayName("Should pause and flush saving around the backup")
+    void shouldQuiesceAroundBackup() throws IOException {
+        BackupService service = createService(Runnable::run);
+
+        assertTrue(service.startBackup());
+
+        assertEquals(List.of("save-off", "save-all flush", "save-on"), sentCommands);
+        BackupService.Status status = service.getStatus();
+        assertEquals(BackupService.Operation.IDLE, status.getOperation());
+        assertNull(status.getLastError());
+        assertNotNull(status.getFinishedAt());
+        assertTrue(status.getLastSnapshot().isQuiesced());
+        assertEquals(1, status.getLastSnapshot().getFileCount(), "logs are excluded by default");
+        assertEquals(1, service.getSnapshots().size());
+    }
+
+    @Test
+    @DisplayName("Should still back up, marked as not quiesced, when saving cannot be paused")
+    void shouldBackUpWithoutQuiescingWhenServerUnreachable() {
+        responses.clear();
+        BackupService service = createService(Runnable::run);
+
+        assertTrue(service.startBackup());
+
+        assertEquals(List.of("save-off"), sentCommands);
+        BackupSnapshot snapshot = service.getStatus().getLastSnapshot();
+        assertNotNull(snapshot);
+        assertFalse(snapshot.isQuiesced());
+    }
+
+    @Test
+    @DisplayName("Should turn saving back on when the backup fails")
+    void shouldResumeSavingWhenBackupFails() {
+        serverConfig.setBackupSourceDir(root.resolve("missing").toString());
+        BackupService service = createService(Runnable::run);
+
+        assertTrue(service.startBackup());
+
+        assertEquals(List.of("save-off", "save-all flush", "save-on"), sentCommands);
+        assertNotNull(service.getStatus().getLastError());
+        assertNull(service.getStatus().getLastSnapshot());
+    }
+
+    @Test
+    @DisplayName("Should run one operation at a time")
+    void shouldRunOneOperationAtATime() throws IOException {
+        List<Runnable> queued = new ArrayList<>();
+        BackupService service = createService(queued::add);
+
+        assertTrue(service.startBackup());
+        assertEquals(BackupService.Operation.BACKUP, service.getStatus().getOperation());
+        assertFalse(service.startBackup());
+
+        queued.remove(0).run();
+        assertEquals(BackupService.Operation.IDLE, service.getStatus().getOperation());
+        String id = service.getSnapshots().get(0).getId();
+        assertTrue(service.startRestore(id));
+        assertFalse(service.startBackup());
+        queued.remove(0).run();
+
+        assertNull(service.getStatus().getLastError());
+        assertEquals(id, service.getStatus().getSnapshotId());
+        assertEquals("motd=A Minecraft Server\n",
+            Files.readString(root.resolve("restores").resolve(id).resolve("server.properties")));
+    }
+
+    @Test
+    @DisplayName("Should export a snapshot as an archive and restore it from there")
+    void shouldArchiveAndRestoreArchive() throws IOException {
+        BackupService service = createService(Runnable::run);
+        service.startBackup();
+        String id = service.getSnapshots().get(0).getId();
+
+        assertTrue(service.startArchive(id));
+
+        List<BackupService.Archive> archives = service.getArchives();
+        assertEquals(1, archives.size());
+        assertEquals(id + ".tar.gz", archives.get(0).getName());
+        assertNull(service.getStatus().getLastError());
+
+        assertTrue(service.startArchiveRestore(id + ".tar.gz"));
+
+        assertNull(service.getStatus().getLastError());
+        assertEquals("motd=A Minecraft Server\n",
+            Files.readString(root.resolve("restores").resolve(id).resolve("server.properties")));
+    }
+
+    @Test
+    @DisplayName("Should only accept plain .tar.gz names from the archive directory")
+    void shouldRejectUnsafeArchiveNames() {
+        BackupService service = createService(Runnable::run);
+
+        assertNull(service.archivePath("../secrets.tar.gz"));
+        assertNull(service.archivePath("backup.zip"));
+        assertNotNull(service.archivePath("20260101-000000.tar.gz"));
+        assertThrows(IllegalArgumentException.class, () -> service.startArchiveRestore("missing.tar.gz"));
+    }
+
+    @Test
+    @DisplayName("Should reject restoring an unknown snapshot")
+    void shouldRejectUnknownSnapshot() {
+        BackupService service = createService(Runnable::run);
+
+        assertThrows(IllegalArgumentException.class, () -> service.startRestore("20260101-000000"));
+        assertEquals(BackupService.Operation.IDLE, service.getStatus().getOperation());
+    }
+
+    @Test
+    @DisplayName("Should record verified backups with their phase durations in the history")
+    void shouldRecordHistory() throws IOException {
+        BackupService service = createService(Runnable::run);
+
+        service.startBackup();
+        String id = service.getSnapshots().get(0).getId();
+        assertTrue(service.startVerify(id));
+
+        List<BackupService.OperationRecord> history = service.getHistory();
+        assertEquals(2, history.size());
+        assertEquals(BackupService.Operation.VERIFY, history.get(0).getOperation());
+        assertEquals(BackupService.Operation.BACKUP, history.get(1).getOperation());
+        assertEquals(id, history.get(1).getSnapshotId());
+        assertEquals(List.of("backup", "verify"), List.copyOf(history.get(1).getPhaseDurationsMs().keySet()));
+        assertTrue(history.get(1).getBytesProcessed() > 0);
+        assertNull(history.get(0).getError());
+        assertTrue(service.getStatus().getProgress().isFinished());
+    }
+
+    @Test
+    @DisplayName("Should keep only the configured number of finished operations")
+    void shouldBoundHistory() {
+        serverConfig.setBackupHistorySize(2);
+        BackupService service = createService(Runnable::run);
+
+        for (int i = 0; i < 3; i++) {
+            service.startPrune();
+        }
+
+        assertEquals(2, service.getHistory().size());
+    }
+
+    @Test
+    @DisplayName("Should back up, apply retention and prune when the schedule comes due")
+    void shouldRunScheduledBackups() throws IOException {
+        serverConfig.setBackupCron("0 4 * * *");
+        serverConfig.setBackupKeepDaily(1);
+        serverConfig.setBackupKeepWeekly(0);
+        serverConfig.setBackupKeepMonthly(0);
+        BackupService service = createService(Runnable::run);
+        service.startBackup();
+
+        service.tick();
+        assertNotNull(service.getNextScheduledBackup());
+        assertEquals(1, service.getSnapshots().size());
+
+        now = service.getNextScheduledBackup();
+        service.tick();
+
+        assertEquals(1, service.getSnapshots().size(), "retention keeps the newest of the day");
+        BackupService.OperationRecord record = service.getHistory().get(0);
+        assertNull(record.getError());
+        assertEquals(List.of("backup", "verify", "retention", "prune"),
+            List.copyOf(record.getPhaseDurationsMs().keySet()));
+        assertTrue(service.getNextScheduledBackup().isAfter(now));
+    }
+
+    @Test
+    @DisplayName("Should skip a scheduled backup while another operation runs")
+    void shouldSkipScheduledBackupWhenBusy() {
+        serverConfig.setBackupCron("0 4 * * *");
+        List<Runnable> queued = new ArrayList<>();
+        BackupService service = createService(queued::add);
+        service.tick();
+        assertTrue(service.startPrune());
+
+        now = service.getNextScheduledBackup();
+        service.tick();
+
+        assertEquals(1, queued.size());
+        assertEquals(BackupService.Operation.PRUNE, service.getStatus().getOperation());
+    }
+
+    @Test
+    @DisplayName("Should not schedule backups without a valid cron expression")
+    void shouldIgnoreInvalidSchedule() {
+        serverConfig.setBackupCron("every day");
+        BackupService service = createService(Runnable::run);
+
+        service.tick();
+
+        assertNull(service.getNextScheduledBackup());
+    }
+
+    @Test
+    @DisplayName("Should write a checksum next to each archive and detect a damaged archive")
+    void shouldChecksumArchives() throws IOException {
+        BackupService service = createService(Runnable::run);
+        service.startBackup();
+        String id = service.getSnapshots().get(0).getId();
+        service.startArchive(id);
+
+        BackupService.Archive archive = service.getArchives().get(0);
+        Path file = root.resolve("archives").resolve(archive.getName());
+        byte[] content = Files.readAllBytes(file);
+        assertEquals(ChunkStore.hash(content, 0, content.length), archive.getSha256());
+        assertEquals(archive.getSha256() + "  " + archive.getName() + "\n",
+            Files.readString(file.resolveSibling(archive.getName() + ".sha256")));
+        assertEquals(List.of("archive", "verify"),
+            List.copyOf(service.getHistory().get(0).getPhaseDurationsMs().keySet()));
+
+        assertTrue(service.startArchiveVerify(archive.getName()));
+        assertNull(service.getStatus().getLastError());
+
+        content[content.length - 1] ^= 1;
+        Files.write(file, content);
+        assertTrue(service.startArchiveVerify(archive.getName()));
+        assertNotNull(service.getStatus().getLastError());
+    }
+
+    @Test
+    @DisplayName("Should stream the live server directory as a .tar.gz after flushing the world")
+    void shouldStreamServerArchive() throws IOException {
+        BackupService service = createService(Runnable::run);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(1, service.writeServerArchive(out, true));
+
+        assertEquals(List.of("save-all flush"), sentCommands);
+        Path target = root.resolve("extracted");
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(1, BackupEngine.extractArchive(in, target));
+        }
+        assertEquals("motd=A Minecraft Server\n", Files.readString(target.resolve("server.properties")));
+    }
+
+    @Test
+    @DisplayName("Should find only archives that exist in the archive directory")
+    void shouldFindArchives() throws IOException {
+        BackupService service = createService(Runnable::run);
+        service.startBackup();
+        String id = service.getSnapshots().get(0).getId();
+        service.startArchive(id);
+
+        assertEquals(root.resolve("archives").resolve(id + ".tar.gz"), service.findArchive(id + ".tar.gz"));
+        assertNull(service.findArchive("20260101-000000.tar.gz"));
+        assertNull(service.findArchive("../server/server.properties"));
+    }
+}
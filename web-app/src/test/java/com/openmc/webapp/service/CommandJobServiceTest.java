@@ -0,0 +1,141 @@
+package com.openmc.webapp.service;
+
+import com.openmc.webapp.config.ServerConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CommandJobService Tests")
+class CommandJobServiceTest {
+
+    private ServerConfig serverConfig;
+    private CountDownLatch release;
+    private ExecutorService workers;
+
+    @BeforeEach
+    void setUp() {
+        serverConfig = new ServerConfig();
+        serverConfig.setHost("localhost");
+        serverConfig.setRconPort(1);
+        release = new CountDownLatch(1);
+        workers = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        workers.shutdownNow();
+    }
+
+    private CommandJobService createService() {
+        return new CommandJobService(new RconService(serverConfig), serverConfig, workers);
+    }
+
+    private CommandJobService createBlockingService() {
+        RconService blockingRcon = new RconService(serverConfig) {
+            @Override
+            public String sendCommand(String command) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "done " + command;
+            }
+        };
+        return new CommandJobService(blockingRcon, serverConfig, workers);
+    }
+
+    private static void awaitFinished(CommandJobService.Job job) throws InterruptedException {
+        for (int i = 0; i < 200 && job.getFinishedAt() == null; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    @DisplayName("Should return a queued job immediately")
+    void shouldReturnQueuedJobImmediately() {
+        CommandJobService service = createBlockingService();
+
+        CommandJobService.Job job = service.submit("save-all flush");
+
+        assertNotNull(job.getId());
+        assertNotEquals(CommandJobService.JobStatus.SUCCEEDED, job.getStatus());
+        assertSame(job, service.getJob(job.getId()));
+    }
+
+    @Test
+    @DisplayName("Should store the result once the job finishes")
+    void shouldStoreResultOnceJobFinishes() throws InterruptedException {
+        CommandJobService service = createBlockingService();
+        CommandJobService.Job job = service.submit("save-all flush");
+
+        release.countDown();
+        awaitFinished(job);
+
+        assertEquals(CommandJobService.JobStatus.SUCCEEDED, job.getStatus());
+        assertEquals("done save-all flush", job.getOutput());
+        assertNotNull(job.getStartedAt());
+    }
+
+    @Test
+    @DisplayName("Should mark job failed when the server is unreachable")
+    void shouldMarkJobFailedWhenServerUnreachable() throws InterruptedException {
+        CommandJobService service = createService();
+
+        CommandJobService.Job job = service.submit("list");
+        awaitFinished(job);
+
+        assertEquals(CommandJobService.JobStatus.FAILED, job.getStatus());
+        assertTrue(job.getOutput().startsWith("Error: Unable to connect to server"));
+    }
+
+    @Test
+    @DisplayName("Should reject jobs when the queue is full")
+    void shouldRejectJobsWhenQueueIsFull() {
+        CommandJobService service = createBlockingService();
+        service.submit("first");
+        service.submit("second");
+
+        assertThrows(RejectedExecutionException.class, () -> service.submit("third"));
+        assertEquals(2, service.getStoredJobCount());
+    }
+
+    @Test
+    @DisplayName("Should evict the oldest finished job when the store is full")
+    void shouldEvictOldestFinishedJobWhenStoreIsFull() throws InterruptedException {
+        serverConfig.setCommandJobMaxStored(1);
+        CommandJobService service = createService();
+        CommandJobService.Job first = service.submit("list");
+        awaitFinished(first);
+
+        CommandJobService.Job second = service.submit("list");
+
+        assertNull(service.getJob(first.getId()));
+        assertSame(second, service.getJob(second.getId()));
+    }
+
+    @Test
+    @DisplayName("Should expire finished jobs after the result TTL")
+    void shouldExpireFinishedJobsAfterResultTtl() throws InterruptedException {
+        serverConfig.setCommandJobResultTtlMs(0);
+        CommandJobService service = createService();
+        CommandJobService.Job job = service.submit("list");
+        awaitFinished(job);
+        Thread.sleep(5);
+
+        service.evictExpiredJobs();
+
+        assertNull(service.getJob(job.getId()));
+    }
+}
@@ -0,0 +1,143 @@
+package com.openmc.webapp.service;
+
+import com.openmc.webapp.config.ServerConfig;
+import com.openmc.webapp.model.ActivityTrackerStats;
+import com.openmc.webapp.model.LeaderboardEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DashboardService Tests")
+class DashboardServiceTest {
+
+    private ServerConfig serverConfig;
+    private RconService rconService;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        serverConfig = new ServerConfig();
+        serverConfig.setHost("localhost");
+        serverConfig.setRconPort(1);
+        rconService = new RconService(serverConfig);
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private DashboardService createService(ActivityTrackerService activityTrackerService) {
+        return new DashboardService(rconService, activityTrackerService, serverConfig, executor);
+    }
+
+    @Test
+    @DisplayName("Should select every section when include is missing")
+    void shouldSelectEverySectionWhenIncludeIsMissing() {
+        DashboardService service = createService(new ActivityTrackerService(serverConfig));
+
+        assertEquals(service.getSectionNames(), service.parseInclude(null));
+        assertEquals(5, service.parseInclude(" ").size());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown sections")
+    void shouldRejectUnknownSections() {
+        DashboardService service = createService(new ActivityTrackerService(serverConfig));
+
+        assertThrows(IllegalArgumentException.class, () -> service.parseInclude("status,players"));
+    }
+
+    @Test
+    @DisplayName("Should return only the included sections")
+    void shouldReturnOnlyIncludedSections() {
+        DashboardService service = createService(new ActivityTrackerService(serverConfig));
+
+        DashboardService.Dashboard dashboard = service.assemble(service.parseInclude("history, status"));
+
+        assertEquals(Set.of("status", "history"), dashboard.getSections().keySet());
+        assertTrue(dashboard.isComplete());
+        assertNotNull(dashboard.getSections().get("status"));
+        // History is read after the status refresh, so it already holds that record
+        assertEquals(1, ((List<?>) dashboard.getSections().get("history")).size());
+    }
+
+    @Test
+    @DisplayName("Should return partial results when a section times out")
+    void shouldReturnPartialResultsWhenSectionTimesOut() {
+        serverConfig.setDashboardSectionTimeoutMs(50);
+        DashboardService service = createService(new ActivityTrackerService(serverConfig) {
+            @Override
+            public ActivityTrackerStats getStats() {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new ActivityTrackerStats();
+            }
+        });
+
+        DashboardService.Dashboard dashboard = service.assemble(service.parseInclude("stats,activityTrackerEnabled"));
+
+        assertFalse(dashboard.isComplete());
+        assertNull(dashboard.getSections().get("stats"));
+        assertTrue(dashboard.getErrors().get("stats").contains("Timed out"));
+        assertEquals(false, dashboard.getSections().get("activityTrackerEnabled"));
+    }
+
+    @Test
+    @DisplayName("Should report failing sections without dropping the others")
+    void shouldReportFailingSectionsWithoutDroppingOthers() {
+        DashboardService service = createService(new ActivityTrackerService(serverConfig) {
+            @Override
+            public List<LeaderboardEntry> getLeaderboard() {
+                throw new IllegalStateException("boom");
+            }
+        });
+
+        DashboardService.Dashboard dashboard = service.assemble(service.parseInclude("leaderboard,status"));
+
+        assertEquals("Failed: boom", dashboard.getErrors().get("leaderboard"));
+        assertNotNull(dashboard.getSections().get("status"));
+        assertFalse(dashboard.getErrors().containsKey("status"));
+    }
+
+    @Test
+    @DisplayName("Should reject sections at once while every worker and queue slot is busy")
+    void shouldRejectSectionsWhenWorkersAreBusy() throws InterruptedException {
+        serverConfig.setDashboardSectionTimeoutMs(5000);
+        executor.shutdownNow();
+        executor = DashboardService.createExecutor(serverConfig);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < DashboardService.WORKER_THREADS + DashboardService.QUEUE_CAPACITY; i++) {
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        DashboardService service = createService(new ActivityTrackerService(serverConfig));
+
+        long start = System.nanoTime();
+        DashboardService.Dashboard dashboard = service.assemble(service.parseInclude("stats,activityTrackerEnabled"));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        release.countDown();
+
+        assertTrue(elapsedMs < 1000, "took " + elapsedMs + " ms");
+        assertEquals("Rejected: dashboard workers are busy", dashboard.getErrors().get("stats"));
+        assertEquals("Rejected: dashboard workers are busy", dashboard.getErrors().get("activityTrackerEnabled"));
+    }
+}
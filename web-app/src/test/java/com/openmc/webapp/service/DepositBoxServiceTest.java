@@ -0,0 +1,134 @@
+package com.openmc.webapp.service;
+
+import com.openmc.webapp.config.ServerConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DepositBoxService Tests")
+class DepositBoxServiceTest {
+
+    private Path root;
+    private Path box;
+    private DepositBoxService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = Files.createTempDirectory("deposit-box");
+        box = Files.createDirectories(root.resolve("box"));
+        ServerConfig serverConfig = new ServerConfig();
+        serverConfig.setDepositBoxDir(box.toString());
+        service = new DepositBoxService(serverConfig);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static InputStream body(byte[] content, int from, int to) {
+        return new ByteArrayInputStream(Arrays.copyOfRange(content, from, to));
+    }
+
+    @Test
+    @DisplayName("Should list files in subdirectories by path")
+    void shouldListFiles() throws IOException {
+        Files.createDirectories(box.resolve("plugins"));
+        Files.writeString(box.resolve("plugins/example.jar"), "jar");
+        Files.writeString(box.resolve("notes.txt"), "notes");
+
+        List<DepositBoxService.DepositFile> files = service.listFiles();
+
+        assertEquals(List.of("notes.txt", "plugins/example.jar"),
+            files.stream().map(DepositBoxService.DepositFile::getPath).toList());
+        assertEquals(3, files.get(1).getSize());
+        assertFalse(files.get(1).isUploading());
+        assertEquals(box.resolve("notes.txt"), service.findFile("/notes.txt"));
+        assertNull(service.findFile("missing.txt"));
+        assertNull(service.findFile("plugins"));
+    }
+
+    @Test
+    @DisplayName("Should refuse paths that lead out of the deposit box")
+    void shouldRefusePathsOutsideBox() throws IOException {
+        Files.writeString(root.resolve("secret.txt"), "secret");
+        Files.createSymbolicLink(box.resolve("link"), root);
+
+        assertThrows(IllegalArgumentException.class, () -> service.findFile("../secret.txt"));
+        assertThrows(IllegalArgumentException.class, () -> service.findFile("plugins/../../secret.txt"));
+        assertThrows(IllegalArgumentException.class, () -> service.findFile(""));
+        assertThrows(IllegalArgumentException.class, () -> service.findFile("link/secret.txt"));
+        assertThrows(IllegalArgumentException.class,
+            () -> service.upload("link/new.txt", 0, 1, -1, new ByteArrayInputStream(new byte[1])));
+        assertFalse(Files.exists(root.resolve("new.txt")));
+    }
+
+    @Test
+    @DisplayName("Should upload a whole file and replace an existing one")
+    void shouldUploadWholeFile() throws IOException {
+        Files.writeString(box.resolve("world.zip"), "an older and longer file");
+
+        DepositBoxService.UploadResult result = service.upload("uploads/world.zip", 0, -1, -1,
+            new ByteArrayInputStream("new".getBytes()));
+        service.upload("world.zip", 0, 3, -1, new ByteArrayInputStream("new".getBytes()));
+
+        assertTrue(result.isComplete());
+        assertEquals("uploads/world.zip", result.getPath());
+        assertEquals(3, result.getSize());
+        assertEquals("new", Files.readString(box.resolve("uploads/world.zip")));
+        assertEquals("new", Files.readString(box.resolve("world.zip")));
+    }
+
+    @Test
+    @DisplayName("Should assemble an upload from pieces and resume after a short piece")
+    void shouldResumeUploadInPieces() throws IOException {
+        byte[] content = new byte[300_000];
+        new Random(7).nextBytes(content);
+
+        DepositBoxService.UploadResult first = service.upload("world.zip", 0, 100_000, content.length,
+            body(content, 0, 100_000));
+        assertFalse(first.isComplete());
+        assertEquals(100_000, first.getSize());
+        assertEquals(content.length, first.getTotal());
+
+        // The connection drops 50,000 bytes into the second piece
+        assertThrows(EOFException.class,
+            () -> service.upload("world.zip", 100_000, 100_000, content.length, body(content, 100_000, 150_000)));
+        assertEquals(150_000, service.uploadOffset("world.zip"));
+
+        DepositBoxService.UploadResult last = service.upload("world.zip", 150_000, 150_000, content.length,
+            body(content, 150_000, content.length));
+        assertTrue(last.isComplete());
+        assertArrayEquals(content, Files.readAllBytes(box.resolve("world.zip")));
+    }
+
+    @Test
+    @DisplayName("Should refuse a piece that starts past what has arrived")
+    void shouldRefuseGapInUpload() throws IOException {
+        service.upload("world.zip", 0, 10, 100, new ByteArrayInputStream(new byte[10]));
+
+        assertThrows(IllegalStateException.class,
+            () -> service.upload("world.zip", 20, 10, 100, new ByteArrayInputStream(new byte[10])));
+        assertEquals(10, service.uploadOffset("world.zip"));
+        assertEquals(0, service.uploadOffset("missing.zip"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.openmc.webapp.service;
+
+import com.openmc.webapp.config.ServerConfig;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("FlightRecorderService Tests")
+class FlightRecorderServiceTest {
+
+    private ServerConfig serverConfig;
+    private FlightRecorderService service;
+
+    @BeforeEach
+    void setUp() {
+        serverConfig = new ServerConfig();
+        service = new FlightRecorderService(serverConfig);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    @Test
+    @DisplayName("Should not record when disabled")
+    void shouldNotRecordWhenDisabled() {
+        serverConfig.setFlightRecorderEnabled(false);
+
+        service.start();
+
+        assertFalse(service.isRecording());
+        assertThrows(IllegalStateException.class, () -> service.dump(Duration.ofMinutes(1), OutputStream.nullOutputStream()));
+    }
+
+    @Test
+    @DisplayName("Should dump recent custom events as a .jfr file")
+    void shouldDumpRecentCustomEvents() throws IOException {
+        service.start();
+        assertTrue(service.isRecording());
+
+        PageRenderEvent event = new PageRenderEvent();
+        event.begin();
+        event.view = "public";
+        event.success = true;
+        event.commit();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.dump(Duration.ofMinutes(5), out);
+
+        Path file = Files.createTempFile("webapp", ".jfr");
+        try {
+            Files.write(file, out.toByteArray());
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            assertTrue(events.stream().anyMatch(recorded ->
+                recorded.getEventType().getName().equals("com.openmc.webapp.PageRender")
+                    && "public".equals(recorded.getString("view"))));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.openmc.webapp.service;
+
+import com.openmc.webapp.config.ServerConfig;
+import com.openmc.webapp.model.LagEvent;
+import com.openmc.webapp.model.LagSample;
+import com.openmc.webapp.model.LogEvent;
+import com.openmc.webapp.model.RetrievalRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LagMonitorService Tests")
+class LagMonitorServiceTest {
+
+    private static final Instant START = Instant.parse("2026-01-01T18:00:00Z");
+
+    private LagMonitorService service;
+
+    @BeforeEach
+    void setUp() {
+        ServerConfig serverConfig = new ServerConfig();
+        serverConfig.setLagHistorySize(3);
+        serverConfig.setServerLogDir("/nonexistent");
+        service = new LagMonitorService(new ServerLogService(serverConfig), serverConfig);
+    }
+
+    private void log(long secondsAfterStart, String level, String message) {
+        service.accept(new LogEvent(0, START.plusSeconds(secondsAfterStart), level, "Server thread", message));
+    }
+
+    private static String tickLag(long millis, long ticks) {
+        return "Can't keep up! Is the server overloaded? Running " + millis + "ms or " + ticks + " ticks behind";
+    }
+
+    private static RetrievalRecord record(long secondsAfterStart, String tps, int players) {
+        return new RetrievalRecord(START.plusSeconds(secondsAfterStart), true, players,
+            new RconService.ResourceUsage(tps, "1024MB", "2048MB", "1024MB", 50.0));
+    }
+
+    @Test
+    @DisplayName("Should keep only lag events, newest first, up to the history size")
+    void shouldKeepRecentLagEvents() {
+        log(10, "INFO", "Steve joined the game");
+        log(20, "WARN", tickLag(2100, 42));
+        log(30, "WARN", tickLag(2200, 44));
+        log(40, "WARN", tickLag(2300, 46));
+        log(50, "WARN", tickLag(2400, 48));
+
+        List<LagEvent> events = service.getEvents(START, START.plusSeconds(3600), 10);
+        assertEquals(List.of(2400L, 2300L, 2200L), events.stream().map(LagEvent::getMillis).toList());
+        assertEquals(4, service.getEventsDetected());
+        assertEquals(2, service.getEvents(START, START.plusSeconds(45), 10).size());
+        assertEquals(1, service.getEvents(START, START.plusSeconds(3600), 1).size());
+    }
+
+    @Test
+    @DisplayName("Should sum lag up per interval and estimate TPS from skipped ticks")
+    void shouldBuildSeries() {
+        log(5, "WARN", tickLag(2500, 50));
+        log(30, "WARN", tickLag(3000, 60));
+        log(70, "WARN", "[spark] GC pause of 850ms in G1 Old Generation");
+
+        List<LagSample> series = service.getSeries(START, START.plusSeconds(180), Duration.ofMinutes(1), List.of());
+
+        assertEquals(3, series.size());
+        LagSample first = series.get(0);
+        assertEquals(START, first.getStart());
+        assertEquals(2, first.getTickLagWarnings());
+        assertEquals(110, first.getTicksSkipped());
+        assertEquals(3000, first.getMaxMillisBehind());
+        assertEquals(18.17, first.getEstimatedTps(), 0.001);
+        assertEquals(1, series.get(1).getGcPauses());
+        assertEquals(850, series.get(1).getMaxGcPauseMillis());
+        assertEquals(20.0, series.get(2).getEstimatedTps(), 0.001);
+        assertNull(series.get(2).getRconTps());
+    }
+
+    @Test
+    @DisplayName("Should align intervals and merge the latest RCON status into each")
+    void shouldMergeStatusHistory() {
+        List<RetrievalRecord> history = List.of(
+            record(100, "19.5, 19.8, 20.0", 4),
+            record(70, "18.0, 19.0, 19.5", 3),
+            record(5, "N/A", 1));
+
+        List<LagSample> series = service.getSeries(START.plusSeconds(30), START.plusSeconds(120),
+            Duration.ofMinutes(1), history);
+
+        assertEquals(2, series.size());
+        assertEquals(START, series.get(0).getStart());
+        assertNull(series.get(0).getRconTps());
+        assertEquals(Integer.valueOf(1), series.get(0).getPlayerCount());
+        assertEquals(Double.valueOf(19.5), series.get(1).getRconTps());
+        assertEquals(Integer.valueOf(4), series.get(1).getPlayerCount());
+    }
+
+    @Test
+    @DisplayName("Should refuse ranges with too many intervals")
+    void shouldRefuseTooManyIntervals() {
+        assertThrows(IllegalArgumentException.class,
+            () -> service.getSeries(START, START.plus(Duration.ofDays(1)), Duration.ofSeconds(1), List.of()));
+        assertThrows(IllegalArgumentException.class,
+            () -> service.getSeries(START, START.plusSeconds(60), Duration.ZERO, List.of()));
+    }
+}
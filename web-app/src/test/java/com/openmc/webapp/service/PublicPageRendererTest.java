@@ -0,0 +1,103 @@
+package com.openmc.webapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openmc.webapp.config.ServerConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.IContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("PublicPageRenderer Tests")
+class PublicPageRendererTest {
+
+    private ServerConfig serverConfig;
+    private RconService rconService;
+    private AtomicInteger renderCount;
+    private PublicPageRenderer renderer;
+
+    @BeforeEach
+    void setUp() {
+        serverConfig = new ServerConfig();
+        serverConfig.setHost("localhost");
+        serverConfig.setRconPort(1);
+        serverConfig.setRefreshIntervalMs(60000);
+        rconService = new RconService(serverConfig);
+        renderCount = new AtomicInteger();
+
+        ITemplateEngine templateEngine = mock(ITemplateEngine.class);
+        when(templateEngine.process(anyString(), any(IContext.class))).thenAnswer(invocation -> {
+            renderCount.incrementAndGet();
+            String template = invocation.getArgument(0);
+            IContext context = invocation.getArgument(1);
+            RconService.ServerStatus status = (RconService.ServerStatus) context.getVariable("status");
+            return "<html>" + template + " " + status.getPlayerList() + " " + "x".repeat(1000) + "</html>";
+        });
+        renderer = new PublicPageRenderer(rconService, serverConfig, new ActivityTrackerService(serverConfig),
+            templateEngine, new SnapshotResponseCache(new ObjectMapper()));
+    }
+
+    @Test
+    @DisplayName("Should render the page once per snapshot")
+    void shouldRenderPageOncePerSnapshot() {
+        SnapshotResponseCache.CachedResponse first = renderer.render();
+        SnapshotResponseCache.CachedResponse second = renderer.render();
+
+        assertEquals(1, renderCount.get());
+        assertSame(first, second);
+        assertEquals(rconService.getSnapshotVersion(), first.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should render again when the snapshot changes")
+    void shouldRenderAgainWhenSnapshotChanges() throws InterruptedException {
+        serverConfig.setRefreshIntervalMs(1);
+        renderer.render();
+        Thread.sleep(10);
+
+        SnapshotResponseCache.CachedResponse page = renderer.render();
+
+        assertEquals(2, renderCount.get());
+        assertEquals(rconService.getSnapshotVersion(), page.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should keep a gzip encoding of the rendered page")
+    void shouldKeepGzipEncodingOfRenderedPage() throws IOException {
+        SnapshotResponseCache.CachedResponse page = renderer.render();
+
+        assertTrue(page.isCompressible());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(page.getGzipBody()))) {
+            assertArrayEquals(page.getBody(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    @DisplayName("Should expose the attributes the public template expects")
+    void shouldExposeAttributesPublicTemplateExpects() {
+        serverConfig.setDynmapUrl("http://map.example.com");
+        Instant fetchTime = Instant.now();
+
+        Map<String, Object> attributes = renderer.pageAttributes(rconService.getServerStatus(), fetchTime);
+
+        assertEquals("http://map.example.com", attributes.get("dynmapUrl"));
+        assertEquals(fetchTime, attributes.get("lastFetchTime"));
+        assertEquals(false, attributes.get("activityTrackerEnabled"));
+        assertTrue(attributes.containsKey("status"));
+        assertTrue(attributes.containsKey("bluemapUrl"));
+        assertTrue(attributes.containsKey("refreshIntervalMs"));
+    }
+}
@@ -0,0 +1,179 @@
+package com.openmc.webapp.service;
+
+import com.openmc.webapp.config.ServerConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RateLimiter Tests")
+class RateLimiterTest {
+
+    private ServerConfig serverConfig;
+    private AtomicLong clock;
+
+    @BeforeEach
+    void setUp() {
+        serverConfig = new ServerConfig();
+        serverConfig.setRateLimitCommandPerMinute(60);
+        serverConfig.setRateLimitCommandBurst(3);
+        serverConfig.setRateLimitGlobalRconPerMinute(0);
+        clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    }
+
+    private RateLimiter createLimiter() {
+        return new RateLimiter(serverConfig, clock::get);
+    }
+
+    private void advance(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    @Test
+    @DisplayName("Should admit a burst and then ask the client to wait")
+    void shouldAdmitBurstThenAskClientToWait() {
+        RateLimiter limiter = createLimiter();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire(RateLimiter.Budget.COMMAND, "10.0.0.1"));
+        }
+        long retryAfterMs = limiter.tryAcquire(RateLimiter.Budget.COMMAND, "10.0.0.1");
+
+        assertEquals(1000, retryAfterMs);
+    }
+
+    @Test
+    @DisplayName("Should refill tokens over time")
+    void shouldRefillTokensOverTime() {
+        RateLimiter limiter = createLimiter();
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(RateLimiter.Budget.COMMAND, "10.0.0.1");
+        }
+
+        advance(1000);
+
+        assertEquals(0, limiter.tryAcquire(RateLimiter.Budget.COMMAND, "10.0.0.1"));
+        assertTrue(limiter.tryAcquire(RateLimiter.Budget.COMMAND, "10.0.0.1") > 0);
+    }
+
+    @Test
+    @DisplayName("Should keep separate buckets per client and budget")
+    void shouldKeepSeparateBucketsPerClientAndBudget() {
+        RateLimiter limiter = createLimiter();
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(RateLimiter.Budget.COMMAND, "10.0.0.1");
+        }
+
+        assertEquals(0, limiter.tryAcquire(RateLimiter.Budget.COMMAND, "10.0.0.2"));
+        assertEquals(0, limiter.tryAcquire(RateLimiter.Budget.API, "10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("Should apply the global budget across clients")
+    void shouldApplyGlobalBudgetAcrossClients() {
+        serverConfig.setRateLimitGlobalRconPerMinute(60);
+        serverConfig.setRateLimitGlobalRconBurst(2);
+        RateLimiter limiter = createLimiter();
+
+        assertEquals(0, limiter.tryAcquire(RateLimiter.Budget.COMMAND, "10.0.0.1"));
+        assertEquals(0, limiter.tryAcquire(RateLimiter.Budget.RCON, "10.0.0.2"));
+
+        assertTrue(limiter.tryAcquire(RateLimiter.Budget.COMMAND, "10.0.0.3") > 0);
+        assertEquals(0, limiter.tryAcquire(RateLimiter.Budget.API, "10.0.0.3"));
+    }
+
+    @Test
+    @DisplayName("Should give the client its token back when the global budget refuses")
+    void shouldRefundClientTokenWhenGlobalBudgetRefuses() {
+        serverConfig.setRateLimitGlobalRconPerMinute(60);
+        serverConfig.setRateLimitGlobalRconBurst(1);
+        RateLimiter limiter = createLimiter();
+
+        assertEquals(0, limiter.tryAcquire(RateLimiter.Budget.COMMAND, "10.0.0.1"));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(1000, limiter.tryAcquire(RateLimiter.Budget.COMMAND, "10.0.0.2"));
+        }
+
+        // Every refusal came from the global budget, so 10.0.0.2 still has its own burst
+        assertEquals(0, limiter.retryAfterMs(RateLimiter.Budget.COMMAND, "10.0.0.2"));
+    }
+
+    @Test
+    @DisplayName("Should admit everything when disabled")
+    void shouldAdmitEverythingWhenDisabled() {
+        serverConfig.setRateLimitEnabled(false);
+        RateLimiter limiter = createLimiter();
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.tryAcquire(RateLimiter.Budget.COMMAND, "10.0.0.1"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should evict buckets once they have refilled")
+    void shouldEvictBucketsOnceRefilled() {
+        RateLimiter limiter = createLimiter();
+        limiter.tryAcquire(RateLimiter.Budget.COMMAND, "10.0.0.1");
+        limiter.tryAcquire(RateLimiter.Budget.API, "10.0.0.2");
+
+        limiter.evictIdleBuckets();
+        assertEquals(2, limiter.getTrackedBucketCount());
+
+        // The API bucket refills one token every 100 ms, the command bucket every second
+        advance(100);
+        limiter.evictIdleBuckets();
+        assertEquals(1, limiter.getTrackedBucketCount());
+
+        advance(900);
+        limiter.evictIdleBuckets();
+        assertEquals(0, limiter.getTrackedBucketCount());
+    }
+
+    @Test
+    @DisplayName("Should report the wait for a spent budget without taking a token")
+    void shouldReportRetryAfterWithoutTakingToken() {
+        serverConfig.setRateLimitLoginPerMinute(60);
+        serverConfig.setRateLimitLoginBurst(2);
+        RateLimiter limiter = createLimiter();
+
+        assertEquals(0, limiter.retryAfterMs(RateLimiter.Budget.LOGIN, "10.0.0.1"));
+        limiter.tryAcquire(RateLimiter.Budget.LOGIN, "10.0.0.1");
+        assertEquals(0, limiter.retryAfterMs(RateLimiter.Budget.LOGIN, "10.0.0.1"));
+        limiter.tryAcquire(RateLimiter.Budget.LOGIN, "10.0.0.1");
+
+        assertEquals(1000, limiter.retryAfterMs(RateLimiter.Budget.LOGIN, "10.0.0.1"));
+        assertEquals(1000, limiter.retryAfterMs(RateLimiter.Budget.LOGIN, "10.0.0.1"));
+        assertEquals(0, limiter.retryAfterMs(RateLimiter.Budget.LOGIN, "10.0.0.2"));
+    }
+
+    @Test
+    @DisplayName("Should charge one token per command in a batch")
+    void shouldChargeOneTokenPerBatchCommand() {
+        serverConfig.setRateLimitBatchCommandsPerMinute(60);
+        serverConfig.setRateLimitBatchCommandsBurst(10);
+        RateLimiter limiter = createLimiter();
+
+        assertEquals(0, limiter.tryAcquire(RateLimiter.Budget.BATCH, "10.0.0.1", 8));
+        assertEquals(1000, limiter.tryAcquire(RateLimiter.Budget.BATCH, "10.0.0.1", 3));
+        assertEquals(0, limiter.tryAcquire(RateLimiter.Budget.BATCH, "10.0.0.1", 2));
+    }
+
+    @Test
+    @DisplayName("Should admit a batch larger than the burst only from a full budget")
+    void shouldAdmitOversizedBatchOnlyFromFullBudget() {
+        serverConfig.setRateLimitBatchCommandsPerMinute(60);
+        serverConfig.setRateLimitBatchCommandsBurst(10);
+        RateLimiter limiter = createLimiter();
+
+        assertEquals(0, limiter.tryAcquire(RateLimiter.Budget.BATCH, "10.0.0.1", 50));
+        assertEquals(10000, limiter.tryAcquire(RateLimiter.Budget.BATCH, "10.0.0.1", 50));
+
+        advance(10000);
+
+        assertEquals(0, limiter.tryAcquire(RateLimiter.Budget.BATCH, "10.0.0.1", 50));
+    }
+}
@@ -0,0 +1,72 @@
+package com.openmc.webapp.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RconMetrics Tests")
+class RconMetricsTest {
+
+    private MeterRegistry registry;
+    private RconMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new RconMetrics(registry);
+    }
+
+    @Test
+    @DisplayName("Should record command latency and bytes by command name")
+    void shouldRecordCommandLatencyAndBytes() {
+        metrics.commandCompleted("/List uuids", TimeUnit.MILLISECONDS.toNanos(12), 24, 60, null);
+        metrics.commandCompleted("list", TimeUnit.MILLISECONDS.toNanos(8), 18, 40, null);
+
+        Timer timer = registry.get("rcon.command").tag("command", "list").tag("outcome", "success").timer();
+        assertEquals(2, timer.count());
+        assertEquals(20, timer.totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(42, registry.get("rcon.bytes").tag("command", "list").tag("direction", "sent").counter().count());
+        assertEquals(100, registry.get("rcon.bytes").tag("direction", "received").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should tag failures as timeouts or errors")
+    void shouldTagFailuresAsTimeoutsOrErrors() {
+        metrics.commandCompleted("tps", 1, 17, 0, new SocketTimeoutException("Read timed out"));
+        metrics.commandCompleted("tps", 1, 17, 0, new IOException("Connection reset"));
+
+        assertEquals(1, registry.get("rcon.command").tag("outcome", "timeout").timer().count());
+        assertEquals(1, registry.get("rcon.command").tag("outcome", "error").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should record connect and authentication outcomes")
+    void shouldRecordConnectAndAuthOutcomes() {
+        metrics.connected(TimeUnit.MILLISECONDS.toNanos(3), true);
+        metrics.authenticated(TimeUnit.MILLISECONDS.toNanos(2), false);
+
+        assertEquals(1, registry.get("rcon.connect").tag("outcome", "success").timer().count());
+        assertEquals(1, registry.get("rcon.auth").tag("outcome", "error").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should bound the number of command names used as tags")
+    void shouldBoundCommandNames() {
+        for (int i = 0; i < RconMetrics.MAX_COMMAND_NAMES; i++) {
+            assertEquals("cmd" + i, metrics.commandName("cmd" + i + " arg"));
+        }
+
+        assertEquals(RconMetrics.OTHER, metrics.commandName("one-too-many"));
+        assertEquals("cmd0", metrics.commandName("cmd0"));
+        assertEquals(RconMetrics.OTHER, metrics.commandName("§bad"));
+    }
+}
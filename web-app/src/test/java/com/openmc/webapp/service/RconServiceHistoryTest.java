@@ -6,7 +6,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -43,6 +50,64 @@ class RconServiceHistoryTest {
         assertNotNull(record.getResourceUsage());
     }
 
+    @Test
+    @DisplayName("Should hand out the status, history and version of one refresh together")
+    void shouldKeepSnapshotConsistent() throws InterruptedException {
+        assertEquals(0, rconService.getLatestSnapshot().getVersion());
+        assertNull(rconService.getLatestSnapshot().getStatus());
+        serverConfig.setRefreshIntervalMs(1);
+
+        RconService.Snapshot first = rconService.getSnapshot();
+        Thread.sleep(2);
+        RconService.Snapshot second = rconService.getSnapshot();
+
+        assertEquals(1, first.getVersion());
+        assertEquals(1, first.getHistory().size());
+        assertEquals(2, second.getVersion());
+        assertEquals(2, second.getHistory().size());
+        assertEquals(second.getFetchTime(), second.getHistory().get(0).getTimestamp());
+        assertNotSame(first.getStatus(), second.getStatus());
+        assertSame(second, rconService.getLatestSnapshot());
+    }
+
+    @Test
+    @DisplayName("Should refresh once when many callers find the snapshot expired together")
+    void shouldRefreshOnceForConcurrentCallers() throws Exception {
+        CountDownLatch refreshing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger refreshes = new AtomicInteger();
+        RconService slowService = new RconService(serverConfig) {
+            @Override
+            public ResourceUsage getResourceUsage() {
+                refreshes.incrementAndGet();
+                refreshing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new ResourceUsage("N/A", "N/A", "N/A", "N/A", 0.0);
+            }
+        };
+
+        List<Future<RconService.Snapshot>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(slowService::getSnapshot));
+            }
+            assertTrue(refreshing.await(5, TimeUnit.SECONDS));
+            Thread.sleep(50);
+            release.countDown();
+        }
+
+        assertEquals(1, refreshes.get());
+        for (Future<RconService.Snapshot> result : results) {
+            assertEquals(1, result.get().getVersion());
+        }
+        assertEquals(1, slowService.getRetrievalHistory().size());
+        assertEquals(1, slowService.getStatusCacheMisses());
+    }
+
     @Test
     @DisplayName("Should limit history to 10 entries")
     void shouldLimitHistoryToTenEntries() {
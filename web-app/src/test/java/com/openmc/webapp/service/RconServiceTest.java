@@ -1,13 +1,18 @@
 package com.openmc.webapp.service;
 
 import com.openmc.webapp.config.ServerConfig;
+import com.openmc.webapp.model.CommandResult;
+import com.openmc.webapp.rcon.RconSimulator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.io.IOException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -189,4 +194,110 @@ class RconServiceTest {
         assertEquals(firstFetchTime, secondFetchTime);
         assertSame(firstStatus, secondStatus);
     }
+
+    @Test
+    @DisplayName("Should stop a batch at the first failed command when asked")
+    void shouldStopBatchAtFirstFailedCommandWhenAsked() {
+        List<CommandResult> results = new ArrayList<>();
+
+        int executed = rconService.sendCommands(List.of("list", "tps", "say hi"), true, results::add);
+
+        assertEquals(1, executed);
+        assertEquals(1, results.size());
+        assertFalse(results.get(0).isSuccess());
+        assertTrue(results.get(0).getOutput().startsWith("Error: Unable to connect to server"));
+    }
+
+    @Test
+    @DisplayName("Should run every command in a batch without stopOnError")
+    void shouldRunEveryCommandInBatchWithoutStopOnError() {
+        List<CommandResult> results = new ArrayList<>();
+
+        int executed = rconService.sendCommands(List.of("list", "tps", "say hi"), false, results::add);
+
+        assertEquals(3, executed);
+        assertEquals(List.of(0, 1, 2), results.stream().map(CommandResult::getIndex).toList());
+        assertEquals("say hi", results.get(2).getCommand());
+    }
+
+    @Test
+    @DisplayName("Should recognise server error replies")
+    void shouldRecogniseServerErrorReplies() {
+        assertTrue(RconService.isCommandError("Unknown or incomplete command, see below for error"));
+        assertTrue(RconService.isCommandError("Incorrect argument for command"));
+        assertTrue(RconService.isCommandError("whitelist ad<--[HERE]"));
+        assertFalse(RconService.isCommandError("Added Steve to the whitelist"));
+    }
+
+    private RconService serviceFor(RconSimulator simulator) {
+        ServerConfig config = new ServerConfig();
+        config.setHost("localhost");
+        config.setRconPort(simulator.getPort());
+        config.setRconPassword("secret");
+        return new RconService(config);
+    }
+
+    @Test
+    @DisplayName("Should read status from a server over a real RCON connection")
+    void shouldReadStatusOverRealConnection() throws IOException {
+        try (RconSimulator simulator = RconSimulator.builder().password("secret")
+                .respond("list", "There are 2 of a max of 20 players online: Alex, Steve")
+                .respond("tps", "§6TPS from last 1m, 5m, 15m: §a19.5, §a20.0, §a20.0")
+                .start()) {
+            RconService service = serviceFor(simulator);
+
+            RconService.ServerStatus status = service.getServerStatus();
+
+            assertTrue(status.isOnline());
+            assertTrue(status.getPlayerList().contains("Steve"));
+            assertEquals("19.5, 20.0, 20.0", service.getRetrievalHistory().get(0).getResourceUsage().getTps());
+            service.closeConnections();
+        }
+    }
+
+    @Test
+    @DisplayName("Should send a command on a fresh connection after the server closed the pooled one")
+    void shouldResendCommandAfterDroppedConnection() throws Exception {
+        try (RconSimulator simulator = RconSimulator.builder().password("secret")
+                .responder(command -> "ran " + command).start()) {
+            RconService service = serviceFor(simulator);
+
+            assertEquals("ran say one", service.sendCommand("say one"));
+            simulator.dropConnections();
+            Thread.sleep(50);
+            assertEquals("ran say two", service.sendCommand("say two"));
+            assertEquals(2, simulator.getConnectionCount());
+            assertEquals(2, simulator.getCommandCount());
+            service.closeConnections();
+        }
+    }
+
+    @Test
+    @DisplayName("Should not send a command again when the connection drops after sending it")
+    void shouldNotResendCommandTheServerMayHaveRun() throws IOException {
+        try (RconSimulator simulator = RconSimulator.builder().password("secret").dropAfterCommands(1)
+                .runBeforeDrop(true).responder(command -> "ran " + command).start()) {
+            RconService service = serviceFor(simulator);
+
+            assertEquals("ran say one", service.sendCommand("say one"));
+            assertTrue(service.sendCommand("give Steve diamond 64").startsWith("Error:"));
+            assertEquals(2, simulator.getCommandCount());
+            assertEquals(1, simulator.getConnectionCount());
+
+            assertEquals("ran say three", service.sendCommand("say three"));
+            assertEquals(3, simulator.getCommandCount());
+            service.closeConnections();
+        }
+    }
+
+    @Test
+    @DisplayName("Should return an error message when the server refuses the password")
+    void shouldReturnErrorWhenAuthenticationIsRefused() throws IOException {
+        try (RconSimulator simulator = RconSimulator.builder().password("secret").refuseAuth(true).start()) {
+            RconService service = serviceFor(simulator);
+
+            assertEquals("Error: Unable to connect to server - Authentication failed", service.sendCommand("list"));
+            assertEquals(0, simulator.getCommandCount());
+        }
+    }
 }
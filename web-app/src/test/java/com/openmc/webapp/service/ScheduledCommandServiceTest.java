@@ -0,0 +1,245 @@
+package com.openmc.webapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openmc.webapp.config.ServerConfig;
+import com.openmc.webapp.model.ScheduledCommand;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ScheduledCommandService Tests")
+class ScheduledCommandServiceTest {
+
+    private ServerConfig serverConfig;
+    private Path dataDir;
+    private AtomicReference<Instant> clock;
+    private List<String> sentCommands;
+    private CountDownLatch release;
+    private ExecutorService runners;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("schedules");
+        serverConfig = new ServerConfig();
+        serverConfig.setHost("localhost");
+        serverConfig.setRconPort(1);
+        serverConfig.setScheduledCommandsFile(dataDir.resolve("scheduled-commands.json").toString());
+        clock = new AtomicReference<>(Instant.parse("2026-01-01T00:00:00.500Z"));
+        sentCommands = new CopyOnWriteArrayList<>();
+        release = new CountDownLatch(0);
+        runners = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        release.countDown();
+        runners.shutdownNow();
+        try (Stream<Path> files = Files.walk(dataDir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private ScheduledCommandService createService() {
+        RconService rconService = new RconService(serverConfig) {
+            @Override
+            public String sendCommand(String command) {
+                sentCommands.add(command);
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "ran " + command;
+            }
+        };
+        return new ScheduledCommandService(rconService, serverConfig, objectMapper, runners, clock::get);
+    }
+
+    private static ScheduledCommand request(String cron, String command) {
+        ScheduledCommand request = new ScheduledCommand();
+        request.setName("test");
+        request.setCron(cron);
+        request.setCommand(command);
+        return request;
+    }
+
+    private void advanceTo(Instant instant) {
+        clock.set(instant);
+    }
+
+    private static void awaitRuns(ScheduledCommandService service, int count) throws InterruptedException {
+        for (int i = 0; i < 200 && service.getHistory(null, 100).size() < count; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject invalid cron expressions and empty commands")
+    void shouldRejectInvalidCronAndEmptyCommands() {
+        ScheduledCommandService service = createService();
+
+        assertThrows(IllegalArgumentException.class, () -> service.create(request("every day", "save-all")));
+        assertThrows(IllegalArgumentException.class, () -> service.create(request("0 * * * * *", " ")));
+        assertTrue(service.getSchedules().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should accept five-field crontab expressions")
+    void shouldAcceptFiveFieldCrontabExpressions() {
+        ScheduledCommandService service = createService();
+
+        ScheduledCommand schedule = service.create(request("*/5 * * * *", "save-all"));
+
+        assertNotNull(schedule.getId());
+        var next = schedule.getNextRunAt().atZone(ZoneId.systemDefault());
+        assertEquals(0, next.getSecond());
+        assertEquals(0, next.getMinute() % 5);
+        assertTrue(schedule.getNextRunAt().isAfter(clock.get()));
+    }
+
+    @Test
+    @DisplayName("Should run a due schedule and record it in the history")
+    void shouldRunDueScheduleAndRecordHistory() throws InterruptedException {
+        ScheduledCommandService service = createService();
+        ScheduledCommand schedule = service.create(request("0 * * * * *", "save-all"));
+
+        advanceTo(schedule.getNextRunAt());
+        service.tick();
+        awaitRuns(service, 1);
+
+        List<ScheduledCommandService.Run> runs = service.getHistory(null, 10);
+        assertEquals(1, runs.size());
+        assertEquals(ScheduledCommandService.RunOutcome.SUCCEEDED, runs.get(0).getOutcome());
+        assertEquals("ran save-all", runs.get(0).getOutput());
+        assertEquals(schedule.getNextRunAt(), runs.get(0).getScheduledFor());
+        ScheduledCommand updated = service.getSchedules().get(0);
+        assertNotNull(updated.getLastRunAt());
+        assertEquals(schedule.getNextRunAt().plus(Duration.ofMinutes(1)), updated.getNextRunAt());
+    }
+
+    @Test
+    @DisplayName("Should not run a schedule before it is due")
+    void shouldNotRunScheduleBeforeDue() {
+        ScheduledCommandService service = createService();
+        service.create(request("0 * * * * *", "save-all"));
+
+        service.tick();
+
+        assertTrue(sentCommands.isEmpty());
+        assertTrue(service.getHistory(null, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should skip a run while the previous one is still going")
+    void shouldSkipRunWhilePreviousIsRunning() throws InterruptedException {
+        release = new CountDownLatch(1);
+        ScheduledCommandService service = createService();
+        ScheduledCommand schedule = service.create(request("* * * * * *", "kill @e[type=item]"));
+
+        advanceTo(schedule.getNextRunAt());
+        service.tick();
+        for (int i = 0; i < 200 && sentCommands.isEmpty(); i++) {
+            Thread.sleep(10);
+        }
+        advanceTo(schedule.getNextRunAt().plusSeconds(1));
+        service.tick();
+
+        List<ScheduledCommandService.Run> runs = service.getHistory(schedule.getId(), 10);
+        assertEquals(1, runs.size());
+        assertEquals(ScheduledCommandService.RunOutcome.SKIPPED_RUNNING, runs.get(0).getOutcome());
+        assertEquals(1, sentCommands.size());
+        assertEquals(schedule.getId(), service.getRunningIds().iterator().next());
+
+        release.countDown();
+        awaitRuns(service, 2);
+        assertEquals(ScheduledCommandService.RunOutcome.SUCCEEDED, service.getHistory(null, 10).get(0).getOutcome());
+    }
+
+    @Test
+    @DisplayName("Should record a misfire instead of running with the SKIP policy")
+    void shouldRecordMisfireWithSkipPolicy() {
+        ScheduledCommandService service = createService();
+        ScheduledCommand request = request("0 * * * * *", "save-all");
+        request.setMisfirePolicy(ScheduledCommand.MisfirePolicy.SKIP);
+        ScheduledCommand schedule = service.create(request);
+
+        advanceTo(schedule.getNextRunAt().plus(Duration.ofMinutes(5)));
+        service.tick();
+
+        List<ScheduledCommandService.Run> runs = service.getHistory(null, 10);
+        assertEquals(1, runs.size());
+        assertEquals(ScheduledCommandService.RunOutcome.MISFIRED, runs.get(0).getOutcome());
+        assertTrue(sentCommands.isEmpty());
+        assertTrue(service.getSchedules().get(0).getNextRunAt().isAfter(clock.get()));
+    }
+
+    @Test
+    @DisplayName("Should run missed runs once with the RUN_ONCE policy")
+    void shouldRunMissedRunsOnceWithRunOncePolicy() throws InterruptedException {
+        ScheduledCommandService service = createService();
+        ScheduledCommand schedule = service.create(request("0 * * * * *", "save-all"));
+
+        advanceTo(schedule.getNextRunAt().plus(Duration.ofMinutes(5)));
+        service.tick();
+        service.tick();
+        awaitRuns(service, 1);
+
+        assertEquals(List.of("save-all"), sentCommands);
+        assertEquals(1, service.getHistory(null, 10).size());
+    }
+
+    @Test
+    @DisplayName("Should not run disabled schedules")
+    void shouldNotRunDisabledSchedules() {
+        ScheduledCommandService service = createService();
+        ScheduledCommand schedule = service.create(request("0 * * * * *", "save-all"));
+        ScheduledCommand disabled = request("0 * * * * *", "save-all");
+        disabled.setEnabled(false);
+        service.update(schedule.getId(), disabled);
+
+        advanceTo(schedule.getNextRunAt());
+        service.tick();
+
+        assertTrue(sentCommands.isEmpty());
+        assertNull(service.update("missing", disabled));
+        assertTrue(service.delete(schedule.getId()));
+        assertFalse(service.delete(schedule.getId()));
+    }
+
+    @Test
+    @DisplayName("Should load saved schedules with their next run time")
+    void shouldLoadSavedSchedules() {
+        ScheduledCommandService first = createService();
+        ScheduledCommand schedule = first.create(request("0 * * * * *", "save-all"));
+
+        ScheduledCommandService second = createService();
+        second.load();
+
+        List<ScheduledCommand> loaded = second.getSchedules();
+        assertEquals(1, loaded.size());
+        assertEquals(schedule.getId(), loaded.get(0).getId());
+        assertEquals(schedule.getNextRunAt(), loaded.get(0).getNextRunAt());
+    }
+}
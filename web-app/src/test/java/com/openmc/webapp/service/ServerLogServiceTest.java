@@ -0,0 +1,138 @@
+package com.openmc.webapp.service;
+
+import com.openmc.webapp.config.ServerConfig;
+import com.openmc.webapp.model.LogEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ServerLogService Tests")
+class ServerLogServiceTest {
+
+    private Path root;
+    private Path logs;
+    private ServerConfig serverConfig;
+    private ServerLogService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = Files.createTempDirectory("server-log");
+        logs = Files.createDirectories(root.resolve("logs"));
+        serverConfig = new ServerConfig();
+        serverConfig.setServerLogDir(logs.toString());
+        serverConfig.setLogIndexCapacity(1000);
+        serverConfig.setLogBackfillDays(2);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (service != null) {
+            service.shutdown();
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private ServerLogService createService() {
+        service = new ServerLogService(serverConfig, ZoneOffset.UTC, () -> Instant.parse("2026-01-10T12:00:00Z"));
+        return service;
+    }
+
+    private void writeArchive(String name, String content) throws IOException {
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(logs.resolve(name)))) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void appendLatest(String content) throws IOException {
+        Files.writeString(logs.resolve("latest.log"), content, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private static List<String> messages(List<LogEvent> events) {
+        return events.stream().map(LogEvent::getMessage).toList();
+    }
+
+    @Test
+    @DisplayName("Should index recent rotated logs in order and then follow latest.log")
+    void shouldBackfillThenTail() throws IOException {
+        writeArchive("2026-01-01-1.log.gz", "[10:00:00] [Server thread/INFO]: too old\n");
+        writeArchive("2026-01-09-2.log.gz", "[12:00:00] [Server thread/INFO]: second restart\n");
+        writeArchive("2026-01-09-1.log.gz", "[08:00:00] [Server thread/INFO]: first start\n");
+        appendLatest("[09:00:00] [Server thread/INFO]: Steve joined the game\n");
+        ServerLogService service = createService();
+        List<LogEvent> received = new ArrayList<>();
+        service.addListener(received::add);
+
+        service.poll();
+        service.poll();
+
+        assertEquals(List.of("first start", "second restart", "Steve joined the game"), messages(received));
+        assertEquals(Instant.parse("2026-01-09T08:00:00Z"), received.get(0).getTimestamp());
+        assertEquals(3, service.getStats().getEvents());
+
+        appendLatest("[09:05:00] [Server thread/INFO]: Steve left the game\n");
+        service.poll();
+        service.poll();
+
+        assertEquals(List.of("Steve left the game", "Steve joined the game"),
+            messages(service.search("steve", null, null, null, 10).getEvents()));
+        assertEquals(4, received.size());
+    }
+
+    @Test
+    @DisplayName("Should keep an event open while its stack trace is still arriving")
+    void shouldWaitForContinuationLines() throws IOException {
+        ServerLogService service = createService();
+        appendLatest("[09:00:00] [Server thread/ERROR]: Crash\n");
+        service.poll();
+        appendLatest("java.lang.IllegalStateException: boom\n");
+        service.poll();
+        service.poll();
+
+        List<LogEvent> events = service.search("boom", null, null, "ERROR", 10).getEvents();
+        assertEquals(1, events.size());
+        assertEquals("Crash\njava.lang.IllegalStateException: boom", events.get(0).getMessage());
+    }
+
+    @Test
+    @DisplayName("Should keep working when a listener fails or the log directory is missing")
+    void shouldSurviveFailures() throws IOException {
+        serverConfig.setServerLogDir(root.resolve("missing").toString());
+        ServerLogService missing = createService();
+        missing.poll();
+        assertEquals(0, missing.getStats().getEvents());
+        missing.shutdown();
+
+        serverConfig.setServerLogDir(logs.toString());
+        ServerLogService service = createService();
+        service.addListener(event -> {
+            throw new IllegalStateException("listener failed");
+        });
+        appendLatest("[09:00:00] [Server thread/INFO]: Done\n");
+        service.poll();
+        service.poll();
+
+        assertEquals(1, service.getStats().getEvents());
+    }
+}
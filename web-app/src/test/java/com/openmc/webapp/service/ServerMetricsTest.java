@@ -0,0 +1,89 @@
+package com.openmc.webapp.service;
+
+import com.openmc.webapp.config.ServerConfig;
+import com.openmc.webapp.model.RetrievalRecord;
+import com.openmc.webapp.model.StatusUpdate;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ServerMetrics Tests")
+class ServerMetricsTest {
+
+    private ServerConfig serverConfig;
+    private RconService rconService;
+    private MeterRegistry registry;
+    private ServerMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        serverConfig = new ServerConfig();
+        serverConfig.setHost("localhost");
+        serverConfig.setRconPort(1);
+        serverConfig.setMaxPlayers(20);
+        rconService = new RconService(serverConfig);
+        registry = new SimpleMeterRegistry();
+        metrics = new ServerMetrics(rconService, registry);
+    }
+
+    private double gauge(String name) {
+        return registry.get(name).gauge().value();
+    }
+
+    @Test
+    @DisplayName("Should publish TPS, players and memory from a status refresh")
+    void shouldPublishServerHealthFromStatusRefresh() {
+        RconService.ResourceUsage usage = new RconService.ResourceUsage("19.5, 19.9, 20.0", "1024MB", "2GB", "1024MB", 50.0);
+        RconService.ServerStatus status = new RconService.ServerStatus(serverConfig,
+            "There are 3 of a max of 20 players online: a, b, c", usage);
+
+        metrics.onStatusUpdate(new StatusUpdate(1, status, new RetrievalRecord(Instant.now(), true, 3, usage)));
+
+        assertEquals(1, gauge("minecraft.server.online"));
+        assertEquals(3, gauge("minecraft.players.online"));
+        assertEquals(20, gauge("minecraft.players.max"));
+        assertEquals(19.5, gauge("minecraft.tps"));
+        assertEquals(1024.0 * 1024 * 1024, gauge("minecraft.memory.used"));
+        assertEquals(2048.0 * 1024 * 1024, gauge("minecraft.memory.max"));
+    }
+
+    @Test
+    @DisplayName("Should report an unreachable server as offline with unknown health")
+    void shouldReportUnreachableServerAsOffline() {
+        rconService.getServerStatus();
+
+        assertEquals(0, gauge("minecraft.server.online"));
+        assertTrue(Double.isNaN(gauge("minecraft.tps")));
+        assertTrue(Double.isNaN(gauge("minecraft.players.online")));
+        assertTrue(gauge("status.cache.age") >= 0);
+    }
+
+    @Test
+    @DisplayName("Should count status cache hits and misses")
+    void shouldCountStatusCacheHitsAndMisses() {
+        assertTrue(Double.isNaN(gauge("status.cache.age")));
+
+        rconService.getServerStatus();
+        rconService.getServerStatus();
+
+        assertEquals(1, registry.get("status.cache.requests").tag("result", "miss").functionCounter().count());
+        assertEquals(1, registry.get("status.cache.requests").tag("result", "hit").functionCounter().count());
+        assertEquals(0, registry.get("rcon.scheduler.queue.depth").tag("priority", "polling").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should parse the one-minute TPS and leave unknown values as NaN")
+    void shouldParseTps() {
+        assertEquals(20.0, ServerMetrics.parseTps("20.0, 20.0, 20.0"));
+        assertEquals(18.25, ServerMetrics.parseTps("18.25"));
+        assertTrue(Double.isNaN(ServerMetrics.parseTps("N/A")));
+        assertTrue(Double.isNaN(ServerMetrics.parseMemoryBytes("N/A")));
+        assertTrue(Double.isNaN(ServerMetrics.parseMemoryBytes("unknown")));
+    }
+}
@@ -0,0 +1,131 @@
+package com.openmc.webapp.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SessionStore Tests")
+class SessionStoreTest {
+
+    private static final Instant JOINED = Instant.parse("2026-01-01T18:00:00Z");
+    private static final Instant LEFT = Instant.parse("2026-01-01T19:30:00Z");
+
+    private Path directory;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("session-store");
+        file = directory.resolve("data").resolve("sessions.dat");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static class Recorder implements SessionStore.Replay {
+        private final List<String> records = new ArrayList<>();
+
+        @Override
+        public void player(int id, String uuid, String name) {
+            records.add("player " + id + " " + uuid + " " + name);
+        }
+
+        @Override
+        public void join(int id, Instant time) {
+            records.add("join " + id + " " + time);
+        }
+
+        @Override
+        public void leave(int id, Instant time) {
+            records.add("leave " + id + " " + time);
+        }
+
+        @Override
+        public void stop(Instant time) {
+            records.add("stop " + time);
+        }
+    }
+
+    private List<String> reopen() throws IOException {
+        Recorder recorder = new Recorder();
+        try (SessionStore store = new SessionStore(file)) {
+            store.open(recorder);
+        }
+        return recorder.records;
+    }
+
+    @Test
+    @DisplayName("Should create the file on the first record and read records back in order")
+    void shouldReadBackRecords() throws IOException {
+        try (SessionStore store = new SessionStore(file)) {
+            store.open(new Recorder());
+            assertFalse(Files.exists(file));
+
+            store.addPlayer(0, "069a79f4-44e9-4726-a5be-fca90e38aaf5", "Steve");
+            store.addPlayer(1, null, "Alex");
+            store.addJoin(0, JOINED);
+            store.addLeave(0, LEFT);
+            store.addStop(LEFT);
+        }
+
+        assertEquals(List.of(
+            "player 0 069a79f4-44e9-4726-a5be-fca90e38aaf5 Steve",
+            "player 1 null Alex",
+            "join 0 " + JOINED,
+            "leave 0 " + LEFT,
+            "stop " + LEFT), reopen());
+    }
+
+    @Test
+    @DisplayName("Should cut off a half-written last record and keep appending after the rest")
+    void shouldRecoverFromTornRecord() throws IOException {
+        try (SessionStore store = new SessionStore(file)) {
+            store.open(new Recorder());
+            store.addPlayer(0, null, "Steve");
+            store.addJoin(0, JOINED);
+        }
+        long whole = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(whole - 5);
+        }
+
+        try (SessionStore store = new SessionStore(file)) {
+            Recorder recorder = new Recorder();
+            store.open(recorder);
+            assertEquals(List.of("player 0 null Steve"), recorder.records);
+            assertEquals(whole - 13, store.size());
+            store.addLeave(0, LEFT);
+        }
+
+        assertEquals(List.of("player 0 null Steve", "leave 0 " + LEFT), reopen());
+    }
+
+    @Test
+    @DisplayName("Should refuse files that are not session stores")
+    void shouldRefuseOtherFiles() throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "not a session store");
+
+        assertThrows(IOException.class, () -> new SessionStore(file).open(new Recorder()));
+    }
+}
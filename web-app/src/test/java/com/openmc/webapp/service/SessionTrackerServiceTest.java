@@ -0,0 +1,159 @@
+package com.openmc.webapp.service;
+
+import com.openmc.webapp.config.ServerConfig;
+import com.openmc.webapp.model.LeaderboardEntry;
+import com.openmc.webapp.model.LogEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SessionTrackerService Tests")
+class SessionTrackerServiceTest {
+
+    private static final Instant START = Instant.parse("2026-01-01T18:00:00Z");
+    private static final String STEVE_UUID = "069a79f4-44e9-4726-a5be-fca90e38aaf5";
+
+    private Path directory;
+    private ServerConfig serverConfig;
+    private Instant now = START;
+    private SessionTrackerService tracker;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("session-tracker");
+        serverConfig = new ServerConfig();
+        serverConfig.setServerLogDir(directory.resolve("logs").toString());
+        serverConfig.setSessionStoreFile(directory.resolve("sessions.dat").toString());
+        tracker = createTracker();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        tracker.shutdown();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private SessionTrackerService createTracker() {
+        return new SessionTrackerService(new ServerLogService(serverConfig), serverConfig, () -> now);
+    }
+
+    private void log(long minutesAfterStart, String thread, String message) {
+        tracker.accept(new LogEvent(0, START.plusSeconds(minutesAfterStart * 60), "INFO", thread, message));
+    }
+
+    private void joinSteve(long minutesAfterStart) {
+        log(minutesAfterStart, "User Authenticator #1", "UUID of player Steve is " + STEVE_UUID);
+        log(minutesAfterStart, "Server thread", "Steve joined the game");
+    }
+
+    private void playSessions() {
+        joinSteve(0);
+        log(0, "Server thread", "Alex joined the game");
+        log(30, "Server thread", "Alex left the game");
+        log(90, "Server thread", "Steve left the game");
+        joinSteve(120);
+    }
+
+    @Test
+    @DisplayName("Should total playtime and logins per player from join and leave messages")
+    void shouldTotalSessions() {
+        playSessions();
+        now = START.plusSeconds(150 * 60);
+
+        List<LeaderboardEntry> leaderboard = tracker.getLeaderboard();
+        assertEquals(2, leaderboard.size());
+        assertEquals("Steve", leaderboard.get(0).getPlayerName());
+        assertEquals(STEVE_UUID, leaderboard.get(0).getPlayerUuid());
+        assertEquals(2.0, leaderboard.get(0).getHoursPlayed(), 0.001);
+        assertEquals(2, leaderboard.get(0).getTotalLogins());
+        assertEquals("Alex", leaderboard.get(1).getPlayerName());
+        assertNull(leaderboard.get(1).getPlayerUuid());
+        assertEquals(0.5, leaderboard.get(1).getHoursPlayed(), 0.001);
+        assertEquals(2, tracker.getStats().getUniqueLogins());
+        assertEquals(3, tracker.getStats().getTotalLogins());
+        assertEquals(1, tracker.getOnlineCount());
+    }
+
+    @Test
+    @DisplayName("Should end open sessions when the server stops or restarts after a crash")
+    void shouldEndSessionsOnStopAndCrash() {
+        joinSteve(0);
+        log(60, "Server thread", "Stopping server");
+        joinSteve(70);
+        log(100, "Server thread", "Saving chunks for level 'ServerLevel[world]'/minecraft:overworld");
+        log(200, "Server thread", "Starting minecraft server version 1.20.4");
+        now = START.plusSeconds(300 * 60);
+
+        assertEquals(0, tracker.getOnlineCount());
+        assertEquals(1.5, tracker.getLeaderboard().get(0).getHoursPlayed(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should ignore chat and other messages that only look like joins")
+    void shouldIgnoreLookalikes() {
+        log(0, "Async Chat Thread - #0", "<Steve> Alex joined the game");
+        log(0, "Server thread", "[Server] Alex joined the game");
+        tracker.accept(new LogEvent(0, START, "WARN", "Server thread", "Alex joined the game"));
+
+        assertTrue(tracker.getLeaderboard().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should restore totals from the store and skip sessions read again from the log")
+    void shouldNotCountReplayedLogTwice() throws IOException {
+        playSessions();
+        tracker.shutdown();
+
+        tracker = createTracker();
+        // The app restarted and reads the same log again, then what came after
+        playSessions();
+        log(180, "Server thread", "Steve left the game");
+        now = START.plusSeconds(240 * 60);
+
+        List<LeaderboardEntry> leaderboard = tracker.getLeaderboard();
+        assertEquals(2.5, leaderboard.get(0).getHoursPlayed(), 0.001);
+        assertEquals(2, leaderboard.get(0).getTotalLogins());
+        assertEquals(0.5, leaderboard.get(1).getHoursPlayed(), 0.001);
+        assertEquals(0, tracker.getOnlineCount());
+    }
+
+    @Test
+    @DisplayName("Should change version on joins and leaves and every minute while anyone is online")
+    void shouldVersionChanges() {
+        long initial = tracker.getVersion();
+        joinSteve(0);
+        long joined = tracker.getVersion();
+        assertTrue(joined > initial);
+        assertEquals(joined, tracker.getVersion());
+
+        now = START.plusSeconds(61);
+        assertTrue(tracker.getVersion() > joined);
+        assertTrue(tracker.getMillisUntilChange() > 0);
+    }
+
+    @Test
+    @DisplayName("Should track nothing when disabled")
+    void shouldStayIdleWhenDisabled() throws IOException {
+        tracker.shutdown();
+        serverConfig.setSessionTrackerEnabled(false);
+        tracker = createTracker();
+
+        assertFalse(tracker.isEnabled());
+        assertFalse(Files.exists(directory.resolve("sessions.dat")));
+    }
+}
@@ -0,0 +1,101 @@
+package com.openmc.webapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SnapshotResponseCache Tests")
+class SnapshotResponseCacheTest {
+
+    private SnapshotResponseCache cache;
+    private AtomicInteger serializations;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SnapshotResponseCache(new ObjectMapper());
+        serializations = new AtomicInteger();
+    }
+
+    private Object body(String value) {
+        serializations.incrementAndGet();
+        return Map.of("value", value);
+    }
+
+    @Test
+    @DisplayName("Should serialize once per snapshot version")
+    void shouldSerializeOncePerSnapshotVersion() {
+        SnapshotResponseCache.CachedResponse first = cache.get("status", 1, () -> body("a"));
+        SnapshotResponseCache.CachedResponse second = cache.get("status", 1, () -> body("a"));
+
+        assertSame(first, second);
+        assertEquals(1, serializations.get());
+    }
+
+    @Test
+    @DisplayName("Should serialize again when version changes")
+    void shouldSerializeAgainWhenVersionChanges() {
+        SnapshotResponseCache.CachedResponse first = cache.get("status", 1, () -> body("a"));
+        SnapshotResponseCache.CachedResponse second = cache.get("status", 2, () -> body("b"));
+
+        assertEquals(2, serializations.get());
+        assertNotEquals(first.getEtag(), second.getEtag());
+    }
+
+    @Test
+    @DisplayName("Should keep ETag when new version has identical content")
+    void shouldKeepEtagWhenNewVersionHasIdenticalContent() {
+        SnapshotResponseCache.CachedResponse first = cache.get("status", 1, () -> body("a"));
+        SnapshotResponseCache.CachedResponse second = cache.get("status", 2, () -> body("a"));
+
+        assertEquals(first.getEtag(), second.getEtag());
+        assertEquals(2, second.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should not cache responses without a version")
+    void shouldNotCacheResponsesWithoutVersion() {
+        cache.get("enabled", 0, () -> body("a"));
+        cache.get("enabled", 0, () -> body("a"));
+
+        assertEquals(2, serializations.get());
+    }
+
+    @Test
+    @DisplayName("Should match If-None-Match headers")
+    void shouldMatchIfNoneMatchHeaders() {
+        SnapshotResponseCache.CachedResponse response = cache.get("status", 1, () -> body("a"));
+        String etag = response.getEtag();
+
+        assertTrue(etag.startsWith("W/\""));
+        assertTrue(response.matches(etag));
+        assertTrue(response.matches(etag.substring(2)));
+        assertTrue(response.matches("\"other\", " + etag));
+        assertTrue(response.matches("*"));
+        assertFalse(response.matches("\"other\""));
+        assertFalse(response.matches(null));
+    }
+
+    @Test
+    @DisplayName("Should compress body once and reuse it")
+    void shouldCompressBodyOnceAndReuseIt() throws IOException {
+        SnapshotResponseCache.CachedResponse response = cache.get("history", 1, () -> body("x".repeat(2000)));
+
+        byte[] gzip = response.getGzipBody();
+
+        assertTrue(response.isCompressible());
+        assertSame(gzip, response.getGzipBody());
+        assertTrue(gzip.length < response.getBody().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            assertArrayEquals(response.getBody(), in.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.openmc.webapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openmc.webapp.config.ServerConfig;
+import com.openmc.webapp.model.RetrievalRecord;
+import com.openmc.webapp.model.StatusUpdate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StatusStreamService Tests")
+class StatusStreamServiceTest {
+
+    private ServerConfig serverConfig;
+    private RconService rconService;
+    private List<RecordingEmitter> emitters;
+
+    @BeforeEach
+    void setUp() {
+        serverConfig = new ServerConfig();
+        rconService = new RconService(serverConfig);
+        emitters = new ArrayList<>();
+    }
+
+    private StatusStreamService createService(Executor executor) {
+        return new StatusStreamService(rconService, serverConfig, new ObjectMapper().findAndRegisterModules(), executor) {
+            @Override
+            SseEmitter createEmitter(long timeoutMs) {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    private StatusUpdate update(long version) {
+        RconService.ResourceUsage usage = new RconService.ResourceUsage("20.0", "1024MB", "2048MB", "1024MB", 50.0);
+        RconService.ServerStatus status = new RconService.ServerStatus(serverConfig, "There are 1 of a max of 20 players online", usage);
+        return new StatusUpdate(version, status, new RetrievalRecord(Instant.now(), true, 1, usage));
+    }
+
+    @Test
+    @DisplayName("Should push each broadcast to every subscriber")
+    void shouldPushBroadcastToEverySubscriber() {
+        StatusStreamService service = createService(Runnable::run);
+        service.subscribe(null);
+        service.subscribe(null);
+
+        service.broadcast(update(1));
+
+        assertEquals(2, service.getSubscriberCount());
+        for (RecordingEmitter emitter : emitters) {
+            assertEquals(1, emitter.events.size());
+            assertTrue(emitter.events.get(0).contains("id:1"));
+            assertTrue(emitter.events.get(0).contains("event:status"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should send latest snapshot to new subscribers")
+    void shouldSendLatestSnapshotToNewSubscribers() {
+        StatusStreamService service = createService(Runnable::run);
+        service.broadcast(update(1));
+        service.broadcast(update(2));
+
+        service.subscribe(null);
+
+        RecordingEmitter emitter = emitters.get(0);
+        assertEquals(1, emitter.events.size());
+        assertTrue(emitter.events.get(0).contains("id:2"));
+    }
+
+    @Test
+    @DisplayName("Should replay events newer than Last-Event-ID")
+    void shouldReplayEventsNewerThanLastEventId() {
+        StatusStreamService service = createService(Runnable::run);
+        service.broadcast(update(1));
+        service.broadcast(update(2));
+        service.broadcast(update(3));
+
+        service.subscribe("1");
+
+        RecordingEmitter emitter = emitters.get(0);
+        assertEquals(2, emitter.events.size());
+        assertTrue(emitter.events.get(0).contains("id:2"));
+        assertTrue(emitter.events.get(1).contains("id:3"));
+    }
+
+    @Test
+    @DisplayName("Should only replay up to the configured buffer size")
+    void shouldOnlyReplayUpToConfiguredBufferSize() {
+        serverConfig.setSseReplayBufferSize(2);
+        StatusStreamService service = createService(Runnable::run);
+        for (long version = 1; version <= 5; version++) {
+            service.broadcast(update(version));
+        }
+
+        service.subscribe("0");
+
+        RecordingEmitter emitter = emitters.get(0);
+        assertEquals(2, emitter.events.size());
+        assertTrue(emitter.events.get(0).contains("id:4"));
+    }
+
+    @Test
+    @DisplayName("Should send the latest snapshot for an id from before a restart")
+    void shouldSendLatestSnapshotForUnknownEventId() {
+        StatusStreamService service = createService(Runnable::run);
+        service.broadcast(update(1));
+        service.broadcast(update(2));
+
+        service.subscribe("250");
+
+        RecordingEmitter emitter = emitters.get(0);
+        assertEquals(1, emitter.events.size());
+        assertTrue(emitter.events.get(0).contains("id:2"));
+    }
+
+    @Test
+    @DisplayName("Should drop oldest events when a client falls behind")
+    void shouldDropOldestEventsWhenClientFallsBehind() {
+        serverConfig.setSseClientBufferSize(2);
+        Queue<Runnable> pendingTasks = new ArrayDeque<>();
+        StatusStreamService service = createService(pendingTasks::add);
+        service.subscribe(null);
+
+        for (long version = 1; version <= 5; version++) {
+            service.broadcast(update(version));
+        }
+        while (!pendingTasks.isEmpty()) {
+            pendingTasks.poll().run();
+        }
+
+        RecordingEmitter emitter = emitters.get(0);
+        assertEquals(2, emitter.events.size());
+        assertTrue(emitter.events.get(0).contains("id:4"));
+        assertTrue(emitter.events.get(1).contains("id:5"));
+    }
+
+    @Test
+    @DisplayName("Should send heartbeat comments to idle subscribers")
+    void shouldSendHeartbeatCommentsToIdleSubscribers() {
+        StatusStreamService service = createService(Runnable::run);
+        service.subscribe(null);
+
+        service.sendHeartbeats();
+
+        RecordingEmitter emitter = emitters.get(0);
+        assertEquals(1, emitter.events.size());
+        assertTrue(emitter.events.get(0).contains(":heartbeat"));
+    }
+
+    @Test
+    @DisplayName("Should remove subscriber when sending fails")
+    void shouldRemoveSubscriberWhenSendingFails() {
+        StatusStreamService service = createService(Runnable::run);
+        service.subscribe(null);
+        emitters.get(0).failing = true;
+
+        service.broadcast(update(1));
+
+        assertEquals(0, service.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("Should keep pushing to other subscribers while one is blocked in a send")
+    void shouldNotLetBlockedSubscriberDelayOthers() throws InterruptedException {
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().factory());
+        StatusStreamService service = createService(executor);
+        try {
+            service.subscribe(null);
+            service.subscribe(null);
+            service.subscribe(null);
+            RecordingEmitter blocked = emitters.get(0);
+            blocked.release = new CountDownLatch(1);
+
+            service.broadcast(update(1));
+
+            assertTrue(blocked.sending.await(5, TimeUnit.SECONDS));
+            for (RecordingEmitter emitter : emitters.subList(1, emitters.size())) {
+                assertTrue(emitter.received.await(5, TimeUnit.SECONDS));
+            }
+            blocked.release.countDown();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop a subscriber whose send is blocked past the send timeout")
+    void shouldDropSubscriberBlockedPastSendTimeout() throws InterruptedException {
+        serverConfig.setSseSendTimeoutMs(1);
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().factory());
+        StatusStreamService service = createService(executor);
+        try {
+            service.subscribe(null);
+            service.subscribe(null);
+            RecordingEmitter blocked = emitters.get(0);
+            blocked.release = new CountDownLatch(1);
+            service.broadcast(update(1));
+            assertTrue(blocked.sending.await(5, TimeUnit.SECONDS));
+            assertTrue(emitters.get(1).received.await(5, TimeUnit.SECONDS));
+            Thread.sleep(20);
+
+            service.sendHeartbeats();
+
+            assertEquals(1, service.getSubscriberCount());
+            blocked.release.countDown();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should receive snapshots published by RconService")
+    void shouldReceiveSnapshotsPublishedByRconService() {
+        StatusStreamService service = createService(Runnable::run);
+        service.subscribe(null);
+
+        rconService.getServerStatus();
+
+        assertEquals(1, emitters.get(0).events.size());
+        assertTrue(emitters.get(0).events.get(0).contains("id:1"));
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch received = new CountDownLatch(1);
+        private volatile CountDownLatch release;
+        private boolean failing;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            sending.countDown();
+            if (release != null) {
+                try {
+                    // Stands in for a client that stopped reading
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted", e);
+                }
+            }
+            StringBuilder event = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                event.append(part.getData());
+            }
+            events.add(event.toString());
+            received.countDown();
+        }
+    }
+}
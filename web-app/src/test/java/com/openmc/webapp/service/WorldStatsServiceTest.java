@@ -0,0 +1,60 @@
+package com.openmc.webapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openmc.webapp.config.ServerConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("WorldStatsService Tests")
+class WorldStatsServiceTest {
+
+    private Path root;
+    private WorldStatsService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = Files.createTempDirectory("world-stats");
+        ServerConfig serverConfig = new ServerConfig();
+        serverConfig.setWorldDir(root.resolve("world").toString());
+        serverConfig.setUserCacheFile(root.resolve("usercache.json").toString());
+        service = new WorldStatsService(serverConfig, new ObjectMapper(), new ForkJoinPool(2), Instant::now);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        service.shutdown();
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should serve leaderboards from the index built by the last scan")
+    void shouldServeLeaderboards() throws IOException {
+        Path stats = Files.createDirectories(root.resolve("world/stats"));
+        Files.writeString(stats.resolve("069a79f4-44e9-4726-a5be-fca90e38aaf5.json"),
+            "{\"stats\":{\"minecraft:custom\":{\"minecraft:deaths\":4}}}");
+        assertNull(service.getLastScan());
+        assertThrows(IllegalArgumentException.class, () -> service.top("custom/deaths", 10));
+
+        service.scan();
+
+        assertEquals(1, service.getLastScan().getFiles());
+        assertEquals(4, service.top("custom/deaths", 10).get(0).getValue());
+        assertThrows(IllegalArgumentException.class, () -> service.top("custom/jump", 10));
+    }
+}
@@ -0,0 +1,65 @@
+package com.openmc.webapp.stats;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StatsFileParser Tests")
+class StatsFileParserTest {
+
+    static final String STATS = "{\"stats\":{"
+        + "\"minecraft:mined\":{\"minecraft:stone\":1000,\"minecraft:dirt\":24,\"create:brass_block\":3},"
+        + "\"minecraft:custom\":{\"minecraft:deaths\":7,\"minecraft:walk_one_cm\":50000,"
+        + "\"minecraft:sprint_one_cm\":25000,\"minecraft:play_time\":72000}},"
+        + "\"DataVersion\":3700}";
+
+    private final StatsFileParser parser = new StatsFileParser();
+
+    private PlayerStats parse(String json) throws IOException {
+        return parser.parse("uuid", new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("Should read every stat by category, without the minecraft namespace")
+    void shouldReadStats() throws IOException {
+        PlayerStats stats = parse(STATS);
+
+        assertEquals("uuid", stats.getUuid());
+        assertEquals(1000, stats.get("mined/stone"));
+        assertEquals(3, stats.get("mined/create:brass_block"));
+        assertEquals(7, stats.get("custom/deaths"));
+        assertEquals(72000, stats.get("custom/play_time"));
+        assertEquals(0, stats.get("mined/diamond_ore"));
+    }
+
+    @Test
+    @DisplayName("Should add category totals and the distance travelled")
+    void shouldAddTotals() throws IOException {
+        PlayerStats stats = parse(STATS);
+
+        assertEquals(1027, stats.get("mined/*"));
+        assertEquals(75000, stats.get(StatsFileParser.DISTANCE));
+        assertEquals(0, stats.get("custom/*"));
+    }
+
+    @Test
+    @DisplayName("Should share stat names between players")
+    void shouldShareNames() throws IOException {
+        PlayerStats first = parse(STATS);
+        PlayerStats second = parse(STATS);
+
+        assertSame(first.nameAt(0), second.nameAt(0));
+    }
+
+    @Test
+    @DisplayName("Should refuse files that are not stats files")
+    void shouldRefuseOtherFiles() {
+        assertThrows(IOException.class, () -> parse("[1, 2, 3]"));
+        assertThrows(IOException.class, () -> parse("{\"stats\":{\"minecraft:mined\":{\"minecraft:stone\":"));
+    }
+}
@@ -0,0 +1,70 @@
+package com.openmc.webapp.stats;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StatsIndex Tests")
+class StatsIndexTest {
+
+    private static PlayerStats player(String uuid, Object... statsAndValues) {
+        String[] names = new String[statsAndValues.length / 2];
+        long[] values = new long[names.length];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = (String) statsAndValues[2 * i];
+            values[i] = ((Number) statsAndValues[2 * i + 1]).longValue();
+        }
+        return new PlayerStats(uuid, names, values);
+    }
+
+    @Test
+    @DisplayName("Should rank players by one stat, leaving out those without it")
+    void shouldRankPlayers() {
+        Instant saved = Instant.parse("2026-01-01T18:00:00Z");
+        StatsIndex index = new StatsIndex(List.of(
+                player("a", "mined/*", 10, "custom/deaths", 3),
+                player("b", "mined/*", 30),
+                player("c", "mined/*", 20, "custom/deaths", 1),
+                player("d", "custom/deaths", 9)),
+            Map.of("a", "Alex", "b", "Steve"), Map.of("b", saved), saved);
+
+        List<StatsIndex.Entry> mined = index.top("mined/*", 10);
+        assertEquals(List.of("b", "c", "a"), mined.stream().map(StatsIndex.Entry::getPlayerUuid).toList());
+        assertEquals(1, mined.get(0).getRank());
+        assertEquals("Steve", mined.get(0).getPlayerName());
+        assertEquals(saved, mined.get(0).getLastSaved());
+        assertEquals(30, mined.get(0).getValue());
+        assertNull(mined.get(1).getPlayerName());
+
+        assertEquals(List.of("d", "a"), index.top("custom/deaths", 2).stream()
+            .map(StatsIndex.Entry::getPlayerUuid).toList());
+        assertTrue(index.top("killed/*", 10).isEmpty());
+        assertEquals(Map.of("custom/deaths", 3, "mined/*", 3), index.getStats());
+        assertEquals(4, index.getPlayerCount());
+    }
+
+    @Test
+    @DisplayName("Should find the same top entries as a full sort, breaking ties by row")
+    void shouldMatchFullSort() {
+        Random random = new Random(42);
+        List<PlayerStats> players = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            players.add(player(String.format("%05d", i), "mined/*", random.nextInt(1000)));
+        }
+        StatsIndex index = new StatsIndex(players, Map.of(), Map.of(), null);
+
+        List<PlayerStats> sorted = new ArrayList<>(players);
+        sorted.sort((a, b) -> a.get("mined/*") != b.get("mined/*")
+            ? Long.compare(b.get("mined/*"), a.get("mined/*"))
+            : a.getUuid().compareTo(b.getUuid()));
+        assertEquals(sorted.subList(0, 25).stream().map(PlayerStats::getUuid).toList(),
+            index.top("mined/*", 25).stream().map(StatsIndex.Entry::getPlayerUuid).toList());
+    }
+}
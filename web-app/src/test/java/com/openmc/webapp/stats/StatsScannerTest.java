@@ -0,0 +1,122 @@
+package com.openmc.webapp.stats;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StatsScanner Tests")
+class StatsScannerTest {
+
+    private static final String STEVE = "069a79f4-44e9-4726-a5be-fca90e38aaf5";
+    private static final String ALEX = "ec561538-f3fd-461d-aff5-086b22154bce";
+
+    private Path root;
+    private Path stats;
+    private ForkJoinPool pool;
+    private StatsScanner scanner;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = Files.createTempDirectory("stats-scanner");
+        stats = Files.createDirectories(root.resolve("world/stats"));
+        Files.createDirectories(root.resolve("world/playerdata"));
+        pool = new ForkJoinPool(4);
+        scanner = new StatsScanner(root.resolve("world"), root.resolve("usercache.json"), new ObjectMapper(), pool,
+            () -> Instant.parse("2026-01-01T18:00:00Z"));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        pool.shutdownNow();
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private void writeStats(String uuid, int stoneMined) throws IOException {
+        Files.writeString(stats.resolve(uuid + ".json"),
+            "{\"stats\":{\"minecraft:mined\":{\"minecraft:stone\":" + stoneMined + "}},\"DataVersion\":3700}");
+    }
+
+    @Test
+    @DisplayName("Should index every stats file with names from the user cache")
+    void shouldIndexStatsFiles() throws IOException {
+        writeStats(STEVE, 10);
+        writeStats(ALEX, 20);
+        Files.writeString(root.resolve("usercache.json"),
+            "[{\"name\":\"Steve\",\"uuid\":\"" + STEVE + "\",\"expiresOn\":\"2026-02-01 18:00:00 +0000\"}]");
+        Path playerdata = root.resolve("world/playerdata/" + STEVE + ".dat");
+        Files.write(playerdata, new byte[] {0});
+        Files.setLastModifiedTime(playerdata, FileTime.from(Instant.parse("2026-01-01T17:00:00Z")));
+
+        StatsScanner.ScanResult result = scanner.scan();
+
+        assertEquals(2, result.getFiles());
+        assertEquals(2, result.getParsed());
+        StatsIndex index = result.getIndex();
+        assertEquals(2, index.getPlayerCount());
+        StatsIndex.Entry steve = index.top("mined/stone", 2).get(1);
+        assertEquals(STEVE, steve.getPlayerUuid());
+        assertEquals("Steve", steve.getPlayerName());
+        assertEquals(Instant.parse("2026-01-01T17:00:00Z"), steve.getLastSaved());
+        assertEquals(Instant.parse("2026-01-01T18:00:00Z"), index.getScannedAt());
+    }
+
+    @Test
+    @DisplayName("Should read again only the files that changed, and drop removed ones")
+    void shouldScanIncrementally() throws IOException {
+        for (int i = 0; i < 100; i++) {
+            writeStats(String.format("00000000-0000-0000-0000-%012d", i), i);
+        }
+        assertEquals(100, scanner.scan().getParsed());
+
+        Path changed = stats.resolve("00000000-0000-0000-0000-000000000007.json");
+        writeStats("00000000-0000-0000-0000-000000000007", 5000);
+        Files.setLastModifiedTime(changed, FileTime.from(Instant.parse("2030-01-01T00:00:00Z")));
+        Files.delete(stats.resolve("00000000-0000-0000-0000-000000000099.json"));
+        StatsScanner.ScanResult result = scanner.scan();
+
+        assertEquals(1, result.getParsed());
+        assertEquals(99, result.getIndex().getPlayerCount());
+        assertEquals(5000, result.getIndex().top("mined/stone", 1).get(0).getValue());
+    }
+
+    @Test
+    @DisplayName("Should keep the last good stats of a file that cannot be read")
+    void shouldKeepLastGoodStats() throws IOException {
+        writeStats(STEVE, 10);
+        scanner.scan();
+        Path file = stats.resolve(STEVE + ".json");
+        Files.writeString(file, "{\"stats\":{\"minecraft:mined\":");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2030-01-01T00:00:00Z")));
+
+        StatsScanner.ScanResult result = scanner.scan();
+
+        assertEquals(1, result.getFailed());
+        assertEquals(10, result.getIndex().top("mined/stone", 1).get(0).getValue());
+    }
+
+    @Test
+    @DisplayName("Should build an empty index for a world without stats")
+    void shouldHandleMissingFolders() throws IOException {
+        StatsScanner empty = new StatsScanner(root.resolve("missing"), root.resolve("missing.json"),
+            new ObjectMapper(), pool, Instant::now);
+
+        assertEquals(0, empty.scan().getIndex().getPlayerCount());
+    }
+}
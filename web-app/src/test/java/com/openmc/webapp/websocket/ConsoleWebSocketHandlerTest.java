@@ -0,0 +1,166 @@
+package com.openmc.webapp.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openmc.webapp.config.ServerConfig;
+import com.openmc.webapp.service.RateLimiter;
+import com.openmc.webapp.service.RconService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ConsoleWebSocketHandler Tests")
+class ConsoleWebSocketHandlerTest {
+
+    private ServerConfig serverConfig;
+    private RconService rconService;
+    private WebSocketSession session;
+    private ConsoleWebSocketHandler handler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        serverConfig = new ServerConfig();
+        serverConfig.setAdminUsername("admin");
+        serverConfig.setAdminPassword("secret");
+        rconService = mock(RconService.class);
+        session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("session-1");
+        when(session.isOpen()).thenReturn(true);
+
+        handler = new ConsoleWebSocketHandler(rconService, serverConfig, new ObjectMapper(),
+            new RateLimiter(serverConfig), Runnable::run);
+        handler.afterConnectionEstablished(session);
+    }
+
+    private List<String> sentMessages() throws Exception {
+        ArgumentCaptor<TextMessage> captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session, atLeastOnce()).sendMessage(captor.capture());
+        return captor.getAllValues().stream().map(TextMessage::getPayload).toList();
+    }
+
+    @Test
+    @DisplayName("Should reject commands before authentication")
+    void shouldRejectCommandsBeforeAuthentication() throws Exception {
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"command\",\"id\":\"1\",\"command\":\"list\"}"));
+
+        assertTrue(sentMessages().get(0).contains("Not authenticated"));
+        verify(rconService, never()).sendCommand(anyString(), any(Consumer.class));
+    }
+
+    @Test
+    @DisplayName("Should acknowledge valid credentials")
+    void shouldAcknowledgeValidCredentials() throws Exception {
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"auth\",\"username\":\"admin\",\"password\":\"secret\"}"));
+
+        assertTrue(sentMessages().get(0).contains("\"success\":true"));
+    }
+
+    @Test
+    @DisplayName("Should close session after repeated failed logins")
+    void shouldCloseSessionAfterRepeatedFailedLogins() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            handler.handleTextMessage(session, new TextMessage("{\"type\":\"auth\",\"username\":\"admin\",\"password\":\"wrong\"}"));
+        }
+
+        verify(session).close(CloseStatus.POLICY_VIOLATION);
+    }
+
+    @Test
+    @DisplayName("Should refuse new connections from an address that spent its failed-login budget")
+    void shouldRefuseReconnectsAfterFailedLoginBudgetIsSpent() throws Exception {
+        serverConfig.setRateLimitLoginPerMinute(1);
+        serverConfig.setRateLimitLoginBurst(4);
+        handler = new ConsoleWebSocketHandler(rconService, serverConfig, new ObjectMapper(),
+            new RateLimiter(serverConfig), Runnable::run);
+        when(session.getRemoteAddress()).thenReturn(new InetSocketAddress("10.0.0.7", 50000));
+
+        // Reconnect after every third failure, as a guessing client would
+        for (int i = 0; i < 4; i++) {
+            handler.afterConnectionEstablished(session);
+            handler.handleTextMessage(session, new TextMessage("{\"type\":\"auth\",\"username\":\"admin\",\"password\":\"wrong\"}"));
+            if (i % 3 == 2) {
+                handler.afterConnectionClosed(session, CloseStatus.POLICY_VIOLATION);
+            }
+        }
+        handler.afterConnectionClosed(session, CloseStatus.POLICY_VIOLATION);
+        clearInvocations(session);
+
+        handler.afterConnectionEstablished(session);
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"auth\",\"username\":\"admin\",\"password\":\"secret\"}"));
+
+        verify(session).close(CloseStatus.POLICY_VIOLATION);
+        verify(session, never()).sendMessage(any());
+    }
+
+    @Test
+    @DisplayName("Should stream command output in chunks")
+    void shouldStreamCommandOutputInChunks() throws Exception {
+        serverConfig.setConsoleChunkSize(4);
+        when(rconService.sendCommand(eq("list"), any(Consumer.class))).thenAnswer(invocation -> {
+            Consumer<String> output = invocation.getArgument(1);
+            output.accept("0123456789");
+            return null;
+        });
+
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"auth\",\"username\":\"admin\",\"password\":\"secret\"}"));
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"command\",\"id\":\"7\",\"command\":\"list\"}"));
+
+        List<String> messages = sentMessages();
+        assertEquals(5, messages.size());
+        assertTrue(messages.get(1).contains("\"data\":\"0123\""));
+        assertTrue(messages.get(2).contains("\"data\":\"4567\""));
+        assertTrue(messages.get(3).contains("\"data\":\"89\""));
+        assertTrue(messages.get(4).contains("\"type\":\"done\""));
+        assertTrue(messages.get(4).contains("\"id\":\"7\""));
+    }
+
+    @Test
+    @DisplayName("Should report RCON errors in done message")
+    void shouldReportRconErrorsInDoneMessage() throws Exception {
+        when(rconService.sendCommand(eq("list"), any(Consumer.class))).thenReturn("Error: Unable to connect to server - refused");
+
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"auth\",\"username\":\"admin\",\"password\":\"secret\"}"));
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"command\",\"id\":\"1\",\"command\":\"list\"}"));
+
+        List<String> messages = sentMessages();
+        assertTrue(messages.get(messages.size() - 1).contains("Unable to connect to server"));
+    }
+
+    @Test
+    @DisplayName("Should rate limit commands beyond the command burst")
+    void shouldRateLimitCommandsBeyondCommandBurst() throws Exception {
+        serverConfig.setRateLimitCommandBurst(1);
+        handler = new ConsoleWebSocketHandler(rconService, serverConfig, new ObjectMapper(),
+            new RateLimiter(serverConfig), Runnable::run);
+        handler.afterConnectionEstablished(session);
+
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"auth\",\"username\":\"admin\",\"password\":\"secret\"}"));
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"command\",\"id\":\"1\",\"command\":\"list\"}"));
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"command\",\"id\":\"2\",\"command\":\"list\"}"));
+
+        List<String> messages = sentMessages();
+        assertTrue(messages.get(messages.size() - 1).contains("Too many commands"));
+        verify(rconService, times(1)).sendCommand(eq("list"), any(Consumer.class));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed messages")
+    void shouldRejectMalformedMessages() throws Exception {
+        handler.handleTextMessage(session, new TextMessage("not json"));
+
+        assertTrue(sentMessages().get(0).contains("Malformed message"));
+    }
+}
@@ -0,0 +1,31 @@
+package com.openmc.webapp.world;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes region files for tests: a header, and a sector of zeros for each chunk.
+ */
+final class RegionFiles {
+
+    private RegionFiles() {
+    }
+
+    /**
+     * Write a region file holding the chunks at {@code indexes}, saved at the matching
+     * {@code saves} in epoch seconds, plus {@code freeSectors} sectors no chunk uses.
+     */
+    static Path write(Path file, int[] indexes, long[] saves, int freeSectors) throws IOException {
+        int sectors = 2 + indexes.length + freeSectors;
+        ByteBuffer buffer = ByteBuffer.allocate(sectors * RegionSummary.SECTOR_SIZE);
+        for (int n = 0; n < indexes.length; n++) {
+            buffer.putInt(indexes[n] * 4, (2 + n) << 8 | 1);
+            buffer.putInt(RegionSummary.SECTOR_SIZE + indexes[n] * 4, (int) saves[n]);
+        }
+        Files.createDirectories(file.getParent());
+        Files.write(file, buffer.array());
+        return file;
+    }
+}
@@ -0,0 +1,96 @@
+package com.openmc.webapp.world;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RegionSummary Tests")
+class RegionSummaryTest {
+
+    private Path root;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = Files.createTempDirectory("region-summary");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static RegionSummary read(Path file) throws IOException {
+        return RegionSummary.read(file, Files.readAttributes(file, BasicFileAttributes.class));
+    }
+
+    @Test
+    @DisplayName("Should count chunks and used sectors from the header")
+    void shouldSummarizeHeader() throws IOException {
+        Path file = RegionFiles.write(root.resolve("r.-1.2.mca"),
+            new int[] {0, 33, 1023}, new long[] {1_700_000_300L, 1_700_000_100L, 1_700_000_200L}, 3);
+
+        RegionSummary summary = read(file);
+
+        assertEquals(-1, summary.getX());
+        assertEquals(2, summary.getZ());
+        assertEquals(3, summary.getChunks());
+        assertEquals(8L * RegionSummary.SECTOR_SIZE, summary.getFileSize());
+        assertEquals(5L * RegionSummary.SECTOR_SIZE, summary.getUsedBytes());
+        assertEquals(3L * RegionSummary.SECTOR_SIZE, summary.getFreeBytes());
+        assertEquals(Instant.ofEpochSecond(1_700_000_100L), summary.getOldestSave());
+        assertEquals(Instant.ofEpochSecond(1_700_000_300L), summary.getNewestSave());
+    }
+
+    @Test
+    @DisplayName("Should list the oldest chunks with their world coordinates")
+    void shouldListOldestChunks() throws IOException {
+        Path file = RegionFiles.write(root.resolve("r.-1.2.mca"),
+            new int[] {0, 33, 1023}, new long[] {1_700_000_300L, 1_700_000_100L, 1_700_000_200L}, 0);
+        RegionSummary summary = read(file);
+
+        long[] oldest = RegionSummary.readOldestChunks(file, 2);
+
+        assertEquals(2, oldest.length);
+        assertEquals(1_700_000_100L, oldest[0] >>> 10);
+        assertEquals(-32 + 1, summary.chunkX(oldest[0]));
+        assertEquals(64 + 1, summary.chunkZ(oldest[0]));
+        assertEquals(-32 + 31, summary.chunkX(oldest[1]));
+        assertEquals(64 + 31, summary.chunkZ(oldest[1]));
+    }
+
+    @Test
+    @DisplayName("Should treat files shorter than a header as empty regions")
+    void shouldHandleEmptyFiles() throws IOException {
+        Path file = Files.write(root.resolve("r.0.0.mca"), new byte[0]);
+
+        RegionSummary summary = read(file);
+
+        assertEquals(0, summary.getChunks());
+        assertNull(summary.getOldestSave());
+        assertEquals(0, RegionSummary.readOldestChunks(file, 10).length);
+    }
+
+    @Test
+    @DisplayName("Should recognise region file names")
+    void shouldRecogniseRegionFileNames() {
+        assertTrue(RegionSummary.isRegionFile("r.0.-12.mca"));
+        assertFalse(RegionSummary.isRegionFile("r.0.0.mcr"));
+        assertFalse(RegionSummary.isRegionFile("c.0.0.mcc"));
+        assertThrows(IllegalArgumentException.class, () -> read(Files.write(root.resolve("level.dat"), new byte[0])));
+    }
+}
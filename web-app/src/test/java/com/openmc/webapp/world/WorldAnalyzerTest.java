@@ -0,0 +1,139 @@
+package com.openmc.webapp.world;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("WorldAnalyzer Tests")
+class WorldAnalyzerTest {
+
+    private static final long T = 1_700_000_000L;
+
+    private Path root;
+    private Path world;
+    private ForkJoinPool pool;
+    private WorldAnalyzer analyzer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = Files.createTempDirectory("world-analyzer");
+        world = root.resolve("world");
+        pool = new ForkJoinPool(4);
+        analyzer = new WorldAnalyzer(world, pool, () -> Instant.ofEpochSecond(T + 100_000));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        pool.shutdownNow();
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should total each dimension, in vanilla and Bukkit layouts")
+    void shouldTotalDimensions() throws IOException {
+        RegionFiles.write(world.resolve("region/r.0.0.mca"), new int[] {0, 1}, new long[] {T, T + 10}, 1);
+        RegionFiles.write(world.resolve("region/r.1.0.mca"), new int[] {5}, new long[] {T + 20}, 0);
+        Files.write(Files.createDirectories(world.resolve("entities")).resolve("r.0.0.mca"), new byte[100]);
+        Files.write(Files.createDirectories(world.resolve("poi")).resolve("r.0.0.mca"), new byte[10]);
+        RegionFiles.write(root.resolve("world_nether/DIM-1/region/r.0.0.mca"), new int[] {7}, new long[] {T + 5}, 0);
+        RegionFiles.write(world.resolve("dimensions/example/mining/region/r.0.0.mca"), new int[] {0}, new long[] {T}, 0);
+        Files.write(world.resolve("region/r.0.0.mca.tmp"), new byte[10]);
+
+        WorldReport report = analyzer.analyze(10);
+
+        List<WorldReport.Dimension> dimensions = report.getDimensions();
+        assertEquals(List.of("minecraft:overworld", "minecraft:the_nether", "example:mining"),
+            dimensions.stream().map(WorldReport.Dimension::getName).toList());
+        WorldReport.Dimension overworld = dimensions.get(0);
+        assertEquals("world", overworld.getPath());
+        assertEquals(2, overworld.getRegionFiles());
+        assertEquals(3, overworld.getChunks());
+        assertEquals(8L * RegionSummary.SECTOR_SIZE, overworld.getRegionBytes());
+        assertEquals(RegionSummary.SECTOR_SIZE, overworld.getFreeBytes());
+        assertEquals(100, overworld.getEntitiesBytes());
+        assertEquals(10, overworld.getPoiBytes());
+        assertEquals(8L * RegionSummary.SECTOR_SIZE + 110, overworld.getTotalBytes());
+        assertEquals(Instant.ofEpochSecond(T), overworld.getOldestSave());
+        assertEquals(Instant.ofEpochSecond(T + 20), overworld.getNewestSave());
+        assertEquals("world_nether/DIM-1", dimensions.get(1).getPath().replace('\\', '/'));
+        assertEquals(6, report.getFiles());
+        assertEquals(4, report.getRead());
+    }
+
+    @Test
+    @DisplayName("Should rank regions by size and by their last save")
+    void shouldRankRegions() throws IOException {
+        RegionFiles.write(world.resolve("region/r.0.0.mca"), new int[] {0}, new long[] {T + 50}, 3);
+        RegionFiles.write(world.resolve("region/r.0.1.mca"), new int[] {0, 1}, new long[] {T, T + 30}, 0);
+        RegionFiles.write(world.resolve("region/r.0.2.mca"), new int[0], new long[0], 0);
+
+        WorldReport report = analyzer.analyze(2);
+
+        assertEquals(List.of(0, 1), report.getLargestRegions().stream().map(WorldReport.Region::getZ).toList());
+        assertEquals(List.of(1, 0), report.getStalestRegions().stream().map(WorldReport.Region::getZ).toList());
+        assertEquals(Instant.ofEpochSecond(T + 30), report.getStalestRegions().get(0).getNewestSave());
+    }
+
+    @Test
+    @DisplayName("Should find the oldest chunks across regions and dimensions")
+    void shouldFindOldestChunks() throws IOException {
+        RegionFiles.write(world.resolve("region/r.0.0.mca"), new int[] {0, 1, 2}, new long[] {T + 1, T + 4, T + 6}, 0);
+        RegionFiles.write(world.resolve("region/r.-1.0.mca"), new int[] {32, 64}, new long[] {T + 2, T + 5}, 0);
+        RegionFiles.write(world.resolve("DIM1/region/r.0.0.mca"), new int[] {3}, new long[] {T + 3}, 0);
+
+        List<WorldReport.Chunk> oldest = analyzer.analyze(4).getOldestChunks();
+
+        assertEquals(List.of(T + 1, T + 2, T + 3, T + 4),
+            oldest.stream().map(chunk -> chunk.getLastSaved().getEpochSecond()).toList());
+        assertEquals(-32, oldest.get(1).getX());
+        assertEquals(1, oldest.get(1).getZ());
+        assertEquals("minecraft:the_end", oldest.get(2).getDimension());
+        assertEquals(3, oldest.get(2).getX());
+    }
+
+    @Test
+    @DisplayName("Should read again only the regions that changed, and drop removed ones")
+    void shouldScanIncrementally() throws IOException {
+        for (int i = 0; i < 200; i++) {
+            RegionFiles.write(world.resolve("region/r." + i + ".0.mca"), new int[] {0}, new long[] {T + i}, 0);
+        }
+        assertEquals(200, analyzer.analyze(1).getRead());
+
+        Path changed = RegionFiles.write(world.resolve("region/r.7.0.mca"), new int[] {0, 1}, new long[] {T, T}, 0);
+        Files.setLastModifiedTime(changed, FileTime.from(Instant.parse("2030-01-01T00:00:00Z")));
+        Files.delete(world.resolve("region/r.199.0.mca"));
+        WorldReport report = analyzer.analyze(1);
+
+        assertEquals(1, report.getRead());
+        assertEquals(199, report.getDimensions().get(0).getRegionFiles());
+        assertEquals(200, report.getDimensions().get(0).getChunks());
+    }
+
+    @Test
+    @DisplayName("Should report nothing for a missing world, and refuse bad limits")
+    void shouldHandleMissingWorld() throws IOException {
+        WorldReport report = analyzer.analyze(10);
+
+        assertTrue(report.getDimensions().isEmpty());
+        assertEquals(0, report.getFiles());
+        assertThrows(IllegalArgumentException.class, () -> analyzer.analyze(-1));
+        assertThrows(IllegalArgumentException.class, () -> analyzer.analyze(WorldAnalyzer.MAX_LIMIT + 1));
+    }
+}